@@ -20,6 +20,8 @@ import com.achelos.task.xmlparser.configparsing.ConfigParser;
 import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigChecker;
 import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameter;
 import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameterNames;
+import com.achelos.task.configuration.ExecutionContext;
+import com.achelos.task.configuration.MICSConfigurationSnapshot;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.xmlparser.datastructures.mics.MICS;
 
@@ -69,7 +71,7 @@ public class TaskTestTool {
         // Parse the Test case definitions (Specifications in the xml format)
         // Parse the application specific profiles
         // Parse the TR specifications
-        micsVerifier = initializeMicsVerifier(specificationDir, configFile);
+        micsVerifier = initializeMicsVerifier(specificationDir, configFile, getSpecificationSnapshotFile());
         if (micsVerifier == null) {
             throw new Exception("Unable to initialize the MICS verifier.");
         }
@@ -345,14 +347,28 @@ public class TaskTestTool {
         var testSuite = new TestSuiteRun("TaSK TLS TestSuite", testRunPlanConfig.getTestCases());
 
         // Execute the test cases
-        var testCaseRunner = new TestCaseRunner();
+        var testCaseRunner = new TestCaseRunner(new ExecutionContext(testRunPlanConfig, logger));
         testCaseRunner.executeTestCases(testSuite);
 		if (testRunPlanConfig.getDutCallCommandGenerator() != null) {
 			testRunPlanConfig.getDutCallCommandGenerator().finalizeRMI();
 		}
     }
 
-    private static MICSVerifier initializeMicsVerifier(final File specificationDir, final File globalConfig) {
+    private File getSpecificationSnapshotFile() {
+        if (!GlobalConfigChecker.isGlobalConfigParameterSet(globalConfiguration,
+                GlobalConfigParameterNames.SpecificationSnapshotFile)) {
+            return null;
+        }
+        var snapshotPath = GlobalConfigChecker.getGlobalConfigParameter(globalConfiguration,
+                GlobalConfigParameterNames.SpecificationSnapshotFile).getValueAsString();
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return null;
+        }
+        return new File(snapshotPath);
+    }
+
+    private static MICSVerifier initializeMicsVerifier(final File specificationDir, final File globalConfig,
+            final File snapshotFile) {
         // Configuration Files
         // Application Specifications
         var applicationSpecificationList = new LinkedList<File>();
@@ -397,10 +413,10 @@ public class TaskTestTool {
         final var testProfiles = new File(specificationDir, "TestProfiles.xml");
         final var tlsConfigData = new File(specificationDir, "TlsConfigurationData.xml");
 
-        // Initialize the MICS verifier with these files.
-        MICSVerifier micsVerifier = new MICSVerifier(applicationSpecificationList,
-                applicationMappingList, testCasesDir, testProfiles, globalConfig,
-                tlsConfigData);
+        // Initialize the MICS verifier with these files, or with their unchanged snapshot.
+        var configuration = MICSConfigurationSnapshot.getConfiguration(snapshotFile, applicationSpecificationList,
+                applicationMappingList, testCasesDir, testProfiles, globalConfig, tlsConfigData);
+        MICSVerifier micsVerifier = new MICSVerifier(configuration);
 
         return micsVerifier;
     }
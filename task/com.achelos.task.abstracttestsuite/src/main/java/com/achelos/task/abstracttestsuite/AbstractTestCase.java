@@ -1,5 +1,6 @@
 package com.achelos.task.abstracttestsuite;
 
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.logging.BasicLogger;
 import com.achelos.task.logging.LoggingConnector;
@@ -45,6 +46,11 @@ public abstract class AbstractTestCase implements IStepExecution {
 		this.testCasePurpose = testCasePurpose;
 	}
 
+	/**
+	 * The execution context the test case is executed in.
+	 */
+	protected ExecutionContext context;
+
 	/**
 	 * Access to logger.
 	 */
@@ -56,12 +62,29 @@ public abstract class AbstractTestCase implements IStepExecution {
 	protected TestRunPlanConfiguration configuration;
 
 	/**
-	 * Performs basic test case initialization.
+	 * Performs basic test case initialization within the execution context bound to the current thread.
 	 */
 	public AbstractTestCase() {
+		this(ExecutionContext.current());
+	}
+
+	/**
+	 * Performs basic test case initialization within the given execution context.
+	 *
+	 * @param context the execution context the test case is executed in
+	 */
+	public AbstractTestCase(final ExecutionContext context) {
 		currentState = TestCaseState.IDLE;
-		logger = LoggingConnector.getInstance();
-		configuration = TestRunPlanConfiguration.getInstance();
+		this.context = context;
+		logger = context.getLogger();
+		configuration = context.getConfiguration();
+	}
+
+	/**
+	 * @return the execution context the test case is executed in.
+	 */
+	public final ExecutionContext getExecutionContext() {
+		return context;
 	}
 
 
@@ -4,10 +4,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
+import com.achelos.task.configuration.ExecutionContext;
+import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.logging.BasicLogger;
 import com.achelos.task.logging.LoggingConnector;
+import com.achelos.task.logging.LoggingConnector.ThreadLogScope;
 
 
 /**
@@ -15,23 +24,17 @@ import com.achelos.task.logging.LoggingConnector;
  */
 public final class ExecutionControl {
 
-	private static ExecutionControl instance;
+	private final ExecutionContext context;
 
 	/**
-	 * @return the ExecutionControl singleton instance.
+	 * Create an execution controller for the test cases of one test run.
+	 *
+	 * @param context the execution context the test cases are executed in
 	 */
-	public static ExecutionControl getInstance() {
-		if (instance == null) {
-			instance = new ExecutionControl();
-		}
-		return instance;
+	public ExecutionControl(final ExecutionContext context) {
+		this.context = context;
 	}
 
-	/**
-	 * Private constructor for the singleton class.
-	 */
-	private ExecutionControl() {}
-
 	/**
 	 * Create new {@link TestCaseRun} instance with a state {@link RunState#WAITING} for the given test case and test
 	 * session parameters.
@@ -46,10 +49,12 @@ public final class ExecutionControl {
 	}
 
 	/**
-	 * Queue the given test cases for execution.
+	 * Queue the given test cases for execution. Depending on the configured test case parallelism, the test cases are
+	 * either executed one after another or on a bounded worker pool.
 	 *
 	 * @param tcs the test cases to execute
 	 * @return list of test case runs if the test case execution is successfully queued, null otherwise.
+	 * @see TestRunPlanConfiguration#getTestCaseParallelism()
 	 */
 	public List<TestCaseRun> addAll(final Collection<AbstractTestCase> tcs) {
 		if (tcs == null || tcs.isEmpty()) {
@@ -68,7 +73,12 @@ public final class ExecutionControl {
 			// 3. Create execution job (and put it into the job group) for every test case run
 			run2tc.forEach((run, tc) -> executorJobs.add(createExecutorJob(tc, run)));
 			// 4. Start all the jobs
-			executorJobs.forEach(Runnable::run);
+			final int parallelism = getTestCaseParallelism();
+			if (parallelism > 1 && executorJobs.size() > 1) {
+				runConcurrently(executorJobs, parallelism);
+			} else {
+				executorJobs.forEach(Runnable::run);
+			}
 			return new ArrayList<>(run2tc.keySet());
 		} catch (Exception e) {
 			System.err.println("Couldn't queue test case executions" + e);
@@ -76,6 +86,70 @@ public final class ExecutionControl {
 		return null;
 	}
 
+	/**
+	 * Run the given jobs on a worker pool of the given size. The log output of every job is buffered and distributed
+	 * in the order of the given list, as soon as the job and all its predecessors have finished. Thus, the reports
+	 * contain the test cases in the same order as in a sequential execution.
+	 *
+	 * @param executorJobs the jobs to run
+	 * @param parallelism the maximum number of jobs running at the same time
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the jobs
+	 */
+	private void runConcurrently(final List<Runnable> executorJobs, final int parallelism)
+			throws InterruptedException {
+		final LoggingConnector logger = context.getLogger();
+		logger.info("TaSK: Executing " + executorJobs.size() + " test cases with a parallelism of " + parallelism
+				+ ".");
+		final AtomicInteger workerCount = new AtomicInteger();
+		final ExecutorService workerPool = Executors.newFixedThreadPool(parallelism, job -> {
+			final Thread worker = new Thread(job, "TestCaseWorker-" + workerCount.incrementAndGet());
+			worker.setDaemon(true);
+			return worker;
+		});
+		try {
+			final List<Future<?>> results = new ArrayList<>(executorJobs.size());
+			// The scopes are handed back separately, so that they are released even if their job has failed.
+			final List<AtomicReference<ThreadLogScope>> scopes = new ArrayList<>(executorJobs.size());
+			for (Runnable job : executorJobs) {
+				final AtomicReference<ThreadLogScope> scope = new AtomicReference<>();
+				scopes.add(scope);
+				results.add(workerPool.submit(() -> {
+					scope.set(logger.openThreadLogScope());
+					try {
+						job.run();
+					} finally {
+						logger.closeThreadLogScope();
+					}
+				}));
+			}
+			for (int i = 0; i < results.size(); i++) {
+				Throwable failure = null;
+				try {
+					results.get(i).get();
+				} catch (ExecutionException e) {
+					failure = e.getCause();
+				}
+				final ThreadLogScope scope = scopes.get(i).get();
+				if (scope != null) {
+					logger.releaseThreadLogScope(scope);
+				}
+				if (failure != null) {
+					logger.error("TaSK: Test case execution terminated unexpectedly.", failure);
+				}
+			}
+		} finally {
+			workerPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return the configured test case parallelism, or 1 if no test run plan configuration is available.
+	 */
+	private int getTestCaseParallelism() {
+		final TestRunPlanConfiguration configuration = context.getConfiguration();
+		return configuration != null ? configuration.getTestCaseParallelism() : 1;
+	}
+
 	/**
 	 * @param tc the test case to execute
 	 * @return test case run if the test case execution is successfully queued, null otherwise.
@@ -104,7 +178,7 @@ public final class ExecutionControl {
 			try {
 				if (RunState.isEnded(testCaseRun.getState())) {
 
-					var logger = LoggingConnector.getInstance();
+					var logger = context.getLogger();
 					logger.info("===============================================");
 					logger.info("Test case name: " + testCaseRun.getTestCaseName());
 					if (testCaseRun.getErrorCount() + testCaseRun.getFatalErrorCount() > 0) {
@@ -131,7 +205,7 @@ public final class ExecutionControl {
 
 		final Runnable executorJob
 				= new ExecutorJob("Execution of test case " + testCase.getTestCaseId(), testCase, testCaseRun,
-						testCaseRunSaver);
+						testCaseRunSaver, context);
 
 		return executorJob;
 	}
@@ -149,11 +223,12 @@ public final class ExecutionControl {
 		 * @param testCase The test case that will be executed
 		 * @param testCaseRun The test case run to store the execution results into
 		 * @param testCaseRunSaver Operation to persist changes to the given test case run
-		 * @see TestCaseExecutor#TestCaseExecutor(AbstractTestCase, TestCaseRun, Consumer)
+		 * @param context The execution context the test case is executed in
+		 * @see TestCaseExecutor#TestCaseExecutor(AbstractTestCase, TestCaseRun, Consumer, ExecutionContext)
 		 */
 		ExecutorJob(final String name, final AbstractTestCase testCase, final TestCaseRun testCaseRun,
-				final Consumer<TestCaseRun> testCaseRunSaver) {
-			executor = new TestCaseExecutor(testCase, testCaseRun, testCaseRunSaver);
+				final Consumer<TestCaseRun> testCaseRunSaver, final ExecutionContext context) {
+			executor = new TestCaseExecutor(testCase, testCaseRun, testCaseRunSaver, context);
 		}
 
 		@Override
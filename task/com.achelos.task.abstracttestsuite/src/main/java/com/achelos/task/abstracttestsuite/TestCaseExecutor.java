@@ -3,6 +3,7 @@ package com.achelos.task.abstracttestsuite;
 import java.time.ZonedDateTime;
 import java.util.function.Consumer;
 
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.logging.BasicLogger;
 import com.achelos.task.logging.LoggingConnector;
 
@@ -14,6 +15,7 @@ public class TestCaseExecutor implements Runnable {
 	private final AbstractTestCase testCase;
 	private final TestCaseRun testCaseRun;
 	private final Consumer<TestCaseRun> testCaseRunSaver;
+	private final ExecutionContext context;
 	private final LoggingConnector logger;
 
 	/**
@@ -25,10 +27,25 @@ public class TestCaseExecutor implements Runnable {
 	 */
 	public TestCaseExecutor(final AbstractTestCase testCase, final TestCaseRun testCaseRun,
 			final Consumer<TestCaseRun> testCaseRunSaver) {
+		this(testCase, testCaseRun, testCaseRunSaver, testCase.getExecutionContext());
+	}
+
+	/**
+	 * Creates a new instance of test case executor to execute the provided test case within the given execution
+	 * context.
+	 *
+	 * @param testCase the test case that will be executed
+	 * @param testCaseRun the test case run to store the execution results into
+	 * @param testCaseRunSaver operation to persist changes to the given test case run
+	 * @param context the execution context providing the logger and taking the log entry checker
+	 */
+	public TestCaseExecutor(final AbstractTestCase testCase, final TestCaseRun testCaseRun,
+			final Consumer<TestCaseRun> testCaseRunSaver, final ExecutionContext context) {
 		this.testCase = testCase;
 		this.testCaseRun = testCaseRun;
 		this.testCaseRunSaver = testCaseRunSaver;
-		logger = LoggingConnector.getInstance();
+		this.context = context;
+		logger = context.getLogger();
 	}
 
 	/**
@@ -36,45 +53,46 @@ public class TestCaseExecutor implements Runnable {
 	 */
 	@Override
 	public final void run() {
+		try (ExecutionContext.Binding binding = context.bind()) {
+			RunState runState = RunState.RUNNING;
+			changeState(testCaseRun, runState);
+			logger.tellLogger(BasicLogger.MSG_NEW_TESTCASE, testCaseRun);
+			logger.info("Test case: " + testCase.getTestCaseId());
+			logger.info("Test case description: " + testCase.getTestCaseDescription());
+			logger.tellLogger(BasicLogger.MSG_TESTCASE_DESCRIPTION, testCase.getTestCaseDescription());
+			logger.info("Test case purpose: " + testCase.getTestCasePurpose());
+			logger.tellLogger(BasicLogger.MSG_TESTCASE_PURPOSE, testCase.getTestCasePurpose());
+			final TestCaseLogChecker logChecker = new TestCaseLogChecker(testCaseRun, logger);
+			context.setLogEntryChecker(logChecker);
 
-		RunState runState = RunState.RUNNING;
-		changeState(testCaseRun, runState);
-		logger.tellLogger(BasicLogger.MSG_NEW_TESTCASE, testCaseRun);
-		logger.info("Test case: " + testCase.getTestCaseId());
-		logger.info("Test case description: " + testCase.getTestCaseDescription());
-		logger.tellLogger(BasicLogger.MSG_TESTCASE_DESCRIPTION, testCase.getTestCaseDescription());
-		logger.info("Test case purpose: " + testCase.getTestCasePurpose());
-		logger.tellLogger(BasicLogger.MSG_TESTCASE_PURPOSE, testCase.getTestCasePurpose());
-		final TestCaseLogChecker logChecker = new TestCaseLogChecker(testCaseRun);
-		LoggingConnector.setInstanceLogEntryChecker(logChecker);
-
-		try {
 			try {
-				testCase.testSetUp();
-				checkForFatalErrors();
-
-				testCase.testPreprocessing();
-				checkForFatalErrors();
+				try {
+					testCase.testSetUp();
+					checkForFatalErrors();
 
-				testCase.testExecution();
-				checkForFatalErrors();
+					testCase.testPreprocessing();
+					checkForFatalErrors();
 
-				testCase.testPostprocessing();
-				checkForFatalErrors();
+					testCase.testExecution();
+					checkForFatalErrors();
 
-			} finally {
-				try {
-					testCase.testTearDown();
+					testCase.testPostprocessing();
 					checkForFatalErrors();
-					runState = RunState.FINISHED;
-				} catch (Exception e) {
-					runState = RunState.CANCELED;
+
+				} finally {
+					try {
+						testCase.testTearDown();
+						checkForFatalErrors();
+						runState = RunState.FINISHED;
+					} catch (Exception e) {
+						runState = RunState.CANCELED;
+					}
 				}
+			} catch (Exception e) {
+				runState = RunState.CANCELED;
+			} finally {
+				changeState(testCaseRun, runState);
 			}
-		} catch (Exception e) {
-			runState = RunState.CANCELED;
-		} finally {
-			changeState(testCaseRun, runState);
 		}
 	}
 
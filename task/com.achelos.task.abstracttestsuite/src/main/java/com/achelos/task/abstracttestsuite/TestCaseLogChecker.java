@@ -14,6 +14,7 @@ import com.achelos.task.logging.LoggingConnector.TellLoggerEntry;
 public class TestCaseLogChecker extends AbstractLogEntryChecker {
 
 	private final TestCaseRun testCaseRun;
+	private final LoggingConnector logger;
 
 
 	/**
@@ -22,7 +23,18 @@ public class TestCaseLogChecker extends AbstractLogEntryChecker {
 	 * @param testCaseRun the test case run that will be executed
 	 */
 	public TestCaseLogChecker(final TestCaseRun testCaseRun) {
+		this(testCaseRun, LoggingConnector.getInstance());
+	}
+
+	/**
+	 * Constructor. Reads out the stop condition.
+	 *
+	 * @param testCaseRun the test case run that will be executed
+	 * @param logger the logger this checker is registered at
+	 */
+	public TestCaseLogChecker(final TestCaseRun testCaseRun, final LoggingConnector logger) {
 		this.testCaseRun = testCaseRun;
+		this.logger = logger;
 	}
 
 	/**
@@ -50,7 +62,7 @@ public class TestCaseLogChecker extends AbstractLogEntryChecker {
 	@Override
 	public final TellLoggerEntry resetLogEntryChecker(final TellLoggerEntry entry) {
 		if (BasicLogger.MSG_TESTCASE_ENDED.equals(entry.getMsg())) {
-			LoggingConnector.resetInstanceLogEntryChecker(this);
+			logger.resetLogEntryChecker(this);
 		}
 		return super.resetLogEntryChecker(entry);
 	}
@@ -94,7 +94,7 @@ public class TestCaseRun {
 	 * Returns the number of warnings that were reported during this test case's execution.
 	 * @return number of warnings
 	 */
-	public int getWarningCount() {
+	public synchronized int getWarningCount() {
 		return warningCount;
 	}
 
@@ -104,7 +104,7 @@ public class TestCaseRun {
 	 * @return new number of warnings
 	 */
 
-	public int increaseWarningCount() {
+	public synchronized int increaseWarningCount() {
 		return ++warningCount;
 	}
 
@@ -112,7 +112,7 @@ public class TestCaseRun {
 	 * Returns the number of errors that were reported during this test case's execution.
 	 * @return number of errors
 	 */
-	public int getErrorCount() {
+	public synchronized int getErrorCount() {
 		return errorCount;
 	}
 
@@ -121,7 +121,7 @@ public class TestCaseRun {
 	 *
 	 * @return new number of errors
 	 */
-	public int increaseErrorCount() {
+	public synchronized int increaseErrorCount() {
 		return ++errorCount;
 	}
 
@@ -130,7 +130,7 @@ public class TestCaseRun {
 	 * 
 	 * @return number of errors
 	 */
-	public int getFatalErrorCount() {
+	public synchronized int getFatalErrorCount() {
 		return fatalErrorCount;
 	}
 
@@ -140,7 +140,7 @@ public class TestCaseRun {
 	 *
 	 * @return new number of fatal errors
 	 */
-	public int increaseFatalErrorCount() {
+	public synchronized int increaseFatalErrorCount() {
 		return ++fatalErrorCount;
 	}
 
@@ -149,7 +149,7 @@ public class TestCaseRun {
 	 *
 	 * @return the status messages.
 	 */
-	public List<String> getStatusMessages() {
+	public synchronized List<String> getStatusMessages() {
 		return new ArrayList<>(statusMessages);
 	}
 
@@ -158,7 +158,7 @@ public class TestCaseRun {
 	 *
 	 * @param message The Status Message to add.
 	 */
-	public void addStatusMessage(final String message) {
+	public synchronized void addStatusMessage(final String message) {
 		if (message != null && !message.isBlank()) {
 			statusMessages.add(message);
 		}
@@ -1,167 +1,276 @@
 package com.achelos.task.commandlineexecution.applications.certgenerator;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.PosixFilePermissions;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
 
+import org.bouncycastle.asn1.x500.AttributeTypeAndValue;
+import org.bouncycastle.asn1.x500.RDN;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.asn1.x500.style.IETFUtils;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.cert.X509CertificateHolder;
+
+import com.achelos.task.commons.certificatehelper.CertificateCache;
+import com.achelos.task.commons.certificatehelper.CertificateGenerator;
+import com.achelos.task.commons.certificatehelper.CertificateGenerator.KeyType;
+import com.achelos.task.commons.certificatehelper.OpenSslConfiguration;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.logging.LoggingConnector;
 
 
 /**
  * A class to generates CRL/OCSP certificates on runtime.
+ * <p>
+ * The certificates are generated in-process from the certificate template, signed by the CA given in the TLS Test
+ * Tool certificates directory. For each key type, the generated directory contains the OpenSSL CA database with the
+ * server certificate, the revoked server certificate and the OCSP signing certificate, the CRL, and the keys. The
+ * generated directories are cached by the hash of the template, the CAs and the responder ports (see
+ * {@link CertificateCache}), so later test runs only copy them.
  */
-public class CertGeneratorExecutor {
-	private static final String SCRIPT_RESOURCE_PATH = "generate_crl_ocsp_certificates.sh";
+public final class CertGeneratorExecutor {
 	private static final String CONFIGURATION_TEMPLATE_RESOURCE_PATH = "certificate_template.cnf";
-	private final Path script;
-	private final Path confTemplate;
-	private final LoggingConnector logger;
-	private final TestRunPlanConfiguration configuration;
-	private Process process;
+	private static final String CA_SECTION = "ca_default";
+	private static final BigInteger CRL_NUMBER = BigInteger.valueOf(0x1001);
+	private static final int SERIAL_NUMBER_LENGTH = 16;
+	private static final String REVOCATION_REASON = "keyCompromise";
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	/**
+	 * Hidden Constructor.
+	 */
+	private CertGeneratorExecutor() {
+		// Empty.
+	}
 
 	/**
-	 * Default constructor that prepares for generating the OCSP/CRL certificates on runtime.
-	 * It reads the certificate generator script file and certificate template file from resources.
-	 * 
+	 * Generates the certificates for OCSP/CRL requests, unless they were generated previously.
+	 * This method uses the OCSP responder port, CRL responder port, TLS Test Tool certificates path and
+	 * CRL OCSP certificate directory from global configuration file.
+	 * The generation is finished when this method returns.
+	 *
 	 * @param logger the {@link LoggingConnector} instance to use for logging.
 	 * @param configuration the global configuration file.
-	 * @throws IOException may throw an exception if unable to create temporary files or script file does not exist. 
+	 * @throws IOException if the certificates cannot be generated or the CA cannot be read.
 	 */
-	private CertGeneratorExecutor(final LoggingConnector logger,
+	public static synchronized void generateOcspCrlCertificates(final LoggingConnector logger,
 			final TestRunPlanConfiguration configuration) throws IOException {
-		this.logger = logger;
-		this.configuration = configuration;
-		script = Files.createTempFile(null, ".sh");
-		confTemplate = Files.createTempFile(null, ".cnf",
-				PosixFilePermissions.asFileAttribute(
-						PosixFilePermissions.fromString("rw-rw-r--")));
-		try (InputStream embeddedConfTemplate
-				= this.getClass().getClassLoader().getResourceAsStream(CONFIGURATION_TEMPLATE_RESOURCE_PATH)) {
-			Files.copy(embeddedConfTemplate, confTemplate, StandardCopyOption.REPLACE_EXISTING);
+		var crlOcspCertDir = configuration.getCrlOcspCertDirectory();
+		if (null == crlOcspCertDir) {
+			throw new IOException("Parameter 'CrlOcspCertDirectory' is empty. Check configuration!");
+		}
+		if (isDirAndNotEmpty(crlOcspCertDir)) {
+			logger.debug("CertGeneratorExecutor: Generation skipped since certificates were generated previously.");
+			return;
 		}
-		try (InputStream embeddedScript = this.getClass().getClassLoader().getResourceAsStream(SCRIPT_RESOURCE_PATH)) {
-			Files.copy(embeddedScript, script, StandardCopyOption.REPLACE_EXISTING);
+
+		final String template = readTemplate()
+				.replace("PLACEHOLDER_PORT_CRL", Integer.toString(configuration.getCrlResponderPort()))
+				.replace("PLACEHOLDER_PORT_OCSP", Integer.toString(configuration.getOcspResponderPort()));
+		final File caBasePath = new File(configuration.getTlsTestToolCertificatesPath());
+
+		final List<byte[]> inputs = new ArrayList<>();
+		inputs.add(template.getBytes(StandardCharsets.UTF_8));
+		for (final KeyType keyType : KeyType.values()) {
+			inputs.add(Files.readAllBytes(getCaCertificateFile(caBasePath, keyType).toPath()));
+			inputs.add(Files.readAllBytes(getCaPrivateKeyFile(caBasePath, keyType).toPath()));
 		}
-		Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-xr--"));
+
+		final long start = System.currentTimeMillis();
+		final boolean cached = CertificateCache.provide(crlOcspCertDir,
+				directory -> generate(directory, new OpenSslConfiguration(template), caBasePath),
+				inputs.toArray(new byte[0][]));
+		logger.debug("CertGeneratorExecutor: Certificates " + (cached ? "copied from cache" : "generated") + " in "
+				+ (System.currentTimeMillis() - start) + " ms.");
 	}
 
 	/**
-	 * Generates the certificate for OCSP/CRL request.
-	 * This method uses the OCSP responder port, CRL responder port, OpenSSL executable path and 
-	 * CLR OCSP certificate directory from global configuration file to execute the script.
-	 *  
-	 * 
-	 * @throws IOException throws exception if fails to execute the script on runtime.
+	 * Generate the certificates of all key types.
+	 *
+	 * @return the earliest expiry of the certificates and CRLs
 	 */
-	private void execute()
+	private static Date generate(final File directory, final OpenSslConfiguration template, final File caBasePath)
 			throws IOException {
+		Date expiry = null;
+		for (final KeyType keyType : KeyType.values()) {
+			final String certFolder = keyType == KeyType.RSA ? "certificateRsa" : "certificateEcdsa";
+			final Date keyTypeExpiry = generate(new File(directory, certFolder), keyType, template,
+					getCaCertificateFile(caBasePath, keyType), getCaPrivateKeyFile(caBasePath, keyType));
+			if (expiry == null || keyTypeExpiry.before(expiry)) {
+				expiry = keyTypeExpiry;
+			}
+		}
+		return expiry;
+	}
 
-		final ArrayList<String> command = new ArrayList<>();
-		// Script File Path
-		command.add(script.toAbsolutePath().toString());
+	/**
+	 * Generate the certificates of a key type, as the OpenSSL commands of the former generation script did.
+	 *
+	 * @return the earliest expiry of the certificates and the CRL
+	 */
+	private static Date generate(final File certFolder, final KeyType keyType, final OpenSslConfiguration template,
+			final File caCertificateFile, final File caPrivateKeyFile) throws IOException {
+		final File rootCa = createDirectories(certFolder, "root-ca", "certs", "db", "private", "crl");
+		final File serverCertificate = createDirectories(certFolder, "server-certificate", "certs", "private");
+		final File ocspCertificate = createDirectories(certFolder, "ocsp-certificate", "certs", "private");
 
-		// Certificate base path
-		var cert_basepath = configuration.getCrlOcspCertDirectory();
-		command.add(cert_basepath.getAbsolutePath());
+		Files.copy(caCertificateFile.toPath(), new File(rootCa, "certs/root-ca.pem").toPath());
+		Files.copy(caPrivateKeyFile.toPath(), new File(rootCa, "private/root-ca.pem").toPath());
+		final X509CertificateHolder ca = CertificateGenerator.readCertificate(caCertificateFile);
+		final PrivateKey caKey = CertificateGenerator.readPrivateKey(caPrivateKeyFile);
 
-		// Template
-		var templatePath = confTemplate.toAbsolutePath().toString();
-		command.add(templatePath);
+		final X500Name subject = template.getDistinguishedName(template.getValue("req", "distinguished_name"));
+		final String extensions = template.getValue(CA_SECTION, "x509_extensions");
+		final int days = template.getInteger(CA_SECTION, "default_days", 365);
+		final int crlDays = template.getInteger(CA_SECTION, "default_crl_days", 30);
+		// OpenSSL uses a validity with a precision of seconds.
+		final Date now = new Date(System.currentTimeMillis() / 1000 * 1000);
+		final byte[] randomSerial = new byte[SERIAL_NUMBER_LENGTH];
+		RANDOM.nextBytes(randomSerial);
+		BigInteger serial = new BigInteger(1, randomSerial);
 
-		// CA base path
-		var ca_basepath = configuration.getTlsTestToolCertificatesPath();
-		command.add(ca_basepath);
+		final KeyPair serverKey = CertificateGenerator.generateKeyPair(keyType);
+		final X509CertificateHolder server = CertificateGenerator.createCertificate(template, extensions, subject,
+				serverKey.getPublic(), ca, caKey, serial, now, days);
+		serial = serial.add(BigInteger.ONE);
+		final X509CertificateHolder revoked = CertificateGenerator.createCertificate(template, extensions, subject,
+				serverKey.getPublic(), ca, caKey, serial, now, days);
+		serial = serial.add(BigInteger.ONE);
+		final KeyPair ocspKey = CertificateGenerator.generateKeyPair(keyType);
+		final X509CertificateHolder ocsp = CertificateGenerator.createCertificate(template, extensions, subject,
+				ocspKey.getPublic(), ca, caKey, serial, now, days);
+		serial = serial.add(BigInteger.ONE);
+		final X509CRLHolder crl = CertificateGenerator.createCrl(template, ca, caKey, CRL_NUMBER,
+				Map.of(revoked.getSerialNumber(), now), now, crlDays);
 
-		// OCSP Port
-		var ocsp_port = configuration.getOcspResponderPort();
-		command.add(Integer.toString(ocsp_port));
+		CertificateGenerator.writePrivateKey(new File(serverCertificate, "private/server-certKey.pem"),
+				serverKey.getPrivate());
+		CertificateGenerator.writePem(new File(serverCertificate, "certs/server-certificate.pem"), server);
+		CertificateGenerator.writePem(new File(serverCertificate, "certs/revoked-server-certificate.pem"), revoked);
+		CertificateGenerator.writePrivateKey(new File(ocspCertificate, "private/ocsp-signing.pem"),
+				ocspKey.getPrivate());
+		CertificateGenerator.writePem(new File(ocspCertificate, "certs/ocsp-signing.pem"), ocsp);
+		CertificateGenerator.writePem(new File(rootCa, "crl/root-ca.crl"), crl);
 
-		// CRL Port
-		var crl_port = configuration.getCrlResponderPort();
-		command.add(Integer.toString(crl_port));
+		// OpenSSL CA database
+		final StringBuilder index = new StringBuilder();
+		for (final X509CertificateHolder certificate : List.of(server, revoked, ocsp)) {
+			final boolean isRevoked = certificate == revoked;
+			index.append(isRevoked ? 'R' : 'V').append('\t').append(toDatabaseTime(certificate.getNotAfter()))
+					.append('\t').append(isRevoked ? toDatabaseTime(now) + "," + REVOCATION_REASON : "").append('\t')
+					.append(toDatabaseSerial(certificate.getSerialNumber())).append("\tunknown\t")
+					.append(toDatabaseSubject(certificate.getSubject())).append('\n');
+			CertificateGenerator.writePem(
+					new File(rootCa, "certs/" + toDatabaseSerial(certificate.getSerialNumber()) + ".pem"),
+					certificate);
+		}
+		Files.writeString(new File(rootCa, "db/index").toPath(), index, StandardCharsets.UTF_8);
+		Files.writeString(new File(rootCa, "db/index.attr").toPath(), "unique_subject = no\n");
+		Files.writeString(new File(rootCa, "db/serial").toPath(), toDatabaseSerial(serial) + "\n");
+		Files.writeString(new File(rootCa, "db/crlnumber").toPath(),
+				toDatabaseSerial(CRL_NUMBER.add(BigInteger.ONE)) + "\n");
 
-		// OpenSSL Executable Path
-		var opensslExecPath = configuration.getOpenSSLExecutable();
-		command.add(opensslExecPath);
+		Date expiry = crl.getNextUpdate();
+		for (final Date notAfter : List.of(ca.getNotAfter(), server.getNotAfter(), ocsp.getNotAfter())) {
+			if (notAfter.before(expiry)) {
+				expiry = notAfter;
+			}
+		}
+		return expiry;
+	}
 
-		// Execute
-		process = Runtime.getRuntime().exec(command.toArray(new String[0]));
+	private static String readTemplate() throws IOException {
+		try (InputStream embeddedConfTemplate = CertGeneratorExecutor.class.getClassLoader()
+				.getResourceAsStream(CONFIGURATION_TEMPLATE_RESOURCE_PATH)) {
+			if (embeddedConfTemplate == null) {
+				throw new IOException("Resource " + CONFIGURATION_TEMPLATE_RESOURCE_PATH + " not found.");
+			}
+			return new String(embeddedConfTemplate.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static File getCaCertificateFile(final File caBasePath, final KeyType keyType) {
+		return new File(caBasePath, keyType.name().toLowerCase() + "/CERT_OCSP_CRL/root-ca_certificate.pem");
+	}
+
+	private static File getCaPrivateKeyFile(final File caBasePath, final KeyType keyType) {
+		return new File(caBasePath, keyType.name().toLowerCase() + "/CERT_OCSP_CRL/root-ca_private_key.pem");
+	}
+
+	private static File createDirectories(final File parent, final String name, final String... children)
+			throws IOException {
+		final File directory = new File(parent, name);
+		for (final String child : children) {
+			Files.createDirectories(new File(directory, child).toPath());
+		}
+		return directory;
 	}
 
 	/**
-	 * Prints the execution results.
+	 * @return the time in the format of the OpenSSL CA database, i.e. UTCTime before 2050, GeneralizedTime after.
 	 */
-	private void printResults() {
-		if (process == null) {
-			return;
-		}
-		try (BufferedReader reader
-				= new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
-			String line;
-			while ((line = reader.readLine()) != null) {
-				logger.debug("CertGeneratorExecutor: " + line);
-			}
-		} catch (Exception err) {
-			logger.debug("CertGeneratorExecutor: Error when generating certificates: " + err.getMessage());
-		}
+	private static String toDatabaseTime(final Date date) {
+		final SimpleDateFormat format = new SimpleDateFormat("yyyyMMddHHmmss'Z'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		final String time = format.format(date);
+		return time.compareTo("2050") < 0 ? time.substring(2) : time;
 	}
 
 	/**
-	 * It reads the certificate generator script file and certificate template file from resources.
-	 * Generates the certificate for OCSP/CRL request.
-	 * This method uses the OCSP responder port, CRL responder port, OpenSSL executable path and
-	 * CLR OCSP certificate directory from global configuration file to execute the script.
-	 * Prints the execution results into debug output.
-	 *
-	 * @param logger the {@link LoggingConnector} instance to use for logging.
-	 * @param configuration the global configuration file.
-	 * @throws Exception if fails to execute the script on runtime.
-	 * 	May throw an exception if unable to create temporary files or script file does not exist.
+	 * @return the serial number in the format of the OpenSSL CA database, i.e. upper case hex with even length.
 	 */
-	public static void generateOcspCrlCertificates(final LoggingConnector logger,
-													final TestRunPlanConfiguration configuration) throws IOException {
-		var crlOcspCertDir = configuration.getCrlOcspCertDirectory();
-		if (null == crlOcspCertDir) {
-			throw new IOException("Parameter 'CrlOcspCertDirectory' is empty. Check configuration!");
-		}
-		if (isDirAndNotEmpty(crlOcspCertDir)) {
-			logger.debug("CertGeneratorExecutor: Generation skipped since certificates were generated previously.");
-		} else {
-			var certGenerator = new CertGeneratorExecutor(logger, configuration);
-			certGenerator.execute();
-			certGenerator.printResults();
-		}
+	private static String toDatabaseSerial(final BigInteger serial) {
+		final String hex = serial.toString(16).toUpperCase();
+		return hex.length() % 2 == 0 ? hex : "0" + hex;
+	}
 
+	/**
+	 * @return the subject in the format of the OpenSSL CA database, e.g. "/C=DE/O=achelos GmbH/CN=Test".
+	 */
+	private static String toDatabaseSubject(final X500Name name) {
+		final StringBuilder subject = new StringBuilder();
+		for (final RDN rdn : name.getRDNs()) {
+			for (final AttributeTypeAndValue attribute : rdn.getTypesAndValues()) {
+				subject.append('/').append(BCStyle.INSTANCE.oidToDisplayName(attribute.getType())).append('=')
+						.append(IETFUtils.valueToString(attribute.getValue()));
+			}
+		}
+		return subject.toString();
 	}
-	
+
 	/**
 	 * Workaround for spotbugs.
-	 * 
+	 *
 	 * @param dir
-	 * @return true, if dir exists, is a directory and contains at least one file. 
+	 * @return true, if dir exists, is a directory and contains at least one file.
 	 * 			Otherwise false
 	 */
 	private static boolean isDirAndNotEmpty(File dir) {
 
 		if (! (null != dir &&
-				dir.exists() && 
-				dir.isDirectory())) 
+				dir.exists() &&
+				dir.isDirectory()))
 			return false;
-		
+
 		String[] files = dir.list();
-		if (null == files || 
+		if (null == files ||
 				files.length == 0)
 			return false;
-		
+
 		return true;
 	}
 
@@ -10,8 +10,10 @@ import java.util.List;
 
 import com.achelos.task.commandlineexecution.applications.certgenerator.CertGeneratorExecutor;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.Executor;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.ReadinessProbe;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.RunLogger;
 import com.achelos.task.commons.enums.TlsCipherSuite;
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.logging.LoggingConnector;
 
 /**
@@ -19,6 +21,8 @@ import com.achelos.task.logging.LoggingConnector;
  */
 public class CRLExecutor extends RunLogger {
 
+	private EmbeddedCrlResponder embeddedResponder;
+
 	/**
 	 * Default constructor.
 	 * 
@@ -27,12 +31,25 @@ public class CRLExecutor extends RunLogger {
 	 */
 	public CRLExecutor(final String testCaseName, final LoggingConnector logger)	throws IOException,
 																					URISyntaxException {
-		super(testCaseName, Executor.CRL, logger);
-		CertGeneratorExecutor.generateOcspCrlCertificates(logger, getConfiguration());
+		this(testCaseName, ExecutionContext.current().withLogger(logger));
 	}
 
 	/**
-	 * Starts the CRL server on the port of the CRL responder as specified in the global configuration file.
+	 * Constructor within the given execution context.
+	 * 
+	 * @param testCaseName the test case name
+	 * @param context the execution context providing the configuration and the logger
+	 */
+	public CRLExecutor(final String testCaseName, final ExecutionContext context)	throws IOException,
+																					URISyntaxException {
+		super(testCaseName, Executor.CRL, context);
+		CertGeneratorExecutor.generateOcspCrlCertificates(context.getLogger(), getConfiguration());
+	}
+
+	/**
+	 * Starts the CRL server on the port of the CRL responder as specified in the global configuration file. The port
+	 * is contained in the generated certificates, thus it is leased exclusively until {@link #cleanAndExit()}.
+	 * If configured, the {@link EmbeddedCrlResponder} is started instead of a Python HTTP server.
 	 * 
 	 * @param cipherSuite the cipher suite to get CRL/OCSP directory with matching key type.
 	 * @throws Exception may throws an exception if CRL server is unable to start.
@@ -44,7 +61,12 @@ public class CRLExecutor extends RunLogger {
 
 		String path = getConfiguration().getCrlOcspCertDirectoryWithMatchingKeyType(cipherSuite).getAbsolutePath();
 		path += "/root-ca/crl/";
-		var port = getConfiguration().getCrlResponderPort();
+		var port = leasePort(getConfiguration().getCrlResponderPort(), 1);
+
+		if (getConfiguration().isOcspCrlEmbeddedResponder()) {
+			embeddedResponder = EmbeddedCrlResponder.start(new File(path), port, this::logServiceOutput);
+			return;
+		}
 
 		// command.add("cd " + path);
 		command.add("python3");
@@ -54,7 +76,7 @@ public class CRLExecutor extends RunLogger {
 		command.add(Integer.toString(port));
 
 
-		start(command, null, new File(path));
+		start(command, null, new File(path), ReadinessProbe.tcpConnect("127.0.0.1", port));
 	}
 
 	/**
@@ -72,19 +94,28 @@ public class CRLExecutor extends RunLogger {
 		start(command, null, null);
 	}
 
+	/**
+	 * The CRL responder is ready when it reports to serve HTTP.
+	 *
+	 * @return the readiness probe of the CRL responder
+	 */
+	@Override
+	protected ReadinessProbe getReadinessProbe() {
+		return ReadinessProbe.logLine("Serving HTTP on");
+	}
+
 	/**
 	 * Method stops the CRL Executor.
 	 */
 	@Override
 	public final void stop() {
-		final int delay = 1000;
-		startSleepTimer(delay);
-		destroy();
-		while (isRunning()) {
-			logDebug("CRL process is still alive.");
-			startSleepTimer(delay);
+		if (embeddedResponder != null) {
+			embeddedResponder.close();
+			embeddedResponder = null;
+			serviceStopped();
+			return;
 		}
-		super.removeShutdownHook();
+		destroy();
 	}
 
 	@Override
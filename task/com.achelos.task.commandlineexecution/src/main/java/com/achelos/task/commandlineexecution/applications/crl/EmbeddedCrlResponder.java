@@ -0,0 +1,115 @@
+package com.achelos.task.commandlineexecution.applications.crl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * A CRL responder which runs within TaSK instead of a Python HTTP server. It serves the CRLs of the CRL directory of
+ * the CRL/OCSP certificate directory.
+ * <p>
+ * The CRLs are read once and served from a cache shared by all responders, until the CRL file changes. The requests
+ * are logged in the format of the Python HTTP server, e.g. {@code 127.0.0.1 - - "GET /root-ca.crl HTTP/1.1" 200 -}.
+ */
+public final class EmbeddedCrlResponder implements AutoCloseable {
+
+	private static final String CONTENT_TYPE_CRL = "application/pkix-crl";
+
+	private static final Map<File, CachedFile> FILES = new ConcurrentHashMap<>();
+
+	private final HttpServer server;
+	private final File directory;
+	private final Consumer<String> log;
+
+	private EmbeddedCrlResponder(final HttpServer server, final File directory, final Consumer<String> log) {
+		this.server = server;
+		this.directory = directory;
+		this.log = log;
+	}
+
+	/**
+	 * Start a CRL responder for the given CRL directory.
+	 *
+	 * @param directory the directory containing the CRLs
+	 * @param port the port to listen on
+	 * @param log the consumer of the lines logged by the responder
+	 * @return the started responder
+	 * @throws IOException if the port cannot be bound
+	 */
+	public static EmbeddedCrlResponder start(final File directory, final int port, final Consumer<String> log)
+			throws IOException {
+		final HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+		final EmbeddedCrlResponder crlResponder = new EmbeddedCrlResponder(server, directory, log);
+		server.createContext("/", crlResponder::handle);
+		server.start();
+		log.accept("Serving HTTP on 0.0.0.0 port " + port + " ...");
+		return crlResponder;
+	}
+
+	/**
+	 * Stop the responder. The cached CRLs are kept for the next responder.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+	private void handle(final HttpExchange exchange) throws IOException {
+		try (exchange) {
+			final String path = exchange.getRequestURI().getPath();
+			final String requestLine = exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath() + " "
+					+ exchange.getProtocol();
+			final String client = exchange.getRemoteAddress().getAddress().getHostAddress();
+
+			final File file = new File(directory, path.substring(path.lastIndexOf('/') + 1));
+			final byte[] content = "GET".equals(exchange.getRequestMethod()) ? read(file) : null;
+			if (content == null) {
+				log.accept(client + " - - \"" + requestLine + "\" 404 -");
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+			log.accept(client + " - - \"" + requestLine + "\" 200 -");
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_CRL);
+			exchange.sendResponseHeaders(200, content.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(content);
+			}
+		}
+	}
+
+	/**
+	 * @return the content of the file, or null if it is not a readable file.
+	 */
+	private static byte[] read(final File file) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		final long lastModified = file.lastModified();
+		final CachedFile cached = FILES.get(file);
+		if (cached != null && cached.lastModified == lastModified && cached.content.length == file.length()) {
+			return cached.content;
+		}
+		final byte[] content = Files.readAllBytes(file.toPath());
+		FILES.put(file, new CachedFile(content, lastModified));
+		return content;
+	}
+
+	private static final class CachedFile {
+		private final byte[] content;
+		private final long lastModified;
+
+		CachedFile(final byte[] content, final long lastModified) {
+			this.content = content;
+			this.lastModified = lastModified;
+		}
+	}
+}
@@ -0,0 +1,352 @@
+package com.achelos.task.commandlineexecution.applications.ocsp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.PrivateKey;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.bouncycastle.asn1.ASN1GeneralizedTime;
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.ocsp.RevokedInfo;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.Req;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+
+import com.achelos.task.commons.certificatehelper.CertificateGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * An OCSP responder which runs within TaSK instead of the OCSP responder of OpenSSL. It answers requests for the
+ * certificates of the OpenSSL CA database in the CRL/OCSP certificate directory, signed by the OCSP signing
+ * certificate of that directory.
+ * <p>
+ * Responses to requests for a single certificate without nonce are signed once and answered from a cache until their
+ * next update time. The cache and the signing material of a directory are shared by all responders and reloaded when
+ * the CA database or the signing material changes, e.g. after the certificates have been generated again.
+ */
+public final class EmbeddedOcspResponder implements AutoCloseable {
+
+	/**
+	 * Validity of a response in milliseconds, i.e. the time between this update and next update.
+	 */
+	private static final long RESPONSE_VALIDITY = 10 * 60 * 1000;
+
+	private static final String CONTENT_TYPE_OCSP_RESPONSE = "application/ocsp-response";
+
+	private static final Map<File, Responder> RESPONDERS = new ConcurrentHashMap<>();
+
+	private final HttpServer server;
+	private final Responder responder;
+	private final Consumer<String> log;
+
+	private EmbeddedOcspResponder(final HttpServer server, final Responder responder, final Consumer<String> log) {
+		this.server = server;
+		this.responder = responder;
+		this.log = log;
+	}
+
+	/**
+	 * Start an OCSP responder for the given CRL/OCSP certificate directory.
+	 *
+	 * @param directory the CRL/OCSP certificate directory with matching key type
+	 * @param port the port to listen on
+	 * @param log the consumer of the lines logged by the responder
+	 * @return the started responder
+	 * @throws IOException if the signing material cannot be read or the port cannot be bound
+	 */
+	public static EmbeddedOcspResponder start(final File directory, final int port, final Consumer<String> log)
+			throws IOException {
+		final Responder responder = getResponder(directory);
+		final HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+		final EmbeddedOcspResponder ocspResponder = new EmbeddedOcspResponder(server, responder, log);
+		server.createContext("/", ocspResponder::handle);
+		server.start();
+		log.accept("Waiting for OCSP client connections on port " + port + "...");
+		return ocspResponder;
+	}
+
+	/**
+	 * Stop the responder. The cached responses are kept for the next responder.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+	private static Responder getResponder(final File directory) throws IOException {
+		final Responder current = RESPONDERS.get(directory);
+		final long version = Responder.version(directory);
+		if (current != null && current.version == version) {
+			return current;
+		}
+		final Responder responder = new Responder(directory, version);
+		RESPONDERS.put(directory, responder);
+		return responder;
+	}
+
+	private void handle(final HttpExchange exchange) throws IOException {
+		try (exchange) {
+			byte[] response;
+			try {
+				byte[] encodedRequest;
+				if ("POST".equals(exchange.getRequestMethod())) {
+					try (InputStream in = exchange.getRequestBody()) {
+						encodedRequest = in.readAllBytes();
+					}
+				} else {
+					// GET requests contain the base64 encoded request as last path segment (RFC 6960, A.1).
+					final String path = exchange.getRequestURI().getRawPath();
+					final String segment = URLDecoder.decode(path.substring(path.lastIndexOf('/') + 1),
+							StandardCharsets.UTF_8);
+					encodedRequest = Base64.getDecoder().decode(segment);
+				}
+				response = respond(encodedRequest);
+			} catch (IllegalArgumentException e) {
+				log.accept("Malformed OCSP request: " + e.getMessage());
+				response = errorResponse(OCSPRespBuilder.MALFORMED_REQUEST);
+			} catch (OCSPException | OperatorCreationException e) {
+				log.accept("Error processing OCSP request: " + e.getMessage());
+				response = errorResponse(OCSPRespBuilder.INTERNAL_ERROR);
+			}
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_OCSP_RESPONSE);
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(response);
+			}
+		}
+	}
+
+	/**
+	 * @param status the status of the response, e.g. {@link OCSPRespBuilder#MALFORMED_REQUEST}
+	 * @return the encoded response without response bytes
+	 */
+	private static byte[] errorResponse(final int status) throws IOException {
+		try {
+			return new OCSPRespBuilder().build(status, null).getEncoded();
+		} catch (OCSPException e) {
+			throw new IOException("Unable to build OCSP response with status " + status + ".", e);
+		}
+	}
+
+	private byte[] respond(final byte[] encodedRequest) throws IOException, OCSPException, OperatorCreationException {
+		final OCSPReq request;
+		try {
+			request = new OCSPReq(encodedRequest);
+		} catch (IOException e) {
+			log.accept("Malformed OCSP request: " + e.getMessage());
+			return errorResponse(OCSPRespBuilder.MALFORMED_REQUEST);
+		}
+		log.accept("OCSP Request Data:");
+		log.accept("    Requestor List:");
+		for (final Req req : request.getRequestList()) {
+			log.accept("        Certificate ID:");
+			log.accept("          Serial Number: " + req.getCertID().getSerialNumber().toString(16).toUpperCase());
+		}
+		final Extension nonce = request.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce);
+		final Req[] requests = request.getRequestList();
+		if (nonce == null && requests.length == 1) {
+			return responder.getCachedResponse(requests[0].getCertID(), log);
+		}
+		final List<CertificateID> certificateIds = new ArrayList<>(requests.length);
+		for (final Req req : requests) {
+			certificateIds.add(req.getCertID());
+		}
+		return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, responder.sign(certificateIds, nonce, log))
+				.getEncoded();
+	}
+
+	/**
+	 * The signing material, certificate status and cached responses of a CRL/OCSP certificate directory.
+	 */
+	private static final class Responder {
+		private static final Map<String, Integer> REVOCATION_REASONS = Map.of("unspecified", CRLReason.unspecified,
+				"keyCompromise", CRLReason.keyCompromise, "CACompromise", CRLReason.cACompromise,
+				"affiliationChanged", CRLReason.affiliationChanged, "superseded", CRLReason.superseded,
+				"cessationOfOperation", CRLReason.cessationOfOperation, "certificateHold", CRLReason.certificateHold,
+				"removeFromCRL", CRLReason.removeFromCRL);
+
+		private final long version;
+		private final X509CertificateHolder signerCertificate;
+		private final PrivateKey signerKey;
+		private final X509CertificateHolder caCertificate;
+		private final Map<BigInteger, CertificateStatus> statusBySerial;
+		private final DigestCalculatorProvider digestCalculatorProvider;
+		private final Map<CertificateID, CachedResponse> cache = new ConcurrentHashMap<>();
+
+		Responder(final File directory, final long version) throws IOException {
+			this.version = version;
+			signerCertificate = CertificateGenerator
+					.readCertificate(new File(directory, "ocsp-certificate/certs/ocsp-signing.pem"));
+			signerKey = CertificateGenerator
+					.readPrivateKey(new File(directory, "ocsp-certificate/private/ocsp-signing.pem"));
+			caCertificate = CertificateGenerator.readCertificate(new File(directory, "root-ca/certs/root-ca.pem"));
+			statusBySerial = readIndex(new File(directory, "root-ca/db/index"));
+			try {
+				digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder().build();
+			} catch (OperatorCreationException e) {
+				throw new IOException("No digest calculator available for OCSP certificate IDs.", e);
+			}
+		}
+
+		/**
+		 * @return a value which changes whenever a file of the directory read by the responder changes.
+		 */
+		static long version(final File directory) {
+			long version = 17;
+			for (final String path : List.of("ocsp-certificate/certs/ocsp-signing.pem",
+					"ocsp-certificate/private/ocsp-signing.pem", "root-ca/certs/root-ca.pem", "root-ca/db/index")) {
+				final File file = new File(directory, path);
+				version = 31 * version + file.lastModified();
+				version = 31 * version + file.length();
+			}
+			return version;
+		}
+
+		byte[] getCachedResponse(final CertificateID certificateId, final Consumer<String> log)
+				throws IOException, OCSPException, OperatorCreationException {
+			final long now = System.currentTimeMillis();
+			final CachedResponse cached = cache.get(certificateId);
+			if (cached != null && now < cached.nextUpdate) {
+				log.accept("OCSP Response Data: cached, Cert Status: " + cached.status);
+				return cached.encoded;
+			}
+			final BasicOCSPResp basicResponse = sign(List.of(certificateId), null, log);
+			final byte[] encoded = new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basicResponse).getEncoded();
+			cache.put(certificateId, new CachedResponse(encoded, basicResponse.getResponses()[0].getNextUpdate()
+					.getTime(), statusName(basicResponse.getResponses()[0].getCertStatus())));
+			return encoded;
+		}
+
+		/**
+		 * Sign a response for the given certificate IDs, which contains the nonce of the request, if any.
+		 */
+		BasicOCSPResp sign(final List<CertificateID> certificateIds, final Extension nonce, final Consumer<String> log)
+				throws OCSPException, OperatorCreationException {
+			final Date thisUpdate = new Date();
+			final Date nextUpdate = new Date(thisUpdate.getTime() + RESPONSE_VALIDITY);
+			final BasicOCSPRespBuilder builder = new BasicOCSPRespBuilder(new RespID(signerCertificate.getSubject()));
+			for (final CertificateID certificateId : certificateIds) {
+				final CertificateStatus status = getStatus(certificateId);
+				log.accept("OCSP Response Data: Serial Number: "
+						+ certificateId.getSerialNumber().toString(16).toUpperCase() + ", Cert Status: "
+						+ statusName(status));
+				builder.addResponse(certificateId, status, thisUpdate, nextUpdate, null);
+			}
+			if (nonce != null) {
+				builder.setResponseExtensions(new Extensions(nonce));
+			}
+			final ContentSigner signer = new JcaContentSignerBuilder(
+					"RSA".equals(signerKey.getAlgorithm()) ? "SHA256withRSA" : "SHA256withECDSA").build(signerKey);
+			return builder.build(signer, new X509CertificateHolder[] {signerCertificate}, thisUpdate);
+		}
+
+		private CertificateStatus getStatus(final CertificateID certificateId) throws OCSPException {
+			if (!certificateId.matchesIssuer(caCertificate, digestCalculatorProvider)) {
+				return new UnknownStatus();
+			}
+			return statusBySerial.getOrDefault(certificateId.getSerialNumber(), new UnknownStatus());
+		}
+
+		private static String statusName(final CertificateStatus status) {
+			if (status == CertificateStatus.GOOD) {
+				return "good";
+			}
+			return status instanceof RevokedStatus ? "revoked" : "unknown";
+		}
+
+		/**
+		 * Read the certificate status from an OpenSSL CA database. Each line contains the tab separated fields status
+		 * (V, R or E), expiration date, revocation date with optional reason, serial number, file name and subject.
+		 */
+		private static Map<BigInteger, CertificateStatus> readIndex(final File file) throws IOException {
+			final Map<BigInteger, CertificateStatus> statusBySerial = new HashMap<>();
+			for (final String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+				final String[] fields = line.split("\t", -1);
+				if (fields.length < 4 || fields[0].isEmpty()) {
+					continue;
+				}
+				final BigInteger serial = new BigInteger(fields[3], 16);
+				switch (fields[0].charAt(0)) {
+					case 'V':
+						// GOOD is represented by null, thus the map must permit null values.
+						statusBySerial.put(serial, CertificateStatus.GOOD);
+						break;
+					case 'R':
+						statusBySerial.put(serial, revokedStatus(fields[2], file));
+						break;
+					default:
+						statusBySerial.put(serial, new UnknownStatus());
+						break;
+				}
+			}
+			return statusBySerial;
+		}
+
+		private static RevokedStatus revokedStatus(final String revocation, final File file) throws IOException {
+			final int separator = revocation.indexOf(',');
+			final String time = separator < 0 ? revocation : revocation.substring(0, separator);
+			final SimpleDateFormat format = new SimpleDateFormat(
+					time.length() > 13 ? "yyyyMMddHHmmss'Z'" : "yyMMddHHmmss'Z'");
+			format.setTimeZone(TimeZone.getTimeZone("UTC"));
+			final Date revocationDate;
+			try {
+				revocationDate = format.parse(time);
+			} catch (ParseException e) {
+				throw new IOException("Invalid revocation date " + time + " in " + file + ".", e);
+			}
+			final Integer reason = separator < 0 ? null : REVOCATION_REASONS.get(revocation.substring(separator + 1));
+			if (reason == null) {
+				return new RevokedStatus(new RevokedInfo(new ASN1GeneralizedTime(revocationDate), null));
+			}
+			return new RevokedStatus(revocationDate, reason);
+		}
+	}
+
+	private static final class CachedResponse {
+		private final byte[] encoded;
+		private final long nextUpdate;
+		private final String status;
+
+		CachedResponse(final byte[] encoded, final long nextUpdate, final String status) {
+			this.encoded = encoded;
+			this.nextUpdate = nextUpdate;
+			this.status = status;
+		}
+	}
+}
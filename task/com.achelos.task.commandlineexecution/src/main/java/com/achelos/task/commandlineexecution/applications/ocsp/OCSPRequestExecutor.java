@@ -12,7 +12,9 @@ import java.util.TimerTask;
 import com.achelos.task.commandlineexecution.applications.certgenerator.CertGeneratorExecutor;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.Executor;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.GenericCommandLineExecution;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.ReadinessProbe;
 import com.achelos.task.commons.enums.TlsCipherSuite;
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.configuration.TlsTestToolCertificateTypes;
 import com.achelos.task.logging.LoggingConnector;
 
@@ -30,8 +32,19 @@ public class OCSPRequestExecutor extends GenericCommandLineExecution {
 	 */
 	public OCSPRequestExecutor(final String testCaseName, final LoggingConnector logger)	throws IOException,
 																					URISyntaxException {
-		super(Executor.OCSPREQUEST, testCaseName, logger);
-		CertGeneratorExecutor.generateOcspCrlCertificates(logger, getConfiguration());
+		this(testCaseName, ExecutionContext.current().withLogger(logger));
+	}
+
+	/**
+	 * Constructor within the given execution context.
+	 * 
+	 * @param testCaseName the test case name
+	 * @param context the execution context providing the configuration and the logger
+	 */
+	public OCSPRequestExecutor(final String testCaseName, final ExecutionContext context)	throws IOException,
+																					URISyntaxException {
+		super(Executor.OCSPREQUEST, testCaseName, context);
+		CertGeneratorExecutor.generateOcspCrlCertificates(context.getLogger(), getConfiguration());
 	}
 
 	/**
@@ -87,6 +100,16 @@ public class OCSPRequestExecutor extends GenericCommandLineExecution {
 
 	}
 
+	/**
+	 * The OCSP request is a one-shot command, the response is available when the process has terminated.
+	 *
+	 * @return the readiness probe of the OCSP request
+	 */
+	@Override
+	protected ReadinessProbe getReadinessProbe() {
+		return ReadinessProbe.processExited();
+	}
+
 	@Override
 	public final void stop() {
 		super.stop();
@@ -94,8 +117,7 @@ public class OCSPRequestExecutor extends GenericCommandLineExecution {
 	}
 
 	/**
-	 * Stops the OCSP request process after 60 seconds if not stopped already. De-registers a previously-registered
-	 * virtual-machine shutdown hook.
+	 * Stops the OCSP request process after 60 seconds if not stopped already.
 	 * 
 	 * @see #stop()
 	 */
@@ -109,7 +131,6 @@ public class OCSPRequestExecutor extends GenericCommandLineExecution {
 				public void run() {
 					logError("Forcibly stopping " + getExecutor().getName() + " after 60 seconds in cleanAndExit.");
 					destroy();
-					removeShutdownHook();
 				}
 			}, sixty * thousand);
 			logFileCreated();
@@ -1,5 +1,6 @@
 package com.achelos.task.commandlineexecution.applications.ocsp;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.net.URISyntaxException;
@@ -9,8 +10,10 @@ import java.util.List;
 
 import com.achelos.task.commandlineexecution.applications.certgenerator.CertGeneratorExecutor;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.Executor;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.ReadinessProbe;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.RunLogger;
 import com.achelos.task.commons.enums.TlsCipherSuite;
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.logging.LoggingConnector;
 
 /**
@@ -18,6 +21,8 @@ import com.achelos.task.logging.LoggingConnector;
  */
 public class OCSPServerExecutor extends RunLogger {
 
+	private EmbeddedOcspResponder embeddedResponder;
+
 	/**
 	 * Default constructor.
 	 * 
@@ -25,12 +30,24 @@ public class OCSPServerExecutor extends RunLogger {
 	 * @param logger the logger to use
 	 */
 	public OCSPServerExecutor(final String testCaseName, final LoggingConnector logger) throws IOException {
-		super(testCaseName, Executor.OCSPSERVER, logger);
-		CertGeneratorExecutor.generateOcspCrlCertificates(logger, getConfiguration());
+		this(testCaseName, ExecutionContext.current().withLogger(logger));
 	}
 
 	/**
-	 * Starts the OCSP executor on the port of the OCSP responder as specified in the global configuration file.
+	 * Constructor within the given execution context.
+	 * 
+	 * @param testCaseName the test case name
+	 * @param context the execution context providing the configuration and the logger
+	 */
+	public OCSPServerExecutor(final String testCaseName, final ExecutionContext context) throws IOException {
+		super(testCaseName, Executor.OCSPSERVER, context);
+		CertGeneratorExecutor.generateOcspCrlCertificates(context.getLogger(), getConfiguration());
+	}
+
+	/**
+	 * Starts the OCSP executor on the port of the OCSP responder as specified in the global configuration file. The
+	 * port is contained in the generated certificates, thus it is leased exclusively until {@link #cleanAndExit()}.
+	 * If configured, the {@link EmbeddedOcspResponder} is started instead of the OCSP responder of OpenSSL.
 	 * 
 	 * @param cipherSuite the cipher suite to get CRL/OCSP directory with matching key type.
 	 * @throws Exception may throws an exception if OCSP executor is unable to start.
@@ -41,7 +58,13 @@ public class OCSPServerExecutor extends RunLogger {
 		final List<String> command = new ArrayList<>();
 
 		String path = getConfiguration().getCrlOcspCertDirectoryWithMatchingKeyType(cipherSuite).getAbsolutePath();
-		var port = getConfiguration().getOcspResponderPort();
+		var port = leasePort(getConfiguration().getOcspResponderPort(), 1);
+
+		if (getConfiguration().isOcspCrlEmbeddedResponder()) {
+			embeddedResponder = EmbeddedOcspResponder.start(new File(path), port, this::logServiceOutput);
+			return;
+		}
+
 		var opensslExecutable = getConfiguration().getOpenSSLExecutable();
 
 		command.add(opensslExecutable);
@@ -76,20 +99,30 @@ public class OCSPServerExecutor extends RunLogger {
 		start(command, null, null);
 	}
 
+	/**
+	 * The OCSP responder is ready when it reports to wait for connections. Depending on the OpenSSL version, the
+	 * message is either "Waiting for OCSP client connections..." or "ACCEPT ...".
+	 *
+	 * @return the readiness probe of the OCSP responder
+	 */
+	@Override
+	protected ReadinessProbe getReadinessProbe() {
+		return ReadinessProbe.logLine("Waiting for OCSP client connections", "ACCEPT");
+	}
+
 	/**
 	 * Method stops the OCSP Executor.
 	 */
 	@Override
 	public final void stop() {
+		if (embeddedResponder != null) {
+			embeddedResponder.close();
+			embeddedResponder = null;
+			serviceStopped();
+			return;
+		}
 		stopLogQueueProducer();
-		final int delay = 1000;
-		startSleepTimer(delay);
 		destroy();
-		while (isRunning()) {
-			logDebug("OCSP process is still alive.");
-			startSleepTimer(delay);
-		}
-		super.removeShutdownHook();
 	}
 
 	@Override
@@ -20,6 +20,7 @@ import com.achelos.task.commandlineexecution.applications.tlstesttool.configurat
 import com.achelos.task.commandlineexecution.applications.tlstesttool.configuration.TlsTestToolConfigurationOption;
 import com.achelos.task.commandlineexecution.applications.tlstesttool.messagetextresources.TestToolResource;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.Executor;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.ReadinessProbe;
 import com.achelos.task.commons.certificatehelper.TlsSignatureAlgorithmWithHashTls13;
 import com.achelos.task.utilities.logging.IterationCounter;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.RunLogger;
@@ -42,6 +43,7 @@ import com.achelos.task.commons.enums.TlsVersion;
 import com.achelos.task.commons.tlsextensions.TlsExtServerName;
 import com.achelos.task.commons.tlsextensions.TlsExtensionList;
 import com.achelos.task.commons.tools.StringTools;
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.configuration.TlsTestToolCertificateTypes;
 import com.achelos.task.logging.BasicLogger;
@@ -75,9 +77,23 @@ public class TlsTestToolExecutor extends RunLogger {
 	public TlsTestToolExecutor(final String testCaseName, final LoggingConnector logger)
 																							throws IOException,
 																							URISyntaxException {
-		super(testCaseName, Executor.TLSTESTTOOL, logger);
-		config = new TlsTestToolConfiguration();
-		configuration = TestRunPlanConfiguration.getInstance();
+		this(testCaseName, ExecutionContext.current().withLogger(logger));
+	}
+
+	/**
+	 * Constructor for starting TLS Test Tool within the given execution context.
+	 *
+	 * @param testCaseName test case name
+	 * @param context the execution context providing the configuration and the logger
+	 * @throws URISyntaxException
+	 * @throws IOException
+	 */
+	public TlsTestToolExecutor(final String testCaseName, final ExecutionContext context)
+																							throws IOException,
+																							URISyntaxException {
+		super(testCaseName, Executor.TLSTESTTOOL, context);
+		config = new TlsTestToolConfiguration(context.getLogger());
+		configuration = context.getConfiguration();
 	}
 
 	/**
@@ -184,7 +200,6 @@ public class TlsTestToolExecutor extends RunLogger {
 	
 	public final void stop() {
 		destroy();
-		removeShutdownHook();
 	}
 
 
@@ -632,12 +647,25 @@ public class TlsTestToolExecutor extends RunLogger {
 
 
 	/**
-	 * Method takes the value for port from global parameters and specifies host=127.0.0.1 and taken port for the TLS
-	 * Test Tool when used as a server.
+	 * Returns the port the TLS Test Tool listens on when used as a server. The port is leased from the range given by
+	 * the global parameters on first call and released by {@link #cleanAndExit()}.
+	 *
+	 * @return the leased port of the TLS Test Tool
+	 */
+	public final int getTlsTestToolPort() {
+		return leasePort(configuration.getTlsTestToolPort(), configuration.getTlsTestToolPortCount());
+	}
+
+
+	/**
+	 * Method leases a port from the range given by the global parameters and specifies host=127.0.0.1 and the leased
+	 * port for the TLS Test Tool when used as a server.
+	 *
+	 * @see #getTlsTestToolPort()
 	 */
 	public final void setServerHostAndPort() {
 		checkServerMode();
-		final String port = Integer.toString(configuration.getTlsTestToolPort());
+		final String port = Integer.toString(getTlsTestToolPort());
 		logInfo("Setup TLS Test Tool address and port to: " + TLS_TEST_TOOL_LOCAL_HOST_AS_SERVER + ":" + port);
 		setHostAndPort(TLS_TEST_TOOL_LOCAL_HOST_AS_SERVER, port);
 	}
@@ -705,14 +733,13 @@ public class TlsTestToolExecutor extends RunLogger {
 	 *
 	 * @throws IOException
 	 */
-	@SuppressWarnings("unchecked")
 	public final void resetProperties() throws IOException {
 		logDebug("Reset current TLS Test Tool configuration.");
 		processLoggingOutput();
 		// Check if there is a need for storing log messages for later usage.
 		// Simply support only one element in the optional parameter
 		if (null != getIterationCounter() && processLoggingOutputDone) {
-			writeLogsToFile((ArrayList<LogBean>) getLogBeanList().clone());
+			writeLogsToFile(getLogBeanList());
 		}
 		resetLog();
 		config.clear();
@@ -724,14 +751,28 @@ public class TlsTestToolExecutor extends RunLogger {
 	 *
 	 * @throws IOException
 	 */
-	@SuppressWarnings("unchecked")
 	public final void saveInitialHandshakeLogs() throws IOException {
-		writeLogsToFile((ArrayList<LogBean>) getLogBeanList().clone());
+		writeLogsToFile(getLogBeanList());
 		clearLogBeanList();
 		clearLogList();
 	}
 
 
+	/**
+	 * A TLS Test Tool acting as server is ready when it waits for connections. A TLS Test Tool acting as client is
+	 * considered ready as soon as it logs anything, as the following checks wait for the log messages anyway.
+	 *
+	 * @return the readiness probe depending on the mode of the TLS Test Tool
+	 */
+	@Override
+	protected ReadinessProbe getReadinessProbe() {
+		if (mode == TlsTestToolMode.server) {
+			return ReadinessProbe.logLine(TestToolResource.Waiting_TCP_IP_conn_port.getInternalToolOutputMessage());
+		}
+		return ReadinessProbe.anyLogLine();
+	}
+
+
 	/**
 	 * Returns the configuration.
 	 *
@@ -739,7 +780,7 @@ public class TlsTestToolExecutor extends RunLogger {
 	 */
 	@Override
 	public final TestRunPlanConfiguration getConfiguration() {
-		return TestRunPlanConfiguration.getInstance();
+		return configuration;
 	}
 
 
@@ -1405,7 +1446,7 @@ public class TlsTestToolExecutor extends RunLogger {
 		final List<String> foundMatches = new ArrayList<>();
 
 		logInfo("Searching for '" + key + "'");
-		final List<LogBean> logEntries = findMessages(key);
+		final List<LogBean> logEntries = findKeyMessages(key);
 
 		if (logEntries != null) {
 			for (final LogBean logEntry : logEntries) {
@@ -1443,7 +1484,7 @@ public class TlsTestToolExecutor extends RunLogger {
 
 	public int numberOfTimesMessageLogged(final TestToolResource message)
 			throws IOException {
-			var list = findMessages(message.getInternalToolOutputMessage());
+			var list = findKeyMessages(message.getInternalToolOutputMessage());
 			if(list == null){
 				return 0;
 			} else {
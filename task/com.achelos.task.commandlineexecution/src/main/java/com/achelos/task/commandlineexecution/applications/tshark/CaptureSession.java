@@ -0,0 +1,166 @@
+package com.achelos.task.commandlineexecution.applications.tshark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.achelos.task.commandlineexecution.applications.tshark.exception.TSharkException;
+import com.achelos.task.commandlineexecution.applications.tshark.helper.PcapSlicer;
+import com.achelos.task.commandlineexecution.applications.tshark.helper.TSharkParameters;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.Executor;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.GenericCommandLineExecution;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.ReadinessProbe;
+import com.achelos.task.configuration.ExecutionContext;
+import com.achelos.task.configuration.TestRunPlanConfiguration;
+
+
+/**
+ * A Dumpcap process which captures the network traffic of a whole test run into a ring buffer. The captures of the
+ * single test cases are sliced out of the ring buffer by {@link TSharkExecutor}, so that Dumpcap does not have to be
+ * started and stopped for every test case.
+ * <p>
+ * The session of a test run is started by the first test case and stopped by {@link #close(TestRunPlanConfiguration)}
+ * at the end of the test run.
+ */
+public final class CaptureSession extends GenericCommandLineExecution {
+
+	/**
+	 * Size of a ring buffer file in kB.
+	 */
+	private static final int RING_BUFFER_FILE_SIZE = 10000;
+	/**
+	 * Number of ring buffer files. The ring buffer must hold the traffic of a whole test case.
+	 */
+	private static final int RING_BUFFER_FILES = 20;
+	private static final String RING_BUFFER_FILE_PREFIX = "capture";
+
+	private static final Map<TestRunPlanConfiguration, CaptureSession> SESSIONS = new ConcurrentHashMap<>();
+
+	private final TSharkParameters tSharkSettings;
+	private File ringBufferDirectory;
+	private File processOutput;
+
+	private CaptureSession(final ExecutionContext context) {
+		super(Executor.TSHARK, "capture session", context);
+		tSharkSettings = new TSharkParameters(context.getConfiguration());
+	}
+
+	/**
+	 * Returns the capture session of the test run, and starts it if it is not running yet.
+	 *
+	 * @param context the execution context of the test run
+	 * @return the running capture session
+	 * @throws IOException if Dumpcap cannot be started
+	 * @throws TSharkException if TShark parameters are not correct
+	 */
+	static CaptureSession getRunning(final ExecutionContext context) throws IOException, TSharkException {
+		final CaptureSession session = SESSIONS.computeIfAbsent(context.getConfiguration(),
+				configuration -> new CaptureSession(context));
+		session.startIfNotRunning();
+		return session;
+	}
+
+	/**
+	 * Stop the capture session of the test run, if any, and delete its ring buffer.
+	 *
+	 * @param configuration the configuration of the test run
+	 */
+	public static void close(final TestRunPlanConfiguration configuration) {
+		final CaptureSession session = SESSIONS.remove(configuration);
+		if (session != null) {
+			session.stopAndDelete();
+		}
+	}
+
+	private synchronized void startIfNotRunning() throws IOException, TSharkException {
+		if (isRunning()) {
+			return;
+		}
+		ringBufferDirectory = Files.createTempDirectory("dumpcap_ring_").toFile();
+		processOutput = new File(ringBufferDirectory, "standard_output.txt");
+
+		final File tSharkFile = tSharkSettings.getTSharkExecutableFile();
+		final List<String> command = new ArrayList<>();
+		command.add(tSharkFile.getName());
+		command.add("-i");
+		command.add(tSharkSettings.getTSharkInterface());
+		final List<String> options = TSharkExecutor.splitOptions(tSharkSettings.getTSharkOptions());
+		command.addAll(options);
+		// The ring buffer is sliced, which requires the libpcap format.
+		if (!options.contains("-P")) {
+			command.add("-P");
+		}
+		command.add("-b");
+		command.add("filesize:" + RING_BUFFER_FILE_SIZE);
+		command.add("-b");
+		command.add("files:" + RING_BUFFER_FILES);
+		command.add("-w");
+		command.add(new File(ringBufferDirectory, RING_BUFFER_FILE_PREFIX + Executor.TSHARK.getFileExtension())
+				.getCanonicalPath());
+
+		start(command, processOutput, tSharkFile.getParentFile());
+		if (!isRunning()) {
+			throw new TSharkException("Dumpcap capture session terminated right after its start.");
+		}
+		logInfo("Started Dumpcap capture session writing to " + ringBufferDirectory + ".");
+	}
+
+	/**
+	 * Dumpcap is ready when it reports to capture, which is written to the process output file.
+	 *
+	 * @return the readiness probe of the capture session
+	 */
+	@Override
+	protected ReadinessProbe getReadinessProbe() {
+		return ReadinessProbe.outputFileContains(processOutput, "Capturing");
+	}
+
+	/**
+	 * Write the packets captured within the given time window to the target file.
+	 *
+	 * @param target the file to write
+	 * @param fromMillis the start of the time window in milliseconds since the epoch
+	 * @param toMillis the end of the time window in milliseconds since the epoch
+	 * @param ports the ports to restrict the packets to, or an empty set for all packets
+	 * @return the number of packets written.
+	 * @throws IOException if the target file cannot be written
+	 */
+	synchronized int slice(final File target, final long fromMillis, final long toMillis, final Set<Integer> ports)
+			throws IOException {
+		final File[] files = ringBufferDirectory.listFiles(
+				(dir, name) -> name.startsWith(RING_BUFFER_FILE_PREFIX)
+						&& name.endsWith(Executor.TSHARK.getFileExtension()));
+		if (files == null) {
+			return 0;
+		}
+		// Dumpcap numbers the ring buffer files consecutively.
+		Arrays.sort(files, Comparator.comparing(File::getName));
+		return PcapSlicer.slice(Arrays.asList(files), target, fromMillis, toMillis, ports);
+	}
+
+	private synchronized void stopAndDelete() {
+		stop();
+		if (ringBufferDirectory != null) {
+			final File[] files = ringBufferDirectory.listFiles();
+			if (files != null) {
+				for (final File file : files) {
+					file.delete();
+				}
+			}
+			ringBufferDirectory.delete();
+		}
+	}
+
+	@Override
+	protected void stop() {
+		destroy();
+		setNull();
+	}
+}
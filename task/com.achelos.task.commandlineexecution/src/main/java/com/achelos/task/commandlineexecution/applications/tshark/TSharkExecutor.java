@@ -8,16 +8,20 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.concurrent.*;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import com.achelos.task.commandlineexecution.applications.tshark.exception.TSharkException;
 import com.achelos.task.commandlineexecution.applications.tshark.helper.TSharkParameters;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.Executor;
 import com.achelos.task.commandlineexecution.genericcommandlineexecution.GenericCommandLineExecution;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.PortLeaseAllocator;
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.ReadinessProbe;
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.logging.LoggingConnector;
 
@@ -26,10 +30,19 @@ import com.achelos.task.logging.LoggingConnector;
  * Class for running the TShark in a separate process.
  */
 public class TSharkExecutor extends GenericCommandLineExecution {
-	private BufferedReader stdOut;
+	/**
+	 * Time in milliseconds Dumpcap keeps capturing after the test case has finished, to capture packets which are
+	 * still in flight, e.g. the closing of the connection.
+	 */
+	private static final long CAPTURE_DRAIN_TIME = 200;
+
 	private File processErrorOutput = null;
 	private final TSharkParameters tSharkSettings;
 	private final TestRunPlanConfiguration configuration;
+	private final ExecutionContext context;
+	private final Set<Integer> capturedPorts = new HashSet<>();
+	private CaptureSession captureSession = null;
+	private long captureStartMillis;
 
 	/**
 	 * Start a TShark process to capture network traffic.
@@ -42,161 +55,195 @@ public class TSharkExecutor extends GenericCommandLineExecution {
 	public TSharkExecutor(final String testCaseName, final LoggingConnector log)
 																					throws FileNotFoundException,
 																					TSharkException {
-		super(Executor.TSHARK, testCaseName, log);
-		configuration = TestRunPlanConfiguration.getInstance();
-		tSharkSettings = new TSharkParameters();
+		this(testCaseName, ExecutionContext.current().withLogger(log));
+	}
+
+	/**
+	 * Start a TShark process to capture network traffic within the given execution context.
+	 *
+	 * @param testCaseName The test case name.
+	 * @param context The execution context providing the configuration and the logger.
+	 * @throws FileNotFoundException if the Dumpcap output file cannot be created
+	 * @throws TSharkException if TShark parameters are not correct
+	 */
+	public TSharkExecutor(final String testCaseName, final ExecutionContext context)
+																					throws FileNotFoundException,
+																					TSharkException {
+		super(Executor.TSHARK, testCaseName, context);
+		this.context = context;
+		configuration = context.getConfiguration();
+		tSharkSettings = new TSharkParameters(configuration);
 	}
 
 
 	/**
-	 * Method starts the Dumpcap tool (e.g. wireshark).
+	 * Method starts the Dumpcap tool (e.g. wireshark). If a persistent capture is configured, the capture session of
+	 * the test run is used instead, and only the start of the test case and the ports leased by its executors are
+	 * recorded.
 	 *
 	 * @throws IOException
 	 * @throws TSharkException
 	 */
 	public final void start()
 			throws IOException, TSharkException {
-		if (configuration.isTsharkEnabled()) {
-			try {
-				processErrorOutput = File.createTempFile("dumpcap_", "_standard_output.txt");
-				processErrorOutput.deleteOnExit();
-			} catch (IOException e) {
-				logError("Error occured while creating a temporary output file", e);
-				throw new FileNotFoundException("Error occured while creating a temporary output file" + e.getMessage());
-			}
+		if (!configuration.isTsharkEnabled()) {
+			return;
+		}
+		if (configuration.isTsharkPersistentCapture()) {
+			captureSession = CaptureSession.getRunning(context);
+			captureStartMillis = System.currentTimeMillis();
+			PortLeaseAllocator.getInstance().startRecording(configuration, getTestCaseName());
+			return;
+		}
+		try {
+			processErrorOutput = File.createTempFile("dumpcap_", "_standard_output.txt");
+			processErrorOutput.deleteOnExit();
+		} catch (IOException e) {
+			logError("Error occured while creating a temporary output file", e);
+			throw new FileNotFoundException("Error occured while creating a temporary output file" + e.getMessage());
+		}
 
-			final File tSharkFile = tSharkSettings.getTSharkExecutableFile();
-			try {
-				final List<String> command = new ArrayList<>();
-				command.add(tSharkFile.getName());
-				// Flush standard output
-				command.add("-l");
-
-				// Interface
-				command.add("-i");
-				command.add(tSharkSettings.getTSharkInterface());
-
-				// Additional options
-				final String tSharkOptions = tSharkSettings.getTSharkOptions();
-				try (Scanner sc = new Scanner(tSharkOptions)) {
-					final Pattern pattern = Pattern.compile("\"[^\"]*\"" + "|'[^']*'" + "|[^ ]+");
-					String option;
-					while ((option = sc.findInLine(pattern)) != null) {
-						option = option.trim();
-						if (option.startsWith("'") && option.endsWith("'")
-								|| option.startsWith("\"") && option.endsWith("\"")) {
-							option = option.substring(1, option.length() - 1);
-						}
-						command.add(option);
-					}
-				}
+		final File tSharkFile = tSharkSettings.getTSharkExecutableFile();
+		try {
+			final List<String> command = new ArrayList<>();
+			command.add(tSharkFile.getName());
+			// Flush standard output
+			command.add("-l");
+
+			// Interface
+			command.add("-i");
+			command.add(tSharkSettings.getTSharkInterface());
 
-				// Output file
-				command.add("-w");
-				command.add(createLogFile().getCanonicalPath());
+			// Additional options
+			command.addAll(splitOptions(tSharkSettings.getTSharkOptions()));
 
-				start(command, processErrorOutput, tSharkFile.getParentFile());
+			// Output file
+			command.add("-w");
+			command.add(createLogFile().getCanonicalPath());
 
-				logDebug("Wait until TShark is started successfully");
-				
+			// Waits until Dumpcap reports to capture (prevent errors on non-captured network traffic)
+			start(command, processErrorOutput, tSharkFile.getParentFile());
 
-			} catch (IOException e) {
-				logError("An error occurred while executing TShark Dumpcap:  " + e.getMessage());
-				throw new FileNotFoundException("An error occurred while executing TShark Dumpcap: " + e.getMessage());
+		} catch (IOException e) {
+			logError("An error occurred while executing TShark Dumpcap:  " + e.getMessage());
+			throw new FileNotFoundException("An error occurred while executing TShark Dumpcap: " + e.getMessage());
+		}
+
+		try (BufferedReader stdOut = new BufferedReader(
+				new InputStreamReader(new FileInputStream(processErrorOutput), StandardCharsets.UTF_8))) {
+			final String startMessage = stdOut.readLine();
+			if (null == startMessage) {
+				logError("An error occurred while starting TShark.");
+				return;
 			}
+			// startMessage == "Capturing"
+			if (!startMessage.contains("Capturing") && !"Capturing".contains(startMessage)) {
+				logError("An error occurred while starting TShark.");
+				throw new TSharkException("Error reason: " + startMessage);
+			}
+		} catch (IOException e) {
+			logError("An error occurred while starting TShark.");
+			throw new TSharkException("Error reason: " + e);
+		}
+	}
 
-			try {
-				// We need to wait to let TShark startup (prevent errors on
-				// non-captured network traffic)
-				stdOut = new BufferedReader(
-						new InputStreamReader(new FileInputStream(processErrorOutput), StandardCharsets.UTF_8));
-
-				ExecutorService executor = Executors.newSingleThreadExecutor();
-				Callable<Object> task = new Callable<Object>() {
-					@Override
-					public Object call() throws Exception {
-						try {
-							while (!stdOut.ready()) {
-								Thread.sleep(100);
-								if (Thread.interrupted()) {
-									return null;
-								}
-							}
-
-						} catch (InterruptedException e) {
-							//do nothing
-						}
-						return null;
-					}
-				};
-				Collection<Callable<Object>> collection = new ArrayList<Callable<Object>>();
-				collection.add(task);
-				executor.invokeAny(collection, 2, TimeUnit.SECONDS);
-
-				executor.shutdown();
-				try {
-					if (!executor.awaitTermination(500, TimeUnit.MILLISECONDS)) {
-						executor.shutdownNow();
-					}
-				} catch (InterruptedException e) {
-					executor.shutdownNow();
-				}
 
-				if (stdOut.ready()) {
-					String startMessage = stdOut.readLine();
-					if (null == startMessage) {
-						return;
-					}
-					// startMessage == "Capturing"
-					if (!startMessage.contains("Capturing") && !"Capturing".contains(startMessage)) {
-						logError("An error occurred while starting TShark.");
-						throw new TSharkException("Error reason: " + startMessage);
-					}
-				} else {
-					logError("An error occurred while starting TShark.");
+	/**
+	 * Restrict the capture of this test case to TCP and UDP packets from or to the given ports. Only applies to a
+	 * persistent capture, which contains the traffic of concurrently executed test cases. The ports leased by the
+	 * executors of the test case are added when the capture is sliced.
+	 *
+	 * @param ports the ports used by the test case
+	 */
+	public final void restrictToPorts(final int... ports) {
+		for (final int port : ports) {
+			capturedPorts.add(port);
+		}
+	}
+
+
+	/**
+	 * Split the TShark options at spaces, keeping quoted options together.
+	 *
+	 * @param tSharkOptions the TShark options of the global configuration
+	 * @return the single options without quotes
+	 */
+	static List<String> splitOptions(final String tSharkOptions) {
+		final List<String> options = new ArrayList<>();
+		try (Scanner sc = new Scanner(tSharkOptions)) {
+			final Pattern pattern = Pattern.compile("\"[^\"]*\"" + "|'[^']*'" + "|[^ ]+");
+			String option;
+			while ((option = sc.findInLine(pattern)) != null) {
+				option = option.trim();
+				if (option.startsWith("'") && option.endsWith("'")
+						|| option.startsWith("\"") && option.endsWith("\"")) {
+					option = option.substring(1, option.length() - 1);
 				}
-			} catch (IOException e) {
-				logError("An error occurred while starting TShark.");
-				throw new TSharkException("Error reason: " + e);
-			} catch (ExecutionException e) {
-				e.printStackTrace();
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			} catch (TimeoutException e) {
-				e.printStackTrace();
+				options.add(option);
 			}
 		}
+		return options;
 	}
 
 
+	/**
+	 * Dumpcap is ready when it reports to capture, which is written to the process output file.
+	 *
+	 * @return the readiness probe of TShark
+	 */
+	@Override
+	protected ReadinessProbe getReadinessProbe() {
+		return ReadinessProbe.outputFileContains(processErrorOutput, "Capturing");
+	}
+
 	/**
 	 * Stop the simulation by killing the process.
 	 */
 	@Override
 	public final void stop() {
-		if (configuration.isTsharkEnabled()) {
-			final int delay = 1000;
-			startSleepTimer(delay); // wait some time to give Wireshark the chance to collect all network traffic.
+		if (configuration.isTsharkEnabled() && captureSession == null) {
+			startSleepTimer(CAPTURE_DRAIN_TIME); // give Dumpcap the chance to capture the last packets
 			destroy();
-			while (isRunning()) {
-				logDebug("TShark process is still alive.");
-				startSleepTimer(delay);
-			}
-			super.removeShutdownHook();
 		}
 	}
 
 	/**
-	 * Stops the TShark executor. De-registers a previously-registered virtual-machine shutdown hook.
+	 * Stops the TShark executor. In case of a persistent capture, the capture of the test case is sliced out of the
+	 * capture session instead.
 	 * 
 	 * @see #stop()
 	 */
 	public void cleanAndExit() {
-		if (configuration.isTsharkEnabled()) {
+		if (!configuration.isTsharkEnabled()) {
+			return;
+		}
+		if (captureSession != null) {
+			sliceCapture();
+		} else {
 			stop();
-			logFileCreated();
-			resetLog();
 		}
+		logFileCreated();
+		resetLog();
+	}
+
+	private void sliceCapture() {
+		// Give Dumpcap the chance to capture the last packets and to flush them to the ring buffer.
+		startSleepTimer(CAPTURE_DRAIN_TIME);
+		final long captureEndMillis = System.currentTimeMillis();
+		final Map<Integer, Executor> leasedPorts = PortLeaseAllocator.getInstance().stopRecording(configuration, getTestCaseName());
+		// The TLS connection to the DUT is only told apart by the port of the TLS Test Tool acting as server. A TLS
+		// Test Tool acting as client uses an ephemeral port, thus the capture is not restricted then.
+		if (leasedPorts.containsValue(Executor.TLSTESTTOOL)) {
+			restrictToPorts(leasedPorts.keySet().stream().mapToInt(Integer::intValue).toArray());
+		}
+		try {
+			final int packets = captureSession.slice(createLogFile(), captureStartMillis, captureEndMillis,
+					capturedPorts);
+			logDebug("Sliced " + packets + " packets out of the capture session.");
+		} catch (IOException e) {
+			logError("An error occurred while slicing the capture of the test case.", e);
+		}
+		captureSession = null;
 	}
 
 }
@@ -0,0 +1,207 @@
+package com.achelos.task.commandlineexecution.applications.tshark.helper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Copies the packets of a time window out of capture files in the libpcap format (as written by Dumpcap with option
+ * -P), optionally restricted to TCP and UDP packets from or to given ports.
+ */
+public final class PcapSlicer {
+
+	private static final int GLOBAL_HEADER_LENGTH = 24;
+	private static final int RECORD_HEADER_LENGTH = 16;
+	private static final int MAGIC_MICROSECONDS = 0xa1b2c3d4;
+	private static final int MAGIC_NANOSECONDS = 0xa1b23c4d;
+	/**
+	 * Records larger than this are treated as a corrupt or partially written file.
+	 */
+	private static final int MAXIMUM_RECORD_LENGTH = 256 * 1024;
+
+	private static final int LINKTYPE_NULL = 0;
+	private static final int LINKTYPE_ETHERNET = 1;
+	private static final int LINKTYPE_RAW = 101;
+	private static final int LINKTYPE_LINUX_SLL = 113;
+	private static final int LINKTYPE_LINUX_SLL2 = 276;
+
+	private static final int ETHER_TYPE_IPV4 = 0x0800;
+	private static final int ETHER_TYPE_IPV6 = 0x86dd;
+	private static final int ETHER_TYPE_VLAN = 0x8100;
+	private static final int IP_PROTOCOL_TCP = 6;
+	private static final int IP_PROTOCOL_UDP = 17;
+
+	/**
+	 * Hidden Constructor.
+	 */
+	private PcapSlicer() {
+		// Empty.
+	}
+
+	/**
+	 * Write the packets of the given time window to the target file. The global header of the first readable source
+	 * file is used for the target file. Partially written records at the end of a source file are ignored, as are source
+	 * files which no longer exist.
+	 *
+	 * @param sources the capture files in chronological order
+	 * @param target the file to write
+	 * @param fromMillis the start of the time window in milliseconds since the epoch
+	 * @param toMillis the end of the time window in milliseconds since the epoch
+	 * @param ports the ports to restrict the packets to, or an empty set for all packets
+	 * @return the number of packets written.
+	 * @throws IOException if the target file cannot be written
+	 */
+	public static int slice(final List<File> sources, final File target, final long fromMillis, final long toMillis,
+			final Set<Integer> ports) throws IOException {
+		int packets = 0;
+		boolean headerWritten = false;
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(target))) {
+			for (final File source : sources) {
+				try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(source)))) {
+					final byte[] globalHeader = new byte[GLOBAL_HEADER_LENGTH];
+					in.readFully(globalHeader);
+					final ByteBuffer header = ByteBuffer.wrap(globalHeader).order(ByteOrder.LITTLE_ENDIAN);
+					int magic = header.getInt(0);
+					if (magic != MAGIC_MICROSECONDS && magic != MAGIC_NANOSECONDS) {
+						header.order(ByteOrder.BIG_ENDIAN);
+						magic = header.getInt(0);
+						if (magic != MAGIC_MICROSECONDS && magic != MAGIC_NANOSECONDS) {
+							continue; // not a libpcap file, e.g. pcapng
+						}
+					}
+					if (!headerWritten) {
+						out.write(globalHeader);
+						headerWritten = true;
+					}
+					final long subsecondsPerMillisecond = magic == MAGIC_NANOSECONDS ? 1_000_000 : 1_000;
+					packets += copyRecords(in, out, header.order(), header.getInt(20) & 0x0fffffff,
+							subsecondsPerMillisecond, fromMillis, toMillis, ports);
+				} catch (EOFException e) {
+					// File without global header, e.g. just created by Dumpcap.
+				} catch (FileNotFoundException e) {
+					// Deleted by the ring buffer of Dumpcap since the source files have been listed.
+				}
+			}
+		}
+		return packets;
+	}
+
+	private static int copyRecords(final InputStream in, final OutputStream out, final ByteOrder order,
+			final int linkType, final long subsecondsPerMillisecond, final long fromMillis, final long toMillis,
+			final Set<Integer> ports) throws IOException {
+		int packets = 0;
+		final byte[] recordHeader = new byte[RECORD_HEADER_LENGTH];
+		final ByteBuffer header = ByteBuffer.wrap(recordHeader).order(order);
+		byte[] data = new byte[2048];
+		while (in.readNBytes(recordHeader, 0, RECORD_HEADER_LENGTH) == RECORD_HEADER_LENGTH) {
+			final long seconds = header.getInt(0) & 0xffffffffL;
+			final long subseconds = header.getInt(4) & 0xffffffffL;
+			final int length = header.getInt(8);
+			if (length < 0 || length > MAXIMUM_RECORD_LENGTH) {
+				break;
+			}
+			if (data.length < length) {
+				data = new byte[length];
+			}
+			if (in.readNBytes(data, 0, length) != length) {
+				break;
+			}
+			final long millis = seconds * 1000 + subseconds / subsecondsPerMillisecond;
+			if (millis < fromMillis || millis > toMillis) {
+				continue;
+			}
+			if (!ports.isEmpty() && !matchesPorts(data, length, linkType, ports)) {
+				continue;
+			}
+			out.write(recordHeader);
+			out.write(data, 0, length);
+			packets++;
+		}
+		return packets;
+	}
+
+	/**
+	 * @return true, if the packet is a TCP or UDP packet from or to one of the ports.
+	 */
+	private static boolean matchesPorts(final byte[] data, final int length, final int linkType,
+			final Set<Integer> ports) {
+		final ByteBuffer packet = ByteBuffer.wrap(data, 0, length).order(ByteOrder.BIG_ENDIAN);
+		int offset;
+		int etherType;
+		switch (linkType) {
+			case LINKTYPE_ETHERNET:
+				offset = 14;
+				etherType = unsignedShort(packet, 12, length);
+				while (etherType == ETHER_TYPE_VLAN) {
+					etherType = unsignedShort(packet, offset + 2, length);
+					offset += 4;
+				}
+				break;
+			case LINKTYPE_LINUX_SLL:
+				offset = 16;
+				etherType = unsignedShort(packet, 14, length);
+				break;
+			case LINKTYPE_LINUX_SLL2:
+				offset = 20;
+				etherType = unsignedShort(packet, 0, length);
+				break;
+			case LINKTYPE_NULL:
+				offset = 4;
+				etherType = -1;
+				break;
+			case LINKTYPE_RAW:
+				offset = 0;
+				etherType = -1;
+				break;
+			default:
+				// Unknown link layer, do not drop any packet.
+				return true;
+		}
+		if (offset >= length) {
+			return false;
+		}
+		if (etherType == -1) {
+			final int version = (data[offset] & 0xf0) >> 4;
+			etherType = version == 6 ? ETHER_TYPE_IPV6 : ETHER_TYPE_IPV4;
+		}
+
+		final int protocol;
+		final int transportOffset;
+		if (etherType == ETHER_TYPE_IPV4) {
+			protocol = unsignedByte(packet, offset + 9, length);
+			transportOffset = offset + (data[offset] & 0x0f) * 4;
+		} else if (etherType == ETHER_TYPE_IPV6) {
+			// Extension headers are not followed.
+			protocol = unsignedByte(packet, offset + 6, length);
+			transportOffset = offset + 40;
+		} else {
+			return false;
+		}
+		if (protocol != IP_PROTOCOL_TCP && protocol != IP_PROTOCOL_UDP) {
+			return false;
+		}
+		return ports.contains(unsignedShort(packet, transportOffset, length))
+				|| ports.contains(unsignedShort(packet, transportOffset + 2, length));
+	}
+
+	private static int unsignedShort(final ByteBuffer packet, final int offset, final int length) {
+		return offset + 2 <= length ? packet.getShort(offset) & 0xffff : -1;
+	}
+
+	private static int unsignedByte(final ByteBuffer packet, final int offset, final int length) {
+		return offset < length ? packet.get(offset) & 0xff : -1;
+	}
+}
@@ -17,7 +17,16 @@ public class TSharkParameters {
 	 *
 	 */
 	public TSharkParameters() {
-		this.configuration = TestRunPlanConfiguration.getInstance();
+		this(TestRunPlanConfiguration.getInstance());
+	}
+
+	/**
+	 * Create a new instance reading the given configuration.
+	 *
+	 * @param configuration the test run plan configuration to read the parameters from
+	 */
+	public TSharkParameters(final TestRunPlanConfiguration configuration) {
+		this.configuration = configuration;
 	}
 
 
@@ -9,13 +9,15 @@ import java.lang.ProcessBuilder.Redirect;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.logging.BasicLogger;
 import com.achelos.task.utilities.logging.IterationCounter;
@@ -29,15 +31,15 @@ import com.achelos.task.utilities.logging.LogBean;
 public class GenericCommandLineExecution extends Logging {
 
 	private Process process;
-	private Thread shutdownHookThread = null;
-	private final List<String> logList = new ArrayList<>();
-	private ArrayList<LogBean> logBeanList = new ArrayList<>();
+	private final List<LogLine> logList = new ArrayList<>();
+	private final LogStore logStore = new LogStore();
 	private long exitValue = -1;
 	protected boolean processLoggingOutputDone = false;
 	private File outputFile = null;
 	private final String testCaseName;
 	private final TestRunPlanConfiguration configuration;
 	private IterationCounter iterationCounter = null;
+	private PortLeaseAllocator.PortLease portLease = null;
 
 	/**
 	 * PROCESS_EXIT_VALUE_OK: 0.
@@ -46,8 +48,12 @@ public class GenericCommandLineExecution extends Logging {
 	/**
 	 * Queue for passing log lines from receiver thread to test suite. Implementation MUST be thread-safe!
 	 */
-	private final Queue<String> logQueue;
+	private final Queue<LogLine> logQueue;
 	private Thread logQueueProducer;
+	/**
+	 * Waiters for log messages of the current process, completed by the {@link LogQueueProducer}.
+	 */
+	private volatile LogMessageWaiters logMessageWaiters = new LogMessageWaiters();
 
 	/**
 	 * Default constructor to start simulation in a new process.
@@ -57,10 +63,27 @@ public class GenericCommandLineExecution extends Logging {
 	 * @param logger The logger to use to log messages.
 	 */
 	public GenericCommandLineExecution(final Executor executor, final String testCaseName, final BasicLogger logger) {
+		this(executor, testCaseName, logger, ExecutionContext.current().getConfiguration());
+	}
+
+	/**
+	 * Constructor to start simulation in a new process within the given execution context.
+	 *
+	 * @param executor Currently running executor.
+	 * @param testCaseName Currently running test case name.
+	 * @param context The execution context providing the configuration and the logger.
+	 */
+	public GenericCommandLineExecution(final Executor executor, final String testCaseName,
+			final ExecutionContext context) {
+		this(executor, testCaseName, context.getLogger(), context.getConfiguration());
+	}
+
+	private GenericCommandLineExecution(final Executor executor, final String testCaseName, final BasicLogger logger,
+			final TestRunPlanConfiguration configuration) {
 		super(logger, executor);
 		logQueue = new ConcurrentLinkedQueue<>();
 		this.testCaseName = testCaseName;
-		configuration = TestRunPlanConfiguration.getInstance();
+		this.configuration = configuration;
 		iterationCounter = null;
 	}
 
@@ -85,9 +108,26 @@ public class GenericCommandLineExecution extends Logging {
 	 * @param outputFile The output file if the output should be written directly to file, null otherwise.
 	 * @param workingDirectory The working directory of process or null.
 	 * @throws IOException Throws IOException is thrown if process failed to start.
+	 * @see #getReadinessProbe()
 	 */
 	protected void start(final List<String> command, final File outputFile, final File workingDirectory)
 			throws IOException {
+		start(command, outputFile, workingDirectory, getReadinessProbe());
+	}
+
+	/**
+	 * Starts a simulation in a new process and waits until the given probe reports that the process is ready, but at
+	 * most for the process start waiting time of the global configuration.
+	 *
+	 * @param command The commands to execute.
+	 * @param outputFile The output file if the output should be written directly to file, null otherwise.
+	 * @param workingDirectory The working directory of process or null.
+	 * @param readinessProbe The probe deciding whether the process is ready.
+	 * @throws IOException Throws IOException is thrown if process failed to start.
+	 * @see #start(List, File, File)
+	 */
+	protected void start(final List<String> command, final File outputFile, final File workingDirectory,
+			final ReadinessProbe readinessProbe) throws IOException {
 		logDebug("Starting " + getExecutor().getName() + " with parameters : " + command);
 		ProcessBuilder processBuilder = new ProcessBuilder();
 		processBuilder.command(command);
@@ -103,29 +143,26 @@ public class GenericCommandLineExecution extends Logging {
 		}
 
 		process = processBuilder.start();
+		logMessageWaiters = new LogMessageWaiters();
 
-		shutdownHookThread = new Thread() {
-			@Override
-			public void run() {
-				if (process != null) {
-					process.destroy();
-				}
-			}
-		};
-		Runtime.getRuntime().addShutdownHook(shutdownHookThread);
+		ProcessSupervisor.getInstance().register(process);
 		if (outputFile == null) {
 			/* Start output handler thread */
-			LogQueueProducer prod = new LogQueueProducer(process.getInputStream(), logQueue, getLogger());
+			LogQueueProducer prod
+					= new LogQueueProducer(process.getInputStream(), logQueue, getLogger(), readinessProbe,
+						logMessageWaiters);
 			logQueueProducer = new Thread(prod, getExecutor().getName() + " for " + getTestCaseName());
 			logQueueProducer.start();
+		} else {
+			// The output is not read, so nobody is able to complete waiters.
+			logMessageWaiters.close();
 		}
 
-		// All executors should use startSleepTimer method because some times process takes a little bit time to start.
-		// Add a small delay for the process to start
+		// Some processes take a little bit time to start. Wait until the process is ready, but not longer than the
+		// configured delay.
 		final int processDelay = configuration.getProcessStartWaitingTime() * 1000;
-		logDebug(getExecutor().getName() + " process start delay: " + processDelay);
-		startSleepTimer(processDelay);
-		
+		awaitReadiness(readinessProbe, processDelay);
+
 		if (!process.isAlive()) {
 			long exitValue = process.exitValue();
 			if (!isExitValueOk(exitValue)) {
@@ -139,6 +176,40 @@ public class GenericCommandLineExecution extends Logging {
 	}
 
 
+	/**
+	 * Wait until the process is ready or has terminated.
+	 *
+	 * @param readinessProbe The probe deciding whether the process is ready.
+	 * @param maximumDelay The maximum time to wait in milliseconds.
+	 */
+	private void awaitReadiness(final ReadinessProbe readinessProbe, final long maximumDelay) {
+		final long startTime = System.nanoTime();
+		final long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(maximumDelay);
+		while (process.isAlive() && !readinessProbe.isReady(process)) {
+			final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remaining <= 0) {
+				logDebug(getExecutor().getName() + " not reported ready within the process start delay of "
+						+ maximumDelay + " ms.");
+				return;
+			}
+			startSleepTimer(Math.min(ReadinessProbe.POLL_INTERVAL_MILLIS, remaining));
+		}
+		logDebug(getExecutor().getName() + " ready after "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms.");
+	}
+
+	/**
+	 * Returns the probe deciding whether a process started by {@link #start(List, File, File)} is ready. By default,
+	 * the start waits for the full process start waiting time of the global configuration. Executors override this
+	 * method to return as soon as their process is ready.
+	 *
+	 * @return the readiness probe of this executor.
+	 */
+	protected ReadinessProbe getReadinessProbe() {
+		return ReadinessProbe.startDelay();
+	}
+
+
 	private boolean isExitValueOk(long exitValue) {
 		return PROCESS_EXIT_VALUE_OK == exitValue || exitValue == 143 || exitValue == 1 || exitValue == 127;
 	}
@@ -147,29 +218,46 @@ public class GenericCommandLineExecution extends Logging {
 	 * @return {@link List} containing log messages parsed so far. Must not be modified.
 	 */
 	protected List<String> getLogList() {
-		return Collections.unmodifiableList(logList);
+		return logList.stream().map(LogLine::getLine).collect(Collectors.toUnmodifiableList());
+	}
+
+	/**
+	 * @return the log messages parsed so far, converted into {@link LogBean}s. Lines which cannot be converted are
+	 *         skipped, see {@link LogBean#convertToLogBeanList(List)}.
+	 * @throws IllegalArgumentException if the severity of a line is unknown.
+	 */
+	protected final ArrayList<LogBean> getParsedLogList() {
+		return toLogBeans(logList);
 	}
 
 	/**
 	 * A runnable that reads lines from an {@link InputStream} and appends them to a {@link Queue}. Note that you MUST
 	 * use a thread-safe queue implementation if you want to run the {@link LogQueueProducer} in one thread and consume
-	 * the lines in another.
+	 * the lines in another. Each line is converted into a {@link LogBean} once, here, for both the waiters and the
+	 * consumer of the queue.
 	 */
 	private static class LogQueueProducer implements Runnable {
 		private final BufferedReader reader;
-		private final Queue<String> queue;
+		private final Queue<LogLine> queue;
 		private final BasicLogger log;
+		private final ReadinessProbe readinessProbe;
+		private final LogMessageWaiters logMessageWaiters;
 
 		/**
 		 * @param source the stream to read from
 		 * @param queue append read lines to this queue, MUST be thread-safe if the {@link LogQueueProducer} is run in a
 		 * separate thread
 		 * @param log
+		 * @param readinessProbe the probe to pass the read lines to
+		 * @param logMessageWaiters the waiters to pass the read lines to, closed at the end of the stream
 		 */
-		LogQueueProducer(final InputStream source, final Queue<String> queue, final BasicLogger log) {
+		LogQueueProducer(final InputStream source, final Queue<LogLine> queue, final BasicLogger log,
+				final ReadinessProbe readinessProbe, final LogMessageWaiters logMessageWaiters) {
 			reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8));
 			this.queue = queue;
 			this.log = log;
+			this.readinessProbe = readinessProbe;
+			this.logMessageWaiters = logMessageWaiters;
 		}
 
 
@@ -182,18 +270,69 @@ public class GenericCommandLineExecution extends Logging {
 			try {
 				line = reader.readLine();
 				while (line != null) {
-					queue.add(line);
+					final LogLine logLine = new LogLine(line);
+					queue.add(logLine);
+					readinessProbe.lineLogged(line);
+					// The line is queued before the waiters are completed, so a completed waiter finds it in the queue.
+					logMessageWaiters.lineLogged(logLine.getParsedLogBean());
 					line = reader.readLine();
 				}
 				reader.close();
 			} catch (IOException e) {
 				log.log(System.currentTimeMillis(), BasicLogger.ERROR, "An error occurred while reading log into queue:", e);
 				e.printStackTrace();
+			} finally {
+				logMessageWaiters.close();
 			}
 		}
 
 	}
 
+	/**
+	 * Register a waiter for a log message of the current process. Only lines logged after the registration are passed
+	 * to the waiter, so the lines which are still in the log queue have to be searched by the caller.
+	 *
+	 * @param message the message to wait for
+	 * @param match true, if the message is a regular expression the whole log message has to match, false, if the log
+	 *            message has to contain the message
+	 * @return the future completed with the first matching log message, or with null if the output of the process has
+	 *         ended.
+	 */
+	protected final CompletableFuture<LogBean> registerLogMessageWaiter(final String message, final boolean match) {
+		return logMessageWaiters.register(message, match);
+	}
+
+	/**
+	 * Remove a waiter registered by {@link #registerLogMessageWaiter(String, boolean)}, if it is still pending.
+	 *
+	 * @param waiter the waiter to remove
+	 */
+	protected final void removeLogMessageWaiter(final CompletableFuture<LogBean> waiter) {
+		logMessageWaiters.remove(waiter);
+	}
+
+	/**
+	 * Log a line on behalf of a service which runs within this process instead of a separate process, e.g. an
+	 * embedded responder. The line is handled like a line logged by a process.
+	 *
+	 * @param line the line to log
+	 */
+	protected final void logServiceOutput(final String line) {
+		final LogLine logLine = new LogLine(line);
+		logQueue.add(logLine);
+		logMessageWaiters.lineLogged(logLine.getParsedLogBean());
+	}
+
+	/**
+	 * Mark the service running within this process as terminated successfully and move its logged lines to the log
+	 * bean list, so that they can be searched and written like the output of a terminated process.
+	 */
+	protected final void serviceStopped() {
+		logMessageWaiters.close();
+		exitValue = PROCESS_EXIT_VALUE_OK;
+		addLogBeanList(processParsedLogQueue());
+	}
+
 	/**
 	 * Fetch standard error and standard output of the simulation and append available lines to the internal list of log
 	 * lines.
@@ -202,14 +341,49 @@ public class GenericCommandLineExecution extends Logging {
 	 */
 	protected final List<String> processLogQueue() {
 		final List<String> newMessages = new LinkedList<>();
-		while (!logQueue.isEmpty()) {
-			final String s = logQueue.poll();
-			newMessages.add(s);
+		for (final LogLine logLine : pollLogQueue()) {
+			newMessages.add(logLine.getLine());
 		}
-		logList.addAll(newMessages);
 		return newMessages;
 	}
 
+	/**
+	 * Fetch standard error and standard output of the simulation like {@link #processLogQueue()}, but return the lines
+	 * converted into {@link LogBean}s, without parsing them again.
+	 *
+	 * @return the list containing the converted lines, may be empty if no new data was available.
+	 * @throws IllegalArgumentException if the severity of a line is unknown.
+	 */
+	protected final ArrayList<LogBean> processParsedLogQueue() {
+		return toLogBeans(pollLogQueue());
+	}
+
+	/**
+	 * Move the available lines from the log queue to the internal list of log lines.
+	 *
+	 * @return the moved lines
+	 */
+	private List<LogLine> pollLogQueue() {
+		final List<LogLine> newLines = new ArrayList<>();
+		LogLine logLine;
+		while ((logLine = logQueue.poll()) != null) {
+			newLines.add(logLine);
+		}
+		logList.addAll(newLines);
+		return newLines;
+	}
+
+	private static ArrayList<LogBean> toLogBeans(final List<LogLine> logLines) {
+		final ArrayList<LogBean> result = new ArrayList<>(logLines.size());
+		for (final LogLine logLine : logLines) {
+			final LogBean logBean = logLine.toLogBean();
+			if (logBean != null) {
+				result.add(logBean);
+			}
+		}
+		return result;
+	}
+
 
 	/**
 	 * Method handles the logging output. Please note: This method encapsulates the already existing methods for
@@ -228,7 +402,7 @@ public class GenericCommandLineExecution extends Logging {
 			return getLogBeanList();
 		}
 		waitForProcess();
-		if (getLogList().isEmpty()) {
+		if (logList.isEmpty()) {
 			return null;
 		}
 
@@ -236,7 +410,7 @@ public class GenericCommandLineExecution extends Logging {
 		logInfo(getExecutor().getName() + " exit value = " + exitValue);
 		if (isExitValueOk(exitValue)) { 
 			if (!tlsLogListComplete) {
-				setLogBeanList(LogBean.convertToLogBeanList(getLogList()));
+				setLogBeanList(getParsedLogList());
 			}
 			clearLogList();
 			processLoggingOutputDone = true;
@@ -285,8 +459,7 @@ public class GenericCommandLineExecution extends Logging {
 
 
 	/**
-	 * Retrieves and sets the log messages, set the exit code of the child process, de-registers the registered shutdown
-	 * hook and releases the object.
+	 * Retrieves and sets the log messages, set the exit code of the child process and releases the object.
 	 */
 	protected void processLogQueueAndCleanUp() {
 		// Check if the process has been finished in the meantime due to a
@@ -294,46 +467,34 @@ public class GenericCommandLineExecution extends Logging {
 		if (!isNull()) {
 			exitValue = exitValue();
 			processLogQueue();
-			removeShutdownHook(); // This is important for releasing the object
 			setNull();
 		}
 	}
 
 
 	/**
-	 * Stop the simulation by killing the process and remove shutdown hook.
+	 * Stop the simulation by killing the process.
 	 */
 	protected void stop() {
 		destroy();
-		removeShutdownHook();
 	}
 
 
 	/**
-	 * Stops the simulation by killing the process.
+	 * Stops the simulation by terminating the process and its child processes. Processes which do not terminate
+	 * within the process termination timeout of the global configuration are killed.
+	 *
+	 * @see ProcessSupervisor#terminate(Process, long)
 	 */
 	protected void destroy() {
 		if (!isNull()) {
-			process.destroy();
-			try {
-				process.waitFor(5000, TimeUnit.MILLISECONDS);
-			} catch (InterruptedException e) {
-				logError(getExecutor().getName() + " process interrupted.");
+			if (!ProcessSupervisor.getInstance().terminate(process, configuration.getProcessTerminationTimeout())) {
+				logError(getExecutor().getName() + " process could not be terminated.");
 			}
 		}
 	}
 
 
-	/**
-	 * Removes the shutdown hook.
-	 */
-	protected final void removeShutdownHook() {
-		if (null != shutdownHookThread && Runtime.getRuntime().removeShutdownHook(shutdownHookThread)) {
-			shutdownHookThread = null;
-		}
-	}
-
-
 	/**
 	 * @return exit code of the process.
 	 * @throws IllegalThreadStateException if the process has not exited yet
@@ -401,10 +562,18 @@ public class GenericCommandLineExecution extends Logging {
 
 
 	/**
-	 * @return The log bean list.
+	 * @return a copy of the log bean list. Use {@link #getLogStore()} to search the log without copying it.
 	 */
 	protected final ArrayList<LogBean> getLogBeanList() {
-		return new ArrayList<>(logBeanList);
+		return logStore.snapshot();
+	}
+
+
+	/**
+	 * @return the indexed store of the log beans.
+	 */
+	protected final LogStore getLogStore() {
+		return logStore;
 	}
 
 
@@ -412,7 +581,7 @@ public class GenericCommandLineExecution extends Logging {
 	 * Clears log bean list.
 	 */
 	protected final void clearLogBeanList() {
-		logBeanList.clear();
+		logStore.clear();
 	}
 
 
@@ -422,7 +591,7 @@ public class GenericCommandLineExecution extends Logging {
 	 * @param logBean The log bean item to add.
 	 */
 	protected void addLogBean(final LogBean logBean) {
-		logBeanList.add(logBean);
+		logStore.append(logBean);
 	}
 
 
@@ -432,8 +601,7 @@ public class GenericCommandLineExecution extends Logging {
 	 * @param logBeanList The log beans to add.
 	 */
 	protected void addLogBeanList(final ArrayList<LogBean> logBeanList) {
-		this.logBeanList.addAll(logBeanList);
-
+		logStore.appendAll(logBeanList);
 	}
 
 
@@ -443,8 +611,8 @@ public class GenericCommandLineExecution extends Logging {
 	 * @param logBeanList The log beans list to set.
 	 */
 	protected void setLogBeanList(final ArrayList<LogBean> logBeanList) {
-		this.logBeanList = logBeanList;
-
+		logStore.clear();
+		logStore.appendAll(logBeanList);
 	}
 
 	/**
@@ -532,6 +700,36 @@ public class GenericCommandLineExecution extends Logging {
 		return configuration;
 	}
 
+	/**
+	 * Lease the listen port of this executor from the given range, if not already done. The port is kept until
+	 * {@link #releasePort()} is called.
+	 *
+	 * @param firstPort the first port of the range
+	 * @param count the number of ports in the range
+	 * @return the leased port
+	 * @see PortLeaseAllocator#lease(int, int)
+	 */
+	protected final synchronized int leasePort(final int firstPort, final int count) {
+		if (null == portLease) {
+			portLease = PortLeaseAllocator.getInstance().lease(firstPort, count);
+			PortLeaseAllocator.getInstance().record(configuration, getTestCaseName(), getExecutor(),
+					portLease.getPort());
+			logDebug("Leased port " + portLease.getPort() + ".");
+		}
+		return portLease.getPort();
+	}
+
+	/**
+	 * Release the port leased by {@link #leasePort(int, int)}, if any.
+	 */
+	protected final synchronized void releasePort() {
+		if (null != portLease) {
+			logDebug("Released port " + portLease.getPort() + ".");
+			portLease.release();
+			portLease = null;
+		}
+	}
+
 
 	/**
 	 * @return the test case name
@@ -544,6 +742,7 @@ public class GenericCommandLineExecution extends Logging {
 	protected void stopLogQueueProducer() {
 		logDebug("Stopping " + logQueueProducer.getName() + ".");
 		logQueueProducer.stop();
+		logMessageWaiters.close();
 		logDebug("Stopped " + logQueueProducer.getName() + ".");
 	}
 
@@ -562,4 +761,50 @@ public class GenericCommandLineExecution extends Logging {
 		this.iterationCounter = iterationCounter;
 	}
 
+
+	/**
+	 * A line logged by the process together with its {@link LogBean}, which is converted by the thread reading the
+	 * output of the process.
+	 */
+	private static final class LogLine {
+		private final String line;
+		private LogBean logBean;
+		private boolean converted = false;
+
+		/**
+		 * @param line the line logged by the process
+		 */
+		LogLine(final String line) {
+			this.line = line;
+			try {
+				logBean = LogBean.convertToLogBean(line);
+				converted = true;
+			} catch (IllegalArgumentException e) {
+				// Converted again by the consumer of the log queue, which reports the unknown severity.
+			}
+		}
+
+		String getLine() {
+			return line;
+		}
+
+		/**
+		 * @return the converted line, or null if the line cannot be converted.
+		 */
+		LogBean getParsedLogBean() {
+			return logBean;
+		}
+
+		/**
+		 * @return the converted line, or null if the timestamp of the line cannot be parsed.
+		 * @throws IllegalArgumentException if the severity of the line is unknown.
+		 */
+		LogBean toLogBean() {
+			if (!converted) {
+				logBean = LogBean.convertToLogBean(line);
+				converted = true;
+			}
+			return logBean;
+		}
+	}
 }
@@ -0,0 +1,99 @@
+package com.achelos.task.commandlineexecution.genericcommandlineexecution;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.achelos.task.utilities.logging.LogBean;
+
+
+/**
+ * Registry of the log messages an executor is waiting for. The thread reading the output of the process passes every
+ * converted line to {@link #lineLogged(LogBean)}, which completes the waiters matching the line. Thus, a search for a log message
+ * returns as soon as the message has been logged, without polling the log queue.
+ * <p>
+ * If the output of the process ends, all pending waiters are completed with null.
+ */
+final class LogMessageWaiters {
+
+	private final List<Waiter> waiters = new ArrayList<>();
+	private boolean closed = false;
+
+	/**
+	 * Register a waiter for a log message.
+	 *
+	 * @param message the message to wait for
+	 * @param match true, if the message is a regular expression the whole log message has to match, false, if the log
+	 *            message has to contain the message
+	 * @return the future completed with the first log message matching after the registration, or with null if the
+	 *         output of the process has ended.
+	 */
+	synchronized CompletableFuture<LogBean> register(final String message, final boolean match) {
+		final CompletableFuture<LogBean> future = new CompletableFuture<>();
+		if (closed) {
+			future.complete(null);
+			return future;
+		}
+		final Predicate<String> matcher;
+		if (match) {
+			final Pattern pattern = Pattern.compile(message);
+			matcher = logMessage -> pattern.matcher(logMessage).matches();
+		} else {
+			matcher = logMessage -> logMessage.contains(message);
+		}
+		waiters.add(new Waiter(matcher, future));
+		return future;
+	}
+
+	/**
+	 * Remove a waiter, e.g. after its search has timed out.
+	 *
+	 * @param future the future returned by {@link #register(String, boolean)}
+	 */
+	synchronized void remove(final CompletableFuture<LogBean> future) {
+		waiters.removeIf(waiter -> waiter.future == future);
+	}
+
+	/**
+	 * Complete the waiters matching the given line.
+	 *
+	 * @param logBean the line logged by the process, converted by the caller; null if it cannot be converted
+	 */
+	synchronized void lineLogged(final LogBean logBean) {
+		if (logBean == null || waiters.isEmpty()) {
+			return;
+		}
+		final Iterator<Waiter> iterator = waiters.iterator();
+		while (iterator.hasNext()) {
+			final Waiter waiter = iterator.next();
+			if (waiter.matcher.test(logBean.getMessage())) {
+				iterator.remove();
+				waiter.future.complete(logBean);
+			}
+		}
+	}
+
+	/**
+	 * Complete all pending waiters with null, because no more lines will be logged.
+	 */
+	synchronized void close() {
+		closed = true;
+		for (final Waiter waiter : waiters) {
+			waiter.future.complete(null);
+		}
+		waiters.clear();
+	}
+
+	private static final class Waiter {
+		private final Predicate<String> matcher;
+		private final CompletableFuture<LogBean> future;
+
+		Waiter(final Predicate<String> matcher, final CompletableFuture<LogBean> future) {
+			this.matcher = matcher;
+			this.future = future;
+		}
+	}
+}
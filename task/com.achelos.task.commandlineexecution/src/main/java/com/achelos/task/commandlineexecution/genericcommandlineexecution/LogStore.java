@@ -0,0 +1,151 @@
+package com.achelos.task.commandlineexecution.genericcommandlineexecution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.achelos.task.utilities.logging.LogBean;
+
+
+/**
+ * Append-only store of the log messages of an executor, which is indexed while the messages are appended.
+ * <p>
+ * Each message is indexed by its key, which is the text before the first '=' of the message (e.g.
+ * "ClientHello.cipher_suites" for "ClientHello.cipher_suites=00 9e"), or the whole message if it does not contain a
+ * '=' (e.g. "Valid ServerHello message received."). Key lookups do not scan the log, and only find the messages
+ * with the given key, not the messages containing it elsewhere. Searches for arbitrary text still scan the log.
+ * <p>
+ * The store is not thread-safe. It is filled and read by the thread executing the test case.
+ */
+public final class LogStore {
+
+	private final List<LogBean> entries = new ArrayList<>();
+	private final Map<String, List<Integer>> keyIndex = new HashMap<>();
+
+	/**
+	 * Append a log message.
+	 *
+	 * @param logBean the log message to append
+	 */
+	public void append(final LogBean logBean) {
+		final String key = logBean.getMessageKey();
+		if (key != null) {
+			keyIndex.computeIfAbsent(key, k -> new ArrayList<>()).add(entries.size());
+		}
+		entries.add(logBean);
+	}
+
+	/**
+	 * Append log messages in the given order.
+	 *
+	 * @param logBeans the log messages to append
+	 */
+	public void appendAll(final Collection<LogBean> logBeans) {
+		for (final LogBean logBean : logBeans) {
+			append(logBean);
+		}
+	}
+
+	/**
+	 * Remove all log messages.
+	 */
+	public void clear() {
+		entries.clear();
+		keyIndex.clear();
+	}
+
+	/**
+	 * @return the number of log messages.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return true, if the store does not contain any log message.
+	 */
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * @param index the position of the log message
+	 * @return the log message at the given position.
+	 */
+	public LogBean get(final int index) {
+		return entries.get(index);
+	}
+
+	/**
+	 * @return an unmodifiable view of the log messages, which must not be used while messages are appended.
+	 */
+	public List<LogBean> asList() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @return a copy of the log messages.
+	 */
+	public ArrayList<LogBean> snapshot() {
+		return new ArrayList<>(entries);
+	}
+
+	/**
+	 * Search a log message by scanning the log.
+	 *
+	 * @param message the text to search for
+	 * @param match true, if the message is a regular expression the whole log message has to match, false, if the log
+	 *            message has to contain the message
+	 * @param fromIndex the position to start the search at
+	 * @return the position of the first matching log message, or -1 if none matches.
+	 */
+	public int indexOf(final String message, final boolean match, final int fromIndex) {
+		final Pattern pattern = match ? Pattern.compile(message) : null;
+		for (int i = Math.max(0, fromIndex); i < entries.size(); i++) {
+			final String logMessage = entries.get(i).getMessage();
+			if (match ? pattern.matcher(logMessage).matches() : logMessage.contains(message)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Look up a log message by its key.
+	 *
+	 * @param key the key of the log message
+	 * @param fromIndex the position to start the search at
+	 * @return the position of the first log message with the given key, or -1 if there is none.
+	 */
+	public int indexOfKey(final String key, final int fromIndex) {
+		final List<Integer> occurrences = keyIndex.get(key);
+		if (occurrences == null) {
+			return -1;
+		}
+		int position = Collections.binarySearch(occurrences, Math.max(0, fromIndex));
+		if (position < 0) {
+			position = -position - 1;
+		}
+		return position < occurrences.size() ? occurrences.get(position) : -1;
+	}
+
+	/**
+	 * @param key the key of the log messages
+	 * @return the log messages with the given key in the order they have been logged, empty if there are none.
+	 */
+	public List<LogBean> getByKey(final String key) {
+		final List<Integer> occurrences = keyIndex.get(key);
+		if (occurrences == null) {
+			return Collections.emptyList();
+		}
+		final List<LogBean> result = new ArrayList<>(occurrences.size());
+		for (final int index : occurrences) {
+			result.add(entries.get(index));
+		}
+		return result;
+	}
+}
@@ -19,7 +19,7 @@ public class Logging {
 	 * @param executor Currently running executor.
 	 */
 	public Logging(final BasicLogger logger, final Executor executor) {
-		this.logger = LoggingConnector.getInstance();
+		this.logger = null != logger ? logger : LoggingConnector.getInstance();
 		this.executor = executor;
 		logPrefix = executor.getName() + ": ";
 	}
@@ -0,0 +1,196 @@
+package com.achelos.task.commandlineexecution.genericcommandlineexecution;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.achelos.task.configuration.TestRunPlanConfiguration;
+
+
+/**
+ * Hands out the listen ports of the locally started services (e.g. TLS Test Tool as server, OCSP and CRL responder),
+ * so that concurrently running executors never use the same port. The allocator is shared by all executors within the
+ * process.
+ * <p>
+ * A port is leased from a range of consecutive ports. If the range contains more than one port, ports which are in use
+ * by other processes are skipped. If all ports of the range are leased, the caller waits until one of them is
+ * released. Leases have to be released after usage, which is done by {@link RunLogger#cleanAndExit()}.
+ * <p>
+ * While the network traffic of a test case is captured, the ports leased by its executors are recorded, so that the
+ * packets of the test case can be told apart from the packets of concurrently executed test cases. The ports are recorded
+ * per test run, identified by its test run plan configuration, as the same test case may be executed by concurrent
+ * test runs.
+ */
+public final class PortLeaseAllocator {
+
+	private static final PortLeaseAllocator INSTANCE = new PortLeaseAllocator();
+
+	private final Set<Integer> leasedPorts = new HashSet<>();
+	private int nextOffset = 0;
+	private final Map<RecordingKey, Map<Integer, Executor>> recordings = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the allocator shared by all executors.
+	 */
+	public static PortLeaseAllocator getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Private constructor for the singleton class.
+	 */
+	private PortLeaseAllocator() {}
+
+	/**
+	 * Lease a port from the range [firstPort, firstPort + count - 1]. Waits until a port of the range is released if all
+	 * ports are leased.
+	 *
+	 * @param firstPort the first port of the range
+	 * @param count the number of ports in the range; values smaller than 1 are treated as 1
+	 * @return the lease of the port, which has to be released after usage
+	 * @throws IllegalStateException if all ports which are not leased are in use by other processes, or the calling
+	 *             thread is interrupted while waiting for a port.
+	 */
+	public synchronized PortLease lease(final int firstPort, final int count) {
+		final int rangeSize = Math.max(1, count);
+		try {
+			while (true) {
+				boolean leasedPortInRange = false;
+				for (int i = 0; i < rangeSize; i++) {
+					final int port = firstPort + (nextOffset + i) % rangeSize;
+					if (leasedPorts.contains(port)) {
+						leasedPortInRange = true;
+						continue;
+					}
+					// A single configured port is used as before, without looking for alternatives.
+					if (rangeSize > 1 && isInUse(port)) {
+						continue;
+					}
+					leasedPorts.add(port);
+					nextOffset = (port - firstPort + 1) % rangeSize;
+					return new PortLease(port);
+				}
+				if (!leasedPortInRange) {
+					throw new IllegalStateException("No free port in the range " + firstPort + " - "
+							+ (firstPort + rangeSize - 1) + ". All ports are in use by other processes.");
+				}
+				wait();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a free port.", e);
+		}
+	}
+
+	/**
+	 * Start recording the ports leased by the executors of a test case.
+	 *
+	 * @param configuration the test run plan configuration of the test run executing the test case
+	 * @param testCaseName the name of the test case
+	 */
+	public void startRecording(final TestRunPlanConfiguration configuration, final String testCaseName) {
+		recordings.put(new RecordingKey(configuration, testCaseName), new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * Record a port leased by an executor of a test case, if the ports of the test case are recorded.
+	 *
+	 * @param configuration the test run plan configuration of the test run executing the test case
+	 * @param testCaseName the name of the test case
+	 * @param executor the executor which has leased the port
+	 * @param port the leased port
+	 */
+	void record(final TestRunPlanConfiguration configuration, final String testCaseName, final Executor executor,
+			final int port) {
+		var recording = recordings.get(new RecordingKey(configuration, testCaseName));
+		if (recording != null) {
+			recording.put(port, executor);
+		}
+	}
+
+	/**
+	 * Stop recording the ports leased by the executors of a test case.
+	 *
+	 * @param configuration the test run plan configuration of the test run executing the test case
+	 * @param testCaseName the name of the test case
+	 * @return the ports leased since {@link #startRecording(TestRunPlanConfiguration, String)} together with the
+	 *         executors which have leased them, empty if the ports have not been recorded.
+	 */
+	public Map<Integer, Executor> stopRecording(final TestRunPlanConfiguration configuration,
+			final String testCaseName) {
+		var recording = recordings.remove(new RecordingKey(configuration, testCaseName));
+		return recording != null ? new HashMap<>(recording) : new HashMap<>();
+	}
+
+	/**
+	 * Release a leased port and wake up the threads waiting for a port.
+	 *
+	 * @param port the port to release
+	 */
+	private synchronized void release(final int port) {
+		if (leasedPorts.remove(port)) {
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Check if a port is in use by trying to bind it.
+	 *
+	 * @param port the port to check
+	 * @return true, if the port cannot be bound, false otherwise.
+	 */
+	private static boolean isInUse(final int port) {
+		try (ServerSocket socket = new ServerSocket()) {
+			socket.setReuseAddress(true);
+			socket.bind(new InetSocketAddress(port));
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Identifies the recording of a test case within a test run. The test run plan configuration is compared by
+	 * identity, as it is created once per test run.
+	 */
+	private record RecordingKey(TestRunPlanConfiguration configuration, String testCaseName) {}
+
+	/**
+	 * A leased port.
+	 */
+	public static final class PortLease implements AutoCloseable {
+		private final int port;
+		private boolean released = false;
+
+		private PortLease(final int port) {
+			this.port = port;
+		}
+
+		/**
+		 * @return the leased port.
+		 */
+		public int getPort() {
+			return port;
+		}
+
+		/**
+		 * Release the port. Releasing a lease more than once has no effect.
+		 */
+		public synchronized void release() {
+			if (!released) {
+				released = true;
+				INSTANCE.release(port);
+			}
+		}
+
+		@Override
+		public void close() {
+			release();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.achelos.task.commandlineexecution.genericcommandlineexecution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+
+/**
+ * Tracks the processes started by the executors and terminates them including their child processes. The supervisor
+ * is shared by all executors within the process.
+ * <p>
+ * Processes are terminated gracefully first (SIGTERM). Processes which are still alive after the termination timeout
+ * are killed (SIGKILL). A single shutdown hook terminates all processes which are still tracked when the virtual
+ * machine exits, e.g. after the test run has been aborted.
+ */
+public final class ProcessSupervisor {
+
+	/**
+	 * Termination timeout used by the shutdown hook in milliseconds.
+	 */
+	private static final long SHUTDOWN_TERMINATION_TIMEOUT = 2000;
+
+	private static final ProcessSupervisor INSTANCE = new ProcessSupervisor();
+
+	private final Set<ProcessHandle> processes = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @return the supervisor shared by all executors.
+	 */
+	public static ProcessSupervisor getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Private constructor for the singleton class.
+	 */
+	private ProcessSupervisor() {
+		Runtime.getRuntime().addShutdownHook(new Thread(this::terminateAll, "ProcessSupervisor shutdown"));
+	}
+
+	/**
+	 * Track a started process until it exits.
+	 *
+	 * @param process the started process
+	 * @return a future which is completed when the process has exited.
+	 */
+	public CompletableFuture<ProcessHandle> register(final Process process) {
+		final ProcessHandle handle = process.toHandle();
+		processes.add(handle);
+		return handle.onExit().whenComplete((exited, e) -> processes.remove(handle));
+	}
+
+	/**
+	 * @return the number of tracked processes which have not exited yet.
+	 */
+	public int getNumberOfProcesses() {
+		return processes.size();
+	}
+
+	/**
+	 * Terminate a process and all its descendants. The processes are asked to terminate first and are killed if they
+	 * are still alive after the timeout. Returns as soon as all processes have exited.
+	 *
+	 * @param process the process to terminate
+	 * @param timeout the time in milliseconds the processes have to terminate before they are killed
+	 * @return true, if all processes have exited, false otherwise.
+	 */
+	public boolean terminate(final Process process, final long timeout) {
+		return terminate(List.of(process.toHandle()), timeout);
+	}
+
+	/**
+	 * Terminate all tracked processes and their descendants.
+	 */
+	private void terminateAll() {
+		terminate(new ArrayList<>(processes), SHUTDOWN_TERMINATION_TIMEOUT);
+	}
+
+	private boolean terminate(final List<ProcessHandle> roots, final long timeout) {
+		// Collect the descendants first, as they are no longer related to their parent once it has exited.
+		final List<ProcessHandle> tree = new ArrayList<>();
+		for (final ProcessHandle root : roots) {
+			tree.addAll(root.descendants().collect(Collectors.toList()));
+			tree.add(root);
+		}
+		tree.forEach(ProcessHandle::destroy);
+		if (awaitExit(tree, timeout)) {
+			return true;
+		}
+		tree.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+		return awaitExit(tree, timeout);
+	}
+
+	private static boolean awaitExit(final List<ProcessHandle> handles, final long timeout) {
+		final CompletableFuture<?>[] exits = handles.stream().filter(ProcessHandle::isAlive).map(ProcessHandle::onExit)
+				.toArray(CompletableFuture[]::new);
+		if (exits.length == 0) {
+			return true;
+		}
+		try {
+			CompletableFuture.allOf(exits).get(timeout, TimeUnit.MILLISECONDS);
+			return true;
+		} catch (TimeoutException | ExecutionException e) {
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.achelos.task.commandlineexecution.genericcommandlineexecution;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+
+/**
+ * Decides whether a process started by {@link GenericCommandLineExecution} is ready to be used, e.g. listens for
+ * connections or captures network traffic. The start of the process waits until the probe reports readiness, but at
+ * most for the process start waiting time of the global configuration.
+ */
+public interface ReadinessProbe {
+
+	/**
+	 * Poll interval used while waiting for a process to become ready.
+	 */
+	long POLL_INTERVAL_MILLIS = 10;
+
+	/**
+	 * Check whether the process is ready.
+	 *
+	 * @param process the started process
+	 * @return true, if the process is ready, false otherwise.
+	 */
+	boolean isReady(Process process);
+
+	/**
+	 * Called for every line logged by the process, if its output is not redirected to a file.
+	 *
+	 * @param line the logged line
+	 */
+	default void lineLogged(final String line) {
+		// Most probes do not evaluate the log.
+	}
+
+	/**
+	 * @return a probe that never reports readiness, i.e. the start always waits for the full process start waiting
+	 *         time.
+	 */
+	static ReadinessProbe startDelay() {
+		return process -> false;
+	}
+
+	/**
+	 * @return a probe that reports readiness as soon as the process has terminated, e.g. for one-shot commands.
+	 */
+	static ReadinessProbe processExited() {
+		return process -> !process.isAlive();
+	}
+
+	/**
+	 * @return a probe that reports readiness as soon as the process has logged any line.
+	 */
+	static ReadinessProbe anyLogLine() {
+		return logLine("");
+	}
+
+	/**
+	 * @param texts the texts to look for
+	 * @return a probe that reports readiness as soon as the process has logged a line containing one of the texts.
+	 */
+	static ReadinessProbe logLine(final String... texts) {
+		return new ReadinessProbe() {
+			private volatile boolean ready = false;
+
+			@Override
+			public boolean isReady(final Process process) {
+				return ready;
+			}
+
+			@Override
+			public void lineLogged(final String line) {
+				for (String text : texts) {
+					if (line.contains(text)) {
+						ready = true;
+						return;
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param outputFile the file the output of the process is redirected to
+	 * @param text the text to look for
+	 * @return a probe that reports readiness as soon as the output file contains the text.
+	 */
+	static ReadinessProbe outputFileContains(final File outputFile, final String text) {
+		return process -> {
+			try {
+				return outputFile.isFile()
+						&& new String(Files.readAllBytes(outputFile.toPath()), StandardCharsets.UTF_8).contains(text);
+			} catch (IOException e) {
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Only use this probe for services which tolerate a connection without any request.
+	 *
+	 * @param host the host the process listens on
+	 * @param port the port the process listens on
+	 * @return a probe that reports readiness as soon as a TCP connection to the given address can be established.
+	 */
+	static ReadinessProbe tcpConnect(final String host, final int port) {
+		return process -> {
+			try (Socket socket = new Socket()) {
+				socket.connect(new InetSocketAddress(host, port), (int) POLL_INTERVAL_MILLIS);
+				return true;
+			} catch (IOException e) {
+				return false;
+			}
+		};
+	}
+}
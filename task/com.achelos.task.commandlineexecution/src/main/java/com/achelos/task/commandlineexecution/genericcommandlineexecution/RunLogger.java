@@ -8,17 +8,15 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.logging.BasicLogger;
 import com.achelos.task.logging.LoggingConnector;
 import com.achelos.task.utilities.logging.LogBean;
@@ -40,6 +38,17 @@ public abstract class RunLogger extends GenericCommandLineExecution {
 		super(executor, testCaseName, log);
 	}
 
+	/**
+	 * Start a simulation in a new process within the given execution context.
+	 *
+	 * @param testCaseName Test case name that is going to be executed.
+	 * @param executor Current running executor.
+	 * @param context The execution context providing the configuration and the logger.
+	 */
+	public RunLogger(final String testCaseName, final Executor executor, final ExecutionContext context) {
+		super(executor, testCaseName, context);
+	}
+
 
 	/**
 	 * Method stops the process and then processes queued logs.
@@ -157,104 +166,114 @@ public abstract class RunLogger extends GenericCommandLineExecution {
 	 */
 	protected final LogBean findMessage(final String message, final boolean match, final boolean handleNoLogAsError)
 			throws IOException {
+		final int index = findMessageIndex(message, match, handleNoLogAsError, 0);
+		return index < 0 ? null : getLogStore().get(index);
+	}
+
+
+	/**
+	 * Searches the log for the given message starting at the given position. If the message has not been logged yet
+	 * and the process is still running, waits until it is logged, but at most for the maximum wait time for reading a
+	 * log message.
+	 *
+	 * @return the position of the found element in the log store, or -1.
+	 */
+	private int findMessageIndex(final String message, final boolean match, final boolean handleNoLogAsError,
+			final int fromIndex) throws IOException {
+		final LogStore logStore = getLogStore();
 
 		// Fetch the current global log bean list if it has not been done yet
-		if (getLogBeanList().isEmpty() && !isNull()) {
-			setLogBeanList(LogBean.convertToLogBeanList(processLogQueue()));
+		if (logStore.isEmpty() && !isNull()) {
+			addLogBeanList(processParsedLogQueue());
 		}
 
 		// Search the given message in the current global log bean list
-		for (final LogBean item : getLogBeanList()) {
-			if ((match && item.getMessage().matches(message)) || (!match && item.getMessage().contains(message))) {
-				return item;
-			}
-		}
+		int index = logStore.indexOf(message, match, fromIndex);
 
 		// Cancel here, if the process does not run anymore,
 		// because the current global log bean list is already complete in this case
-		if (isNull()) {
-			return null;
+		if (index >= 0 || isNull()) {
+			return index;
 		}
-		List<Future<LogBean>> future;
-		ExecutorService executor = Executors.newSingleThreadExecutor();
+		final CompletableFuture<LogBean> waiter = registerLogMessageWaiter(message, match);
+		final int maxWaitTime = getConfiguration().getMaximumWaitTimeForReadingLogMessage();
 		try {
-			int maxWaitTime = getConfiguration().getMaximumWaitTimeForReadingLogMessage();
-			logDebug("Search message: \"" + message + "\" in " + maxWaitTime + " seconds.");
-			future = executor.invokeAll(Arrays.asList(new SearchLogMessage(match, message)), maxWaitTime,
-					TimeUnit.SECONDS);
-			executor.shutdown();
-			try {
-			    if (!executor.awaitTermination(500, TimeUnit.MILLISECONDS)) {
-			    	executor.shutdownNow();
-			    } 
-			} catch (InterruptedException e) {
-				executor.shutdownNow();
-			}
-			if (future.get(0).isCancelled()) {
-				logDebug("Timed out while searching the message: \"" + message + "\" in " + maxWaitTime + " seconds.");
-				return null;
+			// Lines logged before the waiter has been registered are still in the queue
+			int searchedUpTo = Math.max(fromIndex, logStore.size());
+			addLogBeanList(processParsedLogQueue());
+			index = logStore.indexOf(message, match, searchedUpTo);
+			if (index >= 0) {
+				return index;
 			}
-			LogBean logBean = future.get(0).get();
+
+			logDebug("Search message: \"" + message + "\" in " + maxWaitTime + " seconds.");
+			final LogBean logBean = waiter.get(maxWaitTime, TimeUnit.SECONDS);
+			// The found message has been queued before the waiter was completed
+			searchedUpTo = Math.max(fromIndex, logStore.size());
+			addLogBeanList(processParsedLogQueue());
 			if (logBean != null) {
-				return logBean;
+				return logStore.indexOf(message, match, searchedUpTo);
 			}
-		} catch (InterruptedException | ExecutionException e1) {
-			return null;
-		} // Timeout of given time in seconds.
-
+		} catch (TimeoutException e) {
+			logDebug("Timed out while searching the message: \"" + message + "\" in " + maxWaitTime + " seconds.");
+			return -1;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return -1;
+		} catch (ExecutionException e) {
+			return -1;
+		} finally {
+			removeLogMessageWaiter(waiter);
+		}
 
 		// Indicate that the log bean list is already complete here
 		processLoggingOutput(handleNoLogAsError, true);
 
 		// The TLS tool has terminated and the given message was not found
-		return null;
+		return -1;
 	}
 
-	private class SearchLogMessage implements Callable<LogBean> {
-		private final boolean match;
-		private final String message;
 
-		SearchLogMessage(final boolean match, final String message) {
-			this.match = match;
-			this.message = message;
+	/**
+	 * Looks up the log message with the given key (the text before '=') in the indexed log. If the key has not been
+	 * logged yet, falls back to {@link #findMessage(String)}, which waits for the message and also finds messages only
+	 * containing the key. Unlike {@link #findMessage(String)}, a message with the given key is returned even if a
+	 * message only containing the key has been logged before it.
+	 *
+	 * @param key the key to search for
+	 * @return found element or null.
+	 * @throws IOException
+	 */
+	protected final LogBean findKeyMessage(final String key) throws IOException {
+		final LogStore logStore = getLogStore();
+		if (logStore.isEmpty() && !isNull()) {
+			addLogBeanList(processParsedLogQueue());
 		}
+		final int index = logStore.indexOfKey(key, 0);
+		if (index >= 0) {
+			return logStore.get(index);
+		}
+		return findMessage(key);
+	}
 
-		@Override
-		public LogBean call() throws Exception {
-			do {
-				// If the process does not run anymore, wait until the process is completely
-				// terminated and run this loop one last time
-				if (!isRunning()) {
-					try {
-						waitFor();
-					} catch (final InterruptedException e) {
-						logInfo("Waiting for the " + getExecutor().getName() + " has been interrupted.");
-					}
-				}
-
-				// Fetch the new log bean entries ...
-				final ArrayList<LogBean> tlsLogBeanNew = LogBean.convertToLogBeanList(processLogQueue());
-
-				// ... And add them to the global log bean list
-				addLogBeanList(tlsLogBeanNew);
 
-				// Search the given message only in the new fetched log bean entries
-				for (final LogBean item : tlsLogBeanNew) {
-					if ((match && item.getMessage().matches(message))
-							|| (!match && item.getMessage().contains(message))) {
-						return item;
-					}
-				}
-				try {
-					// Allow the thread to perform a context-switch. Avoid non-busy wait.
-					final int sleepTimeMilliSeconds = 100;
-					Thread.sleep(sleepTimeMilliSeconds);
-				} catch (InterruptedException e) {
-					throw e;
-				}
-			} while (isRunning() || hasQueueLogs());
-			return null;
+	/**
+	 * Returns all log messages with the given key (the text before '=') after the process has terminated. If the key
+	 * has not been logged, falls back to {@link #findMessages(String)}, which also finds messages only containing the
+	 * key. Unlike {@link #findMessages(String)}, messages only containing the key are not returned if the key has
+	 * been logged.
+	 *
+	 * @param key the key to search for
+	 * @return found elements or null.
+	 * @throws IOException
+	 */
+	protected final List<LogBean> findKeyMessages(final String key) throws IOException {
+		processLoggingOutput();
+		final List<LogBean> foundMessages = getLogStore().getByKey(key);
+		if (!foundMessages.isEmpty()) {
+			return foundMessages;
 		}
+		return findMessages(key);
 	}
 
 	/**
@@ -285,7 +304,7 @@ public abstract class RunLogger extends GenericCommandLineExecution {
 	 */
 	protected final String getValue(final String key, final long logLevel) throws IOException {
 		logDebug("Searching for '" + key + "'");
-		final LogBean logEntry = findMessage(key);
+		final LogBean logEntry = findKeyMessage(key);
 
 		return getValue(key, logEntry, logLevel);
 
@@ -348,7 +367,7 @@ public abstract class RunLogger extends GenericCommandLineExecution {
 			throws IOException {
 		final List<LogBean> foundMessages = new ArrayList<>();
 		processLoggingOutput();
-		for (final LogBean item : getLogBeanList()) {
+		for (final LogBean item : getLogStore().asList()) {
 			if (item.getMessage().contains(message)) {
 				foundMessages.add(item);
 			}
@@ -482,7 +501,7 @@ public abstract class RunLogger extends GenericCommandLineExecution {
 
 	/**
 	 * Perform clean up at the end of a test case (e.g., stopping services, logging information) and writing logs to
-	 * file.
+	 * file. Releases the leased port, if any.
 	 */
 	public final void cleanAndExit() {
 
@@ -502,13 +521,15 @@ public abstract class RunLogger extends GenericCommandLineExecution {
 			timer.cancel();
 		} catch (IOException e) {
 			try {
-				writeLogsToFile(LogBean.convertToLogBeanList(getLogList()));
+				writeLogsToFile(getParsedLogList());
 			} catch (IOException e1) {
 				// Do nothing.
 			} finally {
 				logError("An error occurred while trying to process the logging dump", e);
 				clearLogList();
 			}
+		} finally {
+			releasePort();
 		}
 		resetLog();
 	}
@@ -0,0 +1,50 @@
+package commandlineexecution;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.achelos.task.commandlineexecution.genericcommandlineexecution.LogStore;
+import com.achelos.task.utilities.logging.LogBean;
+
+class TestLogStore {
+
+	private static final String KEY = "ServerHello.cipher_suite";
+
+	/**
+	 * A key lookup returns the messages with the key, while a text search returns the first message containing it.
+	 */
+	@Test
+	void testKeyLookupPrefersMessagesWithTheKey() {
+		var store = new LogStore();
+		store.append(new LogBean("Expected " + KEY + "=00 9e"));
+		store.append(new LogBean(KEY + "=c0 2b"));
+		store.append(new LogBean("Valid ServerHello message received."));
+		store.append(new LogBean(KEY + "=c0 2c"));
+
+		assertEquals(0, store.indexOf(KEY, false, 0));
+		assertEquals(1, store.indexOfKey(KEY, 0));
+		assertEquals(3, store.indexOfKey(KEY, 2));
+		assertEquals(-1, store.indexOfKey(KEY, 4));
+
+		List<LogBean> messages = store.getByKey(KEY);
+		assertEquals(2, messages.size());
+		assertEquals(KEY + "=c0 2b", messages.get(0).getMessage());
+		assertEquals(KEY + "=c0 2c", messages.get(1).getMessage());
+	}
+
+	@Test
+	void testMessageWithoutValueIsItsOwnKey() {
+		var store = new LogStore();
+		store.append(new LogBean("Valid ServerHello message received."));
+
+		assertEquals(0, store.indexOfKey("Valid ServerHello message received.", 0));
+		assertTrue(store.getByKey("Valid ServerHello").isEmpty());
+
+		store.clear();
+		assertEquals(-1, store.indexOfKey("Valid ServerHello message received.", 0));
+	}
+}
@@ -23,7 +23,8 @@ import com.achelos.task.abstractinterface.TaskTestTool;
 import com.achelos.task.logging.LoggingConnector;
 import com.achelos.task.reporting.datastructures.ReportLogger;
 import com.achelos.task.reporting.pdfreport.PdfReport;
-import com.achelos.task.reporting.xmlreport.XmlReport;
+import com.achelos.task.reporting.retention.ReportRetention;
+import com.achelos.task.reporting.xmlreport.XmlReportWriter;
 import com.achelos.task.restimpl.server.TaSKRestServer;
 import com.achelos.task.utilities.DateTimeUtils;
 import com.achelos.task.xmlparser.configparsing.ConfigParser;
@@ -42,13 +43,15 @@ public class CommandLineInterface {
 	private enum EXEC_MODES {
 		LOCAL_MICS_MODE,
 		LOCAL_TRP_MODE,
-		SERVER_MODE;
+		SERVER_MODE,
+		RECOVER_REPORT_MODE;
 	}
 
 	private static LoggingConnector logger;
 	private static Options options;
 	private static HelpFormatter helpFormatter;
 	private static final String LOGGER_PREFIX = "TaSK CLI: ";
+	private static final String PARTIAL_REPORT_FILE_NAME = "PartialReport.xml";
 
 	private static Option micsOption;
 	private static Option certOption;
@@ -62,6 +65,7 @@ public class CommandLineInterface {
 	private static Option clientAuthCertChainOption;
 	private static Option clientAuthKeyOption;
 	private static Option certValidationCAOption;
+	private static Option recoverReportOption;
 
 	/**
 	 * Hide default Constructor.
@@ -144,6 +148,11 @@ public class CommandLineInterface {
 		certValidationCAOption.setRequired(false);
 		options.addOption(certValidationCAOption);
 
+		recoverReportOption = new Option(null, "recover-report", true,
+				"Specifies the report directory of a test run, which has not ended. A partial XML report is derived from its report journal.");
+		recoverReportOption.setRequired(false);
+		options.addOption(recoverReportOption);
+
 		var defaultParser = new DefaultParser();
 		helpFormatter = new HelpFormatter();
 		CommandLine cmd = null;
@@ -183,6 +192,9 @@ public class CommandLineInterface {
 				case SERVER_MODE:
 					executeServerMode(cmd);
 					break;
+				case RECOVER_REPORT_MODE:
+					executeRecoverReportMode(cmd);
+					break;
 				default:
 					exit(1, "Unknown execution mode: " + execMode.name());
 			}
@@ -280,8 +292,10 @@ public class CommandLineInterface {
 		boolean xmlReportSet = cmd.hasOption(xmlReportOption);
 		boolean pdfReportSet = cmd.hasOption(pdfReportOption);
 		ReportLogger reportLogger = null;
+		XmlReportWriter xmlReportWriter = null;
 		if (xmlReportSet || pdfReportSet) {
-			reportLogger = new ReportLogger();
+			xmlReportWriter = new XmlReportWriter();
+			reportLogger = new ReportLogger(xmlReportWriter);
 			LoggingConnector.addLogger(List.of(reportLogger));
 		}
 
@@ -388,6 +402,8 @@ public class CommandLineInterface {
 		var executionParameters = new TaskExecutionParameters(logger, configFile, micsFile, certificateFileList,
 				ignoreMicsVerification, onlyGenerateTRP, reportDirectory, clientAuthCertChainPath, clientAuthKeyPath, certValidationRootCAPath);
 
+		applyReportRetention(configuration);
+		startReportJournal(xmlReportWriter, reportDirectory);
 		TaskTestTool.executeTaskTestTool(executionParameters);
 
 		if (pdfReportSet) {
@@ -410,8 +426,10 @@ public class CommandLineInterface {
 		boolean xmlReportSet = cmd.hasOption(xmlReportOption);
 		boolean pdfReportSet = cmd.hasOption(pdfReportOption);
 		ReportLogger reportLogger = null;
+		XmlReportWriter xmlReportWriter = null;
 		if (xmlReportSet || pdfReportSet) {
-			reportLogger = new ReportLogger();
+			xmlReportWriter = new XmlReportWriter();
+			reportLogger = new ReportLogger(xmlReportWriter);
 			LoggingConnector.addLogger(List.of(reportLogger));
 		}
 
@@ -490,6 +508,8 @@ public class CommandLineInterface {
 
 		var executionParameters = new TaskExecutionParameters(logger, testRunPlanFile, configFile, reportDirectory, clientAuthCertChainPath, clientAuthKeyPath,  certValidationRootCAPath);
 
+		applyReportRetention(configuration);
+		startReportJournal(xmlReportWriter, reportDirectory);
 		TaskTestTool.executeTaskTestTool(executionParameters);
 		if (pdfReportSet) {
 			pdfReportGeneration(reportLogger, reportDirectory, configuration);
@@ -508,12 +528,19 @@ public class CommandLineInterface {
 	private static EXEC_MODES selectExecMode(final CommandLine cmd) {
 		EXEC_MODES execMode = null;
 		// Either the MICS file or TestRunPlan file has to be provided.
-		boolean onlyOneOptionSet = cmd.hasOption(testRunPlanOption) ^ cmd.hasOption(micsOption) ^ cmd.hasOption(restServerOption);
-		if (!onlyOneOptionSet) {
+		int numberOfModeOptions = 0;
+		for (var modeOption : List.of(testRunPlanOption, micsOption, restServerOption, recoverReportOption)) {
+			if (cmd.hasOption(modeOption)) {
+				numberOfModeOptions++;
+			}
+		}
+		if (numberOfModeOptions != 1) {
 			exit(1,
-					"Either a run plan file, a MICS file, or the REST server option should be provided, but not multiple.");
+					"Either a run plan file, a MICS file, the REST server option, or a report directory to recover should be provided, but not multiple.");
 		} else {
-			if (cmd.hasOption(testRunPlanOption)) {
+			if (cmd.hasOption(recoverReportOption)) {
+				execMode = EXEC_MODES.RECOVER_REPORT_MODE;
+			} else if (cmd.hasOption(testRunPlanOption)) {
 				execMode = EXEC_MODES.LOCAL_TRP_MODE;
 			} else if (cmd.hasOption(micsOption)) {
 				execMode = EXEC_MODES.LOCAL_MICS_MODE;
@@ -539,6 +566,54 @@ public class CommandLineInterface {
 		logger = LoggingConnector.getInstance(log_verbosity);
 	}
 
+	/**
+	 * Compact and delete previous test runs in the report directory, as configured by the global configuration, so
+	 * that the test run does not run out of disk space.
+	 */
+	private static void applyReportRetention(final HashMap<String, GlobalConfigParameter> configuration) {
+		try {
+			new ReportRetention(configuration).apply(runDirectory -> false);
+		} catch (Exception e) {
+			logger.warning(LOGGER_PREFIX + "The retention of the report directory could not be applied: "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Keep a journal of the finished test cases in the report directory, from which a partial report can be derived
+	 * with the option recover-report, if the execution does not end.
+	 */
+	private static void startReportJournal(final XmlReportWriter xmlReportWriter, final String reportDirectory) {
+		if (xmlReportWriter == null) {
+			return;
+		}
+		try {
+			xmlReportWriter.setJournalDirectory(new File(reportDirectory, XmlReportWriter.JOURNAL_DIRECTORY_NAME));
+		} catch (Exception e) {
+			logger.warning(LOGGER_PREFIX + "The report journal could not be created: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Derive a partial XML report from the report journal of a test run, which has not ended.
+	 *
+	 * @param cmd The parsed {@link CommandLine} call.
+	 */
+	private static void executeRecoverReportMode(final CommandLine cmd) {
+		var reportDirectory = new File(cmd.getOptionValue(recoverReportOption));
+		var journalDirectory = new File(reportDirectory, XmlReportWriter.JOURNAL_DIRECTORY_NAME);
+		if (!journalDirectory.isDirectory()) {
+			exit(1, "Directory provided as " + recoverReportOption.getLongOpt() + " does not contain a report journal.");
+		}
+		var partialReportFile = new File(reportDirectory, PARTIAL_REPORT_FILE_NAME);
+		try {
+			XmlReportWriter.recoverReport(journalDirectory, partialReportFile);
+			logger.info(LOGGER_PREFIX + "Partial report written to " + partialReportFile);
+		} catch (Exception e) {
+			logger.error(LOGGER_PREFIX + "An error occurred while recovering the XML report.", e);
+		}
+	}
+
 	private static File xmlReportGeneration(final ReportLogger reportLogger, final String reportDirectory) {
 		if (logger == null) {
 			return null;
@@ -549,9 +624,8 @@ public class CommandLineInterface {
 			return null;
 		}
 		try {
-			var xmlReport = XmlReport.fromReportInstance(reportLogger.generateReport());
 			var xmlReportFileName = new File(reportDirectory, "Report.xml");
-			xmlReport.writeToFile(xmlReportFileName);
+			reportLogger.writeXmlReport(xmlReportFileName);
 			return xmlReportFileName;
 		} catch (Exception e) {
 			logger.error(LOGGER_PREFIX + "An error occurred while generating the XML report.", e);
@@ -0,0 +1,181 @@
+package com.achelos.task.commons.certificatehelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.bouncycastle.util.encoders.Hex;
+
+
+/**
+ * Content-addressed cache of generated certificate directories. A directory is generated once for a combination of
+ * inputs (e.g. the certificate template, the CA and the responder ports), stored in the cache directory under the
+ * SHA-256 hash of the inputs, and copied to the target directory by later requests with the same inputs.
+ * <p>
+ * Cached directories are used until one day before the earliest expiry of their certificates. Directories are
+ * generated into a temporary directory first and moved into the cache when complete, thus concurrent processes never
+ * see partially generated directories.
+ */
+public final class CertificateCache {
+
+	/**
+	 * Name of the file within a cached directory, which contains the earliest expiry of its certificates.
+	 */
+	private static final String EXPIRY_FILE_NAME = ".expiry";
+	private static final long EXPIRY_MARGIN = TimeUnit.DAYS.toMillis(1);
+	private static final String PRIVATE_DIRECTORY_NAME = "private";
+
+	/**
+	 * Generates the content of a directory.
+	 */
+	@FunctionalInterface
+	public interface Generator {
+		/**
+		 * Generate the content of the directory.
+		 *
+		 * @param directory the empty directory to fill
+		 * @return the earliest expiry of the generated certificates
+		 * @throws IOException if the content cannot be generated
+		 */
+		Date generate(File directory) throws IOException;
+	}
+
+	/**
+	 * Hidden Constructor.
+	 */
+	private CertificateCache() {
+		// Empty.
+	}
+
+	/**
+	 * @return the cache directory within the temporary directory.
+	 */
+	public static File getCacheDirectory() {
+		return new File(System.getProperty("java.io.tmpdir"), "task-certificate-cache");
+	}
+
+	/**
+	 * Copy the directory generated for the given inputs into the target directory. The directory is generated, if it
+	 * is not cached yet or its certificates are about to expire.
+	 *
+	 * @param target the directory to copy the generated files to
+	 * @param generator the generator of the directory
+	 * @param inputs all inputs the generated directory depends on
+	 * @return true, if the directory has been taken from the cache, false if it has been generated.
+	 * @throws IOException if the directory cannot be generated or copied
+	 */
+	public static synchronized boolean provide(final File target, final Generator generator, final byte[]... inputs)
+			throws IOException {
+		final Path cacheDirectory = getCacheDirectory().toPath();
+		Files.createDirectories(cacheDirectory);
+		// The cache contains private keys.
+		restrictPermissions(cacheDirectory);
+		final Path cached = cacheDirectory.resolve(hash(inputs));
+		final boolean fromCache = isValid(cached);
+		if (!fromCache) {
+			generate(cacheDirectory, cached, generator);
+		}
+		copy(cached, target.toPath());
+		return fromCache;
+	}
+
+	private static boolean isValid(final Path cached) throws IOException {
+		final Path expiryFile = cached.resolve(EXPIRY_FILE_NAME);
+		if (!Files.isRegularFile(expiryFile)) {
+			return false;
+		}
+		try {
+			final long expiry = Long.parseLong(Files.readString(expiryFile, StandardCharsets.US_ASCII).trim());
+			return System.currentTimeMillis() + EXPIRY_MARGIN < expiry;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static void generate(final Path cacheDirectory, final Path cached, final Generator generator)
+			throws IOException {
+		final Path temporary = Files.createTempDirectory(cacheDirectory, "generating_");
+		try {
+			final Date expiry = generator.generate(temporary.toFile());
+			Files.writeString(temporary.resolve(EXPIRY_FILE_NAME), Long.toString(expiry.getTime()),
+					StandardCharsets.US_ASCII);
+			if (Files.exists(cached)) {
+				delete(cached);
+			}
+			try {
+				Files.move(temporary, cached, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, cached);
+			}
+		} catch (FileAlreadyExistsException e) {
+			// Generated by another process in the meantime.
+		} finally {
+			if (Files.exists(temporary)) {
+				delete(temporary);
+			}
+		}
+	}
+
+	private static void copy(final Path source, final Path target) throws IOException {
+		final List<Path> paths;
+		try (Stream<Path> stream = Files.walk(source)) {
+			paths = stream.collect(Collectors.toList());
+		}
+		for (final Path path : paths) {
+			final Path destination = target.resolve(source.relativize(path).toString());
+			if (Files.isDirectory(path)) {
+				Files.createDirectories(destination);
+				if (PRIVATE_DIRECTORY_NAME.equals(path.getFileName().toString())) {
+					restrictPermissions(destination);
+				}
+			} else if (!EXPIRY_FILE_NAME.equals(path.getFileName().toString())) {
+				Files.copy(path, destination, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+	}
+
+	private static void restrictPermissions(final Path directory) throws IOException {
+		try {
+			Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwx------"));
+		} catch (UnsupportedOperationException e) {
+			// Not a POSIX file system.
+		}
+	}
+
+	private static void delete(final Path directory) throws IOException {
+		try (Stream<Path> stream = Files.walk(directory)) {
+			for (final Path path : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	private static String hash(final byte[]... inputs) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (final byte[] input : inputs) {
+				// The length separates the inputs, so that inputs cannot be shifted into each other.
+				digest.update(Integer.toString(input.length).getBytes(StandardCharsets.US_ASCII));
+				digest.update((byte) ':');
+				digest.update(input);
+			}
+			return Hex.toHexString(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available.", e);
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package com.achelos.task.commons.certificatehelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.CRLNumber;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.openssl.PEMKeyPair;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.openssl.jcajce.JcaPKCS8Generator;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+
+/**
+ * Creates keys, certificates and CRLs in-process, as the OpenSSL commands {@code genrsa}, {@code ecparam},
+ * {@code req} and {@code ca} do with a certificate template (see {@link OpenSslConfiguration}). Keys, certificates
+ * and CRLs are read and written in the PEM format used by OpenSSL.
+ */
+public final class CertificateGenerator {
+
+	private static final int RSA_KEY_SIZE = 2048;
+	private static final String EC_CURVE = "secp256r1";
+
+	/**
+	 * Key type of the generated keys.
+	 */
+	public enum KeyType {
+		/**
+		 * RSA key with 2048 bits.
+		 */
+		RSA,
+		/**
+		 * ECDSA key on curve secp256r1.
+		 */
+		ECDSA
+	}
+
+	/**
+	 * Hidden Constructor.
+	 */
+	private CertificateGenerator() {
+		// Empty.
+	}
+
+	/**
+	 * @param keyType the key type
+	 * @return a new key pair of the given type.
+	 * @throws IOException if the key pair cannot be generated
+	 */
+	public static KeyPair generateKeyPair(final KeyType keyType) throws IOException {
+		try {
+			final KeyPairGenerator generator;
+			if (keyType == KeyType.RSA) {
+				generator = KeyPairGenerator.getInstance("RSA");
+				generator.initialize(RSA_KEY_SIZE);
+			} else {
+				generator = KeyPairGenerator.getInstance("EC");
+				generator.initialize(new ECGenParameterSpec(EC_CURVE));
+			}
+			return generator.generateKeyPair();
+		} catch (GeneralSecurityException e) {
+			throw new IOException("Unable to generate " + keyType + " key pair.", e);
+		}
+	}
+
+	/**
+	 * Create a certificate, as {@code openssl ca} (or {@code openssl req -x509} for self-signed certificates) does.
+	 *
+	 * @param configuration the certificate template providing the digest ({@code default_md}) and the extensions
+	 * @param extensionSection the section of the extensions to add
+	 * @param subject the subject of the certificate
+	 * @param subjectKey the public key of the subject
+	 * @param issuer the certificate of the issuer, or null for a self-signed certificate
+	 * @param issuerKey the private key of the issuer
+	 * @param serial the serial number
+	 * @param notBefore the start of the validity
+	 * @param days the validity in days
+	 * @return the certificate
+	 * @throws IOException if the certificate cannot be created
+	 */
+	public static X509CertificateHolder createCertificate(final OpenSslConfiguration configuration,
+			final String extensionSection, final X500Name subject, final PublicKey subjectKey,
+			final X509CertificateHolder issuer, final PrivateKey issuerKey, final BigInteger serial,
+			final Date notBefore, final int days) throws IOException {
+		final X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(
+				issuer == null ? subject : issuer.getSubject(), serial, notBefore,
+				new Date(notBefore.getTime() + TimeUnit.DAYS.toMillis(days)), subject, subjectKey);
+		configuration.addExtensions(extensionSection, builder, subjectKey, issuer);
+		return builder.build(createSigner(configuration, issuerKey));
+	}
+
+	/**
+	 * Create a CRL, as {@code openssl ca -gencrl} does.
+	 *
+	 * @param configuration the certificate template providing the digest ({@code default_md})
+	 * @param issuer the certificate of the issuer
+	 * @param issuerKey the private key of the issuer
+	 * @param crlNumber the CRL number
+	 * @param revocations the revocation dates by serial number, all revoked because of a key compromise
+	 * @param thisUpdate the time of this update
+	 * @param days the days until the next update
+	 * @return the CRL
+	 * @throws IOException if the CRL cannot be created
+	 */
+	public static X509CRLHolder createCrl(final OpenSslConfiguration configuration,
+			final X509CertificateHolder issuer, final PrivateKey issuerKey, final BigInteger crlNumber,
+			final Map<BigInteger, Date> revocations, final Date thisUpdate, final int days) throws IOException {
+		final X509v2CRLBuilder builder = new X509v2CRLBuilder(issuer.getSubject(), thisUpdate);
+		builder.setNextUpdate(new Date(thisUpdate.getTime() + TimeUnit.DAYS.toMillis(days)));
+		for (final Map.Entry<BigInteger, Date> revocation : revocations.entrySet()) {
+			builder.addCRLEntry(revocation.getKey(), revocation.getValue(), CRLReason.keyCompromise);
+		}
+		builder.addExtension(Extension.cRLNumber, false, new CRLNumber(crlNumber));
+		return builder.build(createSigner(configuration, issuerKey));
+	}
+
+	/**
+	 * Write a PEM file, e.g. a certificate or CRL.
+	 *
+	 * @param file the file to write
+	 * @param object the object to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writePem(final File file, final Object object) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.US_ASCII);
+				JcaPEMWriter pemWriter = new JcaPEMWriter(writer)) {
+			pemWriter.writeObject(object);
+		}
+	}
+
+	/**
+	 * Write a private key as unencrypted PKCS#8 PEM file, as {@code openssl genrsa} of OpenSSL 3 does.
+	 *
+	 * @param file the file to write
+	 * @param privateKey the private key to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void writePrivateKey(final File file, final PrivateKey privateKey) throws IOException {
+		writePem(file, new JcaPKCS8Generator(privateKey, null));
+	}
+
+	/**
+	 * Read the first certificate of a PEM file. Text before the certificate, as written by {@code openssl ca}, is
+	 * skipped.
+	 *
+	 * @param file the file to read
+	 * @return the certificate
+	 * @throws IOException if the file cannot be read or does not contain a certificate
+	 */
+	public static X509CertificateHolder readCertificate(final File file) throws IOException {
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.ISO_8859_1);
+				PEMParser parser = new PEMParser(reader)) {
+			Object object;
+			while ((object = parser.readObject()) != null) {
+				if (object instanceof X509CertificateHolder) {
+					return (X509CertificateHolder) object;
+				}
+			}
+		}
+		throw new IOException("No certificate found in " + file + ".");
+	}
+
+	/**
+	 * Read the first unencrypted private key of a PEM file, in PKCS#8 format or in the traditional format of OpenSSL.
+	 *
+	 * @param file the file to read
+	 * @return the private key
+	 * @throws IOException if the file cannot be read or does not contain a private key
+	 */
+	public static PrivateKey readPrivateKey(final File file) throws IOException {
+		final JcaPEMKeyConverter converter = new JcaPEMKeyConverter();
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.ISO_8859_1);
+				PEMParser parser = new PEMParser(reader)) {
+			Object object;
+			while ((object = parser.readObject()) != null) {
+				if (object instanceof PEMKeyPair) {
+					return converter.getKeyPair((PEMKeyPair) object).getPrivate();
+				}
+				if (object instanceof PrivateKeyInfo) {
+					return converter.getPrivateKey((PrivateKeyInfo) object);
+				}
+			}
+		}
+		throw new IOException("No private key found in " + file + ".");
+	}
+
+	/**
+	 * @param configuration the certificate template providing the digest ({@code default_md})
+	 * @param privateKey the signing key
+	 * @return the signature algorithm, e.g. SHA256withECDSA.
+	 */
+	public static String getSignatureAlgorithm(final OpenSslConfiguration configuration,
+			final PrivateKey privateKey) {
+		final String digest = configuration.getValue("ca_default", "default_md");
+		final String digestName = (digest == null ? "sha256" : digest).toUpperCase();
+		return digestName + ("RSA".equals(privateKey.getAlgorithm()) ? "withRSA" : "withECDSA");
+	}
+
+	private static ContentSigner createSigner(final OpenSslConfiguration configuration, final PrivateKey privateKey)
+			throws IOException {
+		try {
+			return new JcaContentSignerBuilder(getSignatureAlgorithm(configuration, privateKey)).build(privateKey);
+		} catch (OperatorCreationException e) {
+			throw new IOException("Unable to create signer.", e);
+		}
+	}
+}
@@ -0,0 +1,429 @@
+package com.achelos.task.commons.certificatehelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x500.X500NameBuilder;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.asn1.x509.SubjectKeyIdentifier;
+import org.bouncycastle.cert.CertIOException;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+
+
+/**
+ * An OpenSSL configuration file, e.g. a certificate template, as used by the OpenSSL commands {@code req} and
+ * {@code ca}. Supports sections, comments, quoted values and variables ({@code $name}, {@code ${name}} and
+ * {@code $section::name}).
+ * <p>
+ * Distinguished names and the X.509 v3 extensions used by the certificate templates of TaSK can be created from the
+ * sections of the configuration. Unsupported extensions are rejected instead of being ignored silently.
+ */
+public final class OpenSslConfiguration {
+
+	private static final String DEFAULT_SECTION = "default";
+
+	private static final Map<String, ASN1ObjectIdentifier> NAME_ATTRIBUTES = Map.of("countryName", BCStyle.C,
+			"stateOrProvinceName", BCStyle.ST, "localityName", BCStyle.L, "organizationName", BCStyle.O,
+			"organizationalUnitName", BCStyle.OU, "commonName", BCStyle.CN, "emailAddress", BCStyle.EmailAddress);
+
+	private static final Map<String, Integer> KEY_USAGES = Map.of("digitalSignature", KeyUsage.digitalSignature,
+			"nonRepudiation", KeyUsage.nonRepudiation, "keyEncipherment", KeyUsage.keyEncipherment,
+			"dataEncipherment", KeyUsage.dataEncipherment, "keyAgreement", KeyUsage.keyAgreement, "keyCertSign",
+			KeyUsage.keyCertSign, "cRLSign", KeyUsage.cRLSign, "encipherOnly", KeyUsage.encipherOnly, "decipherOnly",
+			KeyUsage.decipherOnly);
+
+	private static final Map<String, KeyPurposeId> KEY_PURPOSES = Map.of("serverAuth", KeyPurposeId.id_kp_serverAuth,
+			"clientAuth", KeyPurposeId.id_kp_clientAuth, "codeSigning", KeyPurposeId.id_kp_codeSigning,
+			"emailProtection", KeyPurposeId.id_kp_emailProtection, "timeStamping", KeyPurposeId.id_kp_timeStamping,
+			"OCSPSigning", KeyPurposeId.id_kp_OCSPSigning);
+
+	private final Map<String, Map<String, String>> sections = new LinkedHashMap<>();
+
+	/**
+	 * Parse an OpenSSL configuration.
+	 *
+	 * @param content the content of the configuration file
+	 * @throws IOException if the content cannot be read
+	 */
+	public OpenSslConfiguration(final String content) throws IOException {
+		String sectionName = DEFAULT_SECTION;
+		Map<String, String> section = sections.computeIfAbsent(sectionName, name -> new LinkedHashMap<>());
+		try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final int comment = line.indexOf('#');
+				if (comment >= 0) {
+					line = line.substring(0, comment);
+				}
+				line = line.trim();
+				if (line.isEmpty()) {
+					continue;
+				}
+				if (line.startsWith("[") && line.endsWith("]")) {
+					sectionName = line.substring(1, line.length() - 1).trim();
+					section = sections.computeIfAbsent(sectionName, name -> new LinkedHashMap<>());
+					continue;
+				}
+				final int separator = line.indexOf('=');
+				if (separator < 0) {
+					continue;
+				}
+				section.put(line.substring(0, separator).trim(),
+						expand(unquote(line.substring(separator + 1).trim()), sectionName));
+			}
+		}
+	}
+
+	/**
+	 * @param section the name of the section
+	 * @param name the name of the value
+	 * @return the value of the section, or of the default section if the section does not contain it, or null.
+	 */
+	public String getValue(final String section, final String name) {
+		final Map<String, String> values = sections.get(section);
+		if (values != null && values.containsKey(name)) {
+			return values.get(name);
+		}
+		return sections.get(DEFAULT_SECTION).get(name);
+	}
+
+	/**
+	 * @param section the name of the section
+	 * @param name the name of the value
+	 * @param defaultValue the value to return if the value is not set
+	 * @return the value as integer.
+	 */
+	public int getInteger(final String section, final String name, final int defaultValue) {
+		final String value = getValue(section, name);
+		return value == null ? defaultValue : Integer.parseInt(value);
+	}
+
+	/**
+	 * Create the distinguished name given by the entries of a section, e.g. the section referenced by
+	 * {@code distinguished_name} of section {@code req}.
+	 *
+	 * @param section the name of the section
+	 * @return the distinguished name in the order of the entries.
+	 */
+	public X500Name getDistinguishedName(final String section) {
+		final X500NameBuilder builder = new X500NameBuilder(BCStyle.INSTANCE);
+		for (final Map.Entry<String, String> entry : getSection(section).entrySet()) {
+			final ASN1ObjectIdentifier attribute = NAME_ATTRIBUTES.get(entry.getKey());
+			if (attribute == null) {
+				throw new IllegalArgumentException("Unsupported name attribute " + entry.getKey() + " in section "
+						+ section + ".");
+			}
+			builder.addRDN(attribute, entry.getValue());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Add the X.509 v3 extensions given by the entries of a section, e.g. the section referenced by
+	 * {@code x509_extensions}, to a certificate. As OpenSSL 3 does, the subject key identifier and, for certificates
+	 * not self-signed, the authority key identifier are added, unless the section configures them ({@code none}
+	 * omits them).
+	 *
+	 * @param section the name of the section
+	 * @param builder the builder of the certificate
+	 * @param subjectKey the public key of the subject
+	 * @param issuer the certificate of the issuer, or null for a self-signed certificate
+	 * @throws CertIOException if an extension cannot be added
+	 */
+	public void addExtensions(final String section, final X509v3CertificateBuilder builder,
+			final PublicKey subjectKey, final X509CertificateHolder issuer) throws CertIOException {
+		final JcaX509ExtensionUtils extensionUtils;
+		try {
+			extensionUtils = new JcaX509ExtensionUtils();
+		} catch (NoSuchAlgorithmException e) {
+			throw new CertIOException("No digest available for key identifiers.", e);
+		}
+		final List<String> omitted = new ArrayList<>();
+		for (final Map.Entry<String, String> entry : getSection(section).entrySet()) {
+			String value = entry.getValue();
+			boolean critical = false;
+			if (value.startsWith("critical,")) {
+				critical = true;
+				value = value.substring("critical,".length()).trim();
+			}
+			if ("none".equals(value)) {
+				omitted.add(entry.getKey());
+				continue;
+			}
+			switch (entry.getKey()) {
+				case "basicConstraints":
+					builder.addExtension(Extension.basicConstraints, critical, basicConstraints(value));
+					break;
+				case "keyUsage":
+					int usage = 0;
+					for (final String name : split(value)) {
+						usage |= lookup(KEY_USAGES, name, "key usage");
+					}
+					builder.addExtension(Extension.keyUsage, critical, new KeyUsage(usage));
+					break;
+				case "extendedKeyUsage":
+					final List<KeyPurposeId> purposes = new ArrayList<>();
+					for (final String name : split(value)) {
+						purposes.add(lookup(KEY_PURPOSES, name, "extended key usage"));
+					}
+					builder.addExtension(Extension.extendedKeyUsage, critical,
+							new ExtendedKeyUsage(purposes.toArray(new KeyPurposeId[0])));
+					break;
+				case "subjectKeyIdentifier":
+					builder.addExtension(Extension.subjectKeyIdentifier, critical,
+							extensionUtils.createSubjectKeyIdentifier(subjectKey));
+					break;
+				case "authorityKeyIdentifier":
+					builder.addExtension(Extension.authorityKeyIdentifier, critical,
+							authorityKeyIdentifier(extensionUtils, subjectKey, issuer));
+					break;
+				case "subjectAltName":
+					builder.addExtension(Extension.subjectAlternativeName, critical,
+							new GeneralNames(generalNames(value).toArray(new GeneralName[0])));
+					break;
+				case "crlDistributionPoints":
+					final List<DistributionPoint> points = new ArrayList<>();
+					for (final GeneralName name : generalNames(value)) {
+						points.add(new DistributionPoint(new DistributionPointName(new GeneralNames(name)), null,
+								null));
+					}
+					builder.addExtension(Extension.cRLDistributionPoints, critical,
+							new CRLDistPoint(points.toArray(new DistributionPoint[0])));
+					break;
+				case "authorityInfoAccess":
+					builder.addExtension(Extension.authorityInfoAccess, critical,
+							new AuthorityInformationAccess(accessDescriptions(value)));
+					break;
+				case "noCheck":
+					builder.addExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nocheck, critical, DERNull.INSTANCE);
+					break;
+				default:
+					throw new IllegalArgumentException("Unsupported extension " + entry.getKey() + " in section "
+							+ section + ".");
+			}
+		}
+		if (!omitted.contains("subjectKeyIdentifier") && !builder.hasExtension(Extension.subjectKeyIdentifier)) {
+			builder.addExtension(Extension.subjectKeyIdentifier, false,
+					extensionUtils.createSubjectKeyIdentifier(subjectKey));
+		}
+		if (issuer != null && !omitted.contains("authorityKeyIdentifier")
+				&& !builder.hasExtension(Extension.authorityKeyIdentifier)) {
+			builder.addExtension(Extension.authorityKeyIdentifier, false,
+					authorityKeyIdentifier(extensionUtils, subjectKey, issuer));
+		}
+	}
+
+	/**
+	 * @return the authority key identifier, which is the subject key identifier of the issuer if present.
+	 */
+	private static AuthorityKeyIdentifier authorityKeyIdentifier(final JcaX509ExtensionUtils extensionUtils,
+			final PublicKey subjectKey, final X509CertificateHolder issuer) {
+		if (issuer == null) {
+			return extensionUtils.createAuthorityKeyIdentifier(subjectKey);
+		}
+		final SubjectKeyIdentifier issuerKeyIdentifier = SubjectKeyIdentifier.fromExtensions(issuer.getExtensions());
+		if (issuerKeyIdentifier != null) {
+			return new AuthorityKeyIdentifier(issuerKeyIdentifier.getKeyIdentifier());
+		}
+		return extensionUtils.createAuthorityKeyIdentifier(issuer.getSubjectPublicKeyInfo());
+	}
+
+	private Map<String, String> getSection(final String section) {
+		final Map<String, String> values = sections.get(section);
+		if (values == null) {
+			throw new IllegalArgumentException("Section " + section + " not found.");
+		}
+		return values;
+	}
+
+	/**
+	 * Replace the variables of a value by the values defined before.
+	 */
+	private String expand(final String value, final String section) {
+		final StringBuilder result = new StringBuilder();
+		int i = 0;
+		while (i < value.length()) {
+			final char c = value.charAt(i);
+			if (c != '$' || i + 1 == value.length()) {
+				result.append(c);
+				i++;
+				continue;
+			}
+			final int start;
+			final int end;
+			if (value.charAt(i + 1) == '{') {
+				start = i + 2;
+				end = value.indexOf('}', start);
+				if (end < 0) {
+					throw new IllegalArgumentException("Unterminated variable in " + value + ".");
+				}
+				i = end + 1;
+			} else {
+				start = i + 1;
+				int position = start;
+				while (position < value.length() && isNameCharacter(value, position)) {
+					position += value.startsWith("::", position) ? 2 : 1;
+				}
+				end = position;
+				i = end;
+			}
+			final String name = value.substring(start, end);
+			final int qualifier = name.indexOf("::");
+			final String resolved = qualifier < 0 ? getValue(section, name)
+					: getValue(name.substring(0, qualifier), name.substring(qualifier + 2));
+			if (resolved == null) {
+				throw new IllegalArgumentException("Variable " + name + " has no value.");
+			}
+			result.append(resolved);
+		}
+		return result.toString();
+	}
+
+	private static boolean isNameCharacter(final String value, final int position) {
+		final char c = value.charAt(position);
+		return Character.isLetterOrDigit(c) || c == '_' || value.startsWith("::", position);
+	}
+
+	private static String unquote(final String value) {
+		if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+			return value.substring(1, value.length() - 1);
+		}
+		return value;
+	}
+
+	private static List<String> split(final String value) {
+		final List<String> result = new ArrayList<>();
+		for (final String part : value.split(",")) {
+			if (!part.isBlank()) {
+				result.add(part.trim());
+			}
+		}
+		return result;
+	}
+
+	private static <T> T lookup(final Map<String, T> values, final String name, final String kind) {
+		final T value = values.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("Unsupported " + kind + " " + name + ".");
+		}
+		return value;
+	}
+
+	private static BasicConstraints basicConstraints(final String value) {
+		boolean ca = false;
+		Integer pathLength = null;
+		for (final String part : split(value)) {
+			if (part.regionMatches(true, 0, "CA:", 0, 3)) {
+				ca = Boolean.parseBoolean(part.substring(3).trim());
+			} else if (part.startsWith("pathlen:")) {
+				pathLength = Integer.parseInt(part.substring("pathlen:".length()).trim());
+			}
+		}
+		if (ca && pathLength != null) {
+			return new BasicConstraints(pathLength);
+		}
+		return new BasicConstraints(ca);
+	}
+
+	/**
+	 * @param value a comma separated list of TYPE:value, or a reference to a section with TYPE.n = value entries
+	 * @return the general names.
+	 */
+	private List<GeneralName> generalNames(final String value) {
+		final List<GeneralName> names = new ArrayList<>();
+		for (final String typedValue : typedValues(value)) {
+			final String[] typeAndValue = split(typedValue, ":");
+			names.add(generalName(typeAndValue[0], typeAndValue[1]));
+		}
+		return names;
+	}
+
+	/**
+	 * @param value a comma separated list of METHOD;TYPE:value, or a reference to a section with METHOD;TYPE.n =
+	 *            value entries
+	 * @return the access descriptions.
+	 */
+	private AccessDescription[] accessDescriptions(final String value) {
+		final List<AccessDescription> descriptions = new ArrayList<>();
+		for (final String typedValue : typedValues(value)) {
+			final String[] methodAndValue = split(typedValue, ";");
+			final ASN1ObjectIdentifier method;
+			if ("OCSP".equals(methodAndValue[0])) {
+				method = AccessDescription.id_ad_ocsp;
+			} else if ("caIssuers".equals(methodAndValue[0])) {
+				method = AccessDescription.id_ad_caIssuers;
+			} else {
+				throw new IllegalArgumentException("Unsupported access method " + methodAndValue[0] + ".");
+			}
+			final String[] typeAndValue = split(methodAndValue[1], ":");
+			descriptions.add(new AccessDescription(method, generalName(typeAndValue[0], typeAndValue[1])));
+		}
+		return descriptions.toArray(new AccessDescription[0]);
+	}
+
+	/**
+	 * Get a list of typed values (e.g. "DNS:tlstest.task"), either given inline or by a section reference. The
+	 * numbering of the names of section entries (e.g. "DNS.1") is removed.
+	 */
+	private List<String> typedValues(final String value) {
+		if (!value.startsWith("@")) {
+			return split(value);
+		}
+		final List<String> result = new ArrayList<>();
+		for (final Map.Entry<String, String> entry : getSection(value.substring(1)).entrySet()) {
+			final String type = entry.getKey();
+			final int number = type.lastIndexOf('.');
+			result.add((number < 0 ? type : type.substring(0, number)) + ":" + entry.getValue());
+		}
+		return result;
+	}
+
+	private static String[] split(final String value, final String separator) {
+		final int position = value.indexOf(separator);
+		if (position < 0) {
+			throw new IllegalArgumentException("Missing type in " + value + ".");
+		}
+		return new String[] {value.substring(0, position).trim(), value.substring(position + 1).trim()};
+	}
+
+	private static GeneralName generalName(final String type, final String value) {
+		switch (type) {
+			case "DNS":
+				return new GeneralName(GeneralName.dNSName, value);
+			case "IP":
+				return new GeneralName(GeneralName.iPAddress, value);
+			case "URI":
+				return new GeneralName(GeneralName.uniformResourceIdentifier, value);
+			case "email":
+				return new GeneralName(GeneralName.rfc822Name, value);
+			default:
+				throw new IllegalArgumentException("Unsupported general name type " + type + ".");
+		}
+	}
+}
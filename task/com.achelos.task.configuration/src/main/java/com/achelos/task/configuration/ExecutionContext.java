@@ -0,0 +1,144 @@
+package com.achelos.task.configuration;
+
+import com.achelos.task.logging.LoggingConnector;
+import com.achelos.task.logging.LoggingConnector.AbstractLogEntryChecker;
+
+
+/**
+ * The state a single test run is executed with: the test run plan configuration, the logger and the log entry checker
+ * of the test case which is currently running.
+ * <p>
+ * The execution context is passed down from the test case runner to the test cases and the executors. Code which is
+ * not handed a context explicitly (e.g. test fragments or verifiers) receives it through
+ * {@link TestRunPlanConfiguration#getInstance()} and {@link LoggingConnector#getInstance()}, as long as the context
+ * is bound to the executing thread (see {@link #bind()}). Thus, several test runs can be executed within the same
+ * process without sharing their configuration and logging.
+ */
+public final class ExecutionContext {
+
+	private static final InheritableThreadLocal<ExecutionContext> BOUND_CONTEXT = new InheritableThreadLocal<>();
+
+	private final TestRunPlanConfiguration configuration;
+	private final LoggingConnector logger;
+
+	/**
+	 * Create a new execution context.
+	 *
+	 * @param configuration the test run plan configuration to use
+	 * @param logger the logger to use
+	 */
+	public ExecutionContext(final TestRunPlanConfiguration configuration, final LoggingConnector logger) {
+		if (logger == null) {
+			throw new IllegalArgumentException("An execution context requires a logger.");
+		}
+		this.configuration = configuration;
+		this.logger = logger;
+	}
+
+	/**
+	 * Returns the execution context bound to the current thread. If no context is bound, a context consisting of the
+	 * global test run plan configuration and the global logger is returned.
+	 *
+	 * @return the current execution context
+	 * @throws NullPointerException if no context is bound and no global test run plan configuration has been set yet.
+	 */
+	public static ExecutionContext current() {
+		final ExecutionContext context = BOUND_CONTEXT.get();
+		if (context != null) {
+			return context;
+		}
+		return new ExecutionContext(TestRunPlanConfiguration.getInstance(), LoggingConnector.getInstance());
+	}
+
+	/**
+	 * @return the execution context bound to the current thread, or null if no context is bound.
+	 */
+	static ExecutionContext getBound() {
+		return BOUND_CONTEXT.get();
+	}
+
+	/**
+	 * Bind this context to the current thread and all threads started by it, until the returned binding is closed.
+	 *
+	 * @return the binding, which restores the previously bound context when closed.
+	 */
+	public Binding bind() {
+		final Binding binding = new Binding(BOUND_CONTEXT.get(), LoggingConnector.getBoundInstance());
+		BOUND_CONTEXT.set(this);
+		LoggingConnector.bindInstance(logger);
+		return binding;
+	}
+
+	/**
+	 * Returns a context with the configuration of this context and the given logger.
+	 *
+	 * @param otherLogger the logger to use, or null to keep the logger of this context
+	 * @return this context, if it already uses the given logger, a derived context otherwise.
+	 */
+	public ExecutionContext withLogger(final LoggingConnector otherLogger) {
+		if (otherLogger == null || otherLogger == logger) {
+			return this;
+		}
+		return new ExecutionContext(configuration, otherLogger);
+	}
+
+	/**
+	 * @return the test run plan configuration of this context.
+	 */
+	public TestRunPlanConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * @return the logger of this context.
+	 */
+	public LoggingConnector getLogger() {
+		return logger;
+	}
+
+	/**
+	 * Register the log entry checker of the test case which is executed in this context.
+	 *
+	 * @param logEntryChecker the log entry checker to register
+	 * @throws IllegalStateException if a log entry checker is already registered
+	 */
+	public void setLogEntryChecker(final AbstractLogEntryChecker logEntryChecker) {
+		logger.setLogEntryChecker(logEntryChecker);
+	}
+
+	/**
+	 * Remove the log entry checker of the test case which is executed in this context.
+	 *
+	 * @param logEntryChecker the log entry checker to remove
+	 * @throws IllegalStateException if the given log entry checker is not the registered one
+	 */
+	public void resetLogEntryChecker(final AbstractLogEntryChecker logEntryChecker) {
+		logger.resetLogEntryChecker(logEntryChecker);
+	}
+
+	/**
+	 * Binding of an execution context to a thread.
+	 */
+	public static final class Binding implements AutoCloseable {
+		private final ExecutionContext previous;
+		private final LoggingConnector previousLogger;
+
+		private Binding(final ExecutionContext previous, final LoggingConnector previousLogger) {
+			this.previous = previous;
+			this.previousLogger = previousLogger;
+		}
+
+		/**
+		 * Restore the previously bound context.
+		 */
+		@Override
+		public void close() {
+			if (previous == null) {
+				BOUND_CONTEXT.remove();
+			} else {
+				BOUND_CONTEXT.set(previous);
+			}
+			LoggingConnector.bindInstance(previousLogger);
+		}
+	}
+}
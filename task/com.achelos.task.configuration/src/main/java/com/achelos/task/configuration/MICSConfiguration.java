@@ -1,6 +1,7 @@
 package com.achelos.task.configuration;
 
 import java.io.File;
+import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.List;
@@ -15,7 +16,9 @@ import com.achelos.task.xmlparser.datastructures.tlsspecification.TlsSpecificati
 /**
  * Internal data structure representing the configurations and specifications used to parse and verify MICS files.
  */
-public class MICSConfiguration {
+public class MICSConfiguration implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * List of available Application Specifications.
@@ -0,0 +1,279 @@
+package com.achelos.task.configuration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.achelos.task.logging.LoggingConnector;
+import com.achelos.task.utilities.FileUtils;
+
+/**
+ * Snapshot of a {@link MICSConfiguration}, which saves parsing and validating the specification directory on every
+ * run. The snapshot records the length, the modification time and the SHA-256 fingerprint of every parsed file. It is
+ * used as long as all files are unchanged, i.e. have the same length and either the same modification time or the
+ * same fingerprint.
+ * <p>
+ * Snapshots are held in memory and shared by all runs within the process, e.g. all requests of the REST server.
+ * Optionally, they are stored in a snapshot file, which is loaded by later processes. The snapshot file records the
+ * version and build of TaSK which has written it, and is only loaded by the same build, since the serialized data
+ * structures may differ between builds.
+ */
+public final class MICSConfigurationSnapshot {
+
+	private static final String LOGGING_COMPONENT = "TaSK: ";
+	private static final String FILE_HEADER = "TaSK MICS configuration snapshot 2";
+	/**
+	 * Version and build of TaSK, which is written after the file header.
+	 */
+	private static final String BUILD = getBuild();
+	private static final String XML_FILE_EXTENSION = ".xml";
+	/**
+	 * Only the internal data structures and the JDK classes they use are deserialized from the snapshot file.
+	 */
+	private static final ObjectInputFilter SNAPSHOT_FILTER
+			= ObjectInputFilter.Config.createFilter("com.achelos.task.**;java.**;!*");
+
+	private static final Map<List<String>, Snapshot> SNAPSHOTS = new HashMap<>();
+
+	/**
+	 * Hidden Constructor.
+	 */
+	private MICSConfigurationSnapshot() {
+		// Empty.
+	}
+
+	/**
+	 * Return the MICS Configuration of the given specification and configuration files, either from a valid snapshot
+	 * or by parsing the files as {@link MICSConfiguration#initializeConfiguration} does. A new snapshot is held in
+	 * memory and written to the snapshot file.
+	 *
+	 * @param snapshotFile The snapshot file to load and store, or null to keep the snapshot in memory only.
+	 * @param applicationSpecifications A list of Application Specification Files.
+	 * @param applicationProfilesMappings A list of Application Profile Mappings.
+	 * @param testCasesDir A directory, in which the TestCases Specification XMLs are present.
+	 * @param testProfiles The Test Profiles File to use.
+	 * @param globalConfig The Global Configuration File to use.
+	 * @param tlsConfigurationData The TLS Configuration Data File to use.
+	 * @return the resulting MICSConfiguration object.
+	 */
+	public static synchronized MICSConfiguration getConfiguration(final File snapshotFile,
+			final List<File> applicationSpecifications, final List<File> applicationProfilesMappings,
+			final File testCasesDir, final File testProfiles, final File globalConfig,
+			final File tlsConfigurationData) {
+		var logger = LoggingConnector.getInstance();
+		var inputFiles = new ArrayList<File>();
+		inputFiles.addAll(applicationSpecifications);
+		inputFiles.addAll(applicationProfilesMappings);
+		collectXmlFiles(testCasesDir, inputFiles);
+		inputFiles.add(testProfiles);
+		inputFiles.add(globalConfig);
+		inputFiles.add(tlsConfigurationData);
+		var key = new ArrayList<String>();
+		for (var inputFile : inputFiles) {
+			key.add(inputFile.getAbsolutePath());
+		}
+
+		var snapshot = SNAPSHOTS.get(key);
+		if (snapshot != null && snapshot.isValid()) {
+			logger.debug(LOGGING_COMPONENT + "Configuration Initialization: Using the configuration snapshot in memory.");
+			return snapshot.configuration;
+		}
+		if (snapshotFile != null && snapshotFile.isFile()) {
+			snapshot = readSnapshot(snapshotFile);
+			if (snapshot != null && snapshot.getPaths().equals(key) && snapshot.isValid()) {
+				logger.info(LOGGING_COMPONENT + "Configuration Initialization: Using the configuration snapshot "
+						+ snapshotFile.getAbsolutePath());
+				SNAPSHOTS.put(key, snapshot);
+				return snapshot.configuration;
+			}
+			logger.info(LOGGING_COMPONENT
+					+ "Configuration Initialization: The configuration snapshot is outdated and will be replaced.");
+		}
+
+		// Fingerprint before parsing, so that files changed while parsing invalidate the snapshot.
+		var fingerprints = new ArrayList<FileFingerprint>();
+		for (var inputFile : inputFiles) {
+			fingerprints.add(new FileFingerprint(inputFile));
+		}
+		var configuration = MICSConfiguration.initializeConfiguration(applicationSpecifications,
+				applicationProfilesMappings, testCasesDir, testProfiles, globalConfig, tlsConfigurationData);
+		snapshot = new Snapshot(fingerprints, configuration);
+		SNAPSHOTS.put(key, snapshot);
+		if (snapshotFile != null) {
+			try {
+				writeSnapshot(snapshotFile, snapshot);
+				logger.debug(LOGGING_COMPONENT + "Configuration Initialization: Configuration snapshot written to "
+						+ snapshotFile.getAbsolutePath());
+			} catch (IOException e) {
+				logger.warning(LOGGING_COMPONENT + "Configuration Initialization: Unable to write the configuration "
+						+ "snapshot " + snapshotFile.getAbsolutePath() + ": " + e.getMessage());
+			}
+		}
+		return configuration;
+	}
+
+	/**
+	 * Collect the XML files as {@code ConfigParser.parseTestCases} does.
+	 */
+	private static void collectXmlFiles(final File file, final List<File> xmlFiles) {
+		if (!file.isDirectory()) {
+			xmlFiles.add(file);
+			return;
+		}
+		var files = file.listFiles(pathname -> pathname.isDirectory()
+				|| pathname.getName().endsWith(XML_FILE_EXTENSION));
+		if (files != null) {
+			for (var child : files) {
+				collectXmlFiles(child, xmlFiles);
+			}
+		}
+	}
+
+	private static Snapshot readSnapshot(final File snapshotFile) {
+		try (var in = new ObjectInputStream(
+				new GZIPInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile.toPath()))))) {
+			in.setObjectInputFilter(SNAPSHOT_FILTER);
+			if (!FILE_HEADER.equals(in.readUTF())) {
+				return null;
+			}
+			var build = in.readUTF();
+			if (!BUILD.equals(build)) {
+				LoggingConnector.getInstance().debug(LOGGING_COMPONENT + "Configuration Initialization: The "
+						+ "configuration snapshot has been written by another build of TaSK: " + build);
+				return null;
+			}
+			return (Snapshot) in.readObject();
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			// E.g. a truncated or corrupted snapshot file.
+			LoggingConnector.getInstance().debug(LOGGING_COMPONENT
+					+ "Configuration Initialization: Unable to read the configuration snapshot: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static void writeSnapshot(final File snapshotFile, final Snapshot snapshot) throws IOException {
+		var target = snapshotFile.getAbsoluteFile().toPath();
+		Files.createDirectories(target.getParent());
+		var temporary = Files.createTempFile(target.getParent(), snapshotFile.getName(), ".tmp");
+		try {
+			try (var out = new ObjectOutputStream(
+					new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary))))) {
+				out.writeUTF(FILE_HEADER);
+				out.writeUTF(BUILD);
+				out.writeObject(snapshot);
+			}
+			try {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * @return the implementation version of TaSK together with the length and modification time of the JAR file or
+	 *         class directory it has been loaded from, which identify the build also within a version.
+	 */
+	private static String getBuild() {
+		var version = MICSConfiguration.class.getPackage().getImplementationVersion();
+		var build = new StringBuilder(version != null ? version : "unknown");
+		try {
+			var codeSource = MICSConfiguration.class.getProtectionDomain().getCodeSource();
+			if (codeSource != null) {
+				var location = new File(codeSource.getLocation().toURI());
+				build.append(' ').append(location.length()).append(' ').append(location.lastModified());
+			}
+		} catch (URISyntaxException | IllegalArgumentException | SecurityException e) {
+			// The version alone identifies the build.
+		}
+		return build.toString();
+	}
+
+	/**
+	 * A MICS Configuration together with the fingerprints of the files it has been parsed from.
+	 */
+	private static final class Snapshot implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final List<FileFingerprint> fingerprints;
+		private final MICSConfiguration configuration;
+
+		Snapshot(final List<FileFingerprint> fingerprints, final MICSConfiguration configuration) {
+			this.fingerprints = fingerprints;
+			this.configuration = configuration;
+		}
+
+		List<String> getPaths() {
+			var paths = new ArrayList<String>();
+			for (var fingerprint : fingerprints) {
+				paths.add(fingerprint.path);
+			}
+			return paths;
+		}
+
+		boolean isValid() {
+			for (var fingerprint : fingerprints) {
+				if (!fingerprint.isUnchanged()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Length, modification time and SHA-256 fingerprint of a file.
+	 */
+	private static final class FileFingerprint implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private final String path;
+		private final long length;
+		private long lastModified;
+		private final String sha256;
+
+		FileFingerprint(final File file) {
+			path = file.getAbsolutePath();
+			length = file.length();
+			lastModified = file.lastModified();
+			sha256 = HexFormat.of().formatHex(FileUtils.getFileFingerprint(file));
+		}
+
+		/**
+		 * @return true, if the file has the same content. A file, which has only been touched, is hashed once.
+		 */
+		boolean isUnchanged() {
+			var file = new File(path);
+			if (!file.isFile() || file.length() != length) {
+				return false;
+			}
+			var currentLastModified = file.lastModified();
+			if (currentLastModified == lastModified) {
+				return true;
+			}
+			if (!sha256.equals(HexFormat.of().formatHex(FileUtils.getFileFingerprint(file)))) {
+				return false;
+			}
+			lastModified = currentLastModified;
+			return true;
+		}
+	}
+}
@@ -39,7 +39,7 @@ import com.achelos.task.xmlparser.runplanparsing.RunPlanParser;
 
 /**
  * Internal data structure combining all configuration values necessary to execute the TaSK Test Tool from an Test Run Plan file.
- * Currently implemented as a singleton.
+ * Currently implemented as a singleton, which is superseded by the configuration of a bound {@link ExecutionContext}.
  */
 public class TestRunPlanConfiguration {
 	private static final String CRL_OCSP_CERT_DIR_NAME = "ocsp_crl_testtool_certificates";
@@ -63,6 +63,7 @@ public class TestRunPlanConfiguration {
 	 * @param reportDirectory The report directory to store the output in.
 	 * @param clientAuthCertChainFile The client authentication certificate chain file.
 	 * @param clientAuthKeyFile The client authentication private key file.
+	 * @param certificateValidationRootCA The Certificate Validation Root CA file.
 	 * @return TestRunPlanConfiguration instance used for the execution of the TaSK Test Tool.
 	 */
 	public static TestRunPlanConfiguration parseRunPlanConfiguration(final File runPlanFile,
@@ -71,28 +72,56 @@ public class TestRunPlanConfiguration {
 																	 final String clientAuthCertChainFile,
 																	 final String clientAuthKeyFile,
 																	 final String certificateValidationRootCA) {
-		singleton = new TestRunPlanConfiguration();
-		singleton.setTestRunPlanData(RunPlanParser.parseRunPlan(runPlanFile));
-		singleton.setGlobalConfiguration(globalConfiguration);
-		singleton.setReportDirectory(reportDirectory);
+		singleton = createRunPlanConfiguration(runPlanFile, globalConfiguration, reportDirectory,
+				clientAuthCertChainFile, clientAuthKeyFile, certificateValidationRootCA);
+		return singleton;
+	}
+
+	/**
+	 * Parse the Test Run Plan file, and combine it with the other provided information. In contrast to
+	 * {@link #parseRunPlanConfiguration(File, HashMap, String, String, String, String)}, the result is not stored as
+	 * singleton instance, but is meant to be passed on within an {@link ExecutionContext}.
+	 * @param runPlanFile Test Run Plan file to parse
+	 * @param globalConfiguration Global Configuration to use.
+	 * @param reportDirectory The report directory to store the output in.
+	 * @param clientAuthCertChainFile The client authentication certificate chain file.
+	 * @param clientAuthKeyFile The client authentication private key file.
+	 * @param certificateValidationRootCA The Certificate Validation Root CA file.
+	 * @return TestRunPlanConfiguration instance used for the execution of the TaSK Test Tool.
+	 */
+	public static TestRunPlanConfiguration createRunPlanConfiguration(final File runPlanFile,
+																	  final HashMap<String, GlobalConfigParameter> globalConfiguration,
+																	  final String reportDirectory,
+																	  final String clientAuthCertChainFile,
+																	  final String clientAuthKeyFile,
+																	  final String certificateValidationRootCA) {
+		var configuration = new TestRunPlanConfiguration();
+		configuration.setTestRunPlanData(RunPlanParser.parseRunPlan(runPlanFile));
+		configuration.setGlobalConfiguration(globalConfiguration);
+		configuration.setReportDirectory(reportDirectory);
 		// Maybe he following two lines maybe should be a single call?
-		singleton.setDUTCommandGenerator(singleton.getTestRunPlanData().getDUTApplicationType());
-		singleton.setDUTPreparator(singleton.getTestRunPlanData().getDUTApplicationType());
-		singleton.clientAuthCertChainFile = clientAuthCertChainFile;
-		singleton.clientAuthKeyFile = clientAuthKeyFile;
-		singleton.certificateValidationRootCA = certificateValidationRootCA;
-		singleton.verifySettings();
+		configuration.setDUTCommandGenerator(configuration.getTestRunPlanData().getDUTApplicationType());
+		configuration.setDUTPreparator(configuration.getTestRunPlanData().getDUTApplicationType());
+		configuration.clientAuthCertChainFile = clientAuthCertChainFile;
+		configuration.clientAuthKeyFile = clientAuthKeyFile;
+		configuration.certificateValidationRootCA = certificateValidationRootCA;
+		configuration.verifySettings();
 
-		return singleton;
+		return configuration;
 	}
 
 
 	/**
-	 * If a TestRunPlanConfiguration has been parsed and stored as singleton instance, get the instance.
-	 * @return singleton instance, if has been set.
+	 * If an {@link ExecutionContext} is bound to the current thread, get its configuration. Otherwise, if a
+	 * TestRunPlanConfiguration has been parsed and stored as singleton instance, get the instance.
+	 * @return configuration of the bound execution context or singleton instance, if has been set.
 	 * @throws NullPointerException if no singleton instance has been set yet.
 	 */
 	public static TestRunPlanConfiguration getInstance() {
+		var context = ExecutionContext.getBound();
+		if (context != null && context.getConfiguration() != null) {
+			return context.getConfiguration();
+		}
 		if (singleton != null) {
 			return singleton;
 		}
@@ -417,6 +446,20 @@ public class TestRunPlanConfiguration {
 		return getGlobalConfigParameter(GlobalConfigParameterNames.TlsTestToolPort).getValueAsInteger();
 	}
 
+	/**
+	 * Returns the number of consecutive ports, starting with the TLS Test Tool port, which may be used by TLS Test Tool
+	 * instances acting as server. Values smaller than 1 are treated as 1.
+	 *
+	 * @return the number of ports available for TLS Test Tool instances acting as server.
+	 */
+	public int getTlsTestToolPortCount() {
+		if (isGlobalConfigParameterSet(GlobalConfigParameterNames.TlsTestToolPortCount)) {
+			return Math.max(1, getGlobalConfigParameter(GlobalConfigParameterNames.TlsTestToolPortCount)
+					.getValueAsInteger());
+		}
+		return 1;
+	}
+
 	/**
 	 * Returns The maximum wait time for reading log messages value as specified in the global configuration file. If
 	 * not specified, default value of 60 seconds will be used.
@@ -578,6 +621,19 @@ public class TestRunPlanConfiguration {
 		return false;
 	}
 
+	/**
+	 * Returns the information whether a single Dumpcap process shall capture the network traffic of the whole test
+	 * run, as specified in the global configuration XML file.
+	 *
+	 * @return true, if the capture is persistent, false if Dumpcap is started for every test case
+	 */
+	public boolean isTsharkPersistentCapture() {
+		if (isGlobalConfigParameterSet(GlobalConfigParameterNames.TSharkPersistentCapture)) {
+			return getGlobalConfigParameter(GlobalConfigParameterNames.TSharkPersistentCapture).getValueAsBoolean();
+		}
+		return false;
+	}
+
 	/**
 	 * Returns the TShark interface (use for sniffing) as specified in the global configuration XML file.
 	 *
@@ -641,6 +697,19 @@ public class TestRunPlanConfiguration {
 		return getGlobalConfigParameter(GlobalConfigParameterNames.CrlResponderPort).getValueAsInteger();
 	}
 
+	/**
+	 * Returns the information whether the OCSP and CRL responders shall run within TaSK, as specified in the global
+	 * configuration XML file.
+	 *
+	 * @return true, if the embedded responders are used, false if OpenSSL and Python are started as responders
+	 */
+	public boolean isOcspCrlEmbeddedResponder() {
+		if (isGlobalConfigParameterSet(GlobalConfigParameterNames.OcspCrlEmbeddedResponder)) {
+			return getGlobalConfigParameter(GlobalConfigParameterNames.OcspCrlEmbeddedResponder).getValueAsBoolean();
+		}
+		return false;
+	}
+
 	/**
 	 * Returns the openssl executable specified in the global configuration file.
 	 *
@@ -1315,13 +1384,38 @@ public class TestRunPlanConfiguration {
 	}
 
 	/**
-	 * Add a small delay to let the process to start.
-	 * @return
+	 * Maximum delay in seconds to let the process to start. The executors continue as soon as their process is ready.
+	 * @return the maximum process start delay in seconds.
 	 */
 	public int getProcessStartWaitingTime() {
 		return getGlobalConfigParameter(GlobalConfigParameterNames.ProcessStartWaitingTime).getValueAsInteger();
 	}
 
+	/**
+	 * Returns the time in milliseconds the processes of the executors get to terminate gracefully before they are
+	 * killed, as specified in the global configuration file. Negative values are treated as 0.
+	 *
+	 * @return the process termination timeout in milliseconds.
+	 */
+	public int getProcessTerminationTimeout() {
+		return Math.max(0, getGlobalConfigParameter(GlobalConfigParameterNames.ProcessTerminationTimeout)
+				.getValueAsInteger());
+	}
+
+	/**
+	 * Returns the number of test cases which shall be executed concurrently as specified in the global configuration
+	 * file. Values smaller than 1 are treated as 1.
+	 *
+	 * @return the number of test cases which shall be executed concurrently.
+	 */
+	public int getTestCaseParallelism() {
+		if (isGlobalConfigParameterSet(GlobalConfigParameterNames.TestCaseParallelism)) {
+			return Math.max(1, getGlobalConfigParameter(GlobalConfigParameterNames.TestCaseParallelism)
+					.getValueAsInteger());
+		}
+		return 1;
+	}
+
 	public String getExperimentalDNSContainerIP() {
 		return getGlobalConfigParameter(GlobalConfigParameterNames.EXPERIMENTAL_DNSServerIP).getValueAsString();
 	}
@@ -1,5 +1,6 @@
 package com.achelos.task.dutexecution;
 
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.dutmotivator.DUTMotivator;
 import com.achelos.task.dutmotivator.ManualDUTMotivator;
@@ -28,6 +29,7 @@ public class DUTExecutor {
     private IterationCounter iterationCounter;
     private final TestRunPlanConfiguration configuration;
     private final String testCaseName;
+    private Integer tlsTestToolPort = null;
 
     /**
      * The Constructor of the DUTExecutor. Requires a DUTMotivator instance.
@@ -36,20 +38,44 @@ public class DUTExecutor {
      * @param dutMotivator DUTMotivator instance.
      */
     public DUTExecutor(final String testCaseName, final BasicLogger logger, final DUTMotivator dutMotivator) {
+        this(testCaseName, ExecutionContext.current(), dutMotivator);
+    }
+
+    /**
+     * The Constructor of the DUTExecutor. Requires a DUTMotivator instance.
+     * @param testCaseName The name of the TestCase in which this DUTExecutor is used. Used for Logging purposes.
+     * @param context The execution context providing the configuration and the logger.
+     * @param dutMotivator DUTMotivator instance.
+     */
+    public DUTExecutor(final String testCaseName, final ExecutionContext context, final DUTMotivator dutMotivator) {
         this.dutMotivator = dutMotivator;
-        this.loggingConnector = LoggingConnector.getInstance();
+        this.loggingConnector = context.getLogger();
         this.dutExecutorOutput = new ArrayList<>();
-        this.configuration = TestRunPlanConfiguration.getInstance();
+        this.configuration = context.getConfiguration();
         this.testCaseName = testCaseName;
     }
 
+    /**
+     * Set the port the TLS Test Tool of the test case listens on, which is passed to the DUTMotivator.
+     * If no port is set, the DUTMotivator uses the port specified in the global configuration.
+     * @param tlsTestToolPort The port the TLS Test Tool listens on.
+     */
+    public void setTlsTestToolPort(final int tlsTestToolPort) {
+        this.tlsTestToolPort = tlsTestToolPort;
+    }
+
     /**
      * Execute the DUTMotivators connectToServer method in a separate thread.
      * @param isSessionResumption Whether the connection shall be established with session resumption.
      */
     public void start(final boolean isSessionResumption) {
         var executor = Executors.newSingleThreadExecutor();
-        executionOutput = executor.submit(() -> dutMotivator.motivateConnectionToTaSK(isSessionResumption));
+        final Integer port = tlsTestToolPort;
+        if (port == null) {
+            executionOutput = executor.submit(() -> dutMotivator.motivateConnectionToTaSK(isSessionResumption));
+        } else {
+            executionOutput = executor.submit(() -> dutMotivator.motivateConnectionToTaSK(isSessionResumption, port));
+        }
     }
 
     /**
@@ -10,6 +10,18 @@ public interface DUTMotivator {
      */
     List<String> motivateConnectionToTaSK(final boolean isSessionResumption);
 
+    /**
+     * Get the DUT to start the connection to the TaSK Testframework listening on the given port,
+     * e.g. the port leased by the TLS Test Tool instance of the running test case.
+     * Motivators which cannot direct the DUT to a specific port ignore the port.
+     * @param isSessionResumption Whether session resumption should be used.
+     * @param tlsTestToolPort The port the TLS Test Tool listens on.
+     * @return The Log of the DUT as a list of strings.
+     */
+    default List<String> motivateConnectionToTaSK(final boolean isSessionResumption, final int tlsTestToolPort) {
+        return motivateConnectionToTaSK(isSessionResumption);
+    }
+
     /**
      * Check the ApplicationSpecificInspectionInstructions for the DUT.
      * @param handshakeSuccessful Information whether the Handshake was successful.
@@ -28,6 +28,11 @@ public class GenericClientExecutableDUTMotivator implements DUTMotivator {
 
     @Override
     public List<String> motivateConnectionToTaSK(final boolean isSessionResumption) {
+        return motivateConnectionToTaSK(isSessionResumption, tlsTestToolPort);
+    }
+
+    @Override
+    public List<String> motivateConnectionToTaSK(final boolean isSessionResumption, final int tlsTestToolPort) {
         try {
             return this.remoteClientExecutor.connectToServer(tlsTestToolHostName, tlsTestToolPort, isSessionResumption);
         } catch (Exception e) {
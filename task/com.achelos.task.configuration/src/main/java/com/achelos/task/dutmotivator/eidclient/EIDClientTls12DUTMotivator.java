@@ -44,6 +44,11 @@ public class EIDClientTls12DUTMotivator implements DUTMotivator {
 
     @Override
     public List<String> motivateConnectionToTaSK(final boolean isSessionResumption) {
+        return motivateConnectionToTaSK(isSessionResumption, tlsTestToolPort);
+    }
+
+    @Override
+    public List<String> motivateConnectionToTaSK(final boolean isSessionResumption, final int tlsTestToolPort) {
         var motivatorLogs = new LinkedList<String>();
 
         // Ignore isSessionResumption, as there is no way to trigger anything else on the eID Client.
@@ -1,5 +1,8 @@
 package com.achelos.task.dutmotivator.eidclient;
 
+import com.achelos.task.commons.certificatehelper.CertificateCache;
+import com.achelos.task.commons.certificatehelper.CertificateGenerator;
+import com.achelos.task.commons.certificatehelper.OpenSslConfiguration;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.dutmotivator.DUTMotivator;
 import com.sun.net.httpserver.HttpsConfigurator;
@@ -13,19 +16,19 @@ import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManagerFactory;
 import java.io.*;
+import java.math.BigInteger;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.attribute.PosixFilePermissions;
 import java.security.KeyFactory;
 import java.security.KeyStore;
 import java.security.PrivateKey;
+import java.security.SecureRandom;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateFactory;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -33,10 +36,13 @@ import java.util.regex.Pattern;
 public class EIDClientTls2DUTMotivator implements DUTMotivator {
 
     private static final String URL_TEMPLATE = "http://127.0.0.1:%d/eID-Client?tcTokenURL=https://%s:%d";
-    private static final String CERT_GEN_SCRIPT_RESOURCE_PATH = "eid_client_generate_eservice_certificates.sh";
     private static final String CERT_GEN_CONFIG_RESOURCE_PATH = "eid_client_eservice_certificate.cnf";
     private static final String SERVICE_CERT_REL_PATH = "certificateRsa/root-ca/certs/root-ca.pem";
     private static final String SERVICE_KEY_REL_PATH = "certificateRsa/root-ca/private/root-ca.pem";
+    private static final String CA_EXTENSIONS_SECTION = "ca_ext";
+    private static final int CA_VALIDITY_DAYS = 365;
+    private static final int SERIAL_NUMBER_BITS = 127;
+    private static final SecureRandom RANDOM = new SecureRandom();
     private static final String APP_SPEC_CHECK_REGEX = "^HTTP message from eID-Client: statusCode:\\s*?(\\d+)\\s*?$";
     private static final String APP_SPEC_CHECK_LOCATION_REGEX = "^\\s*?Location:\\s*?(\\S+)\\s*?$";
     private static final String TC_TOKEN_REFRESH_ADDRESS = "https://www.bsi.bund.de";
@@ -54,23 +60,7 @@ public class EIDClientTls2DUTMotivator implements DUTMotivator {
 
     public EIDClientTls2DUTMotivator(final TestRunPlanConfiguration configuration) throws Exception {
 
-        // Certificate Generation Script
-        Path genScript = Files.createTempFile(null, ".sh");
-        try (InputStream embeddedGenScript
-                     = this.getClass().getClassLoader().getResourceAsStream(CERT_GEN_SCRIPT_RESOURCE_PATH)) {
-            Files.copy(embeddedGenScript, genScript, StandardCopyOption.REPLACE_EXISTING);
-        }
-
-        Files.setPosixFilePermissions(genScript, PosixFilePermissions.fromString("rwxr-xr--"));
-
-        // Certificate Generation Configuration
-        Path genConfig = Files.createTempFile(null, ".sh");
-        try (InputStream embeddedGenConfig
-                     = this.getClass().getClassLoader().getResourceAsStream(CERT_GEN_CONFIG_RESOURCE_PATH)) {
-            Files.copy(embeddedGenConfig, genConfig, StandardCopyOption.REPLACE_EXISTING);
-        }
-
-        executeCertGeneration(genScript, genConfig, configuration);
+        executeCertGeneration(configuration);
 
         this.eIDClientPort = configuration.getDutEIDClientPort();
 
@@ -85,37 +75,68 @@ public class EIDClientTls2DUTMotivator implements DUTMotivator {
 
     }
 
-    private void executeCertGeneration(final Path generationScript, final Path generationConfig, final TestRunPlanConfiguration configuration)
-            throws Exception {
-
-        final ArrayList<String> command = new ArrayList<>();
-        // Script File Path
-        command.add(generationScript.toAbsolutePath().toString());
+    /**
+     * Generates the eService certificates in-process. They are cached by the hash of the certificate template.
+     */
+    private void executeCertGeneration(final TestRunPlanConfiguration configuration) throws IOException {
+        final byte[] template;
+        try (InputStream embeddedGenConfig
+                     = this.getClass().getClassLoader().getResourceAsStream(CERT_GEN_CONFIG_RESOURCE_PATH)) {
+            template = embeddedGenConfig.readAllBytes();
+        }
 
         // Certificate base path
         var cert_basepath = configuration.getMotivatorCertDirectory();
-        command.add(cert_basepath.getAbsolutePath());
-
-        // Template
-        var templatePath = generationConfig.toAbsolutePath().toString();
-        command.add(templatePath);
-
-        // OpenSSL Executable Path
-        var opensslExecPath = configuration.getOpenSSLExecutable();
-        command.add(opensslExecPath);
-
-        // Execute
-        Runtime.getRuntime().exec(command.toArray(new String[0]));
+        CertificateCache.provide(cert_basepath, directory -> generateEServiceCertificates(directory,
+                new OpenSslConfiguration(new String(template, StandardCharsets.UTF_8))), template);
 
         serverCertPath = new File(cert_basepath, SERVICE_CERT_REL_PATH);
         serverKeyPath = new File(cert_basepath, SERVICE_KEY_REL_PATH);
     }
 
+    /**
+     * Generates a self-signed eService CA for each key type.
+     *
+     * @return the earliest expiry of the generated certificates
+     */
+    private static Date generateEServiceCertificates(final File directory, final OpenSslConfiguration template)
+            throws IOException {
+        Date expiry = null;
+        for (var keyType : CertificateGenerator.KeyType.values()) {
+            var certFolder = keyType == CertificateGenerator.KeyType.RSA ? "certificateRsa" : "certificateEcdsa";
+            var rootCa = new File(directory, certFolder + "/root-ca");
+            for (var child : List.of("certs", "db", "private")) {
+                Files.createDirectories(new File(rootCa, child).toPath());
+            }
+            Files.createFile(new File(rootCa, "db/index").toPath());
+
+            var keyPair = CertificateGenerator.generateKeyPair(keyType);
+            var subject = template.getDistinguishedName(template.getValue("req", "distinguished_name"));
+            var serial = new BigInteger(SERIAL_NUMBER_BITS, RANDOM);
+            var certificate = CertificateGenerator.createCertificate(template, CA_EXTENSIONS_SECTION, subject,
+                    keyPair.getPublic(), null, keyPair.getPrivate(), serial,
+                    new Date(System.currentTimeMillis() / 1000 * 1000), CA_VALIDITY_DAYS);
+            CertificateGenerator.writePrivateKey(new File(rootCa, "private/root-ca.pem"), keyPair.getPrivate());
+            CertificateGenerator.writePem(new File(rootCa, "certs/root-ca.pem"), certificate);
+            Files.writeString(new File(rootCa, "db/serial").toPath(),
+                    serial.add(BigInteger.ONE).toString(16).toUpperCase() + "\n");
+
+            if (expiry == null || certificate.getNotAfter().before(expiry)) {
+                expiry = certificate.getNotAfter();
+            }
+        }
+        return expiry;
+    }
 
 
 
     @Override
     public List<String> motivateConnectionToTaSK(final boolean isSessionResumption){
+        return motivateConnectionToTaSK(isSessionResumption, tlsTestToolPort);
+    }
+
+    @Override
+    public List<String> motivateConnectionToTaSK(final boolean isSessionResumption, final int tlsTestToolPort){
         var motivatorLogs = new LinkedList<String>();
         HttpsServer mockEService = null;
         try {
@@ -1,8 +1,10 @@
 package com.achelos.task.logging;
 
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -14,16 +16,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public final class LoggingConnector extends BasicLogger {
 
-	private final ArrayList<LogProcessor> loggers;
+	private final List<LogProcessor> loggers;
 	private AbstractLogEntryChecker logEntryChecker;
+	private final InheritableThreadLocal<ThreadLogScope> threadLogScope = new InheritableThreadLocal<>();
 
 	private static LoggingConnector instance;
+	private static final InheritableThreadLocal<LoggingConnector> boundInstance = new InheritableThreadLocal<>();
 
 	/**
 	 * Constructor hider.
 	 */
 	private LoggingConnector() {
-		loggers = new ArrayList<>();
+		loggers = new CopyOnWriteArrayList<>();
 	}
 
 
@@ -60,8 +64,9 @@ public final class LoggingConnector extends BasicLogger {
 	 * @param newLogger the new logger
 	 */
 	public static void addLogger(final List<BasicLogger> newLogger) {
-		if (instance != null) {
-			instance.internalAddLogger(newLogger);
+		final LoggingConnector current = currentInstance();
+		if (current != null) {
+			current.internalAddLogger(newLogger);
 		}
 	}
 
@@ -70,8 +75,9 @@ public final class LoggingConnector extends BasicLogger {
 	 * @param loggerToRemove the logger to remove.
 	 */
 	public synchronized static void removeLogger(final BasicLogger loggerToRemove) {
-		if (instance != null) {
-			instance.internalRemoveLogger(loggerToRemove);
+		final LoggingConnector current = currentInstance();
+		if (current != null) {
+			current.internalRemoveLogger(loggerToRemove);
 		}
 	}
 
@@ -90,8 +96,9 @@ public final class LoggingConnector extends BasicLogger {
 	 * Stop registered logger (threads).<br />
 	 */
 	public static void stop() {
-		if (instance != null) {
-			instance.internalStop();
+		final LoggingConnector current = currentInstance();
+		if (current != null) {
+			current.internalStop();
 		}
 	}
 
@@ -190,12 +197,15 @@ public final class LoggingConnector extends BasicLogger {
 	@Override
 	public void log(final long timestamp, final long lvl, final String log, final Throwable t) {
 		LogEntry entry = new LogEntry(timestamp, lvl, log, t);
-		if (null != logEntryChecker) {
-			entry = logEntryChecker.updateErrorsAndWarnings(entry);
+		final ThreadLogScope scope = threadLogScope.get();
+		final AbstractLogEntryChecker checker = null != scope ? scope.getLogEntryChecker(logEntryChecker)
+				: logEntryChecker;
+		if (null != checker) {
+			entry = checker.updateErrorsAndWarnings(entry);
 		}
 
-		for (LogProcessor lp : loggers) {
-			lp.add(entry);
+		if (null == scope || !scope.add(entry)) {
+			distribute(entry);
 		}
 	}
 
@@ -208,22 +218,83 @@ public final class LoggingConnector extends BasicLogger {
 	@Override
 	public void tellLogger(final String topic, final Object value) {
 		TellLoggerEntry entry = new TellLoggerEntry(topic, value);
-		if (null != logEntryChecker) {
-			entry = logEntryChecker.resetLogEntryChecker(entry);
+		final ThreadLogScope scope = threadLogScope.get();
+		final AbstractLogEntryChecker checker = null != scope ? scope.getLogEntryChecker(logEntryChecker)
+				: logEntryChecker;
+		if (null != checker) {
+			entry = checker.resetLogEntryChecker(entry);
+		}
+
+		if (null == scope || !scope.add(entry)) {
+			distribute(entry);
 		}
+	}
+
 
+	/**
+	 * Pass the given entry to all registered loggers.
+	 *
+	 * @param entry the entry to distribute
+	 */
+	private void distribute(final AbstractLoggingEntry entry) {
 		for (LogProcessor lp : loggers) {
 			lp.add(entry);
 		}
 	}
 
 
+	/**
+	 * Open a new {@link ThreadLogScope} for the calling thread. Until the scope is released, all log and "tell logger"
+	 * entries of the calling thread and of the threads started by it are buffered in the scope instead of being
+	 * distributed, and a log entry checker registered from within the scope only applies to these entries.
+	 *
+	 * @return the opened scope
+	 * @throws IllegalStateException if the calling thread already has an open scope
+	 */
+	public ThreadLogScope openThreadLogScope() {
+		final ThreadLogScope current = threadLogScope.get();
+		if (null != current && !current.isReleased()) {
+			throw new IllegalStateException("A thread log scope is already open for this thread!");
+		}
+		final ThreadLogScope scope = new ThreadLogScope();
+		threadLogScope.set(scope);
+		return scope;
+	}
+
+
+	/**
+	 * Detach the calling thread from its {@link ThreadLogScope}. The scope itself stays untouched and still has to be
+	 * released with {@link #releaseThreadLogScope(ThreadLogScope)}.
+	 */
+	public void closeThreadLogScope() {
+		threadLogScope.remove();
+	}
+
+
+	/**
+	 * Distribute all entries buffered in the given scope to the registered loggers, in the order they were logged.
+	 * Entries which arrive after this call, e.g. from threads which were started within the scope and are still
+	 * running, are distributed directly.
+	 *
+	 * @param scope the scope to release
+	 */
+	public void releaseThreadLogScope(final ThreadLogScope scope) {
+		for (AbstractLoggingEntry entry : scope.release()) {
+			distribute(entry);
+		}
+	}
+
+
 	/**
 	 * Gets the instance of logging connector, Creates new if null.
 	 *
 	 * @return the {@link LoggingConnector} instance.
 	 */
 	public static synchronized LoggingConnector getInstance() {
+		final LoggingConnector bound = boundInstance.get();
+		if (null != bound) {
+			return bound;
+		}
 		if (null == instance) {
 			final LoggingConnector singleton = new LoggingConnector();
 			final ArrayList<BasicLogger> loggers = new ArrayList<>();
@@ -235,12 +306,59 @@ public final class LoggingConnector extends BasicLogger {
 		return instance;
 	}
 
+	/**
+	 * Create a logging connector, which is independent of the global one, e.g. for one of several test runs executed
+	 * concurrently within the process. It distributes the entries to the standard output and the given loggers. While
+	 * it is bound to a thread (see {@link #bindInstance(LoggingConnector)}), {@link #getInstance()} returns it and
+	 * {@link #stop()} stops its loggers.
+	 *
+	 * @param additionalLoggers the loggers to distribute the entries to, besides the standard output
+	 * @return the new logging connector
+	 */
+	public static LoggingConnector createInstance(final List<BasicLogger> additionalLoggers) {
+		final LoggingConnector connector = new LoggingConnector();
+		connector.setLogVerbosity(getInstance().getLogVerbosity());
+		final ArrayList<BasicLogger> loggers = new ArrayList<>();
+		loggers.add(new StdOutLogger());
+		loggers.addAll(additionalLoggers);
+		connector.internalAddLogger(loggers);
+		return connector;
+	}
+
 	public static LoggingConnector getInstance(final String logVerbosity) {
-		if (null == instance) {
-			getInstance();
-			instance.setLogVerbosity(logVerbosity);
+		if (null == currentInstance()) {
+			getInstance().setLogVerbosity(logVerbosity);
+		}
+		return getInstance();
+	}
+
+	/**
+	 * Bind a logging connector to the current thread and all threads started by it. While bound,
+	 * {@link #getInstance()} returns the bound logging connector instead of the global one.
+	 *
+	 * @param logger the logging connector to bind, or null to remove the binding
+	 */
+	public static void bindInstance(final LoggingConnector logger) {
+		if (null == logger) {
+			boundInstance.remove();
+		} else {
+			boundInstance.set(logger);
 		}
-		return instance;
+	}
+
+	/**
+	 * @return the logging connector bound to the current thread, or null if none is bound.
+	 */
+	public static LoggingConnector getBoundInstance() {
+		return boundInstance.get();
+	}
+
+	/**
+	 * @return the logging connector bound to the current thread, or the global one (which may be null).
+	 */
+	private static LoggingConnector currentInstance() {
+		final LoggingConnector bound = boundInstance.get();
+		return null != bound ? bound : instance;
 	}
 
 	/**
@@ -249,7 +367,11 @@ public final class LoggingConnector extends BasicLogger {
 	 * @param logEntryChecker the logging checker to register
 	 * @throws IllegalStateException if a logging checker is already registered
 	 */
-	private void setLogEntryChecker(final AbstractLogEntryChecker logEntryChecker) {
+	public void setLogEntryChecker(final AbstractLogEntryChecker logEntryChecker) {
+		final ThreadLogScope scope = threadLogScope.get();
+		if (null != scope && scope.setLogEntryChecker(logEntryChecker)) {
+			return;
+		}
 		if (null != this.logEntryChecker) {
 			throw new IllegalStateException("A log entry checker instance is already set!");
 		}
@@ -263,8 +385,9 @@ public final class LoggingConnector extends BasicLogger {
 	 * @throws IllegalStateException if a logging checker is already registered
 	 */
 	public static void setInstanceLogEntryChecker(final AbstractLogEntryChecker logEntryChecker) {
-		if (instance != null) {
-			instance.setLogEntryChecker(logEntryChecker);
+		final LoggingConnector current = currentInstance();
+		if (current != null) {
+			current.setLogEntryChecker(logEntryChecker);
 		}
 	}
 
@@ -275,7 +398,11 @@ public final class LoggingConnector extends BasicLogger {
 	 * @param lEChecker the logging checker to remove
 	 * @throws IllegalStateException if the given logging checker is not the registered one
 	 */
-	private void resetLogEntryChecker(final AbstractLogEntryChecker lEChecker) {
+	public void resetLogEntryChecker(final AbstractLogEntryChecker lEChecker) {
+		final ThreadLogScope scope = threadLogScope.get();
+		if (null != scope && scope.resetLogEntryChecker(lEChecker)) {
+			return;
+		}
 		if (lEChecker != logEntryChecker) {
 			throw new IllegalStateException(
 					"The logging checker is not the current checker and cannot be deregistered!");
@@ -290,8 +417,90 @@ public final class LoggingConnector extends BasicLogger {
 	 * @throws IllegalStateException if the given logging checker is not the registered one
 	 */
 	public static void resetInstanceLogEntryChecker(final AbstractLogEntryChecker lEChecker) {
-		if (instance != null) {
-			instance.resetLogEntryChecker(lEChecker);
+		final LoggingConnector current = currentInstance();
+		if (current != null) {
+			current.resetLogEntryChecker(lEChecker);
+		}
+	}
+
+	/**
+	 * Buffer for the logging entries of one thread (and the threads it starts), e.g. a test case executed concurrently
+	 * to other test cases. It holds the log entry checker of this thread, so that warnings and errors are counted for
+	 * the right test case, and keeps the entries until they are released in a deterministic order.
+	 */
+	public static final class ThreadLogScope {
+		private final List<AbstractLoggingEntry> entries = new LinkedList<>();
+		private AbstractLogEntryChecker logEntryChecker;
+		private boolean released;
+
+		private ThreadLogScope() {}
+
+		/**
+		 * @param entry the entry to buffer
+		 * @return true if the entry was buffered, false if the scope has already been released
+		 */
+		private synchronized boolean add(final AbstractLoggingEntry entry) {
+			if (released) {
+				return false;
+			}
+			entries.add(entry);
+			return true;
+		}
+
+		/**
+		 * @param fallback the checker to use if none is registered in this scope
+		 * @return the log entry checker registered in this scope or the fallback
+		 */
+		private synchronized AbstractLogEntryChecker getLogEntryChecker(final AbstractLogEntryChecker fallback) {
+			if (released || null == logEntryChecker) {
+				return fallback;
+			}
+			return logEntryChecker;
+		}
+
+		/**
+		 * @param checker the checker to register
+		 * @return true if the checker was registered in this scope, false if the scope has already been released
+		 * @throws IllegalStateException if a logging checker is already registered
+		 */
+		private synchronized boolean setLogEntryChecker(final AbstractLogEntryChecker checker) {
+			if (released) {
+				return false;
+			}
+			if (null != logEntryChecker) {
+				throw new IllegalStateException("A log entry checker instance is already set!");
+			}
+			logEntryChecker = checker;
+			return true;
+		}
+
+		/**
+		 * @param checker the checker to remove
+		 * @return true if the checker was removed from this scope, false if it is not registered here
+		 */
+		private synchronized boolean resetLogEntryChecker(final AbstractLogEntryChecker checker) {
+			if (released || checker != logEntryChecker) {
+				return false;
+			}
+			logEntryChecker = null;
+			return true;
+		}
+
+		/**
+		 * @return the buffered entries; the scope does not buffer any further entries afterwards
+		 */
+		private synchronized List<AbstractLoggingEntry> release() {
+			released = true;
+			final List<AbstractLoggingEntry> bufferedEntries = new ArrayList<>(entries);
+			entries.clear();
+			return bufferedEntries;
+		}
+
+		/**
+		 * @return true if the buffered entries have already been released
+		 */
+		public synchronized boolean isReleased() {
+			return released;
 		}
 	}
 
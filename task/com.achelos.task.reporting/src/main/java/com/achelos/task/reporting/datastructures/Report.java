@@ -235,41 +235,65 @@ public class Report {
 		 */
 		public TestSuiteReport(final String testSuiteId, final ZonedDateTime startTime, final ZonedDateTime endTime,
 				final List<TestCaseReport> testCases, final List<LogEntry> testSuiteLogMessages) {
-			Integer totalNumberOfTestcases = 0;
-			Integer numberOfExecutedTestcases = 0;
-			Integer numberOfPassedTestcases = 0;
-			Integer numberOfFailedTestcases = 0;
-			Integer numberOfTestcasesWithWarnings = 0;
+			var counter = new TestSuiteSummaryCounter();
 			for (var testCaseReport : testCases) {
-				totalNumberOfTestcases++;
-				switch (testCaseReport.getTestCaseResult()) {
-					case PASSED:
-						numberOfExecutedTestcases++;
-						numberOfPassedTestcases++;
-						break;
-					case PASSED_WITH_WARNINGS:
-						numberOfExecutedTestcases++;
-						numberOfTestcasesWithWarnings++;
-						break;
-					case FAILED:
-						numberOfExecutedTestcases++;
-						numberOfFailedTestcases++;
-						break;
-					case SKIPPED:
-					case INCONCLUSIVE:
-						break;
-					default:
-						// Unknown. Do nothing.
-						break;
-				}
+				counter.count(testCaseReport.getTestCaseResult());
 			}
 
 			this.testSuiteId = testSuiteId;
 			this.testCases = new ArrayList<>(testCases);
 			this.testSuiteLogMessages = new ArrayList<>(testSuiteLogMessages);
-			summary = new TestSuiteSummary(totalNumberOfTestcases, numberOfExecutedTestcases,
-					numberOfPassedTestcases, numberOfFailedTestcases, numberOfTestcasesWithWarnings, startTime,
-					endTime);
+			summary = counter.toSummary(startTime, endTime);
+		}
+	}
+
+	/**
+	 * Counts the results of the test cases of a test suite, one after another, to create its summary.
+	 */
+	public static class TestSuiteSummaryCounter {
+		private int totalNumberOfTestcases = 0;
+		private int numberOfExecutedTestcases = 0;
+		private int numberOfPassedTestcases = 0;
+		private int numberOfFailedTestcases = 0;
+		private int numberOfTestcasesWithWarnings = 0;
+
+		/**
+		 * Count the result of a test case.
+		 * @param testCaseResult The result of the test case.
+		 */
+		public void count(final TestCaseResult testCaseResult) {
+			totalNumberOfTestcases++;
+			switch (testCaseResult) {
+				case PASSED:
+					numberOfExecutedTestcases++;
+					numberOfPassedTestcases++;
+					break;
+				case PASSED_WITH_WARNINGS:
+					numberOfExecutedTestcases++;
+					numberOfTestcasesWithWarnings++;
+					break;
+				case FAILED:
+					numberOfExecutedTestcases++;
+					numberOfFailedTestcases++;
+					break;
+				case SKIPPED:
+				case INCONCLUSIVE:
+					break;
+				default:
+					// Unknown. Do nothing.
+					break;
+			}
+		}
+
+		/**
+		 * Create the summary of the counted test cases.
+		 * @param startTime The start time of the test suite.
+		 * @param endTime The end time of the test suite.
+		 * @return the summary of the counted test cases.
+		 */
+		public TestSuiteSummary toSummary(final ZonedDateTime startTime, final ZonedDateTime endTime) {
+			return new TestSuiteSummary(totalNumberOfTestcases, numberOfExecutedTestcases, numberOfPassedTestcases,
+					numberOfFailedTestcases, numberOfTestcasesWithWarnings, startTime, endTime);
 		}
 	}
 
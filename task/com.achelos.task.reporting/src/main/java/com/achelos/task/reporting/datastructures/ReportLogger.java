@@ -1,5 +1,7 @@
 package com.achelos.task.reporting.datastructures;
 
+import java.io.File;
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.LinkedList;
 import java.util.List;
@@ -18,6 +20,9 @@ import com.achelos.task.reporting.datastructures.Report.ReportMetadata;
 import com.achelos.task.reporting.datastructures.Report.TestCaseReport;
 import com.achelos.task.reporting.datastructures.Report.TestCaseResult;
 import com.achelos.task.reporting.datastructures.Report.TestSuiteReport;
+import com.achelos.task.reporting.datastructures.Report.TestSuiteSummaryCounter;
+import com.achelos.task.reporting.xmlreport.XmlReport;
+import com.achelos.task.reporting.xmlreport.XmlReportWriter;
 import com.achelos.task.utilities.DateTimeUtils;
 
 import generated.jaxb.input.ICS;
@@ -34,14 +39,31 @@ public class ReportLogger extends BasicLogger {
 	private final List<TestSuiteReport> testSuites;
 	private InputParameters inputParameters;
 	private final List<LogEntry> testFrameworkLogMessages;
+	private final XmlReportWriter xmlReportWriter;
 
 	private TestSuiteReportBuilder currentTestSuite;
+	/**
+	 * The first test case, which could not be streamed into the XmlReportWriter, or null.
+	 */
+	private IOException streamingFailure;
 
 	/**
-	 * Default constructor. Initializes empty internal data structures.
+	 * Default constructor. Initializes empty internal data structures, which keep the whole report in memory.
 	 */
 	public ReportLogger() {
+		this(null);
+	}
+
+	/**
+	 * Constructor streaming each finished test case and test suite into the given writer, so that only the log
+	 * messages of the current test case are kept in memory. The report is written by {@link #writeXmlReport(File)}.
+	 *
+	 * @param xmlReportWriter the writer receiving the finished test cases and test suites, or null to keep the whole
+	 *            report in memory.
+	 */
+	public ReportLogger(final XmlReportWriter xmlReportWriter) {
 		super();
+		this.xmlReportWriter = xmlReportWriter;
 		metadata = new ReportMetadata();
 		dutInformation = new ReportDutInformation();
 		testSuites = new LinkedList<>();
@@ -52,7 +74,8 @@ public class ReportLogger extends BasicLogger {
 	}
 
 	/**
-	 * Generate an abstract report object with the stored information of this logger.
+	 * Generate an abstract report object with the stored information of this logger. If the test cases are streamed
+	 * into an XmlReportWriter, the report does not contain the test suites.
 	 * @return an abstract report object with the stored information of this logger.
 	 */
 	public Report generateReport() {
@@ -63,6 +86,27 @@ public class ReportLogger extends BasicLogger {
 		return new Report(metadata, dutInformation, testSuites, inputParameters, testFrameworkLogMessages);
 	}
 
+	/**
+	 * Write the XML report with the stored information of this logger. If test cases could not be streamed into the
+	 * XmlReportWriter, they have been kept in memory and are written from there. The error is added to the TaSK
+	 * framework messages of the report.
+	 * @param xmlReportFile The File to write the XML Report into.
+	 * @throws IOException if the streamed XML report cannot be written.
+	 */
+	public void writeXmlReport(final File xmlReportFile) throws IOException {
+		if (streamingFailure != null) {
+			testFrameworkLogMessages.add(new LogEntry(System.currentTimeMillis(), ERROR,
+					"Logging: Test cases could not be written into the report journal and have been kept in memory.",
+					streamingFailure));
+		}
+		var report = generateReport();
+		if (xmlReportWriter != null) {
+			xmlReportWriter.writeReport(report, xmlReportFile);
+		} else {
+			XmlReport.fromReportInstance(report).writeToFile(xmlReportFile);
+		}
+	}
+
 	@Override
 	public void log(final long timestamp, final long lvl, final String log, final Throwable t) {
 		if (lvl == BasicLogger.DEBUG) {
@@ -108,7 +152,7 @@ public class ReportLogger extends BasicLogger {
 				} else {
 					log(System.currentTimeMillis(), BasicLogger.WARNING,
 							"Logging: New test case shall be started, but no test suite was marked active.", null);
-					currentTestSuite = new TestSuiteReportBuilder("Unknown TestSuite", startTime);
+					currentTestSuite = new TestSuiteReportBuilder("Unknown TestSuite", startTime, xmlReportWriter);
 				}
 				try {
 					currentTestSuite.startTestCase(testCaseName, startTime);
@@ -300,8 +344,24 @@ public class ReportLogger extends BasicLogger {
 					var entry = ((Map.Entry<?, ?>) value).getValue();
 					if (key instanceof ReportMetadataFields && entry instanceof String) {
 						metadata.appendMetadata((ReportMetadataFields) key, (String) entry);
+						if (xmlReportWriter != null) {
+							try {
+								xmlReportWriter.setMetadata((ReportMetadataFields) key, (String) entry);
+							} catch (IOException e) {
+								testFrameworkLogMessages.add(new LogEntry(System.currentTimeMillis(), ERROR,
+										"Logging: Error writing the report journal.", e));
+							}
+						}
 					} else if (key instanceof ReportDutInfoFields && entry instanceof String) {
 						dutInformation.appendDutInformation((ReportDutInfoFields) key, (String) entry);
+						if (xmlReportWriter != null) {
+							try {
+								xmlReportWriter.setDutInformation((ReportDutInfoFields) key, (String) entry);
+							} catch (IOException e) {
+								testFrameworkLogMessages.add(new LogEntry(System.currentTimeMillis(), ERROR,
+										"Logging: Error writing the report journal.", e));
+							}
+						}
 					} else {
 						log(System.currentTimeMillis(), BasicLogger.WARNING,
 								"Logging: Metadata should have been set, but the data is of wrong type.", null);
@@ -345,8 +405,16 @@ public class ReportLogger extends BasicLogger {
 	private void finalizeCurrentTestSuite(final ZonedDateTime endTime) {
 		if (isCurrentTestSuiteActive()) {
 			currentTestSuite.setEndTime(endTime);
+			if (streamingFailure == null) {
+				streamingFailure = currentTestSuite.streamingFailure;
+			}
 			try {
-				testSuites.add(currentTestSuite.generateReport());
+				var testSuiteReport = currentTestSuite.generateReport();
+				if (xmlReportWriter != null) {
+					xmlReportWriter.writeTestSuite(testSuiteReport);
+				} else {
+					testSuites.add(testSuiteReport);
+				}
 			} catch (Exception e) {
 				testFrameworkLogMessages.add(new LogEntry(System.currentTimeMillis(), ERROR,
 						"Logging: Error generating test suite report.", e));
@@ -368,7 +436,7 @@ public class ReportLogger extends BasicLogger {
 					"Logging: New test suite shall be started, even though the current test Suite is not marked as finished yet. Aborting",
 					null));
 		} else {
-			currentTestSuite = new TestSuiteReportBuilder(testSuiteId, startTime);
+			currentTestSuite = new TestSuiteReportBuilder(testSuiteId, startTime, xmlReportWriter);
 		}
 	}
 
@@ -381,6 +449,12 @@ public class ReportLogger extends BasicLogger {
 		private ZonedDateTime endTime;
 		private final List<TestCaseReport> testCases;
 		private final List<LogEntry> testSuiteLogMessages;
+		private final TestSuiteSummaryCounter summaryCounter;
+		private final XmlReportWriter xmlReportWriter;
+		/**
+		 * The test case, which could not be streamed, or null. The test cases from then on are kept in memory.
+		 */
+		private IOException streamingFailure;
 
 		private TestCaseReportBuilder currentTestCase;
 
@@ -389,15 +463,27 @@ public class ReportLogger extends BasicLogger {
 		 *
 		 * @param testSuiteId Identifier of Test Suite.
 		 * @param startTime Start time of Test Suite.
+		 * @param xmlReportWriter Writer receiving the finished test cases, or null to keep them.
 		 */
-		protected TestSuiteReportBuilder(final String testSuiteId, final ZonedDateTime startTime) {
+		protected TestSuiteReportBuilder(final String testSuiteId, final ZonedDateTime startTime,
+				final XmlReportWriter xmlReportWriter) {
 			this.testSuiteId = testSuiteId;
 			this.startTime = startTime;
+			this.xmlReportWriter = xmlReportWriter;
+			summaryCounter = new TestSuiteSummaryCounter();
 			endTime = null;
 			testCases = new LinkedList<>();
 			testSuiteLogMessages = new LinkedList<>();
 
 			currentTestCase = null;
+			if (xmlReportWriter != null) {
+				try {
+					xmlReportWriter.startTestSuite(testSuiteId, startTime);
+				} catch (IOException e) {
+					testSuiteLogMessages.add(new LogEntry(System.currentTimeMillis(), ERROR,
+							"Logging: Error writing the report journal.", e));
+				}
+			}
 		}
 
 		/**
@@ -419,7 +505,8 @@ public class ReportLogger extends BasicLogger {
 				throw new IllegalStateException(
 						"Command received to generate report for an unfinished TestSuite. EndTime is not set. Aborting.");
 			}
-			return new TestSuiteReport(testSuiteId, startTime, endTime, testCases, testSuiteLogMessages);
+			return new TestSuiteReport(testSuiteId, summaryCounter.toSummary(startTime, endTime), testCases,
+					testSuiteLogMessages);
 		}
 
 		public void startTestCase(final String tcName, final ZonedDateTime startTime) {
@@ -436,8 +523,23 @@ public class ReportLogger extends BasicLogger {
 						"Command received to finalize test case report, but no test case report is active. Aborting.");
 			}
 			currentTestCase.setEndTime(endTime);
-			testCases.add(currentTestCase.generateReport());
+			var testCaseReport = currentTestCase.generateReport();
 			currentTestCase = null;
+			summaryCounter.count(testCaseReport.getTestCaseResult());
+			if (xmlReportWriter != null && streamingFailure == null) {
+				// Stream the test case, so that its log messages are released.
+				try {
+					xmlReportWriter.writeTestCase(testCaseReport);
+					return;
+				} catch (IOException e) {
+					// Keep this and the following test cases of the test suite, which are written with its report.
+					streamingFailure = e;
+					testSuiteLogMessages.add(new LogEntry(System.currentTimeMillis(), ERROR,
+							"Logging: Error writing test case " + testCaseReport.getTestCaseId()
+									+ " into the report journal. The test cases are kept in memory.", e));
+				}
+			}
+			testCases.add(testCaseReport);
 		}
 
 		public void finalizeTestCase(final ZonedDateTime endTime, final TestCaseResult tcResult) {
@@ -0,0 +1,110 @@
+package com.achelos.task.reporting.pdfreport;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.fop.apps.FopFactory;
+
+
+/**
+ * Keeps the FopFactory and the compiled XSLT stylesheets used to render PDF reports for the life of the JVM. Creating
+ * the FopFactory and compiling a stylesheet take seconds, so both are done once and shared. The FopFactory and the
+ * Templates are thread-safe; a FOUserAgent and a Transformer are created for each report.
+ */
+final class PdfRenderer {
+
+	private static final Map<String, CompiledStylesheet> STYLESHEETS = new HashMap<>();
+	private static FopFactory fopFactory;
+
+	/**
+	 * Hidden Constructor.
+	 */
+	private PdfRenderer() {
+		// Empty.
+	}
+
+	/**
+	 * @return the FopFactory shared by all reports, created on first use.
+	 */
+	static synchronized FopFactory getFopFactory() {
+		if (fopFactory == null) {
+			fopFactory = FopFactory.newInstance(new File(".").toURI());
+		}
+		return fopFactory;
+	}
+
+	/**
+	 * @param resourceName the class path resource of the stylesheet
+	 * @return the compiled stylesheet, compiled on first use.
+	 * @throws IOException if the resource cannot be found
+	 * @throws TransformerConfigurationException if the stylesheet cannot be compiled
+	 */
+	static Templates getTemplates(final String resourceName) throws IOException, TransformerConfigurationException {
+		final String key = "resource:" + resourceName;
+		synchronized (STYLESHEETS) {
+			var stylesheet = STYLESHEETS.get(key);
+			if (stylesheet == null) {
+				try (InputStream in = PdfRenderer.class.getClassLoader().getResourceAsStream(resourceName)) {
+					if (in == null) {
+						throw new IOException("PDF report stylesheet " + resourceName + " not found.");
+					}
+					stylesheet = new CompiledStylesheet(compile(new StreamSource(in)), 0, 0);
+				}
+				STYLESHEETS.put(key, stylesheet);
+			}
+			return stylesheet.templates;
+		}
+	}
+
+	/**
+	 * @param xsltFile the stylesheet file
+	 * @return the compiled stylesheet, compiled on first use and again after the file has been modified.
+	 * @throws IOException if the file cannot be read
+	 * @throws TransformerConfigurationException if the stylesheet cannot be compiled
+	 */
+	static Templates getTemplates(final File xsltFile) throws IOException, TransformerConfigurationException {
+		final String key = "file:" + xsltFile.getCanonicalPath();
+		if (!xsltFile.isFile()) {
+			throw new IOException("PDF report stylesheet " + xsltFile + " not found.");
+		}
+		final long lastModified = xsltFile.lastModified();
+		final long length = xsltFile.length();
+		synchronized (STYLESHEETS) {
+			var stylesheet = STYLESHEETS.get(key);
+			if (stylesheet == null || stylesheet.lastModified != lastModified || stylesheet.length != length) {
+				// The system id lets the stylesheet resolve relative imports.
+				stylesheet = new CompiledStylesheet(compile(new StreamSource(xsltFile)), lastModified, length);
+				STYLESHEETS.put(key, stylesheet);
+			}
+			return stylesheet.templates;
+		}
+	}
+
+	private static Templates compile(final StreamSource source) throws TransformerConfigurationException {
+		// TransformerFactory is not thread-safe, it is only used while holding the lock of STYLESHEETS.
+		return TransformerFactory.newInstance().newTemplates(source);
+	}
+
+	/**
+	 * A compiled stylesheet together with the state of the file it was compiled from.
+	 */
+	private static final class CompiledStylesheet {
+		private final Templates templates;
+		private final long lastModified;
+		private final long length;
+
+		private CompiledStylesheet(final Templates templates, final long lastModified, final long length) {
+			this.templates = templates;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+	}
+}
@@ -1,20 +1,19 @@
 package com.achelos.task.reporting.pdfreport;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 
 import javax.xml.transform.Result;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.apache.fop.apps.FOPException;
 import org.apache.fop.apps.Fop;
-import org.apache.fop.apps.FopFactory;
 import org.apache.fop.events.Event;
 import org.apache.fop.events.EventFormatter;
 import org.apache.fop.events.EventListener;
@@ -38,8 +37,7 @@ public class PdfReport {
 	 */
 	public static void convertToPDF(final File xmlReport) throws IOException, FOPException, TransformerException {
 		// the XSL FO file
-		var xsltAsStream = PdfReport.class.getClassLoader().getResourceAsStream(RESOURCES_XLS);
-		convertToPDF(xmlReport, xsltAsStream);
+		convertToPDF(xmlReport, PdfRenderer.getTemplates(RESOURCES_XLS));
 	}
 
 	/**
@@ -52,30 +50,52 @@ public class PdfReport {
 	 */
 	public static void convertToPDF(final File xmlReport, final File xsltFile) throws IOException, FOPException, TransformerException {
 		// the XSL FO file
-		var xsltAsStream = new FileInputStream(xsltFile);
-		convertToPDF(xmlReport, xsltAsStream);
+		convertToPDF(xmlReport, PdfRenderer.getTemplates(xsltFile));
 	}
 
-	private static void convertToPDF(final File xmlReport, InputStream xsltAsStream) throws IOException, FOPException, TransformerException {
+	/**
+	 * Convert an XML Report File into a PDF Report written into the given file. Unlike convertToPDF, errors are not
+	 * only logged, but thrown to the caller, so that an incomplete PDF report can be discarded.
+	 * @param xmlReport The XML Report file to convert into a PDF report.
+	 * @param xsltFile The alternate XSLT stylesheet file to be used to generate the PDF report, or null to use the
+	 *            default stylesheet.
+	 * @param pdfReport The file to write the PDF report into.
+	 * @throws IOException If an error occurs.
+	 * @throws FOPException If an error occurs.
+	 * @throws TransformerException If an error occurs.
+	 */
+	public static void renderPDF(final File xmlReport, final File xsltFile, final File pdfReport)
+			throws IOException, FOPException, TransformerException {
+		var xslt = xsltFile != null ? PdfRenderer.getTemplates(xsltFile) : PdfRenderer.getTemplates(RESOURCES_XLS);
+		render(xmlReport, xslt, pdfReport);
+	}
+
+	private static void convertToPDF(final File xmlReport, final Templates xslt) throws IOException, FOPException, TransformerException {
+		// Setup output
+		var pdfReportName = xmlReport.getAbsolutePath().replace(".xml", ".pdf");
+		try {
+			render(xmlReport, xslt, new File(pdfReportName));
+		} catch (Exception e) {
+			LoggingConnector.getInstance().error("Unable to write PDF Report", e);
+		}
+	}
+
+	private static void render(final File xmlReport, final Templates xslt, final File pdfReport)
+			throws IOException, FOPException, TransformerException {
 		// The XML Report File
 		var xmlSource = new StreamSource(xmlReport);
 
-		// Apache FOP Usage:
-		var fopFactory = FopFactory.newInstance(new File(".").toURI());
+		// Apache FOP Usage: the factory is shared, the user agent belongs to this report.
+		var fopFactory = PdfRenderer.getFopFactory();
 		var foUserAgent = fopFactory.newFOUserAgent();
 		foUserAgent.getEventBroadcaster().addEventListener(new LoggingEventListener());
 
-		// Setup output
-		var pdfReportName = xmlReport.getAbsolutePath().replace(".xml", ".pdf");
-		var out = new java.io.FileOutputStream(pdfReportName);
-
-		try (out) {
+		try (var out = new BufferedOutputStream(new FileOutputStream(pdfReport))) {
 			// Construct fop with desired output format
 			Fop fop = fopFactory.newFop(org.apache.xmlgraphics.util.MimeConstants.MIME_PDF, foUserAgent, out);
 
-			// Setup XSLT
-			TransformerFactory factory = TransformerFactory.newInstance();
-			Transformer transformer = factory.newTransformer(new StreamSource(xsltAsStream));
+			// Setup XSLT from the compiled stylesheet
+			Transformer transformer = xslt.newTransformer();
 
 			// Resulting SAX events (the generated FO) must be piped through to
 			// FOP
@@ -85,8 +105,6 @@ public class PdfReport {
 			// That's where the XML is first transformed to XSL-FO and then
 			// PDF is created
 			transformer.transform(xmlSource, res);
-		} catch (Exception e) {
-			LoggingConnector.getInstance().error("Unable to write PDF Report", e);
 		}
 	}
 
@@ -0,0 +1,342 @@
+package com.achelos.task.reporting.retention;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.achelos.task.logging.LoggingConnector;
+import com.achelos.task.reporting.xmlreport.ReportIndex;
+import com.achelos.task.reporting.xmlreport.XmlReportWriter;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigChecker;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameter;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameterNames;
+
+
+/**
+ * Applies the retention of the test runs in the report directory, as configured by the global configuration
+ * parameters report_retention_*:
+ * <ol>
+ * <li>The test case directories of a test run older than the compaction age, i.e. its configuration files, logs and
+ * network traffic dumps, are compressed into the archive {@value #ARCHIVE_FILE_NAME}. The files in the test run
+ * directory, e.g. the XML and PDF reports, and the report index are kept.</li>
+ * <li>Test runs older than the maximum age are deleted.</li>
+ * <li>While the test runs occupy more than the maximum size, the oldest test runs are deleted.</li>
+ * </ol>
+ * The age of a test run is the time since its last file has been modified. Test runs which are still executed and test
+ * runs modified within the last hour are neither compacted nor deleted.
+ * <p>
+ * Test runs are the directories created by the REST server (named by the run identifier) and the command line
+ * interface (named by the time stamp followed by {@value #CLI_RUN_SUFFIX}). Other content of the report directory is
+ * left untouched.
+ */
+public class ReportRetention {
+
+	private static final String LOGGING_PREFIX = "TaSK Report Retention: ";
+	/**
+	 * Name of the archive containing the compacted test case directories of a test run.
+	 */
+	public static final String ARCHIVE_FILE_NAME = "TestCases.zip";
+	private static final String PARTIAL_FILE_SUFFIX = ".part";
+	private static final String CLI_RUN_SUFFIX = "_TestReport";
+	/**
+	 * Directories of a test run, which are not compacted.
+	 */
+	private static final Set<String> KEPT_DIRECTORIES = Set.of(ReportIndex.INDEX_DIRECTORY_NAME,
+			XmlReportWriter.JOURNAL_DIRECTORY_NAME);
+	/**
+	 * Test runs modified within this time are neither compacted nor deleted, e.g. because they are executed by another
+	 * process.
+	 */
+	private static final Duration MINIMUM_IDLE_TIME = Duration.ofHours(1);
+
+	private final Path reportDirectory;
+	private final Duration compactionAge;
+	private final Duration maximumAge;
+	private final long maximumSize;
+	private final int interval;
+
+	/**
+	 * @param globalConfiguration the global configuration providing the report directory and the retention parameters
+	 */
+	public ReportRetention(final HashMap<String, GlobalConfigParameter> globalConfiguration) {
+		reportDirectory = Paths.get(globalConfiguration
+				.get(GlobalConfigParameterNames.ReportDirectory.getParameterName()).getValueAsString());
+		var compactionHours = getInteger(globalConfiguration, GlobalConfigParameterNames.ReportRetentionCompactionAge);
+		compactionAge = compactionHours > 0 ? Duration.ofHours(compactionHours) : null;
+		var maximumDays = getInteger(globalConfiguration, GlobalConfigParameterNames.ReportRetentionMaxAge);
+		maximumAge = maximumDays > 0 ? Duration.ofDays(maximumDays) : null;
+		maximumSize = Math.max(0, getInteger(globalConfiguration, GlobalConfigParameterNames.ReportRetentionMaxSize))
+				* 1024L * 1024L;
+		interval = Math.max(1, getInteger(globalConfiguration, GlobalConfigParameterNames.ReportRetentionInterval));
+	}
+
+	/**
+	 * @return whether any retention is configured.
+	 */
+	public boolean isEnabled() {
+		return compactionAge != null || maximumAge != null || maximumSize > 0;
+	}
+
+	/**
+	 * @return the interval in minutes, in which the retention is applied by a long running process.
+	 */
+	public int getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Apply the retention to the test runs in the report directory. Errors are logged, so that a test run is not
+	 * prevented by a failing retention.
+	 *
+	 * @param activeRun tells by the name of a test run directory, whether the test run is still executed
+	 */
+	public synchronized void apply(final Predicate<String> activeRun) {
+		if (!isEnabled() || !Files.isDirectory(reportDirectory)) {
+			return;
+		}
+		try {
+			var now = Instant.now();
+			var runs = listRuns(activeRun, now);
+
+			if (compactionAge != null) {
+				for (var run : runs) {
+					if (run.eligible && run.lastModified.isBefore(now.minus(compactionAge))) {
+						compact(run);
+					}
+				}
+			}
+
+			var remainingRuns = new ArrayList<Run>();
+			for (var run : runs) {
+				if (run.eligible && maximumAge != null && run.lastModified.isBefore(now.minus(maximumAge))) {
+					delete(run, "it is older than " + maximumAge.toDays() + " days");
+				} else {
+					remainingRuns.add(run);
+				}
+			}
+
+			if (maximumSize > 0) {
+				long size = 0;
+				for (var run : remainingRuns) {
+					size += run.size;
+				}
+				remainingRuns.sort(Comparator.comparing((Run run) -> run.lastModified));
+				for (var run : remainingRuns) {
+					if (size <= maximumSize) {
+						break;
+					}
+					if (run.eligible && delete(run, "the report directory exceeds its maximum size")) {
+						size -= run.size;
+					}
+				}
+				if (size > maximumSize) {
+					LoggingConnector.getInstance().warning(LOGGING_PREFIX + "The test runs in " + reportDirectory
+							+ " occupy " + toMegabytes(size) + " MB, which exceeds the maximum size of "
+							+ toMegabytes(maximumSize) + " MB, but are still executed or have recently been modified.");
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			LoggingConnector.getInstance().error(LOGGING_PREFIX + "An error occurred while applying the retention to "
+					+ reportDirectory + ".", e);
+		}
+	}
+
+	/**
+	 * List the test run directories together with their size and age.
+	 */
+	private List<Run> listRuns(final Predicate<String> activeRun, final Instant now) throws IOException {
+		var runs = new ArrayList<Run>();
+		try (DirectoryStream<Path> directories = Files.newDirectoryStream(reportDirectory)) {
+			for (var directory : directories) {
+				var name = directory.getFileName().toString();
+				if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS) || !isRunDirectory(name)) {
+					continue;
+				}
+				var run = new Run(directory);
+				run.measure();
+				run.eligible = !activeRun.test(name) && run.lastModified.isBefore(now.minus(MINIMUM_IDLE_TIME));
+				runs.add(run);
+			}
+		}
+		return runs;
+	}
+
+	private static boolean isRunDirectory(final String name) {
+		if (name.endsWith(CLI_RUN_SUFFIX)) {
+			return true;
+		}
+		try {
+			return UUID.fromString(name).toString().equalsIgnoreCase(name);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Compress the test case directories of a test run into its archive. The archive is written under a temporary name
+	 * and renamed when complete; only then are the directories deleted.
+	 */
+	private void compact(final Run run) {
+		var archive = run.directory.resolve(ARCHIVE_FILE_NAME);
+		if (Files.exists(archive)) {
+			return;
+		}
+		var directories = new ArrayList<Path>();
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(run.directory)) {
+			for (var entry : entries) {
+				if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)
+						&& !KEPT_DIRECTORIES.contains(entry.getFileName().toString())) {
+					directories.add(entry);
+				}
+			}
+		} catch (IOException e) {
+			LoggingConnector.getInstance().error(LOGGING_PREFIX + "Unable to list " + run.directory + ".", e);
+			return;
+		}
+		if (directories.isEmpty()) {
+			return;
+		}
+		directories.sort(Comparator.naturalOrder());
+		var partialArchive = run.directory.resolve(ARCHIVE_FILE_NAME + PARTIAL_FILE_SUFFIX);
+		try {
+			try (ZipOutputStream zip = new ZipOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(partialArchive)))) {
+				for (var directory : directories) {
+					addToArchive(zip, run.directory, directory);
+				}
+			}
+			// The archive keeps the age of the test run.
+			Files.setLastModifiedTime(partialArchive, FileTime.from(run.lastModified));
+			try {
+				Files.move(partialArchive, archive, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(partialArchive, archive);
+			}
+			for (var directory : directories) {
+				deleteDirectory(directory);
+			}
+			var previousSize = run.size;
+			run.measure();
+			LoggingConnector.getInstance().info(LOGGING_PREFIX + "Compacted the test case directories of "
+					+ run.directory + " from " + toMegabytes(previousSize) + " MB to " + toMegabytes(run.size)
+					+ " MB.");
+		} catch (IOException e) {
+			LoggingConnector.getInstance().error(LOGGING_PREFIX + "Unable to compact " + run.directory + ".", e);
+			try {
+				Files.deleteIfExists(partialArchive);
+			} catch (IOException deleteException) {
+				// Replaced by the next compaction.
+			}
+		}
+	}
+
+	private static void addToArchive(final ZipOutputStream zip, final Path runDirectory, final Path directory)
+			throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (var file : (Iterable<Path>) paths.sorted()::iterator) {
+				if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+					continue;
+				}
+				var entry = new ZipEntry(runDirectory.relativize(file).toString().replace('\\', '/'));
+				entry.setLastModifiedTime(Files.getLastModifiedTime(file));
+				zip.putNextEntry(entry);
+				Files.copy(file, zip);
+				zip.closeEntry();
+			}
+		}
+	}
+
+	/**
+	 * @return whether the test run has been deleted.
+	 */
+	private static boolean delete(final Run run, final String reason) {
+		try {
+			deleteDirectory(run.directory);
+			LoggingConnector.getInstance().info(LOGGING_PREFIX + "Deleted " + run.directory + " ("
+					+ toMegabytes(run.size) + " MB), as " + reason + ".");
+			return true;
+		} catch (IOException e) {
+			LoggingConnector.getInstance().error(LOGGING_PREFIX + "Unable to delete " + run.directory + ".", e);
+			return false;
+		}
+	}
+
+	private static void deleteDirectory(final Path directory) throws IOException {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (var path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+	private static int getInteger(final HashMap<String, GlobalConfigParameter> globalConfiguration,
+			final GlobalConfigParameterNames parameterName) {
+		return GlobalConfigChecker.getGlobalConfigParameter(globalConfiguration, parameterName).getValueAsInteger();
+	}
+
+	private static long toMegabytes(final long bytes) {
+		return bytes / (1024L * 1024L);
+	}
+
+	/**
+	 * A test run directory with its size and the time its last file has been modified.
+	 */
+	private static final class Run {
+		private final Path directory;
+		private long size;
+		private Instant lastModified;
+		private boolean eligible;
+
+		private Run(final Path directory) {
+			this.directory = directory;
+		}
+
+		private void measure() throws IOException {
+			size = 0;
+			lastModified = Instant.EPOCH;
+			Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+				@Override
+				public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+					size += attributes.size();
+					var modified = attributes.lastModifiedTime().toInstant();
+					if (modified.isAfter(lastModified)) {
+						lastModified = modified;
+					}
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed(final Path file, final IOException e) {
+					// Deleted in the meantime.
+					return FileVisitResult.CONTINUE;
+				}
+			});
+			if (lastModified.equals(Instant.EPOCH)) {
+				// Without files, the directory itself tells the age.
+				lastModified = Files.getLastModifiedTime(directory).toInstant();
+			}
+		}
+	}
+}
@@ -0,0 +1,323 @@
+package com.achelos.task.reporting.xmlreport;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Index of an XML report, which is written next to it by the {@link XmlReportWriter}. It lists the test cases of the
+ * report and keeps their log messages in a line based file, so that single test cases and pages of their log messages
+ * can be read without parsing the XML report.
+ * <p>
+ * The index directory contains three files:
+ * <ul>
+ * <li>{@value #TEST_CASES_FILE}: one line per test case with its test suite, identifier, result, start and end time
+ * and the range of its log messages.</li>
+ * <li>{@value #LOG_MESSAGES_FILE}: one line per log message with its timestamp, log level and message.</li>
+ * <li>{@value #LOG_POSITIONS_FILE}: the position of each line of the log message file as a long, so that a page of log
+ * messages is located by a single seek.</li>
+ * </ul>
+ * Fields are separated by tabulators; tabulators, line breaks and backslashes within the fields are escaped.
+ */
+public final class ReportIndex {
+
+	/**
+	 * Name of the index directory next to the XML report.
+	 */
+	public static final String INDEX_DIRECTORY_NAME = "ReportIndex";
+	static final String TEST_CASES_FILE = "TestCases.tsv";
+	static final String LOG_MESSAGES_FILE = "LogMessages.tsv";
+	static final String LOG_POSITIONS_FILE = "LogMessages.positions";
+	static final char SEPARATOR = '\t';
+	/**
+	 * Size of an entry of the position file.
+	 */
+	static final int POSITION_SIZE = Long.BYTES;
+
+	/**
+	 * Hidden Constructor.
+	 */
+	private ReportIndex() {
+		// Empty.
+	}
+
+	/**
+	 * @param reportDirectory the directory containing the XML report
+	 * @return whether an index has been written for the XML report in the given directory
+	 */
+	public static boolean exists(final File reportDirectory) {
+		return Files.isRegularFile(indexFile(reportDirectory, TEST_CASES_FILE));
+	}
+
+	/**
+	 * Read the test cases of the report in the order of the XML report.
+	 *
+	 * @param reportDirectory the directory containing the XML report
+	 * @return the test cases
+	 * @throws IOException if the index cannot be read
+	 */
+	public static List<TestCase> readTestCases(final File reportDirectory) throws IOException {
+		var testCases = new ArrayList<TestCase>();
+		try (BufferedReader reader = Files.newBufferedReader(indexFile(reportDirectory, TEST_CASES_FILE),
+				StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				var fields = split(line, 7);
+				testCases.add(new TestCase(fields[0], fields[1], fields[2], parseTime(fields[3]),
+						parseTime(fields[4]), Long.parseLong(fields[5]), Integer.parseInt(fields[6])));
+			}
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid report index in " + reportDirectory + ".", e);
+		}
+		return testCases;
+	}
+
+	/**
+	 * Read a page of the log messages of a test case.
+	 *
+	 * @param reportDirectory the directory containing the XML report
+	 * @param testCase the test case, as read by {@link #readTestCases(File)}
+	 * @param offset the number of log messages to skip
+	 * @param limit the maximum number of log messages to read
+	 * @return the log messages, which are fewer than the limit at the end of the test case
+	 * @throws IOException if the index cannot be read
+	 */
+	public static List<LogMessage> readLogMessages(final File reportDirectory, final TestCase testCase,
+			final int offset, final int limit) throws IOException {
+		if (offset < 0 || limit < 0) {
+			throw new IllegalArgumentException("Offset and limit must not be negative.");
+		}
+		var messages = new ArrayList<LogMessage>();
+		if (offset >= testCase.getNumberOfLogMessages() || limit == 0) {
+			return messages;
+		}
+		var count = Math.min(limit, testCase.getNumberOfLogMessages() - offset);
+		long position;
+		try (RandomAccessFile positions = new RandomAccessFile(
+				indexFile(reportDirectory, LOG_POSITIONS_FILE).toFile(), "r")) {
+			positions.seek((testCase.firstLogMessage + offset) * POSITION_SIZE);
+			position = positions.readLong();
+		}
+		try (RandomAccessFile file = new RandomAccessFile(indexFile(reportDirectory, LOG_MESSAGES_FILE).toFile(), "r")) {
+			file.seek(position);
+			var reader = new BufferedReader(
+					new InputStreamReader(Channels.newInputStream(file.getChannel()), StandardCharsets.UTF_8));
+			for (int i = 0; i < count; i++) {
+				var line = reader.readLine();
+				if (line == null) {
+					throw new IOException("Incomplete report index in " + reportDirectory + ".");
+				}
+				var fields = split(line, 3);
+				messages.add(new LogMessage(Long.parseLong(fields[0]), fields[1], fields[2]));
+			}
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid report index in " + reportDirectory + ".", e);
+		}
+		return messages;
+	}
+
+	static Path indexFile(final File reportDirectory, final String name) {
+		return reportDirectory.toPath().resolve(INDEX_DIRECTORY_NAME).resolve(name);
+	}
+
+	/**
+	 * Escape a field, so that it contains neither separators nor line breaks.
+	 */
+	static String escape(final String value) {
+		if (value == null) {
+			return "";
+		}
+		var escaped = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			var c = value.charAt(i);
+			switch (c) {
+				case '\\':
+					escaped.append("\\\\");
+					break;
+				case '\t':
+					escaped.append("\\t");
+					break;
+				case '\n':
+					escaped.append("\\n");
+					break;
+				case '\r':
+					escaped.append("\\r");
+					break;
+				default:
+					escaped.append(c);
+					break;
+			}
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * Split a line into the given number of unescaped fields.
+	 */
+	static String[] split(final String line, final int numberOfFields) {
+		var fields = new String[numberOfFields];
+		var field = new StringBuilder();
+		int index = 0;
+		for (int i = 0; i < line.length(); i++) {
+			var c = line.charAt(i);
+			if (c == SEPARATOR) {
+				if (index == numberOfFields - 1) {
+					throw new IllegalArgumentException("Expected " + numberOfFields + " fields: " + line);
+				}
+				fields[index++] = field.toString();
+				field.setLength(0);
+			} else if (c == '\\' && i + 1 < line.length()) {
+				var escaped = line.charAt(++i);
+				switch (escaped) {
+					case 't':
+						field.append('\t');
+						break;
+					case 'n':
+						field.append('\n');
+						break;
+					case 'r':
+						field.append('\r');
+						break;
+					default:
+						field.append(escaped);
+						break;
+				}
+			} else {
+				field.append(c);
+			}
+		}
+		fields[index] = field.toString();
+		if (index != numberOfFields - 1) {
+			throw new IllegalArgumentException("Expected " + numberOfFields + " fields: " + line);
+		}
+		return fields;
+	}
+
+	private static ZonedDateTime parseTime(final String value) {
+		return value.isEmpty() ? null : ZonedDateTime.parse(value);
+	}
+
+	/**
+	 * A test case of the index.
+	 */
+	public static final class TestCase {
+		private final String testSuiteId;
+		private final String testCaseId;
+		private final String result;
+		private final ZonedDateTime startTime;
+		private final ZonedDateTime endTime;
+		private final long firstLogMessage;
+		private final int numberOfLogMessages;
+
+		private TestCase(final String testSuiteId, final String testCaseId, final String result,
+				final ZonedDateTime startTime, final ZonedDateTime endTime, final long firstLogMessage,
+				final int numberOfLogMessages) {
+			this.testSuiteId = testSuiteId;
+			this.testCaseId = testCaseId;
+			this.result = result;
+			this.startTime = startTime;
+			this.endTime = endTime;
+			this.firstLogMessage = firstLogMessage;
+			this.numberOfLogMessages = numberOfLogMessages;
+		}
+
+		/**
+		 * @return the identifier of the test suite containing the test case
+		 */
+		public String getTestSuiteId() {
+			return testSuiteId;
+		}
+
+		/**
+		 * @return the identifier of the test case
+		 */
+		public String getTestCaseId() {
+			return testCaseId;
+		}
+
+		/**
+		 * @return the result of the test case, as written into the XML report
+		 */
+		public String getResult() {
+			return result;
+		}
+
+		/**
+		 * @return the start time of the test case, or null if unknown
+		 */
+		public ZonedDateTime getStartTime() {
+			return startTime;
+		}
+
+		/**
+		 * @return the end time of the test case, or null if unknown
+		 */
+		public ZonedDateTime getEndTime() {
+			return endTime;
+		}
+
+		/**
+		 * @return the duration of the test case, or null if the start or end time is unknown
+		 */
+		public Duration getDuration() {
+			if (startTime == null || endTime == null) {
+				return null;
+			}
+			return Duration.between(startTime, endTime);
+		}
+
+		/**
+		 * @return the number of log messages of the test case
+		 */
+		public int getNumberOfLogMessages() {
+			return numberOfLogMessages;
+		}
+	}
+
+	/**
+	 * A log message of a test case.
+	 */
+	public static final class LogMessage {
+		private final long timestamp;
+		private final String logLevel;
+		private final String message;
+
+		private LogMessage(final long timestamp, final String logLevel, final String message) {
+			this.timestamp = timestamp;
+			this.logLevel = logLevel;
+			this.message = message;
+		}
+
+		/**
+		 * @return log time in milliseconds
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		/**
+		 * @return the name of the log level
+		 */
+		public String getLogLevel() {
+			return logLevel;
+		}
+
+		/**
+		 * @return the message
+		 */
+		public String getMessage() {
+			return message;
+		}
+	}
+}
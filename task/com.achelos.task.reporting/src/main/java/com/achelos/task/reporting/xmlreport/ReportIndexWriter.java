@@ -0,0 +1,165 @@
+package com.achelos.task.reporting.xmlreport;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.achelos.task.logging.BasicLogger;
+import com.achelos.task.logging.LoggingConnector.LogEntry;
+import com.achelos.task.reporting.datastructures.Report.TestCaseReport;
+
+
+/**
+ * Writes the {@link ReportIndex} alongside the XML report. The log messages of a test case are appended when the test
+ * case is written, its entry is kept until its test suite is finished, so that the index only lists the test cases of
+ * the XML report.
+ */
+final class ReportIndexWriter {
+
+	private final Path directory;
+	private final boolean temporary;
+	private final Writer testCases;
+	private final OutputStream logMessages;
+	private final DataOutputStream logPositions;
+	private final List<String> pendingTestCases = new ArrayList<>();
+	private long logPosition = 0;
+	private long numberOfLogMessages = 0;
+	private boolean closed = false;
+
+	/**
+	 * @param journalDirectory the directory to write the index into, or null to create a temporary directory
+	 */
+	ReportIndexWriter(final Path journalDirectory) throws IOException {
+		temporary = journalDirectory == null;
+		directory = temporary ? Files.createTempDirectory("TaSKReportIndex") : journalDirectory;
+		Files.createDirectories(directory);
+		testCases = new BufferedWriter(new OutputStreamWriter(
+				Files.newOutputStream(directory.resolve(ReportIndex.TEST_CASES_FILE)), StandardCharsets.UTF_8));
+		logMessages = new BufferedOutputStream(
+				Files.newOutputStream(directory.resolve(ReportIndex.LOG_MESSAGES_FILE)));
+		logPositions = new DataOutputStream(new BufferedOutputStream(
+				Files.newOutputStream(directory.resolve(ReportIndex.LOG_POSITIONS_FILE))));
+	}
+
+	/**
+	 * Append the log messages of a test case, whose entry is written by {@link #finishTestSuite(String)}.
+	 */
+	void addPendingTestCase(final TestCaseReport testCaseReport) throws IOException {
+		pendingTestCases.add(writeLogMessages(testCaseReport));
+	}
+
+	/**
+	 * Write the entries of the pending test cases.
+	 *
+	 * @param testSuiteId the identifier of the test suite containing the pending test cases
+	 */
+	void finishTestSuite(final String testSuiteId) throws IOException {
+		for (var entry : pendingTestCases) {
+			testCases.write(ReportIndex.escape(testSuiteId) + ReportIndex.SEPARATOR + entry + "\n");
+		}
+		pendingTestCases.clear();
+	}
+
+	/**
+	 * Drop the pending test cases, whose test suite is not part of the XML report.
+	 */
+	void dropPendingTestCases() {
+		pendingTestCases.clear();
+	}
+
+	/**
+	 * Write a test case, whose test suite is written right now.
+	 */
+	void addTestCase(final String testSuiteId, final TestCaseReport testCaseReport) throws IOException {
+		testCases.write(ReportIndex.escape(testSuiteId) + ReportIndex.SEPARATOR + writeLogMessages(testCaseReport)
+				+ "\n");
+	}
+
+	/**
+	 * Move the index next to the XML report.
+	 *
+	 * @param reportDirectory the directory containing the XML report
+	 */
+	void moveTo(final File reportDirectory) throws IOException {
+		close();
+		var target = reportDirectory.toPath().resolve(ReportIndex.INDEX_DIRECTORY_NAME);
+		Files.createDirectories(target);
+		// The temporary directory may be located on another file system, so the files are moved one by one.
+		for (var name : List.of(ReportIndex.LOG_POSITIONS_FILE, ReportIndex.LOG_MESSAGES_FILE,
+				ReportIndex.TEST_CASES_FILE)) {
+			Files.move(directory.resolve(name), target.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+		}
+		delete();
+	}
+
+	void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			try {
+				testCases.close();
+			} finally {
+				try {
+					logMessages.close();
+				} finally {
+					logPositions.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Delete the index, unless it has been moved.
+	 */
+	void delete() throws IOException {
+		close();
+		for (var name : List.of(ReportIndex.TEST_CASES_FILE, ReportIndex.LOG_MESSAGES_FILE,
+				ReportIndex.LOG_POSITIONS_FILE)) {
+			Files.deleteIfExists(directory.resolve(name));
+		}
+		Files.deleteIfExists(directory);
+	}
+
+	/**
+	 * Append the log messages of a test case.
+	 *
+	 * @return the entry of the test case without its test suite
+	 */
+	private String writeLogMessages(final TestCaseReport testCaseReport) throws IOException {
+		var firstLogMessage = numberOfLogMessages;
+		var messages = testCaseReport.getLogMessages();
+		for (var message : messages) {
+			writeLogMessage(message);
+		}
+		return ReportIndex.escape(testCaseReport.getTestCaseId()) + ReportIndex.SEPARATOR
+				+ testCaseReport.getTestCaseResult().name() + ReportIndex.SEPARATOR
+				+ formatTime(testCaseReport.getStartTime()) + ReportIndex.SEPARATOR
+				+ formatTime(testCaseReport.getEndTime()) + ReportIndex.SEPARATOR
+				+ firstLogMessage + ReportIndex.SEPARATOR + messages.size();
+	}
+
+	private void writeLogMessage(final LogEntry message) throws IOException {
+		var line = (message.getTimestamp() + String.valueOf(ReportIndex.SEPARATOR)
+				+ ReportIndex.escape(BasicLogger.getName(message.getLogLevel())) + ReportIndex.SEPARATOR
+				+ ReportIndex.escape(message.getMsg()) + "\n").getBytes(StandardCharsets.UTF_8);
+		logPositions.writeLong(logPosition);
+		logMessages.write(line);
+		logPosition += line.length;
+		numberOfLogMessages++;
+	}
+
+	private static String formatTime(final ZonedDateTime time) {
+		return time != null ? time.toString() : "";
+	}
+}
@@ -167,7 +167,7 @@ public class XmlReport {
 		OutputPrinter.printXmlReport(internalStructure, xmlReportFile);
 	}
 
-	private static String epochMillisecondsToTimestamp(final long epochMilliseconds) {
+	static String epochMillisecondsToTimestamp(final long epochMilliseconds) {
 		try {
 			var date = new Date(epochMilliseconds);
 			DateFormat formatter = new SimpleDateFormat(DateTimeUtils.ISO_8601_DATE_TIME_PATTERN);
@@ -178,7 +178,7 @@ public class XmlReport {
 		}
 	}
 
-	private static String zonedDateTimeToTimestamp(final ZonedDateTime dateTime) {
+	static String zonedDateTimeToTimestamp(final ZonedDateTime dateTime) {
 		try {
 			var formatter = DateTimeFormatter.ofPattern(DateTimeUtils.ISO_8601_DATE_TIME_PATTERN);
 			return dateTime.format(formatter);
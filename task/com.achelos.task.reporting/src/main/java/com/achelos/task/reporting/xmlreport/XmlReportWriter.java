@@ -0,0 +1,793 @@
+package com.achelos.task.reporting.xmlreport;
+
+import com.achelos.task.logging.BasicLogger;
+import com.achelos.task.logging.LoggingConnector.LogEntry;
+import com.achelos.task.logging.ReportDutInfoFields;
+import com.achelos.task.logging.ReportMetadataFields;
+import com.achelos.task.reporting.datastructures.Report;
+import com.achelos.task.reporting.datastructures.Report.TestCaseReport;
+import com.achelos.task.reporting.datastructures.Report.TestSuiteReport;
+import com.achelos.task.reporting.datastructures.Report.TestSuiteSummary;
+import com.achelos.task.reporting.datastructures.Report.TestSuiteSummaryCounter;
+import com.achelos.task.xmlparser.outputparsing.OutputPrinter;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+
+/**
+ * Writes the XML report with an XMLStreamWriter while the test cases are executed, so that the log messages of a test
+ * case are only kept in memory until the test case has ended.
+ * <p>
+ * The schema of the report places the metadata in front of and the TaSK framework messages behind the test suites,
+ * which are only known at the end of the execution. Thus, finished test cases and test suites are spooled into
+ * temporary files, which are copied into the report by {@link #writeReport(Report, File)}.
+ * <p>
+ * If a journal directory is set, the spooled files are kept there and a checkpoint is written after each finished
+ * test case, containing the metadata, the current test suite and the length of the completely written fragments.
+ * If the run does not end regularly, a partial report is derived from the journal by
+ * {@link #recoverReport(File, File)}, which can also be called while the run proceeds.
+ * <p>
+ * If enabled by {@link #setIndexed(boolean)}, a {@link ReportIndex} of the test cases and their log messages is written
+ * along with the XML report.
+ */
+public class XmlReportWriter implements Closeable {
+
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+	private static final String ENCODING = "UTF-8";
+	private static final String INDENTATION = "    ";
+	/**
+	 * Depth of the test suite elements below the root element.
+	 */
+	private static final int TEST_SUITE_DEPTH = 1;
+	/**
+	 * Depth of the test case elements below the root element.
+	 */
+	private static final int TEST_CASE_DEPTH = 3;
+
+	/**
+	 * Name of the journal directory within the report directory.
+	 */
+	public static final String JOURNAL_DIRECTORY_NAME = "ReportJournal";
+	private static final String TEST_SUITES_FILE = "TestSuites.part";
+	/**
+	 * Prefix of the file name of the test cases of a test suite. Each test suite has its own file, so that a checkpoint
+	 * never refers to the test cases of a later test suite.
+	 */
+	private static final String TEST_CASES_FILE_PREFIX = "TestCases-";
+	private static final String CHECKPOINT_FILE = "Checkpoint.properties";
+	private static final String METADATA_PREFIX = "metadata.";
+	private static final String DUT_INFORMATION_PREFIX = "dutInformation.";
+	private static final String TEST_SUITES_LENGTH = "testSuites.length";
+	private static final String TEST_CASES_FILE = "testCases.file";
+	private static final String TEST_CASES_LENGTH = "testCases.length";
+	private static final String TEST_SUITE_ID = "testSuite.id";
+	private static final String TEST_SUITE_START_TIME = "testSuite.startTime";
+	private static final String TEST_SUITE_END_TIME = "testSuite.endTime";
+	private static final String TEST_SUITE_TOTAL = "testSuite.total";
+	private static final String TEST_SUITE_EXECUTED = "testSuite.executed";
+	private static final String TEST_SUITE_PASSED = "testSuite.passed";
+	private static final String TEST_SUITE_FAILED = "testSuite.failed";
+	private static final String TEST_SUITE_WARNINGS = "testSuite.warnings";
+
+	private Spool testSuites;
+	private Spool testCases;
+	private ReportIndexWriter index;
+	private boolean indexed = false;
+	private int numberOfTestCaseSpools = 0;
+
+	private File journalDirectory;
+	private final Map<ReportMetadataFields, String> metadata = new EnumMap<>(ReportMetadataFields.class);
+	private final Map<ReportDutInfoFields, String> dutInformation = new EnumMap<>(ReportDutInfoFields.class);
+	private String testSuiteId;
+	private ZonedDateTime testSuiteStartTime;
+	private ZonedDateTime testSuiteEndTime;
+	private TestSuiteSummaryCounter testSuiteCounter;
+
+	/**
+	 * Keep the spooled files in the given journal directory and write a checkpoint after each finished test case.
+	 * Has to be called before the first test case is written.
+	 *
+	 * @param directory the journal directory, which is created if necessary
+	 * @throws IOException if the journal cannot be created
+	 */
+	public synchronized void setJournalDirectory(final File directory) throws IOException {
+		if (testSuites != null || testCases != null || index != null) {
+			throw new IllegalStateException("The journal has to be set before the first test case is written.");
+		}
+		Files.createDirectories(directory.toPath());
+		journalDirectory = directory;
+		writeCheckpoint();
+	}
+
+	/**
+	 * Write a {@link ReportIndex} next to the XML report, e.g. for serving the test cases and their log messages page
+	 * by page. Has to be called before the first test case is written.
+	 *
+	 * @param indexed whether the index is written
+	 */
+	public synchronized void setIndexed(final boolean indexed) {
+		if (testSuites != null || testCases != null || index != null) {
+			throw new IllegalStateException("The index has to be enabled before the first test case is written.");
+		}
+		this.indexed = indexed;
+	}
+
+	/**
+	 * Set a metadata entry of the report, which is recorded in the journal.
+	 *
+	 * @param field the metadata field
+	 * @param value the value of the field
+	 * @throws IOException if the checkpoint cannot be written
+	 */
+	public synchronized void setMetadata(final ReportMetadataFields field, final String value) throws IOException {
+		metadata.put(field, value);
+		writeCheckpoint();
+	}
+
+	/**
+	 * Set an entry of the DUT information of the report, which is recorded in the journal.
+	 *
+	 * @param field the DUT information field
+	 * @param value the value of the field
+	 * @throws IOException if the checkpoint cannot be written
+	 */
+	public synchronized void setDutInformation(final ReportDutInfoFields field, final String value)
+			throws IOException {
+		dutInformation.put(field, value);
+		writeCheckpoint();
+	}
+
+	/**
+	 * Start a test suite, whose test cases are written next.
+	 *
+	 * @param id the identifier of the test suite
+	 * @param startTime the start time of the test suite
+	 * @throws IOException if the checkpoint cannot be written
+	 */
+	public synchronized void startTestSuite(final String id, final ZonedDateTime startTime) throws IOException {
+		testSuiteId = id;
+		testSuiteStartTime = startTime != null ? startTime : ZonedDateTime.now();
+		testSuiteEndTime = testSuiteStartTime;
+		testSuiteCounter = new TestSuiteSummaryCounter();
+		writeCheckpoint();
+	}
+
+	/**
+	 * Append a finished test case to the current test suite. If the test case cannot be spooled, it is not part of the
+	 * test suite, and no further test cases are accepted until the test suite is finished. The caller may keep the
+	 * test case and the following ones instead, and pass them with the report of the test suite.
+	 *
+	 * @param testCaseReport the report of the test case
+	 * @throws IOException if the test case cannot be spooled
+	 */
+	public synchronized void writeTestCase(final TestCaseReport testCaseReport) throws IOException {
+		if (testCases == null) {
+			numberOfTestCaseSpools++;
+			testCases = new Spool(journalFile(TEST_CASES_FILE_PREFIX + numberOfTestCaseSpools + ".part"));
+		}
+		if (testCases.failed) {
+			throw new IOException("Unable to write test case " + testCaseReport.getTestCaseId()
+					+ ", as a previous test case of the test suite could not be written.");
+		}
+		var committedLength = testCases.length;
+		try {
+			writeTestCase(testCases.writer, testCaseReport);
+			testCases.commit(journalDirectory != null);
+			if (indexed) {
+				index().addPendingTestCase(testCaseReport);
+			}
+		} catch (XMLStreamException | IOException | RuntimeException e) {
+			// Drop the partially written test case, the spool is only copied up to its committed length.
+			testCases.length = committedLength;
+			testCases.failed = true;
+			if (e instanceof XMLStreamException) {
+				throw new IOException("Unable to write test case " + testCaseReport.getTestCaseId() + ".", e);
+			}
+			throw e;
+		}
+		if (testSuiteCounter == null) {
+			testSuiteCounter = new TestSuiteSummaryCounter();
+		}
+		testSuiteCounter.count(testCaseReport.getTestCaseResult());
+		if (testCaseReport.getEndTime() != null) {
+			testSuiteEndTime = testCaseReport.getEndTime();
+		}
+		writeCheckpoint();
+	}
+
+	/**
+	 * Finish the current test suite. Its test cases are the ones written by {@link #writeTestCase(TestCaseReport)}
+	 * since the previous test suite, followed by the ones contained in the given report.
+	 *
+	 * @param testSuiteReport the report of the test suite
+	 * @throws IOException if the test suite cannot be spooled
+	 */
+	public synchronized void writeTestSuite(final TestSuiteReport testSuiteReport) throws IOException {
+		if (testSuites == null) {
+			testSuites = new Spool(journalFile(TEST_SUITES_FILE));
+		}
+		try {
+			writeTestSuite(testSuites.writer, testSuites.out, testSuiteReport, testCases);
+			testSuites.commit(journalDirectory != null);
+			if (indexed) {
+				index().finishTestSuite(testSuiteReport.getTestSuiteId());
+			}
+			indexTestCases(testSuiteReport);
+		} catch (XMLStreamException e) {
+			throw new IOException("Unable to write test suite " + testSuiteReport.getTestSuiteId() + ".", e);
+		} finally {
+			// The checkpoint no longer refers to the test cases before they are deleted.
+			testSuiteId = null;
+			testSuiteCounter = null;
+			if (index != null) {
+				index.dropPendingTestCases();
+			}
+			if (testCases != null) {
+				testCases.close();
+			}
+			writeCheckpoint();
+			if (testCases != null) {
+				testCases.delete();
+				testCases = null;
+			}
+		}
+	}
+
+	/**
+	 * Write the XML report. The spooled test suites, followed by the test suites contained in the given report, are
+	 * placed between its metadata and its TaSK framework messages. Test cases of an unfinished test suite are dropped.
+	 * The index is written next to the report, if enabled. The spooled files and the journal are deleted afterwards. If the report
+	 * cannot be written, the journal is kept.
+	 *
+	 * @param report the report providing the remaining information
+	 * @param xmlReportFile the file to write the XML report into
+	 * @throws IOException if the report cannot be written
+	 */
+	public synchronized void writeReport(final Report report, final File xmlReportFile) throws IOException {
+		var parent = xmlReportFile.getAbsoluteFile().getParentFile();
+		if (!parent.exists() && !parent.mkdirs()) {
+			throw new IOException("Failed to create output folder " + parent);
+		}
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(xmlReportFile.toPath()))) {
+			var writer = createWriter(out);
+			writer.writeStartDocument(ENCODING, "1.0");
+			startElement(writer, "TaSKReport", 0);
+			writeMetadata(writer, report);
+			writeDutInformation(writer, report);
+			if (testSuites != null) {
+				testSuites.close();
+				testSuites.copyTo(writer, out);
+			}
+			for (var testSuiteReport : report.getTestSuiteReports()) {
+				writeTestSuite(writer, out, testSuiteReport, null);
+				indexTestCases(testSuiteReport);
+			}
+			writeLogMessages(writer, "TaSKFrameworkMessages", report.getTestFrameworkLogMessages(), 1);
+			startElement(writer, "InputParameters", 1);
+			var inputParameters = report.getInputParameters();
+			if (inputParameters != null && inputParameters.isMicsSet()) {
+				indent(writer, 2);
+				OutputPrinter.printXmlReportFragment(inputParameters.getMics(), writer);
+			}
+			if (inputParameters != null && inputParameters.isTestRunPlanSet()) {
+				indent(writer, 2);
+				OutputPrinter.printXmlReportFragment(inputParameters.getTestRunPlan(), writer);
+			}
+			endElement(writer, 1);
+			endElement(writer, 0);
+			writer.writeEndDocument();
+			writer.flush();
+			writer.close();
+			out.flush();
+			// The report is not marshalled by JAXB, which validated it before.
+			OutputPrinter.validateXmlReport(xmlReportFile);
+			if (indexed) {
+				index().dropPendingTestCases();
+				index.moveTo(parent);
+			}
+		} catch (XMLStreamException e) {
+			closeUnlessJournaled();
+			throw new IOException("Unable to write XML report " + xmlReportFile + ".", e);
+		} catch (IOException | RuntimeException e) {
+			closeUnlessJournaled();
+			throw e;
+		}
+		close();
+	}
+
+	/**
+	 * Delete the temporary files after the report could not be written. A journal is kept to derive a partial report.
+	 */
+	private void closeUnlessJournaled() throws IOException {
+		if (journalDirectory == null) {
+			close();
+		}
+	}
+
+	/**
+	 * Delete the spooled files and the journal.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (testCases != null) {
+			testCases.close();
+			testCases.delete();
+			testCases = null;
+		}
+		if (testSuites != null) {
+			testSuites.close();
+			testSuites.delete();
+			testSuites = null;
+		}
+		if (index != null) {
+			index.delete();
+			index = null;
+		}
+		if (journalDirectory != null) {
+			deleteDirectory(journalDirectory.toPath());
+			journalDirectory = null;
+		}
+	}
+
+	/**
+	 * Write a partial XML report from the journal of a run, which has not ended regularly or is still running. It
+	 * contains the finished test suites and the finished test cases of the current test suite, which is summarized by
+	 * these test cases.
+	 *
+	 * @param journalDirectory the journal directory of the run
+	 * @param xmlReportFile the file to write the partial XML report into
+	 * @throws IOException if the journal cannot be read or the report cannot be written
+	 */
+	public static void recoverReport(final File journalDirectory, final File xmlReportFile) throws IOException {
+		var checkpoint = new Properties();
+		try (InputStream in = Files.newInputStream(journalDirectory.toPath().resolve(CHECKPOINT_FILE))) {
+			checkpoint.load(in);
+		}
+		var parent = xmlReportFile.getAbsoluteFile().getParentFile();
+		if (!parent.exists() && !parent.mkdirs()) {
+			throw new IOException("Failed to create output folder " + parent);
+		}
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(xmlReportFile.toPath()))) {
+			var writer = createWriter(out);
+			writer.writeStartDocument(ENCODING, "1.0");
+			startElement(writer, "TaSKReport", 0);
+			var recoveredMetadata = new EnumMap<ReportMetadataFields, String>(ReportMetadataFields.class);
+			for (var field : ReportMetadataFields.values()) {
+				recoveredMetadata.put(field, checkpoint.getProperty(METADATA_PREFIX + field.name()));
+			}
+			writeMetadata(writer, recoveredMetadata);
+			var recoveredDutInformation = new EnumMap<ReportDutInfoFields, String>(ReportDutInfoFields.class);
+			for (var field : ReportDutInfoFields.values()) {
+				recoveredDutInformation.put(field, checkpoint.getProperty(DUT_INFORMATION_PREFIX + field.name()));
+			}
+			writeDutInformation(writer, recoveredDutInformation);
+			copyPrefix(writer, out, journalDirectory.toPath().resolve(TEST_SUITES_FILE),
+					Long.parseLong(checkpoint.getProperty(TEST_SUITES_LENGTH, "0")));
+
+			var recoveredTestSuiteId = checkpoint.getProperty(TEST_SUITE_ID);
+			var recoveredTestCasesFile = checkpoint.getProperty(TEST_CASES_FILE);
+			if (recoveredTestSuiteId != null) {
+				var summary = new TestSuiteSummary(getInteger(checkpoint, TEST_SUITE_TOTAL),
+						getInteger(checkpoint, TEST_SUITE_EXECUTED), getInteger(checkpoint, TEST_SUITE_PASSED),
+						getInteger(checkpoint, TEST_SUITE_FAILED), getInteger(checkpoint, TEST_SUITE_WARNINGS),
+						ZonedDateTime.parse(checkpoint.getProperty(TEST_SUITE_START_TIME)),
+						ZonedDateTime.parse(checkpoint.getProperty(TEST_SUITE_END_TIME)));
+				startTestSuiteElement(writer, recoveredTestSuiteId, summary, List.of());
+				if (recoveredTestCasesFile != null) {
+					copyPrefix(writer, out, journalDirectory.toPath().resolve(recoveredTestCasesFile),
+							Long.parseLong(checkpoint.getProperty(TEST_CASES_LENGTH, "0")));
+				}
+				endElement(writer, TEST_SUITE_DEPTH + 1);
+				endElement(writer, TEST_SUITE_DEPTH);
+			}
+
+			startElement(writer, "TaSKFrameworkMessages", 1);
+			indent(writer, 2);
+			writer.writeStartElement("LogMessage");
+			writer.writeAttribute("LogLevel", BasicLogger.getName(BasicLogger.WARNING));
+			writer.writeAttribute("Timestamp", XmlReport.epochMillisecondsToTimestamp(System.currentTimeMillis()));
+			writer.writeCharacters("Partial report recovered from the journal of a test run, which has not ended.");
+			writer.writeEndElement();
+			endElement(writer, 1);
+			startElement(writer, "InputParameters", 1);
+			endElement(writer, 1);
+			endElement(writer, 0);
+			writer.writeEndDocument();
+			writer.flush();
+			writer.close();
+		} catch (XMLStreamException | RuntimeException e) {
+			throw new IOException("Unable to recover XML report from " + journalDirectory + ".", e);
+		}
+	}
+
+	private static Integer getInteger(final Properties checkpoint, final String key) {
+		return Integer.valueOf(checkpoint.getProperty(key, "0"));
+	}
+
+	/**
+	 * Copy the completely written fragments of a journal file to the output of the given writer.
+	 *
+	 * @throws IOException if the file is shorter than the fragments referred to by the checkpoint
+	 */
+	private static void copyPrefix(final XMLStreamWriter target, final OutputStream targetOut, final Path file,
+			final long length) throws IOException, XMLStreamException {
+		if (length <= 0) {
+			return;
+		}
+		// Completes a pending start tag of the target.
+		target.writeCharacters("");
+		target.flush();
+		try (InputStream in = Files.newInputStream(file)) {
+			var buffer = new byte[8192];
+			long remaining = length;
+			while (remaining > 0) {
+				int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+				if (read < 0) {
+					throw new IOException("The journal file " + file + " is shorter than its checkpoint.");
+				}
+				targetOut.write(buffer, 0, read);
+				remaining -= read;
+			}
+		} catch (NoSuchFileException e) {
+			// Removed after the checkpoint has been read, i.e. the test suite has just been finished.
+		}
+	}
+
+	/**
+	 * Write the state of the journal. The checkpoint is replaced atomically, so that it always refers to completely
+	 * written fragments.
+	 */
+	private void writeCheckpoint() throws IOException {
+		if (journalDirectory == null) {
+			return;
+		}
+		var checkpoint = new Properties();
+		for (var entry : metadata.entrySet()) {
+			checkpoint.setProperty(METADATA_PREFIX + entry.getKey().name(), entry.getValue());
+		}
+		for (var entry : dutInformation.entrySet()) {
+			checkpoint.setProperty(DUT_INFORMATION_PREFIX + entry.getKey().name(), entry.getValue());
+		}
+		checkpoint.setProperty(TEST_SUITES_LENGTH, String.valueOf(testSuites != null ? testSuites.length : 0));
+		if (testSuiteId != null) {
+			var summary = (testSuiteCounter != null ? testSuiteCounter : new TestSuiteSummaryCounter())
+					.toSummary(testSuiteStartTime, testSuiteEndTime);
+			checkpoint.setProperty(TEST_SUITE_ID, testSuiteId);
+			checkpoint.setProperty(TEST_SUITE_START_TIME, testSuiteStartTime.toString());
+			checkpoint.setProperty(TEST_SUITE_END_TIME, testSuiteEndTime.toString());
+			checkpoint.setProperty(TEST_SUITE_TOTAL, String.valueOf(summary.getTotalNumberOfTestcases()));
+			checkpoint.setProperty(TEST_SUITE_EXECUTED, String.valueOf(summary.getNumberOfExecutedTestcases()));
+			checkpoint.setProperty(TEST_SUITE_PASSED, String.valueOf(summary.getNumberOfPassedTestcases()));
+			checkpoint.setProperty(TEST_SUITE_FAILED, String.valueOf(summary.getNumberOfFailedTestcases()));
+			checkpoint.setProperty(TEST_SUITE_WARNINGS, String.valueOf(summary.getNumberOfTestcasesWithWarnings()));
+			if (testCases != null) {
+				checkpoint.setProperty(TEST_CASES_FILE, testCases.file.getFileName().toString());
+				checkpoint.setProperty(TEST_CASES_LENGTH, String.valueOf(testCases.length));
+			}
+		}
+		var checkpointFile = journalDirectory.toPath().resolve(CHECKPOINT_FILE);
+		var temporaryFile = journalDirectory.toPath().resolve(CHECKPOINT_FILE + ".tmp");
+		try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+			checkpoint.store(out, "TaSK report journal");
+		}
+		try {
+			Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @return the writer of the index, which is created on first use.
+	 */
+	private ReportIndexWriter index() throws IOException {
+		if (index == null) {
+			index = new ReportIndexWriter(journalFile(ReportIndex.INDEX_DIRECTORY_NAME));
+		}
+		return index;
+	}
+
+	/**
+	 * Index the test cases contained in the report of a test suite, if the index is enabled.
+	 */
+	private void indexTestCases(final TestSuiteReport testSuiteReport) throws IOException {
+		if (!indexed) {
+			return;
+		}
+		for (var testCaseReport : testSuiteReport.getTestCaseReports()) {
+			index().addTestCase(testSuiteReport.getTestSuiteId(), testCaseReport);
+		}
+	}
+
+	/**
+	 * @return the journal file with the given name, or null to use a temporary file.
+	 */
+	private Path journalFile(final String name) {
+		return journalDirectory != null ? journalDirectory.toPath().resolve(name) : null;
+	}
+
+	private static void deleteDirectory(final Path directory) throws IOException {
+		if (!Files.exists(directory)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (var path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	private static void writeMetadata(final XMLStreamWriter writer, final Report report) throws XMLStreamException {
+		var metadata = new EnumMap<ReportMetadataFields, String>(ReportMetadataFields.class);
+		if (report.listAvailableMetadata() != null) {
+			for (var entry : report.listAvailableMetadata()) {
+				metadata.put(entry.getKey(), entry.getValue());
+			}
+		}
+		writeMetadata(writer, metadata);
+	}
+
+	private static void writeMetadata(final XMLStreamWriter writer, final Map<ReportMetadataFields, String> metadata)
+			throws XMLStreamException {
+		startElement(writer, "Metadata", 1);
+		textElement(writer, "TesterInCharge", metadata.get(ReportMetadataFields.TESTER_IN_CHARGE), 2);
+		textElement(writer, "DateOfReportGeneration", metadata.get(ReportMetadataFields.DATE_OF_REPORT_GENERATION),
+				2);
+		textElement(writer, "ExecutionMachine", metadata.get(ReportMetadataFields.EXECUTION_MACHINE_NAME), 2);
+		textElement(writer, "StartOfExecution", metadata.get(ReportMetadataFields.START_OF_EXECUTION), 2);
+		textElement(writer, "EndOfExecution", metadata.get(ReportMetadataFields.END_OF_EXECUTION), 2);
+		textElement(writer, "ExecutionType", metadata.get(ReportMetadataFields.EXECUTION_TYPE), 2);
+		endElement(writer, 1);
+	}
+
+	private static void writeDutInformation(final XMLStreamWriter writer, final Report report)
+			throws XMLStreamException {
+		var dutInformation = new EnumMap<ReportDutInfoFields, String>(ReportDutInfoFields.class);
+		if (report.listAvailableDutInformation() != null) {
+			for (var entry : report.listAvailableDutInformation()) {
+				dutInformation.put(entry.getKey(), entry.getValue());
+			}
+		}
+		writeDutInformation(writer, dutInformation);
+	}
+
+	private static void writeDutInformation(final XMLStreamWriter writer,
+			final Map<ReportDutInfoFields, String> dutInformation) throws XMLStreamException {
+		startElement(writer, "DUTInformation", 1);
+		textElement(writer, "Title", dutInformation.get(ReportDutInfoFields.TITLE), 2);
+		textElement(writer, "ApplicationType", dutInformation.get(ReportDutInfoFields.APPLICATION_TYPE), 2);
+		textElement(writer, "Version", dutInformation.get(ReportDutInfoFields.VERSION), 2);
+		textElement(writer, "Description", dutInformation.get(ReportDutInfoFields.DESCRIPTION), 2);
+		textElement(writer, "File", dutInformation.get(ReportDutInfoFields.FILE), 2);
+		textElement(writer, "Fingerprint", dutInformation.get(ReportDutInfoFields.FINGERPRINT), 2);
+		endElement(writer, 1);
+	}
+
+	/**
+	 * Write a test suite, whose test cases are the spooled ones followed by the ones contained in its report.
+	 */
+	private static void writeTestSuite(final XMLStreamWriter writer, final OutputStream out,
+			final TestSuiteReport testSuiteReport, final Spool spooledTestCases)
+			throws IOException, XMLStreamException {
+		startTestSuiteElement(writer, testSuiteReport.getTestSuiteId(), testSuiteReport.getSummary(),
+				testSuiteReport.getTestSuiteLogMessages());
+		if (spooledTestCases != null) {
+			spooledTestCases.close();
+			spooledTestCases.copyTo(writer, out);
+		}
+		for (var testCaseReport : testSuiteReport.getTestCaseReports()) {
+			writeTestCase(writer, testCaseReport);
+		}
+		endElement(writer, TEST_SUITE_DEPTH + 1);
+		endElement(writer, TEST_SUITE_DEPTH);
+	}
+
+	/**
+	 * Write the beginning of a test suite up to the start tag of its test cases.
+	 */
+	private static void startTestSuiteElement(final XMLStreamWriter writer, final String testSuiteId,
+			final TestSuiteSummary summary, final List<LogEntry> testSuiteLogMessages) throws XMLStreamException {
+		startElement(writer, "TestSuite", TEST_SUITE_DEPTH);
+		textElement(writer, "TestSuiteIdentifier", testSuiteId, TEST_SUITE_DEPTH + 1);
+
+		startElement(writer, "Summary", TEST_SUITE_DEPTH + 1);
+		textElement(writer, "TotalNoOfTestcases", String.valueOf(summary.getTotalNumberOfTestcases()),
+				TEST_SUITE_DEPTH + 2);
+		textElement(writer, "NoOfExecTestcases", String.valueOf(summary.getNumberOfExecutedTestcases()),
+				TEST_SUITE_DEPTH + 2);
+		textElement(writer, "NoOfPassedTestcases", String.valueOf(summary.getNumberOfPassedTestcases()),
+				TEST_SUITE_DEPTH + 2);
+		textElement(writer, "NoOfFailedTestcases", String.valueOf(summary.getNumberOfFailedTestcases()),
+				TEST_SUITE_DEPTH + 2);
+		textElement(writer, "NoOfTestcasesWithWarnings",
+				String.valueOf(summary.getNumberOfTestcasesWithWarnings()), TEST_SUITE_DEPTH + 2);
+		textElement(writer, "StartTime", XmlReport.zonedDateTimeToTimestamp(summary.getStartTime()),
+				TEST_SUITE_DEPTH + 2);
+		textElement(writer, "EndTime", XmlReport.zonedDateTimeToTimestamp(summary.getEndTime()),
+				TEST_SUITE_DEPTH + 2);
+		endElement(writer, TEST_SUITE_DEPTH + 1);
+
+		writeLogMessages(writer, "TestSuiteMessages", testSuiteLogMessages, TEST_SUITE_DEPTH + 1);
+
+		startElement(writer, "TestCases", TEST_SUITE_DEPTH + 1);
+	}
+
+	private static void writeTestCase(final XMLStreamWriter writer, final TestCaseReport testCaseReport)
+			throws XMLStreamException {
+		startElement(writer, "TestCase", TEST_CASE_DEPTH);
+		textElement(writer, "TestCaseId", testCaseReport.getTestCaseId(), TEST_CASE_DEPTH + 1);
+		textElement(writer, "Description", testCaseReport.getDescription(), TEST_CASE_DEPTH + 1);
+		textElement(writer, "Purpose", testCaseReport.getPurpose(), TEST_CASE_DEPTH + 1);
+		textElement(writer, "Result", testCaseReport.getTestCaseResult().name(), TEST_CASE_DEPTH + 1);
+		textElement(writer, "StartTime", XmlReport.zonedDateTimeToTimestamp(testCaseReport.getStartTime()),
+				TEST_CASE_DEPTH + 1);
+		textElement(writer, "EndTime", XmlReport.zonedDateTimeToTimestamp(testCaseReport.getEndTime()),
+				TEST_CASE_DEPTH + 1);
+		writeLogMessages(writer, "LogMessages", testCaseReport.getLogMessages(), TEST_CASE_DEPTH + 1);
+		endElement(writer, TEST_CASE_DEPTH);
+	}
+
+	private static void writeLogMessages(final XMLStreamWriter writer, final String name,
+			final List<LogEntry> messages, final int depth) throws XMLStreamException {
+		startElement(writer, name, depth);
+		for (var message : messages) {
+			indent(writer, depth + 1);
+			writer.writeStartElement("LogMessage");
+			writer.writeAttribute("LogLevel", BasicLogger.getName(message.getLogLevel()));
+			writer.writeAttribute("Timestamp", XmlReport.epochMillisecondsToTimestamp(message.getTimestamp()));
+			writer.writeCharacters(message.getMsg() != null ? message.getMsg() : "");
+			writer.writeEndElement();
+		}
+		endElement(writer, depth);
+	}
+
+	/**
+	 * Write an element containing text. Like the JAXB marshaller, elements without a value are omitted.
+	 */
+	private static void textElement(final XMLStreamWriter writer, final String name, final String value,
+			final int depth) throws XMLStreamException {
+		if (value == null) {
+			return;
+		}
+		indent(writer, depth);
+		writer.writeStartElement(name);
+		writer.writeCharacters(value);
+		writer.writeEndElement();
+	}
+
+	private static void startElement(final XMLStreamWriter writer, final String name, final int depth)
+			throws XMLStreamException {
+		indent(writer, depth);
+		writer.writeStartElement(name);
+	}
+
+	private static void endElement(final XMLStreamWriter writer, final int depth) throws XMLStreamException {
+		indent(writer, depth);
+		writer.writeEndElement();
+	}
+
+	/**
+	 * Write a line break and the indentation.
+	 */
+	private static void indent(final XMLStreamWriter writer, final int depth) throws XMLStreamException {
+		writer.writeCharacters("\n" + INDENTATION.repeat(depth));
+	}
+
+	private static XMLStreamWriter createWriter(final OutputStream out) throws XMLStreamException {
+		synchronized (OUTPUT_FACTORY) {
+			return OUTPUT_FACTORY.createXMLStreamWriter(out, ENCODING);
+		}
+	}
+
+	/**
+	 * File receiving document fragments: a temporary file, or a file of the journal.
+	 */
+	private static final class Spool {
+		private final Path file;
+		private final FileOutputStream fileOut;
+		private final OutputStream out;
+		private final XMLStreamWriter writer;
+		private boolean closed = false;
+		/**
+		 * Length of the completely written fragments.
+		 */
+		private long length = 0;
+		/**
+		 * Whether a fragment could not be written, so that the spool does not accept further fragments.
+		 */
+		private boolean failed = false;
+
+		/**
+		 * @param journalFile the file of the journal, or null to create a temporary file
+		 */
+		private Spool(final Path journalFile) throws IOException {
+			file = journalFile != null ? journalFile : Files.createTempFile("TaSKReport", ".xml.part");
+			fileOut = new FileOutputStream(file.toFile());
+			out = new BufferedOutputStream(fileOut);
+			try {
+				writer = createWriter(out);
+			} catch (XMLStreamException e) {
+				out.close();
+				throw new IOException("Unable to create XML writer.", e);
+			}
+		}
+
+		/**
+		 * Flush the fragments written so far.
+		 *
+		 * @param sync whether the fragments have to be on the disk, before they are referred to by a checkpoint
+		 */
+		private void commit(final boolean sync) throws IOException, XMLStreamException {
+			writer.flush();
+			out.flush();
+			if (sync) {
+				fileOut.getChannel().force(false);
+			}
+			length = fileOut.getChannel().position();
+		}
+
+		private void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				try {
+					writer.flush();
+					writer.close();
+				} catch (XMLStreamException e) {
+					throw new IOException("Unable to write " + file + ".", e);
+				} finally {
+					out.close();
+				}
+			}
+		}
+
+		/**
+		 * Copy the completely written fragments to the output of the given writer.
+		 */
+		private void copyTo(final XMLStreamWriter target, final OutputStream targetOut)
+				throws IOException, XMLStreamException {
+			// Completes a pending start tag of the target.
+			target.writeCharacters("");
+			target.flush();
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				var targetChannel = Channels.newChannel(targetOut);
+				long copied = 0;
+				while (copied < length) {
+					long bytes = channel.transferTo(copied, length - copied, targetChannel);
+					if (bytes <= 0) {
+						throw new IOException("Unexpected end of file " + file);
+					}
+					copied += bytes;
+				}
+			}
+		}
+
+		private void delete() throws IOException {
+			Files.deleteIfExists(file);
+		}
+	}
+}
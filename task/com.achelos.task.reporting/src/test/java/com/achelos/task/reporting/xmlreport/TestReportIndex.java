@@ -0,0 +1,116 @@
+package com.achelos.task.reporting.xmlreport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.achelos.task.logging.BasicLogger;
+import com.achelos.task.logging.LoggingConnector.LogEntry;
+import com.achelos.task.reporting.datastructures.Report.TestCaseReport;
+import com.achelos.task.reporting.datastructures.Report.TestCaseResult;
+
+class TestReportIndex {
+
+	private static final String[] MESSAGES = {
+		"ClientHello.cipher_suites=00 9e",
+		"Tab\tseparated\tvalues",
+		"Line\nbreaks\r\nwithin a message",
+		"Backslashes \\ \\\\ \\t \\n and a trailing backslash \\",
+		"Umlauts äöü and € move the positions of the following lines"
+	};
+
+	@TempDir
+	Path reportDirectory;
+
+	@Test
+	void testEscapeAndSplitRoundTrip() {
+		String[] fields = {"", "\t", "\\", "\\t", "a\\", "\n\r", "plain", "\\\\\t\\n"};
+		var line = new StringBuilder();
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				line.append(ReportIndex.SEPARATOR);
+			}
+			line.append(ReportIndex.escape(fields[i]));
+		}
+		assertTrue(line.indexOf("\n") < 0 && line.indexOf("\r") < 0);
+		assertArrayEquals(fields, ReportIndex.split(line.toString(), fields.length));
+		assertEquals("", ReportIndex.escape(null));
+	}
+
+	@Test
+	void testSplitRejectsWrongNumberOfFields() {
+		assertThrows(IllegalArgumentException.class, () -> ReportIndex.split("a\tb", 3));
+		assertThrows(IllegalArgumentException.class, () -> ReportIndex.split("a\tb\tc\td", 3));
+	}
+
+	@Test
+	void testReadLogMessagesAtTheEdges() throws IOException {
+		writeIndex();
+		var directory = reportDirectory.toFile();
+		assertTrue(ReportIndex.exists(directory));
+		List<ReportIndex.TestCase> testCases = ReportIndex.readTestCases(directory);
+		assertEquals(2, testCases.size());
+		var first = testCases.get(0);
+		var second = testCases.get(1);
+		assertEquals("TLS\tA", first.getTestSuiteId());
+		assertEquals("TLS_A_1", first.getTestCaseId());
+		assertNull(first.getStartTime());
+		assertEquals(2, first.getNumberOfLogMessages());
+		assertEquals("TLS_B", second.getTestSuiteId());
+		assertEquals("PASSED", second.getResult());
+		assertEquals(Duration.ofSeconds(5), second.getDuration());
+		assertEquals(3, second.getNumberOfLogMessages());
+
+		assertMessages(ReportIndex.readLogMessages(directory, first, 0, 100), 0, 2);
+		assertMessages(ReportIndex.readLogMessages(directory, first, 1, 1), 1, 1);
+		assertMessages(ReportIndex.readLogMessages(directory, second, 0, 3), 2, 3);
+		assertMessages(ReportIndex.readLogMessages(directory, second, 2, 10), 4, 1);
+		assertMessages(ReportIndex.readLogMessages(directory, second, 1, 1), 3, 1);
+		assertTrue(ReportIndex.readLogMessages(directory, second, 3, 1).isEmpty());
+		assertTrue(ReportIndex.readLogMessages(directory, second, 0, 0).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> ReportIndex.readLogMessages(directory, second, -1, 1));
+	}
+
+	private static void assertMessages(final List<ReportIndex.LogMessage> messages, final int firstIndex,
+			final int count) {
+		assertEquals(count, messages.size());
+		for (int i = 0; i < count; i++) {
+			assertEquals(MESSAGES[firstIndex + i], messages.get(i).getMessage());
+			assertEquals(firstIndex + i, messages.get(i).getTimestamp());
+			assertEquals("INFO", messages.get(i).getLogLevel());
+		}
+	}
+
+	/**
+	 * Write an index with two test cases, the first one with the first two messages, the second one with the others.
+	 */
+	private void writeIndex() throws IOException {
+		var writer = new ReportIndexWriter(reportDirectory.resolve("journal"));
+		writer.addTestCase("TLS\tA", testCase("TLS_A_1", null, 0, 2));
+		writer.addPendingTestCase(testCase("TLS_B_1", ZonedDateTime.parse("2024-01-01T10:00:00Z"), 2, 3));
+		writer.finishTestSuite("TLS_B");
+		writer.moveTo(reportDirectory.toFile());
+	}
+
+	private static TestCaseReport testCase(final String testCaseId, final ZonedDateTime startTime,
+			final int firstMessage, final int numberOfMessages) {
+		var messages = new ArrayList<LogEntry>();
+		for (int i = firstMessage; i < firstMessage + numberOfMessages; i++) {
+			messages.add(new LogEntry(i, BasicLogger.INFO, MESSAGES[i], null));
+		}
+		return new TestCaseReport(testCaseId, "", "", TestCaseResult.PASSED, startTime,
+				startTime != null ? startTime.plusSeconds(5) : null, messages);
+	}
+}
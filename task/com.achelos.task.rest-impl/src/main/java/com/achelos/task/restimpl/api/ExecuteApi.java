@@ -14,8 +14,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -38,7 +40,9 @@ public class ExecuteApi {
     @Produces({"application/json"})
     @Operation(summary = "Execute a Testrun of the TaSK Framework using a MICS file.",
             description = "Execute the TaSK Framework with the provided MICS file. "
-            		+ "The information regarding the MICS of the Device under Test and related information has to be provided in the request body.",
+            		+ "The information regarding the MICS of the Device under Test and related information has to be provided in the request body. "
+            		+ "A MICS file, which is not well-formed or does not define the RMI URL of the DUT, is rejected. "
+            		+ "The MICS file is validated against its schema when the execution starts; the execution of an invalid MICS file is aborted.",
             tags = {"Start Execution"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Accepted", content = @Content(schema = @Schema(implementation = RunId.class))),
@@ -47,7 +51,7 @@ public class ExecuteApi {
             @ApiResponse(responseCode = "503", description = "Service Unavailable", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
 	public Response executeFromMICS(
-			@Parameter(description = "The MICS file itself.", required = true) @FormDataParam("micsFile") File micsFile,
+			@Parameter(description = "The MICS file itself.", required = true, schema = @Schema(implementation = File.class)) @FormDataParam("micsFile") InputStream micsFile,
 			@Parameter(
 					array = @ArraySchema(schema = @Schema(implementation = File.class)),
 					description = "The certificate chain of the server under test, from which the fingerprints are specified in the MICS file.") @FormDataParam("serverCertificateChain") List<
@@ -58,11 +62,12 @@ public class ExecuteApi {
 					array = @ArraySchema(schema = @Schema(implementation = File.class)),
 					description = "The certificate chain a test client should use to verify client authentication.") @FormDataParam("clientAuthCertificateChain") List<
 					FormDataBodyPart> clientAuthCertificateChain,
-			@Parameter(description = "The private key a test client should use to verify client authentication.") @FormDataParam("clientAuthKey") File clientAuthKey,
-			@Parameter(description = "PEM encoded Root CA Certificate which shall be used as the trust anchor for the client authentication mechanism of the TaSK Framework test server.") @FormDataParam("certificateValidationCA") File certificateValidationCA) {
+			@Parameter(description = "The private key a test client should use to verify client authentication.", schema = @Schema(implementation = File.class)) @FormDataParam("clientAuthKey") InputStream clientAuthKey,
+			@Parameter(description = "PEM encoded Root CA Certificate which shall be used as the trust anchor for the client authentication mechanism of the TaSK Framework test server.", schema = @Schema(implementation = File.class)) @FormDataParam("certificateValidationCA") InputStream certificateValidationCA,
+			@Parameter(description = "The priority of the execution. Queued executions with a higher priority are started first. Default is 0.") @FormDataParam("priority") Integer priority) {
 		try {
             Response.ResponseBuilder response;
-            if (micsFile == null || !micsFile.exists()) {
+            if (micsFile == null) {
                 response = Response.serverError();
                 response.status(Response.Status.fromStatusCode(400));
                 response.type(MediaType.APPLICATION_JSON_TYPE);
@@ -86,19 +91,31 @@ public class ExecuteApi {
                 }
                 TaskRequestEntry taskRequestEntry;
                 try {
-                    taskRequestEntry = new TaskRequestEntry(requestUuid, micsFile, serverCertChainList, ignoreMicsFlag, onlyGenerateTrpFlag, clientAuthCertificateChainList, clientAuthKey, certificateValidationCA);
+                    taskRequestEntry = new TaskRequestEntry(requestUuid, TesttoolRequestResource.getUploadStore(), micsFile, serverCertChainList, ignoreMicsFlag, onlyGenerateTrpFlag, clientAuthCertificateChainList, clientAuthKey, certificateValidationCA);
                 } catch (Exception e) {
                     response = Response.serverError();
                     response.status(Response.Status.fromStatusCode(400));
                     response.type(MediaType.APPLICATION_JSON_TYPE);
-                    var errorResponse = generateErrorResponse("400", "Bad Request: Received MICS could not be parsed: " + e.getMessage(), "mics");
+                    var errorResponse = generateErrorResponse("400", "Bad Request: Received MICS could not be stored: " + e.getMessage(), "mics");
                     response.entity(errorResponse);
                     return response.build();
                 }
-                var queuingResult = TesttoolRequestResource.queueExecution(taskRequestEntry);
+                try {
+                    taskRequestEntry.checkPlausibility();
+                } catch (IllegalArgumentException e) {
+                    taskRequestEntry.deleteFiles();
+                    response = Response.serverError();
+                    response.status(Response.Status.fromStatusCode(400));
+                    response.type(MediaType.APPLICATION_JSON_TYPE);
+                    var errorResponse = generateErrorResponse("400", "Bad Request: " + e.getMessage(), "mics");
+                    response.entity(errorResponse);
+                    return response.build();
+                }
+                var queuingResult = TesttoolRequestResource.queueExecution(taskRequestEntry, priority != null ? priority : 0);
                 if (queuingResult) {
                     response = Response.accepted(new RunId(requestUuid.toString()));
                 } else {
+                    taskRequestEntry.deleteFiles();
                     response = Response.serverError();
                     response.status(Response.Status.fromStatusCode(503));
                     response.type(MediaType.APPLICATION_JSON_TYPE);
@@ -121,7 +138,9 @@ public class ExecuteApi {
     @Produces({"application/json"})
     @Operation(summary = "Execute a Testrun of the TaSK Framework from a given Test Runplan.",
             description = "Execute a Testrun of the TaSK Framework with the provided Test Runplan file. "
-            		+ "The information regarding the TestRunplan of the Device under Test and related information has to be provided in the request body.",
+            		+ "The information regarding the TestRunplan of the Device under Test and related information has to be provided in the request body. "
+            		+ "A TestRunplan, which is not well-formed or does not define the RMI URL of the DUT, is rejected. "
+            		+ "The TestRunplan is validated against its schema when the execution starts; the execution of an invalid TestRunplan is aborted.",
             tags = {"Start Execution"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Accepted", content = @Content(schema = @Schema(implementation = RunId.class))),
@@ -132,19 +151,20 @@ public class ExecuteApi {
     	
 
 	public Response executeFromRunplan(
-			@Parameter(description = "The TestRunplan file itself.", required = true) @FormDataParam("testRunPlanFile") File testRunPlanFile,
+			@Parameter(description = "The TestRunplan file itself.", required = true, schema = @Schema(implementation = File.class)) @FormDataParam("testRunPlanFile") InputStream testRunPlanFile,
 			@Parameter(
                     array = @ArraySchema(schema = @Schema(implementation = File.class)),
 					description = "The certificate chain a test client should use to verify client authentication.") @FormDataParam("clientAuthCertificateChain") List<
 							InputStream> clientAuthCertificateChain,
 			@Parameter(
-					description = "The private key a test client should use to verify client authentication.") @FormDataParam("clientAuthKey") File clientAuthKey,
+					description = "The private key a test client should use to verify client authentication.", schema = @Schema(implementation = File.class)) @FormDataParam("clientAuthKey") InputStream clientAuthKey,
 			@Parameter(
-					description = "PEM encoded Root CA Certificate which shall be used as the trust anchor for the client authentication mechanism of the TaSK Framework test server.") @FormDataParam("certificateValidationCA") File certificateValidationCA) {
+					description = "PEM encoded Root CA Certificate which shall be used as the trust anchor for the client authentication mechanism of the TaSK Framework test server.", schema = @Schema(implementation = File.class)) @FormDataParam("certificateValidationCA") InputStream certificateValidationCA,
+			@Parameter(description = "The priority of the execution. Queued executions with a higher priority are started first. Default is 0.") @FormDataParam("priority") Integer priority) {
 
         try {
             Response.ResponseBuilder response;
-            if (testRunPlanFile == null || !testRunPlanFile.exists()) {
+            if (testRunPlanFile == null) {
                 response = Response.serverError();
                 response.status(Response.Status.fromStatusCode(400));
                 response.type(MediaType.APPLICATION_JSON_TYPE);
@@ -154,19 +174,31 @@ public class ExecuteApi {
                 var requestUuid = UUID.randomUUID();
                 TaskRequestEntry taskRequestEntry;
                 try {
-                    taskRequestEntry = new TaskRequestEntry(requestUuid, testRunPlanFile, clientAuthCertificateChain, clientAuthKey, certificateValidationCA);
+                    taskRequestEntry = new TaskRequestEntry(requestUuid, TesttoolRequestResource.getUploadStore(), testRunPlanFile, clientAuthCertificateChain, clientAuthKey, certificateValidationCA);
                 } catch (Exception e) {
                     response = Response.serverError();
                     response.status(Response.Status.fromStatusCode(400));
                     response.type(MediaType.APPLICATION_JSON_TYPE);
-                    var errorResponse = generateErrorResponse("400", "Bad Request: Received TestRunplan could not be parsed: " + e.getMessage(), "trp");
+                    var errorResponse = generateErrorResponse("400", "Bad Request: Received TestRunplan could not be stored: " + e.getMessage(), "trp");
+                    response.entity(errorResponse);
+                    return response.build();
+                }
+                try {
+                    taskRequestEntry.checkPlausibility();
+                } catch (IllegalArgumentException e) {
+                    taskRequestEntry.deleteFiles();
+                    response = Response.serverError();
+                    response.status(Response.Status.fromStatusCode(400));
+                    response.type(MediaType.APPLICATION_JSON_TYPE);
+                    var errorResponse = generateErrorResponse("400", "Bad Request: " + e.getMessage(), "trp");
                     response.entity(errorResponse);
                     return response.build();
                 }
-                var queuingResult = TesttoolRequestResource.queueExecution(taskRequestEntry);
+                var queuingResult = TesttoolRequestResource.queueExecution(taskRequestEntry, priority != null ? priority : 0);
                 if (queuingResult) {
                     response = Response.accepted(new RunId(requestUuid.toString()));
                 } else {
+                    taskRequestEntry.deleteFiles();
                     response = Response.serverError();
                     response.status(Response.Status.fromStatusCode(503));
                     response.type(MediaType.APPLICATION_JSON_TYPE);
@@ -183,6 +215,61 @@ public class ExecuteApi {
         }
     }
 
+    @DELETE
+    @Path("/{runId}")
+    @Produces({"application/json"})
+    @Operation(summary = "Cancel a scheduled Testrun of the TaSK Framework.",
+            description = "Cancel the Testrun specified by the provided run identifier, if its execution has not been started yet.",
+            tags = {"Start Execution"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cancelled", content = @Content(schema = @Schema(implementation = RunId.class))),
+            @ApiResponse(responseCode = "400", description = "RunId invalid.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "RunId not known.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Execution already started.", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response cancelExecution(@PathParam("runId") @Parameter(example = "a4b4d23234b23ef23a",
+            description = "Identifier of a Testrun/Test Suite Execution.") String runId) {
+        try {
+            Response.ResponseBuilder response;
+            UUID runUuid;
+            try {
+                runUuid = UUID.fromString(runId);
+            } catch (Exception e) {
+                response = Response.serverError();
+                response.status(Response.Status.BAD_REQUEST);
+                response.type(MediaType.APPLICATION_JSON_TYPE);
+                response.entity(generateErrorResponse("400", "Bad Request: Illegal RunId: " + runId, runId));
+                return response.build();
+            }
+            var status = TesttoolRequestResource.cancelExecution(runUuid);
+            switch (status) {
+                case CANCELLED:
+                    response = Response.ok().entity(new RunId(runUuid.toString()));
+                    break;
+                case UNKNOWN:
+                    response = Response.serverError();
+                    response.status(Response.Status.NOT_FOUND);
+                    response.type(MediaType.APPLICATION_JSON_TYPE);
+                    response.entity(generateErrorResponse("404", "Unknown RunId: " + runId, runId));
+                    break;
+                default:
+                    response = Response.serverError();
+                    response.status(Response.Status.CONFLICT);
+                    response.type(MediaType.APPLICATION_JSON_TYPE);
+                    response.entity(generateErrorResponse("409", "Conflict: Execution of RunId " + runId
+                            + " has already been started.", runId));
+                    break;
+            }
+            return response.build();
+        } catch (Exception e) {
+            var errorResponse = generateErrorResponse("500", "Internal Server Error: " + e.getMessage(), runId);
+            var response = Response.serverError().entity(errorResponse);
+            response.type(MediaType.APPLICATION_JSON_TYPE);
+            return response.build();
+        }
+    }
+
     private ErrorResponse generateErrorResponse(final String statusCode, final String errorMessage, final String subPath) {
         return new ErrorResponse(DateTimeUtils.getISOFormattedTimeStamp(), statusCode, errorMessage, "/execute/" + subPath);
     }
@@ -0,0 +1,118 @@
+package com.achelos.task.restimpl.api;
+
+import com.achelos.task.restimpl.models.ErrorResponse;
+import com.achelos.task.restimpl.server.TesttoolRequestResource;
+import com.achelos.task.utilities.DateTimeUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Path("/log/{runId}")
+@Tag(name = "Get Log", description = "Follow the log of a test execution.")
+public class LogApi {
+
+    private static final String NDJSON = "application/x-ndjson";
+    /**
+     * Interval of the keep-alive lines sent on an idle log stream, which detect closed connections.
+     */
+    private static final long KEEP_ALIVE_MILLIS = 15000;
+    /**
+     * Line sent on an idle log stream, which is valid JSON like the other lines.
+     */
+    private static final String KEEP_ALIVE_LINE = "{\"keepalive\":true}";
+    /**
+     * Time to wait for the last lines of a finished run, which are still passed through the logging pipeline.
+     */
+    private static final long DRAIN_MILLIS = 1000;
+
+    @GET
+    @Produces({ NDJSON, MediaType.APPLICATION_JSON })
+    @Operation(summary = "Follow the log of a test suite execution.", description = "Stream the log of the scheduled or running test suite execution specified by the provided run identifier as newline delimited JSON. "
+            + "Each line is either a log entry with \"timestamp\", \"level\" and \"message\", or a test case transition with \"timestamp\", \"topic\" and \"value\". "
+            + "The stream starts with the latest lines logged so far and ends when the execution has ended. "
+            + "If the client reads slower than the execution logs, the oldest lines are dropped and a line with their number in \"dropped\" is sent. "
+            + "While no lines are logged, a line with \"keepalive\" set to true is sent every " + KEEP_ALIVE_MILLIS / 1000 + " seconds.", tags={ "Get Log" })
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = NDJSON, schema = @Schema(implementation = String.class))),
+        @ApiResponse(responseCode = "400", description = "RunId invalid.", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "RunId not known.", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "410", description = "Test execution already ended.", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ErrorResponse.class))) })
+    public Response getLog(@PathParam("runId") @Parameter(example = "a4b4d23234b23ef23a",
+            description = "Identifier of a Testrun/Test Suite Execution.") String runId) {
+        try {
+            UUID runUuid;
+            try {
+                runUuid = UUID.fromString(runId);
+            } catch (Exception e) {
+                var errorResponse = generateErrorResponse("400", "Bad Request: Illegal RunId: " + runId, runId);
+                return Response.status(Response.Status.BAD_REQUEST).type(MediaType.APPLICATION_JSON_TYPE)
+                        .entity(errorResponse).build();
+            }
+            var runLog = TesttoolRequestResource.getRunLog(runUuid);
+            var status = TesttoolRequestResource.getStatus(runUuid);
+            if (status == TesttoolRequestResource.ExecutionStatus.UNKNOWN) {
+                var errorResponse = generateErrorResponse("404", "Unknown RunId: " + runId, runId);
+                return Response.status(Response.Status.NOT_FOUND).type(MediaType.APPLICATION_JSON_TYPE)
+                        .entity(errorResponse).build();
+            }
+            // The jobs of ended runs are removed by the scheduler together with their live log.
+            if (runLog == null || status.isFinal()) {
+                var errorResponse = generateErrorResponse("410", "Test execution already ended for RunID: " + runId
+                        + ". The log is contained in the report.", runId);
+                return Response.status(Response.Status.GONE).type(MediaType.APPLICATION_JSON_TYPE)
+                        .entity(errorResponse).build();
+            }
+            StreamingOutput lines = output -> {
+                var subscription = runLog.subscribe();
+                try {
+                    while (true) {
+                        var ended = TesttoolRequestResource.getStatus(runUuid).isFinal();
+                        var pending = subscription.poll(ended ? DRAIN_MILLIS : KEEP_ALIVE_MILLIS);
+                        if (pending.isEmpty() && ended) {
+                            break;
+                        }
+                        var chunk = new StringBuilder();
+                        for (var line : pending) {
+                            chunk.append(line).append('\n');
+                        }
+                        if (pending.isEmpty()) {
+                            // Fails with an IOException once the client has closed the connection.
+                            chunk.append(KEEP_ALIVE_LINE).append('\n');
+                        }
+                        output.write(chunk.toString().getBytes(StandardCharsets.UTF_8));
+                        output.flush();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    runLog.unsubscribe(subscription);
+                }
+            };
+            return Response.ok(lines, NDJSON).header("Cache-Control", "no-cache").build();
+        } catch (Exception e) {
+            var errorResponse = generateErrorResponse("500", "Internal Server Error: " + e.getMessage(), runId);
+            var response = Response.serverError().entity(errorResponse);
+            response.type(MediaType.APPLICATION_JSON_TYPE);
+            return response.build();
+        }
+    }
+
+    private ErrorResponse generateErrorResponse(final String statusCode, final String errorMessage, final String runId) {
+        return new ErrorResponse(DateTimeUtils.getISOFormattedTimeStamp(), statusCode, errorMessage, "/log/" + runId);
+    }
+}
@@ -1,11 +1,15 @@
 package com.achelos.task.restimpl.api;
 
 import com.achelos.task.reporting.pdfreport.PdfReport;
+import com.achelos.task.reporting.xmlreport.ReportIndex;
 import com.achelos.task.reporting.xmlreport.XmlReport;
 import com.achelos.task.restimpl.models.ErrorResponse;
+import com.achelos.task.restimpl.models.LogMessageEntry;
+import com.achelos.task.restimpl.models.LogMessagePage;
+import com.achelos.task.restimpl.models.TestCaseEntry;
+import com.achelos.task.restimpl.models.TestCasePage;
 import com.achelos.task.restimpl.server.TesttoolRequestResource;
 import com.achelos.task.utilities.DateTimeUtils;
-import com.achelos.task.utilities.FileUtils;
 
 import generated.jaxb.testrunplan.TestRunPlan;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,24 +21,33 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.io.IOException;
 import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.UUID;
 
 @Path("/result/{runId}")
 @Tag(name = "Get Results", description = "Get the result of a test execution.")
 public class ResultApi {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @GET
     @Path("/pdf")
     @Produces({ "application/pdf", MediaType.APPLICATION_JSON})
@@ -61,7 +74,7 @@ public class ResultApi {
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(
             		mediaType = MediaType.APPLICATION_JSON,
             		schema = @Schema(implementation=ErrorResponse.class))) })
-    public Response getReportPdf(@PathParam("runId") @Parameter(description = "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId) {
+    public Response getReportPdf(@PathParam("runId") @Parameter(description = "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId, @Context Request request, @Context HttpHeaders headers) {
         try {
             Response.ResponseBuilder response;
             // Parse runID into UUID.
@@ -83,10 +96,19 @@ public class ResultApi {
                 var resultPath = TesttoolRequestResource.getResultPathString(runUuid);
                 if (!resultPath.isBlank()) {
                     var report_pdf_file = Paths.get(resultPath, "/Report.pdf").toFile();
+                    var report_xml_file = Paths.get(resultPath, "/Report.xml").toFile();
+                    var pdfReportRenderer = TesttoolRequestResource.getPdfReportRenderer();
+                    if (pdfReportRenderer != null && report_xml_file.isFile()) {
+                        // Rendered on the first request, or awaited while rendered in the background.
+                        try {
+                            report_pdf_file = pdfReportRenderer.getPdfReport(report_xml_file);
+                        } catch (IOException e) {
+                            // Reported as unavailable below.
+                        }
+                    }
                     if (report_pdf_file.exists() && !report_pdf_file.isDirectory()) {
-                        var report_pdf = Files.readAllBytes(report_pdf_file.toPath());
-                        response = Response.ok(report_pdf);
-                        response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + "TestReport_" + runId + ".pdf");
+                        response = ResultFileResponses.file(report_pdf_file, "application/pdf",
+                                "TestReport_" + runId + ".pdf", false, request, headers);
                     } else {
                         response = Response.serverError();
                         response.type(MediaType.APPLICATION_JSON_TYPE);
@@ -152,7 +174,7 @@ public class ResultApi {
         @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(
         		mediaType = MediaType.APPLICATION_JSON,
         		schema = @Schema(implementation=ErrorResponse.class))) })
-    public Response getReportXml(@PathParam("runId") @Parameter(description = "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId) {
+    public Response getReportXml(@PathParam("runId") @Parameter(description = "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId, @Context Request request, @Context HttpHeaders headers) {
         try {
             Response.ResponseBuilder response;
             // Parse runID into UUID.
@@ -175,9 +197,8 @@ public class ResultApi {
                 if (!resultPath.isBlank()) {
                     var report_xml_file = Paths.get(resultPath, "/Report.xml").toFile();
                     if (report_xml_file.exists() && !report_xml_file.isDirectory()) {
-                        var report_xml = Files.readString(Paths.get(resultPath, "Report.xml"), StandardCharsets.UTF_8);
-                        response = Response.ok(report_xml);
-                        response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + "TestReport_" + runId + ".xml");
+                        response = ResultFileResponses.file(report_xml_file, MediaType.APPLICATION_XML,
+                                "TestReport_" + runId + ".xml", true, request, headers);
                     } else {
                         response = Response.serverError();
                         response.type(MediaType.APPLICATION_JSON_TYPE);
@@ -239,7 +260,7 @@ public class ResultApi {
         @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(
         		mediaType = MediaType.APPLICATION_JSON,
         		schema = @Schema(implementation=ErrorResponse.class))) })
-    public Response getTestRunPlan(@PathParam("runId") @Parameter(description = "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId) {
+    public Response getTestRunPlan(@PathParam("runId") @Parameter(description = "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId, @Context Request request, @Context HttpHeaders headers) {
         try {
             Response.ResponseBuilder response;
             // Parse runID into UUID.
@@ -263,10 +284,8 @@ public class ResultApi {
                 if (!resultPath.isBlank()) {
                     var report_xml_file = Paths.get(resultPath, "/TestRunPlan.xml").toFile();
                     if (report_xml_file.exists() && !report_xml_file.isDirectory()) {
-                        var report_xml = Files.readString(Paths.get(resultPath, "TestRunPlan.xml"), StandardCharsets.UTF_8);
-                        response = Response.ok(report_xml);
-                        response.type(MediaType.APPLICATION_XML_TYPE);
-                        response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + "TestRunPlan_" + runId + ".xml");
+                        response = ResultFileResponses.file(report_xml_file, MediaType.APPLICATION_XML,
+                                "TestRunPlan_" + runId + ".xml", true, request, headers);
                     } else {
                         response = Response.serverError();
                         response.type(MediaType.APPLICATION_JSON_TYPE);
@@ -330,7 +349,7 @@ public class ResultApi {
         				schema = @Schema(implementation=ErrorResponse.class))),
             @ApiResponse(responseCode = "424", description = "Test execution not finished.", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation=ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation= ErrorResponse.class))) })
-    public Response getResult(@PathParam("runId") @Parameter(description =  "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId) {
+    public Response getResult(@PathParam("runId") @Parameter(description =  "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId, @Context Request request) {
         try {
             Response.ResponseBuilder response;
             // Parse runID into UUID.
@@ -351,18 +370,12 @@ public class ResultApi {
             if (status == TesttoolRequestResource.ExecutionStatus.FINISHED) {
                 var resultPath = TesttoolRequestResource.getResultPathString(runUuid);
                 if (!resultPath.isBlank()) {
-                    var zipFile = getZippedReportFolder(resultPath);
-                    if (!zipFile.isBlank()) {
-                        var report_folder_zip = Files.readAllBytes(Paths.get(zipFile));
-                        response = Response.ok(report_folder_zip);
-                        response.type(MediaType.APPLICATION_OCTET_STREAM_TYPE);
-                        response.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + "TestReport_" + runId + ".zip");
-                    } else {
-                        response = Response.serverError();
-                        response.type(MediaType.APPLICATION_JSON_TYPE);
-                        var errorResponse = generateErrorResponse("500", "Error creating report archive for run Id " + runId, runId);
-                        response.entity(errorResponse);
+                    var pdfReportRenderer = TesttoolRequestResource.getPdfReportRenderer();
+                    if (pdfReportRenderer != null) {
+                        // Do not pack a PDF report which is still rendered in the background.
+                        pdfReportRenderer.awaitPendingRendering(Paths.get(resultPath, "/Report.xml").toFile());
                     }
+                    response = ResultFileResponses.zipDirectory(new File(resultPath), "TestReport_" + runId + ".zip", request);
                 } else {
                     response = Response.serverError();
                     response.status(Response.Status.NOT_FOUND);
@@ -394,28 +407,202 @@ public class ResultApi {
         }
     }
 
-    private String getZippedReportFolder(String resultPath) {
-        if (resultPath.isBlank()) {
-            return "";
+    @GET
+    @Path("/testcases")
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "List the test cases of a test suite execution.", description = "List the test cases of the finished test suite execution specified by the run identifier "
+            + "with their verdict and duration, in the order of the XML report. The test cases are read from the index written alongside the XML report.", tags={ "Get Results" })
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = TestCasePage.class))),
+        @ApiResponse(responseCode = "400", description = "RunId, offset or limit invalid.", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "TestrunId not known or report index unavailable.", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "424", description = "Test execution not finished.", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ErrorResponse.class))) })
+    public Response getTestCases(@PathParam("runId") @Parameter(description = "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId,
+            @QueryParam("offset") @DefaultValue("0") @Parameter(description = "Number of test cases to skip.") int offset,
+            @QueryParam("limit") @DefaultValue("" + DEFAULT_PAGE_SIZE) @Parameter(description = "Maximum number of test cases to return, at most " + MAX_PAGE_SIZE + ".") int limit) {
+        var subPath = runId + "/testcases";
+        try {
+            var errorResponse = checkPage(offset, limit, subPath);
+            if (errorResponse != null) {
+                return errorResponse;
+            }
+            var indexedReport = lookUpIndexedReport(runId, subPath);
+            if (indexedReport.errorResponse != null) {
+                return indexedReport.errorResponse;
+            }
+            var testCases = ReportIndex.readTestCases(indexedReport.reportDirectory);
+            var entries = new ArrayList<TestCaseEntry>();
+            var first = Math.min(offset, testCases.size());
+            for (var testCase : testCases.subList(first, first + Math.min(limit, testCases.size() - first))) {
+                var duration = testCase.getDuration();
+                entries.add(new TestCaseEntry(testCase.getTestSuiteId(), testCase.getTestCaseId(), testCase.getResult(),
+                        formatTime(testCase.getStartTime()), formatTime(testCase.getEndTime()),
+                        duration != null ? duration.toMillis() : null, testCase.getNumberOfLogMessages()));
+            }
+            return Response.ok(new TestCasePage(testCases.size(), offset, limit, entries), MediaType.APPLICATION_JSON_TYPE).build();
+        } catch (Exception e) {
+            var errorResponse = generateErrorResponse("500", "Internal Server Error: " + e.getMessage(), subPath);
+            var response = Response.serverError().entity(errorResponse);
+            response.type(MediaType.APPLICATION_JSON_TYPE);
+            return response.build();
         }
-        var resultPathFile = new File(resultPath);
-        if (!resultPathFile.exists() || !resultPathFile.isDirectory()) {
-            return "";
+    }
+
+    @GET
+    @Path("/testcases/{testCaseId}/log")
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Retrieve the log messages of a test case.", description = "Retrieve a page of the log messages of a test case of the finished test suite execution specified by the run identifier. "
+            + "The log messages are read from the index written alongside the XML report.", tags={ "Get Results" })
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = LogMessagePage.class))),
+        @ApiResponse(responseCode = "400", description = "RunId, offset or limit invalid.", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "TestrunId or test case not known, or report index unavailable.", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "424", description = "Test execution not finished.", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ErrorResponse.class))) })
+    public Response getTestCaseLog(@PathParam("runId") @Parameter(description = "Identifier of a Testrun/Test Suite Execution.", example = "a4c6ffd34448adef23") String runId,
+            @PathParam("testCaseId") @Parameter(description = "Identifier of a test case of the execution.", example = "TLS_A_1") String testCaseId,
+            @QueryParam("testSuiteId") @Parameter(description = "Identifier of the test suite containing the test case. Required only if the test case is contained in several test suites.") String testSuiteId,
+            @QueryParam("offset") @DefaultValue("0") @Parameter(description = "Number of log messages to skip.") int offset,
+            @QueryParam("limit") @DefaultValue("" + DEFAULT_PAGE_SIZE) @Parameter(description = "Maximum number of log messages to return, at most " + MAX_PAGE_SIZE + ".") int limit) {
+        var subPath = runId + "/testcases/" + testCaseId + "/log";
+        try {
+            var errorResponse = checkPage(offset, limit, subPath);
+            if (errorResponse != null) {
+                return errorResponse;
+            }
+            var indexedReport = lookUpIndexedReport(runId, subPath);
+            if (indexedReport.errorResponse != null) {
+                return indexedReport.errorResponse;
+            }
+            ReportIndex.TestCase testCase = null;
+            for (var candidate : ReportIndex.readTestCases(indexedReport.reportDirectory)) {
+                if (candidate.getTestCaseId().equals(testCaseId)
+                        && (testSuiteId == null || candidate.getTestSuiteId().equals(testSuiteId))) {
+                    testCase = candidate;
+                    break;
+                }
+            }
+            if (testCase == null) {
+                var response = Response.serverError();
+                response.status(Response.Status.NOT_FOUND);
+                response.type(MediaType.APPLICATION_JSON_TYPE);
+                response.entity(generateErrorResponse("404", "Unknown test case: " + testCaseId, subPath));
+                return response.build();
+            }
+            var messages = new ArrayList<LogMessageEntry>();
+            for (var message : ReportIndex.readLogMessages(indexedReport.reportDirectory, testCase, offset, limit)) {
+                messages.add(new LogMessageEntry(Instant.ofEpochMilli(message.getTimestamp()).toString(),
+                        message.getLogLevel(), message.getMessage()));
+            }
+            return Response.ok(new LogMessagePage(testCaseId, testCase.getNumberOfLogMessages(), offset, limit, messages),
+                    MediaType.APPLICATION_JSON_TYPE).build();
+        } catch (Exception e) {
+            var errorResponse = generateErrorResponse("500", "Internal Server Error: " + e.getMessage(), subPath);
+            var response = Response.serverError().entity(errorResponse);
+            response.type(MediaType.APPLICATION_JSON_TYPE);
+            return response.build();
         }
-        var resultZipFile = resultPathFile.toPath().resolve("report.zip").toFile();
-        if (resultZipFile.exists()) {
-            return resultZipFile.getAbsolutePath();
-        } else {
-            try {
-                FileUtils.zipFolder(resultPathFile, resultZipFile.getAbsoluteFile());
-                return resultZipFile.getAbsolutePath();
-            } catch (Exception e) {
-                return "";
+    }
+
+    /**
+     * @return an error response if the offset or the limit of a page is invalid, otherwise null.
+     */
+    private Response checkPage(final int offset, final int limit, final String subPath) {
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            var response = Response.serverError();
+            response.status(Response.Status.BAD_REQUEST);
+            response.type(MediaType.APPLICATION_JSON_TYPE);
+            response.entity(generateErrorResponse("400", "Bad Request: The offset must not be negative and the limit must be between 1 and "
+                    + MAX_PAGE_SIZE + ".", subPath));
+            return response.build();
+        }
+        return null;
+    }
+
+    /**
+     * Look up the report directory of a finished execution, which contains a report index.
+     *
+     * @return the report directory, or an error response if the execution is not finished or its report index is
+     *         unavailable.
+     */
+    private IndexedReport lookUpIndexedReport(final String runId, final String subPath) {
+        var response = Response.serverError();
+        response.type(MediaType.APPLICATION_JSON_TYPE);
+        UUID runUuid;
+        try {
+            runUuid = UUID.fromString(runId);
+        } catch (Exception e) {
+            response.status(Response.Status.BAD_REQUEST);
+            response.entity(generateErrorResponse("400", "Bad Request: Illegal RunId: " + runId, runId));
+            return new IndexedReport(null, response.build());
+        }
+        var status = TesttoolRequestResource.getStatus(runUuid);
+        if (status == TesttoolRequestResource.ExecutionStatus.FINISHED) {
+            var resultPath = TesttoolRequestResource.getResultPathString(runUuid);
+            if (resultPath.isBlank()) {
+                response.status(Response.Status.NOT_FOUND);
+                response.entity(generateErrorResponse("404", "Unknown RunId: " + runId, subPath));
+                return new IndexedReport(null, response.build());
+            }
+            var reportDirectory = new File(resultPath);
+            if (!ReportIndex.exists(reportDirectory)) {
+                // E.g. the report has been written by a former version, which did not index it.
+                response.status(Response.Status.NOT_FOUND);
+                response.entity(generateErrorResponse("404", "Report index unavailable for RunId: " + runId, subPath));
+                return new IndexedReport(null, response.build());
             }
+            return new IndexedReport(reportDirectory, null);
+        } else if (status == TesttoolRequestResource.ExecutionStatus.SCHEDULED
+                || status == TesttoolRequestResource.ExecutionStatus.RUNNING) {
+            response.status(Response.Status.fromStatusCode(424));
+            response.entity(generateErrorResponse("424", "Test execution not finished for RunID: " + runId, subPath));
+            return new IndexedReport(null, response.build());
+        } else {
+            response.status(Response.Status.NOT_FOUND);
+            response.entity(generateErrorResponse("404", "Unknown RunId: " + runId, subPath));
+            return new IndexedReport(null, response.build());
         }
     }
 
+    private static String formatTime(final ZonedDateTime time) {
+        return time != null ? time.toInstant().toString() : null;
+    }
+
     private ErrorResponse generateErrorResponse(final String statusCode, final String errorMessage, final String subPath) {
         return new ErrorResponse(DateTimeUtils.getISOFormattedTimeStamp(), statusCode, errorMessage, "/result/" + subPath);
     }
+
+    /**
+     * The report directory of a finished execution, or the error response if it is unavailable.
+     */
+    private static final class IndexedReport {
+        private final File reportDirectory;
+        private final Response errorResponse;
+
+        private IndexedReport(final File reportDirectory, final Response errorResponse) {
+            this.reportDirectory = reportDirectory;
+            this.errorResponse = errorResponse;
+        }
+    }
 }
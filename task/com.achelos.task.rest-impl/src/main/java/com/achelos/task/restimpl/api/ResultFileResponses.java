@@ -0,0 +1,235 @@
+package com.achelos.task.restimpl.api;
+
+import com.achelos.task.reporting.xmlreport.ReportIndex;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds the responses of the result files, which are streamed from the result directory instead of being loaded
+ * into memory. Files support conditional requests by their ETag and single byte ranges. Text files are gzip encoded
+ * on the fly, if the client accepts it.
+ * <p>
+ * The JDK HTTP server sends streamed entities with chunked transfer encoding, thus no Content-Length is set.
+ */
+final class ResultFileResponses {
+
+    private static final Pattern BYTE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Archive left in the result directory by former versions, which zipped the directory into it.
+     */
+    private static final String LEGACY_ARCHIVE_NAME = "report.zip";
+
+    /**
+     * Hidden Constructor.
+     */
+    private ResultFileResponses() {
+        // Empty.
+    }
+
+    /**
+     * Build the response for a file.
+     *
+     * @param file the file to send
+     * @param mediaType the media type of the file
+     * @param fileName the file name for the Content-Disposition header
+     * @param compressible true, if the file may be gzip encoded
+     * @param request the request to evaluate the preconditions for
+     * @param headers the headers of the request
+     * @return the response: 200 with the file, 206 with the requested range, 304 if the client has the current
+     *         version, or 416 if the requested range is not satisfiable.
+     */
+    static Response.ResponseBuilder file(final File file, final String mediaType, final String fileName,
+            final boolean compressible, final Request request, final HttpHeaders headers) {
+        final long length = file.length();
+        final var identityTag = new EntityTag(Long.toHexString(length) + "-" + Long.toHexString(file.lastModified()));
+
+        // Select the representation first, so that the preconditions are evaluated against its ETag.
+        long[] byteRange = null;
+        final var range = headers.getHeaderString("Range");
+        final var ifRange = headers.getHeaderString("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(identityTag.toString()))) {
+            byteRange = parseByteRange(range.trim(), length);
+        }
+        final var acceptEncoding = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        final boolean gzip = byteRange == null && compressible && acceptEncoding != null
+                && acceptEncoding.contains(GZIP);
+        // The encoded representation has an ETag of its own.
+        final var entityTag = gzip ? new EntityTag(identityTag.getValue() + "-" + GZIP) : identityTag;
+        final var notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified;
+        }
+
+        if (byteRange != null) {
+            final long first = byteRange[0];
+            final long last = byteRange[1];
+            if (first >= length || first > last) {
+                return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header("Content-Range", "bytes */" + length);
+            }
+            return Response.status(Response.Status.PARTIAL_CONTENT)
+                    .entity(transfer(file.toPath(), first, last - first + 1))
+                    .type(mediaType)
+                    .tag(entityTag)
+                    .header("Accept-Ranges", "bytes")
+                    .header("Content-Range", "bytes " + first + "-" + last + "/" + length)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+        }
+
+        if (gzip) {
+            StreamingOutput gzipped = output -> {
+                var gzipOutput = new GZIPOutputStream(output, BUFFER_SIZE);
+                Files.copy(file.toPath(), gzipOutput);
+                gzipOutput.finish();
+                gzipOutput.flush();
+            };
+            return Response.ok(gzipped, mediaType)
+                    .tag(entityTag)
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+        }
+
+        return Response.ok(transfer(file.toPath(), 0, length), mediaType)
+                .tag(entityTag)
+                .header("Accept-Ranges", "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+    }
+
+    /**
+     * Parse the value of a Range header. Multiple ranges are not supported, the whole file is sent instead as
+     * permitted by RFC 9110. The same applies to ranges, whose positions exceed the value range of a long.
+     *
+     * @param range the value of the Range header
+     * @param length the length of the file
+     * @return the first and last position of the range, which may not be satisfiable, or null if the header is ignored.
+     */
+    private static long[] parseByteRange(final String range, final long length) {
+        var matcher = BYTE_RANGE.matcher(range);
+        if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+            return null;
+        }
+        try {
+            if (matcher.group(1).isEmpty()) {
+                return new long[] {Math.max(0, length - Long.parseLong(matcher.group(2))), length - 1};
+            }
+            long first = Long.parseLong(matcher.group(1));
+            long last = matcher.group(2).isEmpty() ? length - 1
+                    : Math.min(length - 1, Long.parseLong(matcher.group(2)));
+            return new long[] {first, last};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Build the response streaming a zip archive of the whole result directory, which is created while it is sent.
+     *
+     * @param directory the result directory
+     * @param fileName the file name for the Content-Disposition header
+     * @param request the request to evaluate the preconditions for
+     * @return the response: 200 with the archive, or 304 if the client has the current version.
+     * @throws IOException if the directory cannot be listed
+     */
+    static Response.ResponseBuilder zipDirectory(final File directory, final String fileName, final Request request)
+            throws IOException {
+        final var root = directory.toPath();
+        final List<Path> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> !root.resolve(LEGACY_ARCHIVE_NAME).equals(path))
+                    // The index is an internal file of the server, which serves the test cases page by page.
+                    .filter(path -> !path.startsWith(root.resolve(ReportIndex.INDEX_DIRECTORY_NAME)))
+                    .sorted()
+                    .forEach(files::add);
+        }
+        final var entityTag = new EntityTag(fingerprint(root, files));
+        final var notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified;
+        }
+
+        StreamingOutput archive = output -> {
+            var zipOutput = new ZipOutputStream(output);
+            // Reports and logs compress well at the fastest level, captures hardly at any level.
+            zipOutput.setLevel(Deflater.BEST_SPEED);
+            for (var path : files) {
+                var entry = new ZipEntry(root.relativize(path).toString().replace(File.separatorChar, '/'));
+                entry.setTime(path.toFile().lastModified());
+                zipOutput.putNextEntry(entry);
+                Files.copy(path, zipOutput);
+                zipOutput.closeEntry();
+            }
+            zipOutput.finish();
+            zipOutput.flush();
+        };
+        return Response.ok(archive, MediaType.APPLICATION_OCTET_STREAM)
+                .tag(entityTag)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+    }
+
+    /**
+     * @return the fingerprint of the names, lengths and modification times of the files.
+     */
+    private static String fingerprint(final Path root, final List<Path> files) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var path : files) {
+                var file = path.toFile();
+                digest.update((root.relativize(path) + "\n" + file.length() + "\n" + file.lastModified() + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported.", e);
+        }
+    }
+
+    /**
+     * @return the output transferring the given part of the file by its channel, without copying it to the heap.
+     */
+    private static StreamingOutput transfer(final Path path, final long position, final long count) {
+        return output -> {
+            try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(output);
+                long transferred = 0;
+                while (transferred < count) {
+                    long bytes = channel.transferTo(position + transferred, count - transferred, target);
+                    if (bytes <= 0) {
+                        // The file has been truncated meanwhile.
+                        throw new IOException("Unexpected end of file " + path);
+                    }
+                    transferred += bytes;
+                }
+            }
+            output.flush();
+        };
+    }
+}
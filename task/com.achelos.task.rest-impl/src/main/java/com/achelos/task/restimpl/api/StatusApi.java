@@ -6,6 +6,7 @@ import com.achelos.task.restimpl.models.Status;
 
 import com.achelos.task.restimpl.server.TesttoolRequestResource;
 import com.achelos.task.utilities.DateTimeUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,29 +18,51 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @Path("/status/{runId}")
 @Tag(name = "Get Status", description = "Get the status of a test execution.")
 public class StatusApi {
 
+    private static final String EVENT_STREAM = "text/event-stream";
+    /**
+     * Upper bound of the time a long-poll request waits for a status change.
+     */
+    private static final int MAX_WAIT_SECONDS = 60;
+    /**
+     * Interval of the comments sent on an idle event stream, which detect closed connections.
+     */
+    private static final long KEEP_ALIVE_MILLIS = 15000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     @GET
     @Produces({ "application/json" })
-    @Operation(summary = "Retrieve the status of a test suite execution.", description = "Retrieve the status of the test suite execution specified by the provided run identifier.", tags={ "Get Status" })
+    @Operation(summary = "Retrieve the status of a test suite execution.", description = "Retrieve the status of the test suite execution specified by the provided run identifier. "
+            + "If a status is given in \"since\", the request waits up to \"wait\" seconds until the status differs from it (long polling).", tags={ "Get Status" })
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation=Status.class))),
         @ApiResponse(responseCode = "400", description = "RunId invalid.", content = @Content(schema = @Schema(implementation= ErrorResponse.class))),
         @ApiResponse(responseCode = "404", description = "RunId not known.", content = @Content(schema = @Schema(implementation= ErrorResponse.class))),
         @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(schema = @Schema(implementation=ErrorResponse.class))) })
 	public Response getStatus(@PathParam("runId") @Parameter(example = "a4b4d23234b23ef23a",
-			description = "Identifier of a Testrun/Test Suite Execution.") String runId) {
+			description = "Identifier of a Testrun/Test Suite Execution.") String runId,
+			@QueryParam("since") @Parameter(example = "Scheduled",
+			description = "The status known to the client. The request returns as soon as the status differs from it.") String since,
+			@QueryParam("wait") @Parameter(example = "30",
+			description = "The maximum time in seconds to wait for a status change. At most 60, default is 30.") Integer wait) {
         try {
             Response.ResponseBuilder response;
             // Parse runID into UUID.
             UUID runUuid;
+            Status.StatusEnum knownStatus = null;
             try {
                 runUuid = UUID.fromString(runId);
             } catch (Exception e) {
@@ -49,32 +72,34 @@ public class StatusApi {
                 response.entity(errorResponse);
                 return response.build();
             }
+            try {
+                if (since != null) {
+                    knownStatus = Status.StatusEnum.fromValue(since);
+                }
+            } catch (Exception e) {
+                response = Response.serverError();
+                response.status(Response.Status.BAD_REQUEST);
+                var errorResponse = generateErrorResponse("400", "Bad Request: Illegal status: " + since, runId);
+                response.entity(errorResponse);
+                return response.build();
+            }
             var status = TesttoolRequestResource.getStatus(runUuid);
+            if (knownStatus != null) {
+                var waitMillis = 1000L * Math.max(0, Math.min(MAX_WAIT_SECONDS, wait != null ? wait : 30));
+                var deadline = System.currentTimeMillis() + waitMillis;
+                while (!status.isFinal() && toStatus(runUuid, status).getStatus() == knownStatus
+                        && waitMillis > 0) {
+                    status = TesttoolRequestResource.awaitStatusChange(runUuid, status, waitMillis);
+                    waitMillis = deadline - System.currentTimeMillis();
+                }
+            }
             if (status == TesttoolRequestResource.ExecutionStatus.UNKNOWN) {
                 response = Response.serverError();
                 response.status(Response.Status.NOT_FOUND);
                 var errorResponse = generateErrorResponse("404", "Unknown RunId: " + runId, runId);
                 response.entity(errorResponse);
             } else {
-                Status.StatusEnum statusEnum;
-                String downloadURI = "";
-                switch (status) {
-                    case RUNNING:
-                        statusEnum = Status.StatusEnum.RUNNING;
-                        break;
-                    case FINISHED:
-                        statusEnum = Status.StatusEnum.EXECUTED;
-                        downloadURI = "/result/" + runUuid;
-                        break;
-                    case SCHEDULED:
-                        statusEnum = Status.StatusEnum.SCHEDULED;
-                        break;
-                    case ABORTED:
-                    default:
-                        statusEnum = Status.StatusEnum.ABORTED;
-                        break;
-                }
-                response = Response.ok().entity(new Status(statusEnum, downloadURI));
+                response = Response.ok().entity(toStatus(runUuid, status));
             }
 
             return response.build();
@@ -86,6 +111,93 @@ public class StatusApi {
         }
     }
 
+    @GET
+    @Path("/events")
+    @Produces({ EVENT_STREAM, MediaType.APPLICATION_JSON })
+    @Operation(summary = "Subscribe to the status of a test suite execution.", description = "Stream the status changes of the test suite execution specified by the provided run identifier as Server-Sent Events. "
+            + "Each event \"status\" carries the status as JSON. The stream ends after the final status.", tags={ "Get Status" })
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = EVENT_STREAM, schema = @Schema(implementation=Status.class))),
+        @ApiResponse(responseCode = "400", description = "RunId invalid.", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation= ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "RunId not known.", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation= ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation=ErrorResponse.class))) })
+    public Response getStatusEvents(@PathParam("runId") @Parameter(example = "a4b4d23234b23ef23a",
+            description = "Identifier of a Testrun/Test Suite Execution.") String runId) {
+        try {
+            UUID runUuid;
+            try {
+                runUuid = UUID.fromString(runId);
+            } catch (Exception e) {
+                var errorResponse = generateErrorResponse("400", "Bad Request: Illegal RunId: " + runId, runId);
+                return Response.status(Response.Status.BAD_REQUEST).type(MediaType.APPLICATION_JSON_TYPE)
+                        .entity(errorResponse).build();
+            }
+            var initialStatus = TesttoolRequestResource.getStatus(runUuid);
+            if (initialStatus == TesttoolRequestResource.ExecutionStatus.UNKNOWN) {
+                var errorResponse = generateErrorResponse("404", "Unknown RunId: " + runId, runId);
+                return Response.status(Response.Status.NOT_FOUND).type(MediaType.APPLICATION_JSON_TYPE)
+                        .entity(errorResponse).build();
+            }
+            StreamingOutput events = output -> {
+                var status = initialStatus;
+                writeEvent(output, toStatus(runUuid, status));
+                while (!status.isFinal()) {
+                    TesttoolRequestResource.ExecutionStatus next;
+                    try {
+                        next = TesttoolRequestResource.awaitStatusChange(runUuid, status, KEEP_ALIVE_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (next == status) {
+                        // Fails with an IOException once the client has closed the connection.
+                        output.write(": keep-alive\n\n".getBytes(StandardCharsets.UTF_8));
+                        output.flush();
+                    } else {
+                        status = next;
+                        writeEvent(output, toStatus(runUuid, status));
+                    }
+                }
+            };
+            return Response.ok(events, EVENT_STREAM).header("Cache-Control", "no-cache").build();
+        } catch (Exception e) {
+            var errorResponse = generateErrorResponse("500", "Internal Server Error: " + e.getMessage(), runId);
+            var response = Response.serverError().entity(errorResponse);
+            response.type(MediaType.APPLICATION_JSON_TYPE);
+            return response.build();
+        }
+    }
+
+    private static void writeEvent(final OutputStream output, final Status status) throws IOException {
+        var event = "event: status\ndata: " + OBJECT_MAPPER.writeValueAsString(status) + "\n\n";
+        output.write(event.getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    private static Status toStatus(final UUID runUuid, final TesttoolRequestResource.ExecutionStatus status) {
+        Status.StatusEnum statusEnum;
+        String downloadURI = "";
+        switch (status) {
+            case RUNNING:
+                statusEnum = Status.StatusEnum.RUNNING;
+                break;
+            case FINISHED:
+                statusEnum = Status.StatusEnum.EXECUTED;
+                downloadURI = "/result/" + runUuid;
+                break;
+            case SCHEDULED:
+                statusEnum = Status.StatusEnum.SCHEDULED;
+                break;
+            case ABORTED:
+            case CANCELLED:
+            case FAILED:
+            default:
+                statusEnum = Status.StatusEnum.ABORTED;
+                break;
+        }
+        return new Status(statusEnum, downloadURI);
+    }
+
     private ErrorResponse generateErrorResponse(final String statusCode, final String errorMessage, final String runId) {
         return new ErrorResponse(DateTimeUtils.getISOFormattedTimeStamp(), statusCode, errorMessage, "/status/" + runId);
     }
@@ -0,0 +1,107 @@
+package com.achelos.task.restimpl.models;
+
+import java.util.Objects;
+
+import jakarta.validation.Valid;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+
+/**
+ * A log message of a test case.
+ **/
+@JsonTypeName("LogMessageEntry")
+@Schema
+public class LogMessageEntry {
+  private @Valid String timestamp;
+  private @Valid String level;
+  private @Valid String message;
+
+  public LogMessageEntry(final String timestamp, final String level, final String message) {
+    this.timestamp = timestamp;
+    this.level = level;
+    this.message = message;
+  }
+
+
+  @Schema(description = "Time of the log message.", example = "2024-01-01T12:00:00.123Z")
+  @JsonProperty("timestamp")
+  public String getTimestamp() {
+    return timestamp;
+  }
+
+  @JsonProperty("timestamp")
+  public void setTimestamp(String timestamp) {
+    this.timestamp = timestamp;
+  }
+
+  @Schema(description = "Log level of the log message.", example = "INFO")
+  @JsonProperty("level")
+  public String getLevel() {
+    return level;
+  }
+
+  @JsonProperty("level")
+  public void setLevel(String level) {
+    this.level = level;
+  }
+
+  @Schema(description = "The log message.")
+  @JsonProperty("message")
+  public String getMessage() {
+    return message;
+  }
+
+  @JsonProperty("message")
+  public void setMessage(String message) {
+    this.message = message;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    LogMessageEntry logMessageEntry = (LogMessageEntry) o;
+    return Objects.equals(this.timestamp, logMessageEntry.timestamp) &&
+        Objects.equals(this.level, logMessageEntry.level) &&
+        Objects.equals(this.message, logMessageEntry.message);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(timestamp, level, message);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class LogMessageEntry {\n");
+    
+    sb.append("    timestamp: ").append(toIndentedString(timestamp)).append("\n");
+    sb.append("    level: ").append(toIndentedString(level)).append("\n");
+    sb.append("    message: ").append(toIndentedString(message)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+
+}
@@ -0,0 +1,138 @@
+package com.achelos.task.restimpl.models;
+
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.validation.Valid;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+
+/**
+ * A page of the log messages of a test case.
+ **/
+@JsonTypeName("LogMessagePage")
+@Schema
+public class LogMessagePage {
+  private @Valid String testCaseId;
+  private @Valid Integer total;
+  private @Valid Integer offset;
+  private @Valid Integer limit;
+  private @Valid List<LogMessageEntry> messages;
+
+  public LogMessagePage(final String testCaseId, final Integer total, final Integer offset, final Integer limit, final List<LogMessageEntry> messages) {
+    this.testCaseId = testCaseId;
+    this.total = total;
+    this.offset = offset;
+    this.limit = limit;
+    this.messages = messages;
+  }
+
+
+  @Schema(description = "Identifier of the test case.", example = "TLS_A_1")
+  @JsonProperty("testCaseId")
+  public String getTestCaseId() {
+    return testCaseId;
+  }
+
+  @JsonProperty("testCaseId")
+  public void setTestCaseId(String testCaseId) {
+    this.testCaseId = testCaseId;
+  }
+
+  @Schema(description = "Total number of log messages of the test case.", example = "120")
+  @JsonProperty("total")
+  public Integer getTotal() {
+    return total;
+  }
+
+  @JsonProperty("total")
+  public void setTotal(Integer total) {
+    this.total = total;
+  }
+
+  @Schema(description = "Number of skipped log messages.", example = "0")
+  @JsonProperty("offset")
+  public Integer getOffset() {
+    return offset;
+  }
+
+  @JsonProperty("offset")
+  public void setOffset(Integer offset) {
+    this.offset = offset;
+  }
+
+  @Schema(description = "Maximum number of log messages of the page.", example = "100")
+  @JsonProperty("limit")
+  public Integer getLimit() {
+    return limit;
+  }
+
+  @JsonProperty("limit")
+  public void setLimit(Integer limit) {
+    this.limit = limit;
+  }
+
+  @Schema(description = "Log messages of the page.")
+  @JsonProperty("messages")
+  public List<LogMessageEntry> getMessages() {
+    return messages;
+  }
+
+  @JsonProperty("messages")
+  public void setMessages(List<LogMessageEntry> messages) {
+    this.messages = messages;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    LogMessagePage logMessagePage = (LogMessagePage) o;
+    return Objects.equals(this.testCaseId, logMessagePage.testCaseId) &&
+        Objects.equals(this.total, logMessagePage.total) &&
+        Objects.equals(this.offset, logMessagePage.offset) &&
+        Objects.equals(this.limit, logMessagePage.limit) &&
+        Objects.equals(this.messages, logMessagePage.messages);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(testCaseId, total, offset, limit, messages);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class LogMessagePage {\n");
+    
+    sb.append("    testCaseId: ").append(toIndentedString(testCaseId)).append("\n");
+    sb.append("    total: ").append(toIndentedString(total)).append("\n");
+    sb.append("    offset: ").append(toIndentedString(offset)).append("\n");
+    sb.append("    limit: ").append(toIndentedString(limit)).append("\n");
+    sb.append("    messages: ").append(toIndentedString(messages)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+
+}
@@ -0,0 +1,167 @@
+package com.achelos.task.restimpl.models;
+
+import java.util.Objects;
+
+import jakarta.validation.Valid;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+
+/**
+ * A test case of a finished test suite execution.
+ **/
+@JsonTypeName("TestCaseEntry")
+@Schema
+public class TestCaseEntry {
+  private @Valid String testSuiteId;
+  private @Valid String testCaseId;
+  private @Valid String result;
+  private @Valid String startTime;
+  private @Valid String endTime;
+  private @Valid Long durationMillis;
+  private @Valid Integer numberOfLogMessages;
+
+  public TestCaseEntry(final String testSuiteId, final String testCaseId, final String result, final String startTime, final String endTime, final Long durationMillis, final Integer numberOfLogMessages) {
+    this.testSuiteId = testSuiteId;
+    this.testCaseId = testCaseId;
+    this.result = result;
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.durationMillis = durationMillis;
+    this.numberOfLogMessages = numberOfLogMessages;
+  }
+
+
+  @Schema(description = "Identifier of the test suite containing the test case.", example = "TLS_A")
+  @JsonProperty("testSuiteId")
+  public String getTestSuiteId() {
+    return testSuiteId;
+  }
+
+  @JsonProperty("testSuiteId")
+  public void setTestSuiteId(String testSuiteId) {
+    this.testSuiteId = testSuiteId;
+  }
+
+  @Schema(description = "Identifier of the test case.", example = "TLS_A_1")
+  @JsonProperty("testCaseId")
+  public String getTestCaseId() {
+    return testCaseId;
+  }
+
+  @JsonProperty("testCaseId")
+  public void setTestCaseId(String testCaseId) {
+    this.testCaseId = testCaseId;
+  }
+
+  @Schema(description = "Verdict of the test case.", example = "PASSED")
+  @JsonProperty("result")
+  public String getResult() {
+    return result;
+  }
+
+  @JsonProperty("result")
+  public void setResult(String result) {
+    this.result = result;
+  }
+
+  @Schema(description = "Start time of the test case.", example = "2024-01-01T12:00:00Z")
+  @JsonProperty("startTime")
+  public String getStartTime() {
+    return startTime;
+  }
+
+  @JsonProperty("startTime")
+  public void setStartTime(String startTime) {
+    this.startTime = startTime;
+  }
+
+  @Schema(description = "End time of the test case.", example = "2024-01-01T12:00:05Z")
+  @JsonProperty("endTime")
+  public String getEndTime() {
+    return endTime;
+  }
+
+  @JsonProperty("endTime")
+  public void setEndTime(String endTime) {
+    this.endTime = endTime;
+  }
+
+  @Schema(description = "Duration of the test case in milliseconds.", example = "5000")
+  @JsonProperty("durationMillis")
+  public Long getDurationMillis() {
+    return durationMillis;
+  }
+
+  @JsonProperty("durationMillis")
+  public void setDurationMillis(Long durationMillis) {
+    this.durationMillis = durationMillis;
+  }
+
+  @Schema(description = "Number of log messages of the test case.", example = "120")
+  @JsonProperty("numberOfLogMessages")
+  public Integer getNumberOfLogMessages() {
+    return numberOfLogMessages;
+  }
+
+  @JsonProperty("numberOfLogMessages")
+  public void setNumberOfLogMessages(Integer numberOfLogMessages) {
+    this.numberOfLogMessages = numberOfLogMessages;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TestCaseEntry testCaseEntry = (TestCaseEntry) o;
+    return Objects.equals(this.testSuiteId, testCaseEntry.testSuiteId) &&
+        Objects.equals(this.testCaseId, testCaseEntry.testCaseId) &&
+        Objects.equals(this.result, testCaseEntry.result) &&
+        Objects.equals(this.startTime, testCaseEntry.startTime) &&
+        Objects.equals(this.endTime, testCaseEntry.endTime) &&
+        Objects.equals(this.durationMillis, testCaseEntry.durationMillis) &&
+        Objects.equals(this.numberOfLogMessages, testCaseEntry.numberOfLogMessages);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(testSuiteId, testCaseId, result, startTime, endTime, durationMillis, numberOfLogMessages);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class TestCaseEntry {\n");
+    
+    sb.append("    testSuiteId: ").append(toIndentedString(testSuiteId)).append("\n");
+    sb.append("    testCaseId: ").append(toIndentedString(testCaseId)).append("\n");
+    sb.append("    result: ").append(toIndentedString(result)).append("\n");
+    sb.append("    startTime: ").append(toIndentedString(startTime)).append("\n");
+    sb.append("    endTime: ").append(toIndentedString(endTime)).append("\n");
+    sb.append("    durationMillis: ").append(toIndentedString(durationMillis)).append("\n");
+    sb.append("    numberOfLogMessages: ").append(toIndentedString(numberOfLogMessages)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+
+}
@@ -0,0 +1,123 @@
+package com.achelos.task.restimpl.models;
+
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.validation.Valid;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+
+/**
+ * A page of the test cases of a finished test suite execution.
+ **/
+@JsonTypeName("TestCasePage")
+@Schema
+public class TestCasePage {
+  private @Valid Integer total;
+  private @Valid Integer offset;
+  private @Valid Integer limit;
+  private @Valid List<TestCaseEntry> testCases;
+
+  public TestCasePage(final Integer total, final Integer offset, final Integer limit, final List<TestCaseEntry> testCases) {
+    this.total = total;
+    this.offset = offset;
+    this.limit = limit;
+    this.testCases = testCases;
+  }
+
+
+  @Schema(description = "Total number of test cases.", example = "42")
+  @JsonProperty("total")
+  public Integer getTotal() {
+    return total;
+  }
+
+  @JsonProperty("total")
+  public void setTotal(Integer total) {
+    this.total = total;
+  }
+
+  @Schema(description = "Number of skipped test cases.", example = "0")
+  @JsonProperty("offset")
+  public Integer getOffset() {
+    return offset;
+  }
+
+  @JsonProperty("offset")
+  public void setOffset(Integer offset) {
+    this.offset = offset;
+  }
+
+  @Schema(description = "Maximum number of test cases of the page.", example = "100")
+  @JsonProperty("limit")
+  public Integer getLimit() {
+    return limit;
+  }
+
+  @JsonProperty("limit")
+  public void setLimit(Integer limit) {
+    this.limit = limit;
+  }
+
+  @Schema(description = "Test cases of the page.")
+  @JsonProperty("testCases")
+  public List<TestCaseEntry> getTestCases() {
+    return testCases;
+  }
+
+  @JsonProperty("testCases")
+  public void setTestCases(List<TestCaseEntry> testCases) {
+    this.testCases = testCases;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TestCasePage testCasePage = (TestCasePage) o;
+    return Objects.equals(this.total, testCasePage.total) &&
+        Objects.equals(this.offset, testCasePage.offset) &&
+        Objects.equals(this.limit, testCasePage.limit) &&
+        Objects.equals(this.testCases, testCasePage.testCases);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(total, offset, limit, testCases);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class TestCasePage {\n");
+    
+    sb.append("    total: ").append(toIndentedString(total)).append("\n");
+    sb.append("    offset: ").append(toIndentedString(offset)).append("\n");
+    sb.append("    limit: ").append(toIndentedString(limit)).append("\n");
+    sb.append("    testCases: ").append(toIndentedString(testCases)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+
+}
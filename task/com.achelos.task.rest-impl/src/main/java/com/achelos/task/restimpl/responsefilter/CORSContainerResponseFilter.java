@@ -20,6 +20,6 @@ public class CORSContainerResponseFilter implements ContainerResponseFilter {
         response.getHeaders().add("Access-Control-Allow-Methods",
                 "GET, POST, PUT, DELETE");
         response.getHeaders().add("Access-Control-Expose-Headers",
-                "Content-Disposition");
+                "Content-Disposition, Content-Range, Accept-Ranges, ETag");
     }
 }
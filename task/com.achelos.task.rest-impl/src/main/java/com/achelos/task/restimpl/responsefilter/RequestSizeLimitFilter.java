@@ -0,0 +1,101 @@
+package com.achelos.task.restimpl.responsefilter;
+
+import com.achelos.task.restimpl.models.ErrorResponse;
+import com.achelos.task.utilities.DateTimeUtils;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Rejects requests, whose body exceeds the configured size, with 413. Requests announcing a larger Content-Length
+ * are rejected before their body is read; the body of chunked requests is counted while it is read.
+ */
+@PreMatching
+public class RequestSizeLimitFilter implements ContainerRequestFilter {
+
+    private final long maximumSize;
+
+    /**
+     * @param maximumSize the maximum size of a request body in bytes
+     */
+    public RequestSizeLimitFilter(final long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request) throws IOException {
+        final var path = "/" + request.getUriInfo().getPath();
+        if (request.getLength() > maximumSize) {
+            request.abortWith(tooLarge(path));
+            return;
+        }
+        final var entityStream = request.getEntityStream();
+        if (entityStream != null) {
+            request.setEntityStream(new LimitedInputStream(entityStream, path));
+        }
+    }
+
+    private Response tooLarge(final String path) {
+        var errorResponse = new ErrorResponse(DateTimeUtils.getISOFormattedTimeStamp(), "413",
+                "Payload Too Large: Requests are limited to " + maximumSize + " bytes.", path);
+        return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(errorResponse).build();
+    }
+
+    /**
+     * Stream failing with 413, once more than the maximum size has been read.
+     */
+    private final class LimitedInputStream extends FilterInputStream {
+        private final String path;
+        private long remaining = maximumSize;
+
+        private LimitedInputStream(final InputStream in, final String path) {
+            super(in);
+            this.path = path;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(final long bytes) {
+            remaining -= bytes;
+            if (remaining < 0) {
+                throw new WebApplicationException(tooLarge(path));
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.achelos.task.restimpl.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.achelos.task.logging.LoggingConnector;
+import com.achelos.task.reporting.pdfreport.PdfReport;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigChecker;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameter;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameterNames;
+
+/**
+ * Renders the PDF reports of the REST server, depending on the global configuration parameter pdf_report_generation:
+ * before a request is reported as finished, by a background worker afterwards, or when the PDF report is requested
+ * for the first time. Once rendered, the PDF report is stored next to the XML report and served from there.
+ * <p>
+ * A PDF report is rendered into a temporary file, which is renamed when complete, so that an incomplete PDF report is
+ * never served. Concurrent requests for the same PDF report wait for a single rendering.
+ */
+public class PdfReportRenderer {
+
+	private static final String LOGGING_PREFIX = "TaSK REST Server: ";
+	private static final String PDF_REPORT_FILE_NAME = "Report.pdf";
+	private static final String PARTIAL_FILE_SUFFIX = ".part";
+
+	/**
+	 * When the PDF reports are rendered.
+	 */
+	public enum Mode {
+		/**
+		 * Before the request is reported as finished.
+		 */
+		INLINE,
+		/**
+		 * By a background worker, after the request is reported as finished.
+		 */
+		BACKGROUND,
+		/**
+		 * When the PDF report is requested for the first time.
+		 */
+		ON_DEMAND
+	}
+
+	private final Mode mode;
+	private final File styleSheetFile;
+	private final Map<File, CompletableFuture<File>> renderings = new ConcurrentHashMap<>();
+	private final ExecutorService backgroundWorker;
+
+	/**
+	 * @param globalConfiguration the global configuration providing the mode and the stylesheet of the PDF reports
+	 */
+	public PdfReportRenderer(final HashMap<String, GlobalConfigParameter> globalConfiguration) {
+		var modeName = GlobalConfigChecker
+				.getGlobalConfigParameter(globalConfiguration, GlobalConfigParameterNames.PdfReportGeneration)
+				.getValueAsString();
+		try {
+			mode = Mode.valueOf(modeName.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid value of global configuration parameter "
+					+ GlobalConfigParameterNames.PdfReportGeneration.getParameterName() + ": " + modeName, e);
+		}
+		if (globalConfiguration.containsKey(GlobalConfigParameterNames.PdfReportStylesheet.getParameterName())) {
+			styleSheetFile = new File(globalConfiguration
+					.get(GlobalConfigParameterNames.PdfReportStylesheet.getParameterName()).getValueAsString());
+		} else {
+			styleSheetFile = null;
+		}
+		if (mode == Mode.BACKGROUND) {
+			// The worker is started lazily by the worker of the first request. It must not inherit the logger and the
+			// execution context bound to that thread, which are stopped when that request ends.
+			backgroundWorker = Executors.newSingleThreadExecutor(runnable -> {
+				var thread = new Thread(null, runnable, "TaSK PDF Renderer", 0, false);
+				thread.setDaemon(true);
+				return thread;
+			});
+		} else {
+			backgroundWorker = null;
+		}
+	}
+
+	/**
+	 * @return when the PDF reports are rendered.
+	 */
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Called once the XML report of a request has been written. Renders the PDF report on the calling thread, hands it
+	 * to the background worker, or leaves it for the first request, depending on the mode.
+	 *
+	 * As before, a PDF report which cannot be rendered does not fail the request; the error is logged and the rendering
+	 * is tried again when the PDF report is requested.
+	 *
+	 * @param xmlReport the XML report of the request
+	 */
+	public void xmlReportWritten(final File xmlReport) {
+		switch (mode) {
+			case INLINE:
+				startRendering(xmlReport, null);
+				break;
+			case BACKGROUND:
+				startRendering(xmlReport, backgroundWorker);
+				break;
+			case ON_DEMAND:
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Get the PDF report next to the given XML report. If it has not been rendered yet, it is rendered on the calling
+	 * thread, or the pending rendering of the background worker is awaited.
+	 *
+	 * @param xmlReport the XML report of the request
+	 * @return the PDF report
+	 * @throws IOException if the PDF report cannot be rendered
+	 */
+	public File getPdfReport(final File xmlReport) throws IOException {
+		var pending = renderings.get(xmlReport.getAbsoluteFile());
+		if (pending != null) {
+			return await(pending);
+		}
+		var pdfReport = getPdfReportFile(xmlReport);
+		if (pdfReport.isFile()) {
+			return pdfReport;
+		}
+		return await(startRendering(xmlReport, null));
+	}
+
+	/**
+	 * Wait for a pending rendering of the PDF report next to the given XML report, e.g. before the result directory is
+	 * downloaded. Does not start a rendering.
+	 *
+	 * @param xmlReport the XML report of the request
+	 */
+	public void awaitPendingRendering(final File xmlReport) {
+		var pending = renderings.get(xmlReport.getAbsoluteFile());
+		if (pending != null) {
+			try {
+				await(pending);
+			} catch (IOException e) {
+				// Logged by the rendering.
+			}
+		}
+	}
+
+	/**
+	 * Stop the background worker. Pending renderings are dropped and done on demand.
+	 */
+	public void shutdown() {
+		if (backgroundWorker != null) {
+			backgroundWorker.shutdownNow();
+		}
+		for (var rendering : renderings.values()) {
+			rendering.cancel(false);
+		}
+	}
+
+	/**
+	 * Start rendering the PDF report, unless a rendering is already pending.
+	 *
+	 * @param executor the executor rendering the PDF report, or null to render it on the calling thread
+	 */
+	private CompletableFuture<File> startRendering(final File xmlReport, final ExecutorService executor) {
+		var key = xmlReport.getAbsoluteFile();
+		var rendering = new CompletableFuture<File>();
+		var pending = renderings.putIfAbsent(key, rendering);
+		if (pending != null) {
+			return pending;
+		}
+		Runnable task = () -> {
+			try {
+				rendering.complete(render(key));
+			} catch (Exception | LinkageError e) {
+				// Inline, the error is logged into the log of the request.
+				LoggingConnector.getInstance().error(LOGGING_PREFIX + "An error occurred while generating the PDF report " + key + ".", e);
+				rendering.completeExceptionally(e);
+			} finally {
+				renderings.remove(key, rendering);
+			}
+		};
+		if (executor == null) {
+			task.run();
+		} else {
+			try {
+				executor.execute(task);
+			} catch (RejectedExecutionException e) {
+				// Shut down: left to be rendered on demand.
+				renderings.remove(key, rendering);
+				rendering.cancel(false);
+			}
+		}
+		return rendering;
+	}
+
+	private File render(final File xmlReport) throws Exception {
+		var pdfReport = getPdfReportFile(xmlReport);
+		var partialPdfReport = new File(pdfReport.getPath() + PARTIAL_FILE_SUFFIX);
+		try {
+			PdfReport.renderPDF(xmlReport, styleSheetFile, partialPdfReport);
+			try {
+				Files.move(partialPdfReport.toPath(), pdfReport.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(partialPdfReport.toPath(), pdfReport.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(partialPdfReport.toPath());
+		}
+		return pdfReport;
+	}
+
+	private static File await(final CompletableFuture<File> rendering) throws IOException {
+		try {
+			return rendering.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the PDF report.", e);
+		} catch (CancellationException e) {
+			throw new IOException("The generation of the PDF report has been cancelled.", e);
+		} catch (ExecutionException e) {
+			throw new IOException("An error occurred while generating the PDF report.", e.getCause());
+		}
+	}
+
+	private static File getPdfReportFile(final File xmlReport) {
+		return new File(xmlReport.getAbsoluteFile().getParentFile(), PDF_REPORT_FILE_NAME);
+	}
+}
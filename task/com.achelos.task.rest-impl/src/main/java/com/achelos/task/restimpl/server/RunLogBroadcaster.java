@@ -0,0 +1,148 @@
+package com.achelos.task.restimpl.server;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.achelos.task.logging.BasicLogger;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Logger distributing the log entries and the test case transitions of a single run to the clients following its
+ * log. Each entry is serialized once as a line of JSON. Every subscription buffers a bounded number of lines; if a
+ * client reads slower than the run logs, the oldest lines are dropped, so that the logging pipeline is never stalled.
+ * The latest lines are kept for clients subscribing later, until the run has finished.
+ */
+public class RunLogBroadcaster extends BasicLogger {
+
+	/**
+	 * Number of lines buffered per subscription and kept for later subscriptions.
+	 */
+	static final int BUFFER_SIZE = 1000;
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final ArrayDeque<String> recentLines = new ArrayDeque<>();
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+	private boolean closed = false;
+
+	@Override
+	public void log(final long timestamp, final long lvl, final String log, final Throwable t) {
+		var line = new LinkedHashMap<String, Object>();
+		line.put("timestamp", Instant.ofEpochMilli(timestamp).toString());
+		line.put("level", BasicLogger.getName(lvl));
+		line.put("message", log);
+		if (t != null) {
+			line.put("exception", t.toString());
+		}
+		publish(line);
+	}
+
+	@Override
+	public void tellLogger(final String topic, final Object value) {
+		var line = new LinkedHashMap<String, Object>();
+		line.put("timestamp", Instant.ofEpochMilli(System.currentTimeMillis()).toString());
+		line.put("topic", topic);
+		line.put("value", value != null ? value.toString() : null);
+		publish(line);
+	}
+
+	private void publish(final LinkedHashMap<String, Object> entry) {
+		String line;
+		try {
+			line = OBJECT_MAPPER.writeValueAsString(entry);
+		} catch (JsonProcessingException e) {
+			return;
+		}
+		synchronized (this) {
+			if (!closed) {
+				if (recentLines.size() == BUFFER_SIZE) {
+					recentLines.pollFirst();
+				}
+				recentLines.addLast(line);
+			}
+			for (var subscription : subscriptions) {
+				subscription.offer(line);
+			}
+		}
+	}
+
+	/**
+	 * Subscribe to the log of the run. The subscription starts with the latest lines logged so far.
+	 *
+	 * @return the subscription, to be ended by {@link #unsubscribe(Subscription)}.
+	 */
+	public synchronized Subscription subscribe() {
+		var subscription = new Subscription();
+		for (var line : recentLines) {
+			subscription.offer(line);
+		}
+		subscriptions.add(subscription);
+		return subscription;
+	}
+
+	/**
+	 * @param subscription the subscription to end
+	 */
+	public void unsubscribe(final Subscription subscription) {
+		subscriptions.remove(subscription);
+	}
+
+	/**
+	 * Release the lines kept for later subscriptions, after the run has finished. Lines logged afterwards are still
+	 * passed to the current subscriptions.
+	 */
+	synchronized void close() {
+		closed = true;
+		recentLines.clear();
+	}
+
+	/**
+	 * The lines of the log not yet read by a client.
+	 */
+	public static final class Subscription {
+		private final ArrayDeque<String> lines = new ArrayDeque<>();
+		private long droppedLines = 0;
+
+		private Subscription() {
+			// Created by subscribe().
+		}
+
+		private synchronized void offer(final String line) {
+			if (lines.size() == BUFFER_SIZE) {
+				lines.pollFirst();
+				droppedLines++;
+			}
+			lines.addLast(line);
+			notifyAll();
+		}
+
+		/**
+		 * Take the buffered lines, waiting up to the given time for a line to be logged. If lines have been dropped
+		 * since the last call, the first line reports their number.
+		 *
+		 * @param timeoutMillis the maximum time to wait in milliseconds
+		 * @return the buffered lines, which are empty if the timeout elapsed.
+		 * @throws InterruptedException if the waiting thread is interrupted
+		 */
+		public synchronized List<String> poll(final long timeoutMillis) throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + timeoutMillis;
+			long remaining = timeoutMillis;
+			while (lines.isEmpty() && remaining > 0) {
+				wait(remaining);
+				remaining = deadline - System.currentTimeMillis();
+			}
+			var result = new ArrayList<String>(lines.size() + 1);
+			if (droppedLines > 0) {
+				result.add("{\"dropped\":" + droppedLines + "}");
+				droppedLines = 0;
+			}
+			result.addAll(lines);
+			lines.clear();
+			return result;
+		}
+	}
+}
@@ -1,16 +1,35 @@
 package com.achelos.task.restimpl.server;
 
 import com.achelos.task.logging.LoggingConnector;
+import com.achelos.task.reporting.retention.ReportRetention;
 import com.achelos.task.restimpl.api.ExecuteApi;
 import com.achelos.task.restimpl.responsefilter.CORSContainerResponseFilter;
+import com.achelos.task.restimpl.responsefilter.RequestSizeLimitFilter;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigChecker;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameter;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameterNames;
 import com.sun.net.httpserver.HttpServer;
 import org.glassfish.jersey.jdkhttp.JdkHttpServerFactory;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
 
 import javax.net.ssl.SSLContext;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TaSKRestServer {
 
@@ -19,22 +38,88 @@ public class TaSKRestServer {
 	private final LoggingConnector logger;
 	
 	private final HttpServer server;
+
+	private final ExecutorService executor;
 	
-	private final TesttoolRunner testtoolRunner;
+	private final TaskJobScheduler scheduler;
+
+	private final PdfReportRenderer pdfReportRenderer;
+
+	private final ReportRetention reportRetention;
+
+	private final UploadStore uploadStore;
+
+	private volatile ScheduledExecutorService maintenanceExecutor;
 	
 	private final static String API_IMPL_PACKAGE = ExecuteApi.class.getPackageName();
+
+	/**
+	 * Directory in the temporary directory, in which the uploaded files are stored.
+	 */
+	private final static String UPLOAD_DIRECTORY_NAME = "TaSK-REST-uploads";
+
+	/**
+	 * Time since their last use, after which the uploaded files are deleted from the upload store.
+	 */
+	private final static Duration UPLOAD_MAXIMUM_AGE = Duration.ofDays(1);
+
+	/**
+	 * Interval in minutes, in which the upload store is swept.
+	 */
+	private final static long UPLOAD_SWEEP_INTERVAL = 60;
+
+	/**
+	 * Time in seconds, after which an idle thread handling API requests is stopped.
+	 */
+	private final static long IDLE_THREAD_TIMEOUT = 60;
+
+	/**
+	 * System property of the JDK HTTP server limiting the time in seconds to receive a request.
+	 */
+	private final static String MAX_REQUEST_TIME_PROPERTY = "sun.net.httpserver.maxReqTime";
 	
 	private TaSKRestServer(final URI uri, final SSLContext sslContext, final LoggingConnector logger, final File globalConfigFile) {
 		this.logger = logger;
+		// Initialize TesttoolRequestResource
+		TesttoolRequestResource.initReportDir(globalConfigFile);
+		// Initialize TesttoolRunner instance and the scheduler of its executions.
+		final TesttoolRunner testtoolRunner = new TesttoolRunner(globalConfigFile);
+		final var globalConfiguration = testtoolRunner.getGlobalConfiguration();
+		scheduler = new TaskJobScheduler(testtoolRunner, globalConfiguration);
+		TesttoolRequestResource.initScheduler(scheduler);
+		pdfReportRenderer = testtoolRunner.getPdfReportRenderer();
+		TesttoolRequestResource.initPdfReportRenderer(pdfReportRenderer);
+		reportRetention = new ReportRetention(globalConfiguration);
+		try {
+			uploadStore = new UploadStore(Path.of(System.getProperty("java.io.tmpdir"), UPLOAD_DIRECTORY_NAME));
+			TesttoolRequestResource.initUploadStore(uploadStore);
+		} catch (final IOException e) {
+			throw new UncheckedIOException("The directory of the uploaded files could not be created.", e);
+		}
+
+		// The JDK HTTP server reads its timeouts once, when the first server is created. Explicit system properties
+		// take precedence.
+		if (System.getProperty(MAX_REQUEST_TIME_PROPERTY) == null) {
+			System.setProperty(MAX_REQUEST_TIME_PROPERTY, String.valueOf(
+					getInteger(globalConfiguration, GlobalConfigParameterNames.RestApiRequestTimeout)));
+		}
+		final long maximumRequestSize = 1024L * 1024L
+				* getInteger(globalConfiguration, GlobalConfigParameterNames.RestApiMaxRequestSize);
+
 		final ResourceConfig configuration = new ResourceConfig().packages(API_IMPL_PACKAGE).register(MultiPartFeature.class);
 		configuration.register(new CORSContainerResponseFilter());
+		configuration.register(new RequestSizeLimitFilter(maximumRequestSize));
+		// Write responses directly, so that streamed responses (e.g. status events) are not held back in a buffer.
+		configuration.property(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, 0);
 		server = JdkHttpServerFactory.createHttpServer(uri, configuration, sslContext, false);
+		// Long-polling and streaming requests, uploads and downloads occupy their thread until they end, thus each
+		// request is handled in a thread of its own instead of the single dispatcher thread of the server.
+		executor = createExecutor(
+				GlobalConfigChecker.getGlobalConfigParameter(globalConfiguration,
+						GlobalConfigParameterNames.RestApiVirtualThreads).getValueAsBoolean(),
+				getInteger(globalConfiguration, GlobalConfigParameterNames.RestApiHttpThreads));
+		server.setExecutor(executor);
 
-		// Initialize TesttoolRequestResource
-		TesttoolRequestResource.initReportDir(globalConfigFile);
-		// Initialize TesttoolRunner instance.
-		testtoolRunner = new TesttoolRunner(globalConfigFile);
-		
 		final TaSKRestServer thisService = this;
 		Runtime.getRuntime().addShutdownHook(new Thread() {
 			@Override
@@ -49,6 +134,56 @@ public class TaSKRestServer {
 		this(buildAndCheckUri(port, sslContext), sslContext, logger, globalConfigFile);
 	}
 
+	private static int getInteger(final HashMap<String, GlobalConfigParameter> globalConfiguration,
+			final GlobalConfigParameterNames parameterName) {
+		return Math.max(1, GlobalConfigChecker.getGlobalConfigParameter(globalConfiguration, parameterName)
+				.getValueAsInteger());
+	}
+
+	/**
+	 * Create the executor handling the API requests: a virtual thread per request if requested and supported by the
+	 * Java runtime, otherwise a pool of threads. Long-polling and streaming requests occupy a thread of the pool for up
+	 * to the whole run, see {@link GlobalConfigParameterNames#RestApiHttpThreads}. Thus, the pool is large, and its
+	 * idle threads are stopped.
+	 */
+	private ExecutorService createExecutor(final boolean virtualThreads, final int threads) {
+		if (virtualThreads) {
+			try {
+				// Java 21 or newer, looked up reflectively as TaSK is built for Java 17.
+				final var executorService = (ExecutorService) Executors.class
+						.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+				logger.debug(LOGGING_PREFIX + "Handling requests in virtual threads.");
+				return executorService;
+			} catch (final ReflectiveOperationException e) {
+				logger.debug(LOGGING_PREFIX + "Virtual threads are not supported by the Java runtime.");
+			}
+		}
+		final var threadNumber = new AtomicInteger();
+		logger.debug(LOGGING_PREFIX + "Handling requests in " + threads + " thread(s).");
+		final var pool = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_TIMEOUT, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					final var thread = new Thread(runnable, "TaSK REST HTTP " + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * @return whether the result or working directory with the given name belongs to a request, which is scheduled or
+	 *         running.
+	 */
+	private static boolean isActiveRun(final String resultDirectoryName) {
+		final UUID uuid;
+		try {
+			uuid = UUID.fromString(resultDirectoryName);
+		} catch (final IllegalArgumentException e) {
+			return false;
+		}
+		return !TesttoolRequestResource.getStatus(uuid).isFinal();
+	}
+
 	private static URI buildAndCheckUri(final int port, final SSLContext sslContext) {
 		final int MAX_PORT_NUMBER = 65535; // 2^16 - 1
 
@@ -72,7 +207,18 @@ public class TaSKRestServer {
 	public void start() {
 		logger.debug(LOGGING_PREFIX + "STARTING REST-Server at \"" + server.getAddress() + "\"");
 		this.server.start();
-		new Thread(testtoolRunner).start();
+		scheduler.start();
+		maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final var thread = new Thread(runnable, "TaSK REST Maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+		maintenanceExecutor.scheduleWithFixedDelay(this::sweepUploads, UPLOAD_SWEEP_INTERVAL, UPLOAD_SWEEP_INTERVAL,
+				TimeUnit.MINUTES);
+		if (reportRetention.isEnabled()) {
+			maintenanceExecutor.scheduleWithFixedDelay(() -> reportRetention.apply(TaSKRestServer::isActiveRun), 0,
+					reportRetention.getInterval(), TimeUnit.MINUTES);
+		}
 		logger.info(LOGGING_PREFIX + "STARTED REST-Server at \"" + server.getAddress() + "\"");
 	}
 	
@@ -83,12 +229,32 @@ public class TaSKRestServer {
 		} catch (final Exception e) {
 			// Ignore.
 		}
+		executor.shutdownNow();
 		try {
-			testtoolRunner.cancel();
+			scheduler.shutdown();
 		} catch (final Exception e) {
 			// Ignore.
 		}
+		pdfReportRenderer.shutdown();
+		if (maintenanceExecutor != null) {
+			maintenanceExecutor.shutdownNow();
+		}
 		logger.info(LOGGING_PREFIX + "STOPPED REST-Server at \"" + server.getAddress() + "\"");
 	}
 
+	/**
+	 * Delete the uploaded files which have not been used by a request for a while.
+	 */
+	private void sweepUploads() {
+		try {
+			final int deleted = uploadStore.sweep(UPLOAD_MAXIMUM_AGE, TaSKRestServer::isActiveRun);
+			if (deleted > 0) {
+				logger.debug(LOGGING_PREFIX + "Deleted " + deleted + " unused uploaded files.");
+			}
+		} catch (final Exception e) {
+			// An exception would cancel the scheduled sweep.
+			logger.warning(LOGGING_PREFIX + "The uploaded files could not be swept: " + e.getMessage());
+		}
+	}
+
 }
\ No newline at end of file
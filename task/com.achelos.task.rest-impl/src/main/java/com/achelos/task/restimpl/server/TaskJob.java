@@ -0,0 +1,89 @@
+package com.achelos.task.restimpl.server;
+
+import java.util.UUID;
+
+import com.achelos.task.restimpl.server.TesttoolRequestResource.ExecutionStatus;
+
+/**
+ * An execution request together with its priority and its lifecycle state within the {@link TaskJobScheduler}.
+ */
+public class TaskJob {
+
+	private final TaskRequestEntry request;
+	private final int priority;
+	private final long sequenceNumber;
+	private volatile ExecutionStatus status = ExecutionStatus.SCHEDULED;
+	private final RunLogBroadcaster runLog = new RunLogBroadcaster();
+
+	TaskJob(final TaskRequestEntry request, final int priority, final long sequenceNumber) {
+		this.request = request;
+		this.priority = priority;
+		this.sequenceNumber = sequenceNumber;
+	}
+
+	/**
+	 * @return the uuid of the request
+	 */
+	public UUID getUuid() {
+		return request.getUuid();
+	}
+
+	/**
+	 * @return the execution request
+	 */
+	public TaskRequestEntry getRequest() {
+		return request;
+	}
+
+	/**
+	 * @return the priority; jobs with a higher priority are executed first
+	 */
+	public int getPriority() {
+		return priority;
+	}
+
+	/**
+	 * @return the order of submission; jobs with the same priority are executed in this order
+	 */
+	long getSequenceNumber() {
+		return sequenceNumber;
+	}
+
+	/**
+	 * @return the logger distributing the log of the run to the clients following it
+	 */
+	public RunLogBroadcaster getRunLog() {
+		return runLog;
+	}
+
+	/**
+	 * @return the lifecycle state: SCHEDULED, RUNNING, CANCELLED, FINISHED or FAILED
+	 */
+	public ExecutionStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Wait until the lifecycle state differs from the given one.
+	 *
+	 * @param knownStatus the state known to the caller
+	 * @param timeoutMillis the maximum time to wait in milliseconds
+	 * @return the current lifecycle state, which equals the given one if the timeout elapsed.
+	 * @throws InterruptedException if the waiting thread is interrupted
+	 */
+	public synchronized ExecutionStatus awaitStatusChange(final ExecutionStatus knownStatus, final long timeoutMillis)
+			throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + timeoutMillis;
+		long remaining = timeoutMillis;
+		while (status == knownStatus && remaining > 0) {
+			wait(remaining);
+			remaining = deadline - System.currentTimeMillis();
+		}
+		return status;
+	}
+
+	synchronized void setStatus(final ExecutionStatus status) {
+		this.status = status;
+		notifyAll();
+	}
+}
@@ -0,0 +1,273 @@
+package com.achelos.task.restimpl.server;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.achelos.task.logging.LoggingConnector;
+import com.achelos.task.restimpl.server.TesttoolRequestResource.ExecutionStatus;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigChecker;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameter;
+import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameterNames;
+
+/**
+ * Schedules the execution requests of the REST server on a configurable number of workers.
+ * <p>
+ * Requests wait in a queue ordered by priority and submission, and are handed to the next idle worker. A request is
+ * only started next to running ones, if enough ports of the TLS Test Tool are left for its test cases and the system
+ * load is below the number of processors. Otherwise, it waits until a running request finishes. Requests which wait
+ * in the queue can be cancelled.
+ * <p>
+ * A job is only kept until it has reached a final state. Afterwards, only its final state is kept, for a bounded number
+ * of requests. The final state of a request, which has not finished, is also recorded in its report directory, from
+ * which the state is derived later on, see {@link TesttoolRequestResource#getStatus(UUID)}.
+ */
+public class TaskJobScheduler {
+
+	private static final String LOGGING_PREFIX = "TaSK REST Server: ";
+	/**
+	 * Interval in which a request, which is held back because of the system load, is reconsidered.
+	 */
+	private static final long ADMISSION_RECHECK_INTERVAL = 5000;
+	/**
+	 * Number of ended requests, whose final state is kept in memory.
+	 */
+	private static final int MAXIMUM_FINAL_STATES = 10000;
+
+	private final TesttoolRunner testtoolRunner;
+	private final LoggingConnector logger;
+	private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+
+	private final PriorityQueue<TaskJob> queue = new PriorityQueue<>(
+			Comparator.comparingInt(TaskJob::getPriority).reversed().thenComparingLong(TaskJob::getSequenceNumber));
+	private final Map<UUID, TaskJob> jobs = new ConcurrentHashMap<>();
+	private final Map<UUID, ExecutionStatus> finalStates = Collections.synchronizedMap(
+			new LinkedHashMap<UUID, ExecutionStatus>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<UUID, ExecutionStatus> eldest) {
+					return size() > MAXIMUM_FINAL_STATES;
+				}
+			});
+	private final List<Thread> workers = new ArrayList<>();
+	private final int workerCount;
+	private final int maximumQueueSize;
+	private final int portCount;
+	private final int portsPerJob;
+
+	private long nextSequenceNumber = 0;
+	private int runningJobs = 0;
+	private boolean shutdown = false;
+
+	/**
+	 * Create a scheduler, which executes the requests with the given runner.
+	 *
+	 * @param testtoolRunner the runner executing a single request
+	 * @param globalConfiguration the global configuration providing the number of workers, the queue size and the
+	 *            ports of the TLS Test Tool
+	 */
+	public TaskJobScheduler(final TesttoolRunner testtoolRunner,
+			final HashMap<String, GlobalConfigParameter> globalConfiguration) {
+		this.testtoolRunner = testtoolRunner;
+		this.logger = LoggingConnector.getInstance();
+		workerCount = Math.max(1, getInteger(globalConfiguration, GlobalConfigParameterNames.RestApiWorkers));
+		maximumQueueSize = Math.max(1, getInteger(globalConfiguration, GlobalConfigParameterNames.RestApiQueueSize));
+		portCount = Math.max(1, getInteger(globalConfiguration, GlobalConfigParameterNames.TlsTestToolPortCount));
+		portsPerJob = Math.max(1, getInteger(globalConfiguration, GlobalConfigParameterNames.TestCaseParallelism));
+	}
+
+	private static int getInteger(final HashMap<String, GlobalConfigParameter> globalConfiguration,
+			final GlobalConfigParameterNames parameterName) {
+		if (!GlobalConfigChecker.isGlobalConfigParameterSet(globalConfiguration, parameterName)) {
+			return 1;
+		}
+		return GlobalConfigChecker.getGlobalConfigParameter(globalConfiguration, parameterName).getValueAsInteger();
+	}
+
+	/**
+	 * Start the workers.
+	 */
+	public synchronized void start() {
+		for (int i = 0; i < workerCount; i++) {
+			var worker = new Thread(this::work, "TaSK REST Worker " + (i + 1));
+			workers.add(worker);
+			worker.start();
+		}
+		logger.debug(LOGGING_PREFIX + "Started " + workerCount + " worker(s), queue size " + maximumQueueSize + ".");
+	}
+
+	/**
+	 * Stop the workers after their current request and cancel all waiting requests.
+	 */
+	public synchronized void shutdown() {
+		shutdown = true;
+		for (var job : queue) {
+			job.setStatus(ExecutionStatus.CANCELLED);
+			evict(job);
+			deleteFiles(job);
+		}
+		queue.clear();
+		notifyAll();
+	}
+
+	/**
+	 * Queue a request for execution.
+	 *
+	 * @param request the request to execute
+	 * @param priority the priority of the request; requests with a higher priority are executed first
+	 * @return true if the request has been queued, false if the queue is full.
+	 */
+	public synchronized boolean submit(final TaskRequestEntry request, final int priority) {
+		if (shutdown || queue.size() >= maximumQueueSize) {
+			return false;
+		}
+		var job = new TaskJob(request, priority, nextSequenceNumber++);
+		jobs.put(job.getUuid(), job);
+		queue.add(job);
+		notifyAll();
+		return true;
+	}
+
+	/**
+	 * Cancel a request, which is waiting for its execution.
+	 *
+	 * @param uuid the uuid of the request
+	 * @return the state of the request afterwards, i.e. CANCELLED if it has been cancelled, or null if the request is
+	 *         not known.
+	 */
+	public synchronized ExecutionStatus cancel(final UUID uuid) {
+		var job = jobs.get(uuid);
+		if (job == null) {
+			return null;
+		}
+		if (queue.remove(job)) {
+			job.setStatus(ExecutionStatus.CANCELLED);
+			evict(job);
+			deleteFiles(job);
+			logger.info(LOGGING_PREFIX + "Cancelled request " + uuid + ".");
+		}
+		return job.getStatus();
+	}
+
+	/**
+	 * @param uuid the uuid of the request
+	 * @return the job of the request, or null if the request has not been submitted to this scheduler or has reached a
+	 *         final state.
+	 */
+	public TaskJob getJob(final UUID uuid) {
+		return jobs.get(uuid);
+	}
+
+	/**
+	 * @param uuid the uuid of the request
+	 * @return the final state of a request, whose job has been removed, or null if it is not known anymore.
+	 */
+	public ExecutionStatus getFinalStatus(final UUID uuid) {
+		return finalStates.get(uuid);
+	}
+
+	/**
+	 * Remove a job, which has reached a final state. The state is kept before the job is removed, so that the request
+	 * is known at any time.
+	 */
+	private void evict(final TaskJob job) {
+		var status = job.getStatus();
+		finalStates.put(job.getUuid(), status);
+		if (status != ExecutionStatus.FINISHED) {
+			try {
+				TesttoolRequestResource.recordFinalStatus(job.getUuid(), status);
+			} catch (IOException e) {
+				logger.warning(LOGGING_PREFIX + "Could not record the state of request " + job.getUuid() + ": "
+						+ e.getMessage());
+			}
+		}
+		jobs.remove(job.getUuid());
+	}
+
+	private void work() {
+		TaskJob job;
+		while ((job = take()) != null) {
+			logger.info(LOGGING_PREFIX + "Executing request " + job.getUuid() + ".");
+			var status = ExecutionStatus.FAILED;
+			try {
+				testtoolRunner.execute(job.getRequest(), job.getRunLog());
+				status = ExecutionStatus.FINISHED;
+			} catch (Exception | LinkageError e) {
+				logger.error(LOGGING_PREFIX + "An error occured while handling TaSK Execution Request: "
+						+ e.getMessage(), e);
+			} finally {
+				finish(job, status);
+			}
+		}
+	}
+
+	/**
+	 * @return the next admitted job, or null if the scheduler has been shut down.
+	 */
+	private synchronized TaskJob take() {
+		try {
+			while (!shutdown) {
+				var next = queue.peek();
+				if (next != null && isAdmitted()) {
+					queue.poll();
+					runningJobs++;
+					next.setStatus(ExecutionStatus.RUNNING);
+					return next;
+				}
+				if (next != null) {
+					// Held back: reconsider when a job finishes or the system load may have dropped.
+					wait(ADMISSION_RECHECK_INTERVAL);
+				} else {
+					wait();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+	private synchronized void finish(final TaskJob job, final ExecutionStatus status) {
+		deleteFiles(job);
+		job.getRunLog().close();
+		job.setStatus(status);
+		evict(job);
+		runningJobs--;
+		notifyAll();
+	}
+
+	private void deleteFiles(final TaskJob job) {
+		try {
+			job.getRequest().deleteFiles();
+		} catch (IOException e) {
+			logger.warning(LOGGING_PREFIX + "Could not delete the files of request " + job.getUuid() + ": "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * @return true, if one more job can be started next to the running ones.
+	 */
+	private boolean isAdmitted() {
+		if (runningJobs == 0) {
+			return true;
+		}
+		// Each job leases up to test_case_parallelism ports of the TLS Test Tool at the same time.
+		if ((runningJobs + 1) * portsPerJob > portCount) {
+			return false;
+		}
+		var systemLoad = operatingSystem.getSystemLoadAverage();
+		return systemLoad < 0 || systemLoad < operatingSystem.getAvailableProcessors();
+	}
+}
@@ -7,8 +7,16 @@ import com.achelos.task.xmlparser.datastructures.testrunplan.TestRunPlanData;
 import com.achelos.task.xmlparser.inputparsing.InputParser;
 import com.achelos.task.xmlparser.runplanparsing.RunPlanParser;
 
-import java.io.*;
-import java.nio.file.*;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -16,8 +24,15 @@ import java.util.UUID;
 
 public class TaskRequestEntry {
 
+	/**
+	 * Element of the MICS file and the test run plan containing the RMI URL of the DUT.
+	 */
+	private static final String RMI_URL_ELEMENT = "RMIURL";
+	private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
 	private Path requestDir;
 	private final UUID uuid;
+	private UploadStore uploadStore;
 	private File micsFile;
 	private File testRunplanFile;
 	private List<File> serverCertificateChain;
@@ -31,100 +46,172 @@ public class TaskRequestEntry {
 	protected TaskRequestEntry(final UUID uuid) {
 		this.uuid = uuid;
 	}
-	
+
+	/**
+	 * Store the uploads of a request executing a test run plan. The test run plan is validated by {@link #validate()}
+	 * before the execution.
+	 */
 	public TaskRequestEntry(final UUID uuid,
-							final File testRunplanFile,
+							final UploadStore uploadStore,
+							final InputStream testRunplanFile,
 							final List<InputStream> clientAuthCertChain,
-							final File clientAuthKeyFile,
-							final File certificateValidationRootCA) throws IOException {
+							final InputStream clientAuthKeyFile,
+							final InputStream certificateValidationRootCA) throws IOException {
 		this.uuid = uuid;
 		
 		// basic plausibility checks
-		if (testRunplanFile == null || !testRunplanFile.exists()) {
+		if (testRunplanFile == null) {
 			throw new RuntimeException("TaSKRequestHandler: TRP file does not exist.");
 		}
-		
-		TestRunPlanData runPlanData = RunPlanParser.parseRunPlan(testRunplanFile);
-		// do not allow manual DUT execution
-		if (runPlanData.getDutRMIURL().isEmpty()) {
-			throw new RuntimeException("TaSKRequestHandler: RMI URL is not defined in TestRunPlan.");
-		}
 
-		requestDir = Files.createTempDirectory(uuid.toString());
-		this.testRunplanFile = Files.copy(testRunplanFile.toPath(), requestDir.resolve(testRunplanFile.getName())).toFile();
-		
-		if (clientAuthCertChain != null && !clientAuthCertChain.isEmpty()) {
-			this.clientAuthCertChain = Files.createTempFile(null, ".pem").toFile();
-			try (OutputStream out = Files.newOutputStream(this.clientAuthCertChain.toPath(), StandardOpenOption.WRITE)) {
-				for (var certFile : clientAuthCertChain) {
-					if (certFile != null) {
-						certFile.transferTo(out);
-					}
-				}
-			}
-		}
-		if (clientAuthKeyFile != null && clientAuthKeyFile.exists()) {
-			this.clientAuthKeyFile = Files.copy(clientAuthKeyFile.toPath(), requestDir.resolve(clientAuthKeyFile.getName())).toFile();
-		}
-		if (certificateValidationRootCA != null && certificateValidationRootCA.exists()) {
-			this.certificateValidationRootCA = Files.copy(certificateValidationRootCA.toPath(), requestDir.resolve(certificateValidationRootCA.getName())).toFile();
+		this.uploadStore = uploadStore;
+		requestDir = uploadStore.createRequestDirectory(uuid);
+		try {
+			this.testRunplanFile = uploadStore.store(requestDir, "testrunplan.xml", List.of(testRunplanFile)).toFile();
+			storeClientAuthentication(clientAuthCertChain, clientAuthKeyFile, certificateValidationRootCA);
+		} catch (IOException | RuntimeException e) {
+			deleteFiles();
+			throw e;
 		}
-
 	}
-	
+
+	/**
+	 * Store the uploads of a request executing a MICS file. The MICS file is validated by {@link #validate()} before
+	 * the execution.
+	 */
 	public TaskRequestEntry(final UUID uuid,
-							final File micsFile,
+							final UploadStore uploadStore,
+							final InputStream micsFile,
 							final List<InputStream> serverCertificateChain,
 							final boolean ignoreMicsVerification, 
 							final boolean onlyGenerateTRP,
 							final List<InputStream> clientAuthCertChain,
-							final File clientAuthKeyFile,
-							final File certificateValidationRootCA) throws IOException {
+							final InputStream clientAuthKeyFile,
+							final InputStream certificateValidationRootCA) throws IOException {
 		this.uuid = uuid;
-		requestDir = Files.createTempDirectory(uuid.toString());
 		
 		// basic plausibility checks
-		if (micsFile == null || !micsFile.exists()) {
+		if (micsFile == null) {
 			throw new RuntimeException("TaSKRequestHandler: MICS file does not exist.");
 		}
-		
-		MICS micsData = InputParser.parseMICS(micsFile);
-		// do not allow manual DUT execution
-		if (micsData.getDutRMIURL().isEmpty()) {
-			throw new RuntimeException("TaSKRequestHandler: RMI URL is not defined in MICS.");
-		}
 
-		this.micsFile = Files.copy(micsFile.toPath(), requestDir.resolve(micsFile.getName())).toFile();
-		if (serverCertificateChain != null && !serverCertificateChain.isEmpty()) {
-			this.serverCertificateChain = new ArrayList<>();
-			var cert_number = 0;
-			for (var certFile : serverCertificateChain) {
-				if (certFile != null) {
-					var fileName = "server_cert_chain_" + Integer.toString(cert_number);
-					Files.copy(certFile, requestDir.resolve(fileName));
-					this.serverCertificateChain.add(requestDir.resolve(fileName).toFile());
-					cert_number++;
+		this.uploadStore = uploadStore;
+		requestDir = uploadStore.createRequestDirectory(uuid);
+		try {
+			this.micsFile = uploadStore.store(requestDir, "mics.xml", List.of(micsFile)).toFile();
+			if (serverCertificateChain != null && !serverCertificateChain.isEmpty()) {
+				this.serverCertificateChain = new ArrayList<>();
+				var cert_number = 0;
+				for (var certFile : serverCertificateChain) {
+					if (certFile != null) {
+						var fileName = "server_cert_chain_" + Integer.toString(cert_number);
+						this.serverCertificateChain.add(uploadStore.store(requestDir, fileName, List.of(certFile)).toFile());
+						cert_number++;
+					}
 				}
 			}
+			storeClientAuthentication(clientAuthCertChain, clientAuthKeyFile, certificateValidationRootCA);
+		} catch (IOException | RuntimeException e) {
+			deleteFiles();
+			throw e;
 		}
 		this.ignoreMicsVerification = ignoreMicsVerification;
 		this.onlyGenerateTRP = onlyGenerateTRP;
+	}
+
+	private void storeClientAuthentication(final List<InputStream> clientAuthCertChain,
+			final InputStream clientAuthKeyFile, final InputStream certificateValidationRootCA) throws IOException {
 		if (clientAuthCertChain != null && !clientAuthCertChain.isEmpty()) {
-			this.clientAuthCertChain = Files.createTempFile(null, ".pem").toFile();
-			try (OutputStream out = Files.newOutputStream(this.clientAuthCertChain.toPath(), StandardOpenOption.WRITE)) {
-				for (var certFile : clientAuthCertChain) {
-					if (certFile != null) {
-						certFile.transferTo(out);
+			this.clientAuthCertChain = uploadStore.store(requestDir, "client_auth_cert_chain.pem", clientAuthCertChain).toFile();
+		}
+		if (clientAuthKeyFile != null) {
+			this.clientAuthKeyFile = uploadStore.storePrivate(requestDir, "client_auth_key.pem", List.of(clientAuthKeyFile)).toFile();
+		}
+		if (certificateValidationRootCA != null) {
+			this.certificateValidationRootCA = uploadStore.store(requestDir, "certificate_validation_ca.pem", List.of(certificateValidationRootCA)).toFile();
+		}
+	}
+
+	/**
+	 * Check that the MICS file or test run plan of the request is well-formed and defines the RMI URL of the DUT,
+	 * without binding and validating it. Called on the thread handling the API request, so that these errors are
+	 * answered to the client directly.
+	 *
+	 * @throws IllegalArgumentException if the file is not well-formed or does not define the RMI URL
+	 */
+	public void checkPlausibility() {
+		var fileType = testRunplanFile != null ? "TestRunPlan" : "MICS";
+		var rmiUrlDefined = false;
+		try (InputStream in = new BufferedInputStream(
+				Files.newInputStream((testRunplanFile != null ? testRunplanFile : micsFile).toPath()))) {
+			XMLStreamReader reader;
+			synchronized (INPUT_FACTORY) {
+				reader = INPUT_FACTORY.createXMLStreamReader(in);
+			}
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT
+							&& RMI_URL_ELEMENT.equals(reader.getLocalName())) {
+						rmiUrlDefined |= !reader.getElementText().isEmpty();
 					}
 				}
+			} finally {
+				reader.close();
 			}
+		} catch (IOException | XMLStreamException e) {
+			throw new IllegalArgumentException("TaSKRequestHandler: " + fileType + " could not be parsed: "
+					+ e.getMessage(), e);
 		}
-		if (clientAuthKeyFile != null && clientAuthKeyFile.exists()) {
-			this.clientAuthKeyFile = Files.copy(clientAuthKeyFile.toPath(), requestDir.resolve(clientAuthKeyFile.getName())).toFile();
+		// do not allow manual DUT execution
+		if (!rmiUrlDefined) {
+			throw new IllegalArgumentException("TaSKRequestHandler: RMI URL is not defined in " + fileType + ".");
 		}
+	}
 
-		if (certificateValidationRootCA != null && certificateValidationRootCA.exists()) {
-			this.certificateValidationRootCA = Files.copy(certificateValidationRootCA.toPath(), requestDir.resolve(certificateValidationRootCA.getName())).toFile();
+	/**
+	 * Parse the MICS file or test run plan of the request. Called by the worker executing the request, so that
+	 * uploads are not bound and validated on the threads handling the API requests.
+	 *
+	 * @throws IllegalArgumentException if the file cannot be parsed or does not allow an automated execution
+	 */
+	public void validate() {
+		try {
+			String dutRmiUrl;
+			if (testRunplanFile != null) {
+				TestRunPlanData runPlanData = RunPlanParser.parseRunPlan(testRunplanFile);
+				dutRmiUrl = runPlanData.getDutRMIURL();
+			} else {
+				MICS micsData = InputParser.parseMICS(micsFile);
+				dutRmiUrl = micsData.getDutRMIURL();
+			}
+			// do not allow manual DUT execution
+			if (dutRmiUrl.isEmpty()) {
+				throw new IllegalArgumentException("TaSKRequestHandler: RMI URL is not defined in "
+						+ (testRunplanFile != null ? "TestRunPlan." : "MICS."));
+			}
+		} catch (IllegalArgumentException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalArgumentException("TaSKRequestHandler: "
+					+ (testRunplanFile != null ? "TestRunPlan" : "MICS") + " could not be parsed: " + e.getMessage(), e);
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		var factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+
+	/**
+	 * Delete the working directory of the request, after it has ended.
+	 *
+	 * @throws IOException if the directory cannot be deleted
+	 */
+	public void deleteFiles() throws IOException {
+		if (uploadStore != null && requestDir != null) {
+			uploadStore.deleteRequestDirectory(requestDir);
 		}
 	}
 	
@@ -5,15 +5,23 @@ import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParam
 import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameterNames;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.HashMap;
-import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class TesttoolRequestResource {
 
 	private static volatile String reportDir;
+	private static volatile TaskJobScheduler scheduler;
+	private static volatile UploadStore uploadStore;
+	private static volatile PdfReportRenderer pdfReportRenderer;
+	/**
+	 * File in the report directory of a request, which records its final execution state if it has not finished.
+	 */
+	private static final String STATUS_FILE_NAME = "ExecutionStatus";
 	/**
 	 * Enum representing different Execution states.
 	 */
@@ -34,10 +42,25 @@ public class TesttoolRequestResource {
 		 * Execution state: Finished
 		 */
 		FINISHED,
+		/**
+		 * Execution state: Cancelled before its execution started
+		 */
+		CANCELLED,
+		/**
+		 * Execution state: Failed with an error
+		 */
+		FAILED,
 		/**
 		 * Execution state: Unknown
 		 */
 		UNKNOWN;
+
+		/**
+		 * @return true, if the state does not change anymore.
+		 */
+		public boolean isFinal() {
+			return this != SCHEDULED && this != RUNNING;
+		}
 	}
 
 	protected static synchronized void initReportDir(File globalConfigFile) {
@@ -59,21 +82,79 @@ public class TesttoolRequestResource {
 				.getValueAsString();
 	}
 
-	static final private Queue<TaskRequestEntry> queue = new ConcurrentLinkedQueue<>();
-	static final private int QUEUE_MAX_SIZE = 5;
+	/**
+	 * Set the scheduler, which executes the queued execution requests.
+	 * @param taskJobScheduler the scheduler to use.
+	 */
+	protected static void initScheduler(final TaskJobScheduler taskJobScheduler) {
+		TesttoolRequestResource.scheduler = taskJobScheduler;
+	}
+
+	/**
+	 * Set the store of the files uploaded with the execution requests.
+	 * @param store the store to use.
+	 */
+	protected static void initUploadStore(final UploadStore store) {
+		TesttoolRequestResource.uploadStore = store;
+	}
+
+	/**
+	 * Set the renderer of the PDF reports.
+	 * @param renderer the renderer to use.
+	 */
+	protected static void initPdfReportRenderer(final PdfReportRenderer renderer) {
+		TesttoolRequestResource.pdfReportRenderer = renderer;
+	}
+
+	/**
+	 * @return the renderer of the PDF reports.
+	 */
+	public static PdfReportRenderer getPdfReportRenderer() {
+		return pdfReportRenderer;
+	}
 
+	/**
+	 * @return the store of the files uploaded with the execution requests.
+	 */
+	public static UploadStore getUploadStore() {
+		return uploadStore;
+	}
 
 	/**
 	 * Queue the executionRequest for the TaSK Test Runner to execute it.
 	 * @param executionRequest the execution request to schedule.
 	 * @return Returns true if the execution request has been scheduled, and false if the queue is full.
 	 */
-	public static synchronized boolean queueExecution(TaskRequestEntry executionRequest) {
-		if (queue.size() >= QUEUE_MAX_SIZE) {
+	public static boolean queueExecution(TaskRequestEntry executionRequest) {
+		return queueExecution(executionRequest, 0);
+	}
+
+	/**
+	 * Queue the executionRequest for the TaSK Test Runner to execute it.
+	 * @param executionRequest the execution request to schedule.
+	 * @param priority the priority of the request. Requests with a higher priority are executed first.
+	 * @return Returns true if the execution request has been scheduled, and false if the queue is full.
+	 */
+	public static boolean queueExecution(TaskRequestEntry executionRequest, int priority) {
+		var taskJobScheduler = scheduler;
+		if (taskJobScheduler == null) {
 			return false;
-		} else {
-			return queue.add(executionRequest);
 		}
+		return taskJobScheduler.submit(executionRequest, priority);
+	}
+
+	/**
+	 * Cancel the executionRequest with the specified UUID, if it has not been started yet.
+	 * @param uuid the UUID of the executionRequest to cancel.
+	 * @return the execution state of the executionRequest afterwards, i.e. CANCELLED if it has been cancelled.
+	 */
+	public static ExecutionStatus cancelExecution(final UUID uuid) {
+		var taskJobScheduler = scheduler;
+		ExecutionStatus status = null;
+		if (taskJobScheduler != null) {
+			status = taskJobScheduler.cancel(uuid);
+		}
+		return status != null ? status : getStatus(uuid);
 	}
 
 	/**
@@ -81,21 +162,26 @@ public class TesttoolRequestResource {
 	 * @param uuid the UUID of the executionRequest to get the execution state for.
 	 * @return the execution state of the executionRequest with the specified UUID.
 	 */
-	public static synchronized ExecutionStatus getStatus(final UUID uuid) {
-		var nextInQueue = queue.peek();
-		if (nextInQueue != null) {
-			if (nextInQueue.equals(new TaskRequestEntry(uuid))) {
-				return ExecutionStatus.RUNNING;
-			} else {
-				if (queue.contains(new TaskRequestEntry(uuid))) {
-					return ExecutionStatus.SCHEDULED;
-				}
+	public static ExecutionStatus getStatus(final UUID uuid) {
+		var taskJobScheduler = scheduler;
+		if (taskJobScheduler != null) {
+			var job = taskJobScheduler.getJob(uuid);
+			if (job != null) {
+				return job.getStatus();
+			}
+			var finalStatus = taskJobScheduler.getFinalStatus(uuid);
+			if (finalStatus != null) {
+				return finalStatus;
 			}
 		}
 
-		// if in results folder: return ExecutionStatus.FINISHED
+		// Requests of previous server instances or ended long ago: Check the results folder.
 		var reportDirectory = getResultPath(uuid);
 		if (reportDirectory.exists() && reportDirectory.isDirectory()) {
+			var recordedStatus = readFinalStatus(reportDirectory);
+			if (recordedStatus != null) {
+				return recordedStatus;
+			}
 			var reportFile = new File(reportDirectory, "Report.xml");
 			if (reportFile.exists()) {
 				return ExecutionStatus.FINISHED;
@@ -107,12 +193,41 @@ public class TesttoolRequestResource {
 		}
 	}
 
-	public static synchronized TaskRequestEntry getNextTaskRequest() {
-		return queue.peek();
+	/**
+	 * Wait until the execution state of the executionRequest with the specified UUID differs from the given one.
+	 * @param uuid the UUID of the executionRequest to wait for.
+	 * @param knownStatus the execution state known to the caller.
+	 * @param timeoutMillis the maximum time to wait in milliseconds.
+	 * @return the current execution state, which equals the given one if the timeout elapsed.
+	 * @throws InterruptedException if the waiting thread is interrupted.
+	 */
+	public static ExecutionStatus awaitStatusChange(final UUID uuid, final ExecutionStatus knownStatus,
+			final long timeoutMillis) throws InterruptedException {
+		var taskJobScheduler = scheduler;
+		if (taskJobScheduler != null) {
+			var job = taskJobScheduler.getJob(uuid);
+			if (job != null) {
+				return job.awaitStatusChange(knownStatus, timeoutMillis);
+			}
+		}
+		// Requests of previous server instances do not change their state anymore.
+		return getStatus(uuid);
 	}
 
-	public static synchronized TaskRequestEntry popExecutedTaskRequest() {
-		return queue.poll();
+	/**
+	 * Retrieve the live log of the executionRequest with the specified UUID.
+	 * @param uuid the UUID of the executionRequest to get the log for.
+	 * @return the live log, or null if the executionRequest has not been submitted to this server instance.
+	 */
+	public static RunLogBroadcaster getRunLog(final UUID uuid) {
+		var taskJobScheduler = scheduler;
+		if (taskJobScheduler != null) {
+			var job = taskJobScheduler.getJob(uuid);
+			if (job != null) {
+				return job.getRunLog();
+			}
+		}
+		return null;
 	}
 
 	/**
@@ -120,7 +235,7 @@ public class TesttoolRequestResource {
 	 * @param uuid the UUID of the executionRequest to get the result path for.
 	 * @return the result path of the executionRequest with the specified UUID.
 	 */
-	public static synchronized String getResultPathString(final UUID uuid) {
+	public static String getResultPathString(final UUID uuid) {
 		var reportDirectory = getResultPath(uuid);
 		if (reportDirectory.exists() && reportDirectory.isDirectory()) {
 			return reportDirectory.getAbsolutePath();
@@ -129,7 +244,35 @@ public class TesttoolRequestResource {
 		}
 	}
 
-	private static synchronized File getResultPath(final UUID uuid) {
+	/**
+	 * Record the final execution state of an executionRequest, which has not finished, in its report directory, so that
+	 * the state is still known after the scheduler has forgotten the request.
+	 * @param uuid the UUID of the executionRequest.
+	 * @param status the final execution state.
+	 * @throws IOException if the state cannot be written.
+	 */
+	static void recordFinalStatus(final UUID uuid, final ExecutionStatus status) throws IOException {
+		var reportDirectory = getResultPath(uuid).toPath();
+		Files.createDirectories(reportDirectory);
+		Files.writeString(reportDirectory.resolve(STATUS_FILE_NAME), status.name(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the final execution state recorded in the given report directory, or null if none has been recorded.
+	 */
+	private static ExecutionStatus readFinalStatus(final File reportDirectory) {
+		var statusFile = new File(reportDirectory, STATUS_FILE_NAME).toPath();
+		if (!Files.isRegularFile(statusFile)) {
+			return null;
+		}
+		try {
+			return ExecutionStatus.valueOf(Files.readString(statusFile, StandardCharsets.UTF_8).trim());
+		} catch (IOException | IllegalArgumentException e) {
+			return ExecutionStatus.ABORTED;
+		}
+	}
+
+	private static File getResultPath(final UUID uuid) {
 		return Paths.get(reportDir, uuid.toString()).toFile();
 	}
 
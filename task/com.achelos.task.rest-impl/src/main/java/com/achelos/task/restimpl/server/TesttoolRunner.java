@@ -1,33 +1,36 @@
 package com.achelos.task.restimpl.server;
 
 import com.achelos.task.abstractinterface.TaskTestTool;
+import com.achelos.task.logging.BasicLogger;
 import com.achelos.task.logging.LoggingConnector;
 import com.achelos.task.reporting.datastructures.ReportLogger;
-import com.achelos.task.reporting.pdfreport.PdfReport;
-import com.achelos.task.reporting.xmlreport.XmlReport;
+import com.achelos.task.reporting.xmlreport.XmlReportWriter;
 import com.achelos.task.xmlparser.configparsing.ConfigParser;
 import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameter;
 import com.achelos.task.xmlparser.datastructures.configuration.GlobalConfigParameterNames;
-import com.achelos.task.xmlparser.datastructures.testrunplan.TestRunPlanData;
-import com.achelos.task.xmlparser.runplanparsing.RunPlanParser;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.List;
 
-public class TesttoolRunner implements Runnable{
+/**
+ * Executes a single TaSK Execution Request and generates its reports. Used by the workers of the
+ * {@link TaskJobScheduler}, thus several requests may be executed at the same time.
+ */
+public class TesttoolRunner {
+
+	/**
+	 * Name of the partial report derived from the report journal, if an execution fails.
+	 */
+	public static final String PARTIAL_REPORT_FILE_NAME = "PartialReport.xml";
 
-	//private TaskTestTool taskTesttoolInstance;
-	
-	private volatile boolean canceled;
 	private final HashMap<String, GlobalConfigParameter> globalConfiguration;
 	private final File globalConfigFile;
-	private final LoggingConnector logger;
+	private final PdfReportRenderer pdfReportRenderer;
 	
 	public TesttoolRunner(final File globalConfigFile) {
-		this.canceled = false;
-		this.logger = LoggingConnector.getInstance();
 		this.globalConfigFile = globalConfigFile;
 		try {
 			globalConfiguration = ConfigParser.parseGlobalConfig(globalConfigFile);
@@ -42,128 +45,139 @@ public class TesttoolRunner implements Runnable{
 			throw new IllegalArgumentException("Unspecified required global configuration file: "
 					+ GlobalConfigParameterNames.ReportDirectory.getParameterName());
 		}
+		pdfReportRenderer = new PdfReportRenderer(globalConfiguration);
+	}
+
+	/**
+	 * @return the parsed global configuration
+	 */
+	public HashMap<String, GlobalConfigParameter> getGlobalConfiguration() {
+		return globalConfiguration;
+	}
+
+	/**
+	 * @return the renderer of the PDF reports
+	 */
+	public PdfReportRenderer getPdfReportRenderer() {
+		return pdfReportRenderer;
 	}
 
-	@Override
-	public void run() {
-
-		while (!canceled) {
-			// Poll for next Execution Request.
-			TaskRequestEntry request = TesttoolRequestResource.getNextTaskRequest();
-			if (request == null) {
-				try {
-					Thread.sleep(1000);
-				} catch (Exception e) {
-					continue;
-				}
-				continue;
+	/**
+	 * Validate and execute the request on the calling thread. The log messages of the run are collected by a LoggingConnector of
+	 * its own, which is bound to the calling thread, so that the reports of concurrent runs stay separated.
+	 *
+	 * @param requestEntry the request to execute
+	 * @param runLog a further logger of the run, e.g. to follow its log live
+	 */
+	public void execute(final TaskRequestEntry requestEntry, final BasicLogger runLog) {
+		var xmlReportWriter = new XmlReportWriter();
+		// The test cases and their log messages are served page by page from the index.
+		xmlReportWriter.setIndexed(true);
+		var reportLogger = new ReportLogger(xmlReportWriter);
+		var runLogger = LoggingConnector.createInstance(List.of(reportLogger, runLog));
+		var reportDirectory = getReportDirectory(requestEntry);
+		var journalDirectory = new File(reportDirectory, XmlReportWriter.JOURNAL_DIRECTORY_NAME);
+		var reportWritten = false;
+		LoggingConnector.bindInstance(runLogger);
+		try {
+			try {
+				requestEntry.validate();
+			} catch (IllegalArgumentException e) {
+				runLogger.error(e.getMessage());
+				throw e;
+			}
+			try {
+				xmlReportWriter.setJournalDirectory(journalDirectory);
+			} catch (IOException e) {
+				runLogger.warning("The report journal could not be created, no partial report is available if the "
+						+ "execution fails: " + e.getMessage());
+			}
+			if (requestEntry.getTestRunplanFile() != null) {
+				executeTrpMode(requestEntry, reportLogger, reportDirectory);
+			} else {
+				executeMicsMode(requestEntry, reportLogger, reportDirectory);
+			}
+			reportWritten = true;
+		} finally {
+			LoggingConnector.stop();
+			LoggingConnector.bindInstance(null);
+			if (!reportWritten && journalDirectory.isDirectory()) {
+				recoverPartialReport(journalDirectory, reportDirectory);
 			}
 			try {
-				executeTaskRequest(request);
-			} catch (Exception e) {
-				// Log Error
-				logger.error("An error occured while handling TaSK Execution Request: " + e.getMessage(), e);
-				continue;
-			} finally {
-				TesttoolRequestResource.popExecutedTaskRequest();
+				xmlReportWriter.close();
+			} catch (IOException e) {
+				// Ignore, the spooled files are temporary files.
 			}
 		}
-
-	}
-	
-	public void cancel() {
-		this.canceled = true;
 	}
 
-	private void executeTaskRequest(final TaskRequestEntry requestEntry) {
-		if (requestEntry.getTestRunplanFile() != null) {
-			executeTrpMode(requestEntry);
-		} else {
-			executeMicsMode(requestEntry);
+	/**
+	 * Derive a partial report from the journal of an execution, which has failed before its report was written.
+	 */
+	private void recoverPartialReport(final File journalDirectory, final String reportDirectory) {
+		var partialReportFile = new File(reportDirectory, PARTIAL_REPORT_FILE_NAME);
+		try {
+			XmlReportWriter.recoverReport(journalDirectory, partialReportFile);
+			LoggingConnector.getInstance().info("TaSK REST Server: Partial report written to " + partialReportFile);
+		} catch (IOException e) {
+			LoggingConnector.getInstance().warning("TaSK REST Server: The partial report could not be written: "
+					+ e.getMessage());
 		}
 	}
 
-	private void executeMicsMode(final TaskRequestEntry requestEntry) {
-		var reportLogger = new ReportLogger();
-		LoggingConnector.addLogger(List.of(reportLogger));
-		try {
-			// Input Files
-			var micsFile = requestEntry.getMicsFile();
-			if (!micsFile.exists()) {
-				throw new RuntimeException("Declared MICS file " + micsFile.getAbsolutePath() + " does not exist.");
-			}
+	private String getReportDirectory(final TaskRequestEntry requestEntry) {
+		var reportDir = globalConfiguration.get(GlobalConfigParameterNames.ReportDirectory.getParameterName())
+				.getValueAsString();
+		return Paths.get(reportDir, requestEntry.getUuid().toString()).toString();
+	}
 
-			// Ignore MICS verification
-			//boolean ignoreMicsVerification = requestEntry.ignoreMicsVerification();
+	private void executeMicsMode(final TaskRequestEntry requestEntry, final ReportLogger reportLogger,
+			final String reportDirectory) {
+		// Input Files
+		var micsFile = requestEntry.getMicsFile();
+		if (!micsFile.exists()) {
+			throw new RuntimeException("Declared MICS file " + micsFile.getAbsolutePath() + " does not exist.");
+		}
 
-			// Certificate Files
-			//List<File> certificateFileList = requestEntry.getServerCertificateChain();
+		// Ignore MICS verification
+		//boolean ignoreMicsVerification = requestEntry.ignoreMicsVerification();
 
-			var reportDir = globalConfiguration.get(GlobalConfigParameterNames.ReportDirectory.getParameterName())
-					.getValueAsString();
-			var reportDirectory = Paths.get(reportDir, requestEntry.getUuid().toString()).toString();
+		// Certificate Files
+		//List<File> certificateFileList = requestEntry.getServerCertificateChain();
 
-			var taskExecuteParameters = requestEntry.toTaskExecutionParameters(null, globalConfigFile, reportDirectory);
-			TaskTestTool.executeTaskTestTool(taskExecuteParameters);
+		var taskExecuteParameters = requestEntry.toTaskExecutionParameters(null, globalConfigFile, reportDirectory);
+		TaskTestTool.executeTaskTestTool(taskExecuteParameters);
 
 
-			reportGeneration(reportLogger, reportDirectory);
-		} finally {
-			LoggingConnector.removeLogger(reportLogger);
-		}
+		reportGeneration(reportLogger, reportDirectory);
 	}
 
-	private void executeTrpMode(final TaskRequestEntry requestEntry) {
-		var reportLogger = new ReportLogger();
-		LoggingConnector.addLogger(List.of(reportLogger));
-		try {
-			// Check if file exists.
-			var testRunPlanFile = requestEntry.getTestRunplanFile();
-			if (!testRunPlanFile.exists()) {
-				throw new RuntimeException("Declared test run plan file " + testRunPlanFile.getAbsolutePath() +  " does not exist.");
-			}
-			try {
-				TestRunPlanData testRunPlan = RunPlanParser.parseRunPlan(testRunPlanFile);
-			} catch (Exception e) {
-				throw new RuntimeException("An error occurred while trying to parse test run plan file.", e);
-			}
-
-			var reportDir = globalConfiguration.get(GlobalConfigParameterNames.ReportDirectory.getParameterName())
-					.getValueAsString();
-			var reportDirectory = Paths.get(reportDir, requestEntry.getUuid().toString()).toString();
-
-			var taskExecuteParameters = requestEntry.toTaskExecutionParameters(null, globalConfigFile, reportDirectory);
-			TaskTestTool.executeTaskTestTool(taskExecuteParameters);
+	private void executeTrpMode(final TaskRequestEntry requestEntry, final ReportLogger reportLogger,
+			final String reportDirectory) {
+		// Check if file exists.
+		var testRunPlanFile = requestEntry.getTestRunplanFile();
+		if (!testRunPlanFile.exists()) {
+			throw new RuntimeException("Declared test run plan file " + testRunPlanFile.getAbsolutePath() +  " does not exist.");
+		}
 
-			reportGeneration(reportLogger, reportDirectory);
+		var taskExecuteParameters = requestEntry.toTaskExecutionParameters(null, globalConfigFile, reportDirectory);
+		TaskTestTool.executeTaskTestTool(taskExecuteParameters);
 
-		} catch (Exception e) {
-			throw e;
-		} finally {
-			LoggingConnector.removeLogger(reportLogger);
-		}
+		reportGeneration(reportLogger, reportDirectory);
 	}
 
 	private void reportGeneration(final ReportLogger reportLogger,
 								  final String reportDirectory) {
 		File xmlReportFileName;
 		try {
-			var xmlReport = XmlReport.fromReportInstance(reportLogger.generateReport());
 			xmlReportFileName = new File(reportDirectory, "Report.xml");
-			xmlReport.writeToFile(xmlReportFileName);
+			reportLogger.writeXmlReport(xmlReportFileName);
 		} catch (Exception e) {
 			throw new RuntimeException("An error occurred while generating XML Report.", e);
 		}
-		try {
-			if (globalConfiguration.containsKey(GlobalConfigParameterNames.PdfReportStylesheet.getParameterName())) {
-				var styleSheetFile = new File(globalConfiguration.get(GlobalConfigParameterNames.PdfReportStylesheet.getParameterName()).getValueAsString());
-				PdfReport.convertToPDF(xmlReportFileName, styleSheetFile);
-			} else {
-				PdfReport.convertToPDF(xmlReportFileName);
-			}
-		} catch (Exception e) {
-			throw new RuntimeException("An error occurred while generating PDF Report.", e);
-		}
+		// Depending on the mode, the PDF report is rendered now, in the background or on demand.
+		pdfReportRenderer.xmlReportWritten(xmlReportFileName);
 	}
 	
 }
@@ -0,0 +1,206 @@
+package com.achelos.task.restimpl.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Stores the files uploaded with the execution requests of the REST server.
+ * <p>
+ * Each upload is written once, while its SHA-256 digest is computed, into a content-addressed store. Identical
+ * uploads, e.g. the same MICS file or certificate chain submitted again and again, are thus kept only once. The files
+ * of a request are linked from the store into the working directory of the request, which is deleted once the request
+ * has ended. Stored uploads which have not been used for a while, and working directories left over by requests which
+ * have not ended regularly, e.g. because the server has been killed, are removed by {@link #sweep(Duration, Predicate)}.
+ * <p>
+ * Private keys are not stored, but written into the working directory of the request only, so that they are deleted
+ * together with the request.
+ */
+public class UploadStore {
+
+	private static final String OBJECTS_DIRECTORY = "objects";
+	private static final String REQUESTS_DIRECTORY = "requests";
+
+	private final Path objectsDirectory;
+	private final Path requestsDirectory;
+
+	/**
+	 * @param root the directory of the store, which is created if necessary
+	 * @throws IOException if the directories of the store cannot be created
+	 */
+	public UploadStore(final Path root) throws IOException {
+		objectsDirectory = Files.createDirectories(root.resolve(OBJECTS_DIRECTORY));
+		requestsDirectory = Files.createDirectories(root.resolve(REQUESTS_DIRECTORY));
+	}
+
+	/**
+	 * Create the working directory of a request.
+	 *
+	 * @param uuid the uuid of the request
+	 * @return the created directory
+	 * @throws IOException if the directory cannot be created
+	 */
+	public Path createRequestDirectory(final UUID uuid) throws IOException {
+		return Files.createDirectories(requestsDirectory.resolve(uuid.toString()));
+	}
+
+	/**
+	 * Delete the working directory of a request. The stored uploads are kept for later requests.
+	 *
+	 * @param requestDirectory the directory created by {@link #createRequestDirectory(UUID)}
+	 * @throws IOException if the directory cannot be deleted
+	 */
+	public void deleteRequestDirectory(final Path requestDirectory) throws IOException {
+		if (!Files.exists(requestDirectory)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(requestDirectory)) {
+			for (var path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	/**
+	 * Store the concatenation of the given streams and link it into the working directory of a request.
+	 *
+	 * @param requestDirectory the working directory of the request
+	 * @param fileName the name of the file in the working directory
+	 * @param parts the streams to write one after another; null entries are skipped
+	 * @return the file in the working directory
+	 * @throws IOException if the upload cannot be read or stored
+	 */
+	public Path store(final Path requestDirectory, final String fileName, final List<InputStream> parts)
+			throws IOException {
+		var digest = newDigest();
+		var upload = Files.createTempFile(objectsDirectory, null, ".upload");
+		try {
+			try (OutputStream out = new DigestOutputStream(Files.newOutputStream(upload), digest)) {
+				for (var part : parts) {
+					if (part != null) {
+						part.transferTo(out);
+					}
+				}
+			}
+			var object = objectsDirectory.resolve(HexFormat.of().formatHex(digest.digest()));
+			if (Files.exists(object)) {
+				// Known content: keep the stored file and mark it as recently used.
+				Files.setLastModifiedTime(object, FileTime.fromMillis(System.currentTimeMillis()));
+			} else {
+				Files.move(upload, object, StandardCopyOption.ATOMIC_MOVE);
+			}
+			return link(object, requestDirectory.resolve(fileName));
+		} finally {
+			Files.deleteIfExists(upload);
+		}
+	}
+
+	/**
+	 * Write the concatenation of the given streams into the working directory of a request only, e.g. a private key,
+	 * which must not outlive the request. The file is readable by its owner only, if supported by the file system.
+	 *
+	 * @param requestDirectory the working directory of the request
+	 * @param fileName the name of the file in the working directory
+	 * @param parts the streams to write one after another; null entries are skipped
+	 * @return the file in the working directory
+	 * @throws IOException if the upload cannot be read or written
+	 */
+	public Path storePrivate(final Path requestDirectory, final String fileName, final List<InputStream> parts)
+			throws IOException {
+		var file = requestDirectory.resolve(fileName);
+		try {
+			Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		} catch (UnsupportedOperationException e) {
+			// Not a POSIX file system.
+			Files.createFile(file);
+		}
+		try (OutputStream out = Files.newOutputStream(file)) {
+			for (var part : parts) {
+				if (part != null) {
+					part.transferTo(out);
+				}
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Delete the stored uploads which have not been used within the given time, and the working directories of
+	 * requests which are older than the given time and have not been deleted at the end of the request, e.g. because
+	 * the server has been killed. The files linked into the working directories of active requests are not affected,
+	 * as they are either hard links or copies.
+	 *
+	 * @param maximumAge the time since the last use, after which a stored upload or working directory is deleted
+	 * @param activeRequest tells whether the working directory with the given name belongs to a request, which is
+	 *            scheduled or running, and must be kept
+	 * @return the number of deleted stored uploads and working directories
+	 * @throws IOException if the store cannot be listed
+	 */
+	public int sweep(final Duration maximumAge, final Predicate<String> activeRequest) throws IOException {
+		var oldest = FileTime.from(Instant.now().minus(maximumAge));
+		var deleted = 0;
+		try (DirectoryStream<Path> objects = Files.newDirectoryStream(objectsDirectory)) {
+			for (var object : objects) {
+				try {
+					if (Files.getLastModifiedTime(object).compareTo(oldest) < 0 && Files.deleteIfExists(object)) {
+						deleted++;
+					}
+				} catch (NoSuchFileException e) {
+					// Deleted in the meantime.
+				}
+			}
+		}
+		try (DirectoryStream<Path> requestDirectories = Files.newDirectoryStream(requestsDirectory)) {
+			for (var requestDirectory : requestDirectories) {
+				try {
+					if (Files.getLastModifiedTime(requestDirectory).compareTo(oldest) < 0
+							&& !activeRequest.test(requestDirectory.getFileName().toString())) {
+						deleteRequestDirectory(requestDirectory);
+						deleted++;
+					}
+				} catch (NoSuchFileException e) {
+					// Deleted in the meantime by the end of the request.
+				}
+			}
+		}
+		return deleted;
+	}
+
+	private static Path link(final Path object, final Path file) throws IOException {
+		try {
+			return Files.createLink(file, object);
+		} catch (FileAlreadyExistsException e) {
+			throw e;
+		} catch (UnsupportedOperationException | IOException e) {
+			// The file system does not support hard links.
+			return Files.copy(object, file);
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported.", e);
+		}
+	}
+}
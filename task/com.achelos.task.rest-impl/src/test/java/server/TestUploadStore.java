@@ -0,0 +1,53 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.achelos.task.restimpl.server.UploadStore;
+
+class TestUploadStore {
+
+	private static final Duration MAXIMUM_AGE = Duration.ofDays(1);
+
+	@TempDir
+	Path root;
+
+	@Test
+	void testSweepDeletesLeftoverRequestDirectories() throws IOException {
+		var store = new UploadStore(root);
+		var leftover = createRequestDirectory(store, Duration.ofDays(2));
+		var active = createRequestDirectory(store, Duration.ofDays(2));
+		var recent = createRequestDirectory(store, Duration.ZERO);
+
+		var deleted = store.sweep(MAXIMUM_AGE,
+				name -> name.equals(active.getFileName().toString()));
+
+		assertEquals(1, deleted);
+		assertFalse(Files.exists(leftover));
+		assertTrue(Files.exists(active.resolve("client_auth_key.pem")));
+		assertTrue(Files.exists(recent.resolve("client_auth_key.pem")));
+	}
+
+	private static Path createRequestDirectory(final UploadStore store, final Duration age) throws IOException {
+		var requestDirectory = store.createRequestDirectory(UUID.randomUUID());
+		store.storePrivate(requestDirectory, "client_auth_key.pem",
+				List.of(new ByteArrayInputStream("key".getBytes(StandardCharsets.UTF_8))));
+		Files.setLastModifiedTime(requestDirectory, FileTime.from(Instant.now().minus(age)));
+		return requestDirectory;
+	}
+}
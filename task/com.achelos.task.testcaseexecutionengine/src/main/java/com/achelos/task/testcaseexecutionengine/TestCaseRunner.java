@@ -13,6 +13,8 @@ import com.achelos.task.abstracttestsuite.ExecutionControl;
 import com.achelos.task.abstracttestsuite.Summary;
 import com.achelos.task.abstracttestsuite.TestCaseRun;
 import com.achelos.task.abstracttestsuite.TestSuiteRun;
+import com.achelos.task.commandlineexecution.applications.tshark.CaptureSession;
+import com.achelos.task.configuration.ExecutionContext;
 import com.achelos.task.configuration.TestRunPlanConfiguration;
 import com.achelos.task.logging.BasicLogger;
 import com.achelos.task.logging.LoggingConnector;
@@ -26,13 +28,23 @@ public class TestCaseRunner {
 	private final static String LOCAL_TESTCASE_PREFIX = "com.achelos.task.tr03116ts.testcases.";
 	private final static String JAR_FILE_ENDING = ".jar";
 
+	private final ExecutionContext context;
 	private final LoggingConnector logger;
 
 	/**
-	 * Constructor setting the LoggingConnector to use when running test cases.
+	 * Constructor using the current execution context when running test cases.
 	 */
 	public TestCaseRunner() {
-		this.logger = LoggingConnector.getInstance();
+		this(ExecutionContext.current());
+	}
+
+	/**
+	 * Constructor setting the execution context to use when running test cases.
+	 * @param context The execution context providing the configuration and the logger.
+	 */
+	public TestCaseRunner(final ExecutionContext context) {
+		this.context = context;
+		this.logger = context.getLogger();
 	}
 
 	/**
@@ -44,14 +56,17 @@ public class TestCaseRunner {
 		logger.tellLogger(BasicLogger.MSG_NEW_TESTSUITE, testSuite);
 		var testcases = testSuite.getTestCases();
 		int totalNoOfTestcases = testcases.size();
-		List<AbstractTestCase> testcasesClasses = getTestcaseClassesByNames(testcases, TestRunPlanConfiguration.getInstance());
+		// Test cases are instantiated by reflection, thus they obtain the context from the executing thread.
+		try (ExecutionContext.Binding binding = context.bind()) {
+			List<AbstractTestCase> testcasesClasses = getTestcaseClassesByNames(testcases, context.getConfiguration());
 
-		try {
-			ExecutionControl executionControl = ExecutionControl.getInstance();
+			ExecutionControl executionControl = new ExecutionControl(context);
 			List<TestCaseRun> testCaseRuns = executionControl.addAll(testcasesClasses);
 			Summary.printTestSuiteSummary(testCaseRuns, "TR-03116-TS Testcases", totalNoOfTestcases);
 		} catch (Exception e) {
 			logger.error("Error occurred while executing the test case", e);
+		} finally {
+			CaptureSession.close(context.getConfiguration());
 		}
 		testSuite.setEndTime();
 		logger.tellLogger(BasicLogger.MSG_TESTSUITE_ENDED, testSuite);
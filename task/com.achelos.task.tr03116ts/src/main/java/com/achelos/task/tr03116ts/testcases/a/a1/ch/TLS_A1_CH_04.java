@@ -55,10 +55,10 @@ public class TLS_A1_CH_04 extends AbstractTestCase {
 
 	@Override
 	protected final void prepareEnvironment() throws Exception {
-		testTool = new TlsTestToolExecutor(getTestCaseId(), logger);
-		tShark = new TSharkExecutor(getTestCaseId(), logger);
+		testTool = new TlsTestToolExecutor(getTestCaseId(), context);
+		tShark = new TSharkExecutor(getTestCaseId(), context);
 		tShark.start();
-		dutExecutor = new DUTExecutor(getTestCaseId(), logger, configuration.getDutCallCommandGenerator());
+		dutExecutor = new DUTExecutor(getTestCaseId(), context, configuration.getDutCallCommandGenerator());
 	}
 
 	/**
@@ -61,12 +61,12 @@ public class TLS_A1_FR_01 extends AbstractTestCase {
 
 	@Override
 	protected final void prepareEnvironment() throws Exception {
-		testTool = new TlsTestToolExecutor(getTestCaseId(), logger);
-		tShark = new TSharkExecutor(getTestCaseId(), logger);
+		testTool = new TlsTestToolExecutor(getTestCaseId(), context);
+		tShark = new TSharkExecutor(getTestCaseId(), context);
 		tShark.start();
-		dutExecutor = new DUTExecutor(getTestCaseId(), logger, configuration.getDutCallCommandGenerator());
-		ocsp = new OCSPServerExecutor(getTestCaseId(), logger);
-		crl = new CRLExecutor(getTestCaseId(), logger);
+		dutExecutor = new DUTExecutor(getTestCaseId(), context, configuration.getDutCallCommandGenerator());
+		ocsp = new OCSPServerExecutor(getTestCaseId(), context);
+		crl = new CRLExecutor(getTestCaseId(), context);
 	}
 
 	/**
@@ -74,12 +74,12 @@ public class TLS_A2_CH_05 extends AbstractTestCase {
 
 	@Override
 	protected final void prepareEnvironment() throws Exception {
-		testTool = new TlsTestToolExecutor(getTestCaseId(), logger);
-		tShark = new TSharkExecutor(getTestCaseId(), logger);
+		testTool = new TlsTestToolExecutor(getTestCaseId(), context);
+		tShark = new TSharkExecutor(getTestCaseId(), context);
 		tShark.start();
-		dutExecutor = new DUTExecutor(getTestCaseId(), logger, configuration.getDutCallCommandGenerator());
-		ocsp = new OCSPServerExecutor(getTestCaseId(), logger);
-		ocspResponse = new OCSPRequestExecutor(getTestCaseId(), logger);
+		dutExecutor = new DUTExecutor(getTestCaseId(), context, configuration.getDutCallCommandGenerator());
+		ocsp = new OCSPServerExecutor(getTestCaseId(), context);
+		ocspResponse = new OCSPRequestExecutor(getTestCaseId(), context);
 	}
 
 	/**
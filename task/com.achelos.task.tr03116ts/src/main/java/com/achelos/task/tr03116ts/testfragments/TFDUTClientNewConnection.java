@@ -82,7 +82,7 @@ public class TFDUTClientNewConnection extends AbstractTestFragment {
 		step(prefix, 1,
 				"Motivate the DUT to create a TLS connection over TCP/IP"
 						+ " to " + TlsTestToolExecutor.TLS_TEST_TOOL_LOCAL_HOST_AS_SERVER + ":"
-						+ testTool.getConfiguration().getTlsTestToolPort() + ".",
+						+ testTool.getTlsTestToolPort() + ".",
 				"Receive a ClientHello message from the DUT.");
 
 		// Check if it's a handshake with session resumption. Do not check for TCP/IP connection in case of session
@@ -92,6 +92,7 @@ public class TFDUTClientNewConnection extends AbstractTestFragment {
 			testTool.assertMessageLogged(TestToolResource.Waiting_TCP_IP_conn_port);
 		}
 
+		dutExecutor.setTlsTestToolPort(testTool.getTlsTestToolPort());
 		if (iterationCounter != null) {
 			dutExecutor.start(isSessionResumption, iterationCounter.getCurrentIteration(),
 					iterationCounter.getTotalNumberOfIterations());
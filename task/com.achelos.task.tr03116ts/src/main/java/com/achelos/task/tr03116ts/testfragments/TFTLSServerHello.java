@@ -130,7 +130,7 @@ public class TFTLSServerHello extends AbstractTestFragment {
 		// basic configuration
 		int stepCounter = 1;
 		step(prefix, stepCounter, "The TlsTestTool acts as a server and is reachable via TCP/IP: " +
-				TlsTestToolExecutor.TLS_TEST_TOOL_LOCAL_HOST_AS_SERVER + ":" + configuration.getTlsTestToolPort(),
+				TlsTestToolExecutor.TLS_TEST_TOOL_LOCAL_HOST_AS_SERVER + ":" + testTool.getTlsTestToolPort(),
 				"");
 		stepCounter++;
 		testTool.setMode(TlsTestToolMode.server);
@@ -1,8 +1,10 @@
 package com.achelos.task.utilities.logging;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -12,6 +14,9 @@ import com.achelos.task.utilities.DateTimeUtils;
 
 /**
  * This class is used to create and hold Log messages.
+ * <p>
+ * Log beans are immutable and thread-safe. The timestamp is kept as epoch milliseconds, and the message of a parsed
+ * log line is only extracted from the line when it is accessed.
  */
 public class LogBean {
 
@@ -27,10 +32,26 @@ public class LogBean {
 		LOW;
 	}
 
-	private final Date timestamp;
+	private static final DateTimeFormatter DATE_FORMAT
+			= DateTimeFormatter.ofPattern(DateTimeUtils.ISO_8601_DATE_TIME_PATTERN_MILLISECONDS);
+	private static final LogSeverity[] SEVERITIES = LogSeverity.values();
+	private static final char SEPARATOR = '\t';
+	private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+	/**
+	 * Length of a timestamp formatted with {@link DateTimeUtils#ISO_8601_DATE_TIME_PATTERN_MILLISECONDS}.
+	 */
+	private static final int TIMESTAMP_LENGTH = 23;
+
+	private final long timestamp;
 	private final LogSeverity severity;
 	private final String origin;
-	private final String message;
+	private final String line;
+	private final int messageStart;
+	private final int messageEnd;
+	/**
+	 * Lazily extracted from the line. Strings are immutable, so a racy initialization is harmless.
+	 */
+	private String message;
 
 	/**
 	 * Default constructor.
@@ -41,9 +62,7 @@ public class LogBean {
 	 * @param message Log message.
 	 */
 	public LogBean(final Date timeStamp, final String severity, final String origin, final String message) {
-		timestamp = (Date) timeStamp.clone();
-		this.severity = LogSeverity.valueOf(severity);
-		this.origin = origin;
+		this(timeStamp.getTime(), LogSeverity.valueOf(severity), origin, message, 0, message.length());
 		this.message = message;
 	}
 
@@ -53,30 +72,49 @@ public class LogBean {
 	 * @param message Log message.
 	 */
 	public LogBean(final String message) {
-		timestamp = null;
-		severity = null;
-		origin = null;
+		this(NO_TIMESTAMP, null, null, message, 0, message.length());
 		this.message = message;
 	}
 
+	private LogBean(final long timestamp, final LogSeverity severity, final String origin, final String line,
+			final int messageStart, final int messageEnd) {
+		this.timestamp = timestamp;
+		this.severity = severity;
+		this.origin = origin;
+		this.line = line;
+		this.messageStart = messageStart;
+		this.messageEnd = messageEnd;
+	}
+
 
 	/**
 	 * @return the timestamp
 	 */
 	public final Date getTimestamp() {
-		if (timestamp != null) {
-			Date clone = (Date) timestamp.clone();
-			return clone;
+		if (timestamp != NO_TIMESTAMP) {
+			return new Date(timestamp);
 		}
 		return null;
 	}
 
 
+	/**
+	 * @return the timestamp in milliseconds since the epoch, or {@link Long#MIN_VALUE} if the log message has no
+	 *         timestamp.
+	 */
+	public final long getTimestampMillis() {
+		return timestamp;
+	}
+
+
 	/**
 	 * @return Formatted Date into a date/time string.
 	 */
 	public final String getTimestampString() {
-		return getDateFormat().format(timestamp);
+		if (timestamp == NO_TIMESTAMP) {
+			return null;
+		}
+		return DATE_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
 	}
 
 
@@ -100,28 +138,36 @@ public class LogBean {
 	 * @return the message
 	 */
 	public final String getMessage() {
-		return message;
+		String result = message;
+		if (result == null) {
+			result = line.substring(messageStart, messageEnd);
+			message = result;
+		}
+		return result;
 	}
 
 
-	@Override
-	public final String toString() {
-		if (timestamp == null) {
-			return message;
+	/**
+	 * Returns the key of a key-value message, without extracting the whole message, e.g. "ClientHello.cipher_suites"
+	 * for "ClientHello.cipher_suites=00 9e".
+	 *
+	 * @return the text before the first '=' of the message, or the whole message if it does not contain a '='.
+	 */
+	public final String getMessageKey() {
+		final int separator = line.indexOf('=', messageStart);
+		if (separator < 0 || separator >= messageEnd) {
+			return getMessage();
 		}
-		return getTimestampString() + " " + origin + " " + message;
+		return line.substring(messageStart, separator);
 	}
 
-	private static DateFormat dateFormat = null;
 
-	/**
-	 * @return the formatted date "yyyy-MM-dd HH:mm:ss.SSS"
-	 */
-	private static DateFormat getDateFormat() {
-		if (null == dateFormat) {
-			dateFormat = new SimpleDateFormat(DateTimeUtils.ISO_8601_DATE_TIME_PATTERN_MILLISECONDS);
+	@Override
+	public final String toString() {
+		if (timestamp == NO_TIMESTAMP) {
+			return getMessage();
 		}
-		return dateFormat;
+		return getTimestampString() + " " + origin + " " + getMessage();
 	}
 
 	/**
@@ -134,26 +180,109 @@ public class LogBean {
 	 * @return the list containing TlsLogBean elements or null if an empty list is passed.
 	 */
 	public static ArrayList<LogBean> convertToLogBeanList(final List<String> logList) {
-		final ArrayList<LogBean> result = new ArrayList<>();
-		final SimpleDateFormat simpleDateFormat = new SimpleDateFormat(
-				DateTimeUtils.ISO_8601_DATE_TIME_PATTERN_MILLISECONDS);
-		if (logList.isEmpty()) {
-			return result;
-		}
+		final ArrayList<LogBean> result = new ArrayList<>(logList.size());
 		for (final String item : logList) {
-			final String[] parts = item.trim().split("\t");
-			if (parts.length < 4) { // CRLExecutor Server output.
-				result.add(new LogBean(parts[0]));
-				continue;
+			final LogBean logBean = convertToLogBean(item);
+			if (logBean != null) {
+				result.add(logBean);
 			}
-			Date date;
-			try {
-				date = simpleDateFormat.parse(parts[0]);
-			} catch (final ParseException e) {
-				continue;
-			}
-			result.add(new LogBean(date, parts[1], parts[2], parts[3]));
 		}
 		return result;
 	}
+
+	/**
+	 * Converts a single log line into a {@link LogBean}, see {@link #convertToLogBeanList(List)}. The line is parsed in
+	 * a single pass without splitting it. This method is thread-safe.
+	 *
+	 * @param item The log line to convert.
+	 * @return the converted log line, or null if the timestamp of the line cannot be parsed.
+	 * @throws IllegalArgumentException if the severity of the line is unknown.
+	 */
+	public static LogBean convertToLogBean(final String item) {
+		// Bounds of the trimmed line
+		int start = 0;
+		int end = item.length();
+		while (start < end && item.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && item.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		final int timestampEnd = indexOfSeparator(item, start, end);
+		final int severityEnd = indexOfSeparator(item, timestampEnd + 1, end);
+		final int originEnd = indexOfSeparator(item, severityEnd + 1, end);
+		if (originEnd == end) { // CRLExecutor Server output.
+			return new LogBean(item.substring(start, timestampEnd));
+		}
+
+		final long timestamp = parseTimestamp(item, start, timestampEnd);
+		if (timestamp == NO_TIMESTAMP) {
+			return null;
+		}
+		final LogSeverity severity = parseSeverity(item, timestampEnd + 1, severityEnd);
+		final String origin = item.substring(severityEnd + 1, originEnd);
+		final int messageEnd = indexOfSeparator(item, originEnd + 1, end);
+		return new LogBean(timestamp, severity, origin, item, originEnd + 1, messageEnd);
+	}
+
+	/**
+	 * @return the position of the next separator within [from, end), or end if there is none.
+	 */
+	private static int indexOfSeparator(final String item, final int from, final int end) {
+		if (from >= end) {
+			return end;
+		}
+		final int index = item.indexOf(SEPARATOR, from);
+		return index < 0 || index > end ? end : index;
+	}
+
+	/**
+	 * Parses a timestamp of the format {@link DateTimeUtils#ISO_8601_DATE_TIME_PATTERN_MILLISECONDS} in the local time
+	 * zone.
+	 *
+	 * @return the timestamp in milliseconds since the epoch, or {@link #NO_TIMESTAMP} if it cannot be parsed.
+	 */
+	private static long parseTimestamp(final String item, final int start, final int end) {
+		try {
+			final LocalDateTime dateTime;
+			if (end - start == TIMESTAMP_LENGTH
+					&& item.charAt(start + 4) == '-' && item.charAt(start + 7) == '-' && item.charAt(start + 10) == 'T'
+					&& item.charAt(start + 13) == ':' && item.charAt(start + 16) == ':'
+					&& item.charAt(start + 19) == '.') {
+				dateTime = LocalDateTime.of(parseDigits(item, start, 4), parseDigits(item, start + 5, 2),
+						parseDigits(item, start + 8, 2), parseDigits(item, start + 11, 2),
+						parseDigits(item, start + 14, 2), parseDigits(item, start + 17, 2),
+						parseDigits(item, start + 20, 3) * 1_000_000);
+			} else {
+				dateTime = LocalDateTime.parse(item.substring(start, end), DATE_FORMAT);
+			}
+			return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		} catch (DateTimeException | NumberFormatException e) {
+			return NO_TIMESTAMP;
+		}
+	}
+
+	private static int parseDigits(final String item, final int start, final int length) {
+		int value = 0;
+		for (int i = start; i < start + length; i++) {
+			final int digit = item.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException("Not a digit in timestamp: " + item.charAt(i));
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	private static LogSeverity parseSeverity(final String item, final int start, final int end) {
+		for (final LogSeverity severity : SEVERITIES) {
+			final String name = severity.name();
+			if (name.length() == end - start && item.regionMatches(start, name, 0, name.length())) {
+				return severity;
+			}
+		}
+		throw new IllegalArgumentException(
+				"No enum constant " + LogSeverity.class.getCanonicalName() + "." + item.substring(start, end));
+	}
 }
@@ -9,6 +9,12 @@ public enum GlobalConfigParameterNames {
 	TlsTestToolPath("tls_test_tool_path", true, GlobalConfigParameter.ConfigParameterType.STRING, null),
 	TlsTestToolPort("tls_test_tool_port", false, GlobalConfigParameter.ConfigParameterType.INT,
 			new GlobalConfigParameter("8080", GlobalConfigParameter.ConfigParameterType.INT, "tls_test_tool_port")),
+	/**
+	 * An optional parameter. The number of consecutive ports, starting with the TLS Test Tool port, which are leased to
+	 * TLS Test Tool instances acting as server. The default value 1 uses only the TLS Test Tool port.
+	 */
+	TlsTestToolPortCount("tls_test_tool_port_count", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("1", GlobalConfigParameter.ConfigParameterType.INT, "tls_test_tool_port_count")),
 	TlsTestToolLogLevel("tls_test_tool_logLevel", true, GlobalConfigParameter.ConfigParameterType.STRING, null),
 	TlsTestToolCertificatesPath("tls_test_tool_certificates_path", false,
 			GlobalConfigParameter.ConfigParameterType.STRING, null),
@@ -24,7 +30,51 @@ public enum GlobalConfigParameterNames {
 					"maximum_wait_time_for_reading_log_message")),
 	ReportDirectory("report_directory", true, GlobalConfigParameter.ConfigParameterType.STRING, null),
 	PdfReportStylesheet("pdf_report_stylesheet", false, GlobalConfigParameter.ConfigParameterType.STRING, null),
+	/**
+	 * An optional parameter. When the REST server renders the PDF report of a request: "inline" before the request is
+	 * reported as finished, "background" by a background worker after the request is reported as finished, or
+	 * "on_demand" when the PDF report is requested for the first time.
+	 */
+	PdfReportGeneration("pdf_report_generation", false, GlobalConfigParameter.ConfigParameterType.STRING,
+			new GlobalConfigParameter("inline", GlobalConfigParameter.ConfigParameterType.STRING,
+					"pdf_report_generation")),
+	/**
+	 * An optional parameter. The age in hours after which the test case directories of a test run, i.e. the
+	 * configuration files, logs and network traffic dumps, are compressed into a single archive. The reports are kept.
+	 * The default value 0 disables the compaction.
+	 */
+	ReportRetentionCompactionAge("report_retention_compaction_age", false,
+			GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("0", GlobalConfigParameter.ConfigParameterType.INT,
+					"report_retention_compaction_age")),
+	/**
+	 * An optional parameter. The age in days after which a test run is deleted from the report directory. The default
+	 * value 0 keeps the test runs regardless of their age.
+	 */
+	ReportRetentionMaxAge("report_retention_max_age", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("0", GlobalConfigParameter.ConfigParameterType.INT, "report_retention_max_age")),
+	/**
+	 * An optional parameter. The size in megabytes the test runs in the report directory may occupy. Beyond it, the
+	 * oldest test runs are deleted. The default value 0 does not limit the size.
+	 */
+	ReportRetentionMaxSize("report_retention_max_size", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("0", GlobalConfigParameter.ConfigParameterType.INT,
+					"report_retention_max_size")),
+	/**
+	 * An optional parameter. The interval in minutes in which the REST server applies the retention of the report
+	 * directory. The command line interface applies it before each test run.
+	 */
+	ReportRetentionInterval("report_retention_interval", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("60", GlobalConfigParameter.ConfigParameterType.INT,
+					"report_retention_interval")),
 	SpecificationDirectory("specification_directory", true, GlobalConfigParameter.ConfigParameterType.STRING, null),
+	/**
+	 * An optional parameter. The file, in which the parsed specification directory is stored as a snapshot. The
+	 * snapshot is loaded instead of parsing the specification directory again, as long as none of the specification
+	 * files has changed.
+	 */
+	SpecificationSnapshotFile("specification_snapshot_file", false, GlobalConfigParameter.ConfigParameterType.STRING,
+			null),
 	TestSuiteJars("additional_testsuite_jars", false, GlobalConfigParameter.ConfigParameterType.STRING, null),
 	TSharkEnabled("tshark_enabled", false, GlobalConfigParameter.ConfigParameterType.BOOLEAN,
 			new GlobalConfigParameter("false", GlobalConfigParameter.ConfigParameterType.BOOLEAN, "tshark_enabled")),
@@ -34,18 +84,75 @@ public enum GlobalConfigParameterNames {
 			new GlobalConfigParameter("", GlobalConfigParameter.ConfigParameterType.STRING, "tshark_options")),
 	TSharkPath("tshark_path", false, GlobalConfigParameter.ConfigParameterType.STRING,
 			new GlobalConfigParameter("", GlobalConfigParameter.ConfigParameterType.STRING, "tshark_path")),
+	/**
+	 * An optional parameter. If true, a single Dumpcap process captures the network traffic of the whole test run
+	 * into a ring buffer, and the network traffic dump of each test case is sliced out of it by time. Otherwise, a
+	 * Dumpcap process is started for every test case.
+	 */
+	TSharkPersistentCapture("tshark_persistent_capture", false, GlobalConfigParameter.ConfigParameterType.BOOLEAN,
+			new GlobalConfigParameter("false", GlobalConfigParameter.ConfigParameterType.BOOLEAN,
+					"tshark_persistent_capture")),
 	OpenSSLExecutablePath("openssl_path", false, GlobalConfigParameter.ConfigParameterType.STRING,
 			new GlobalConfigParameter("openssl", GlobalConfigParameter.ConfigParameterType.STRING, "openssl_path")),
 	OcspResponderPort("ocsp_responder_port", false, GlobalConfigParameter.ConfigParameterType.INT,
 			new GlobalConfigParameter("9080", GlobalConfigParameter.ConfigParameterType.INT, "ocsp_responder_port")),
 	CrlResponderPort("crl_responder_port", false, GlobalConfigParameter.ConfigParameterType.INT,
 			new GlobalConfigParameter("8081", GlobalConfigParameter.ConfigParameterType.INT, "crl_responder_port")),
+	/**
+	 * An optional parameter. If true, the OCSP and CRL responders run within TaSK and answer from a cache of signed
+	 * responses. Otherwise, the OCSP responder of OpenSSL and a Python HTTP server are started for the test cases.
+	 */
+	OcspCrlEmbeddedResponder("ocsp_crl_embedded_responder", false, GlobalConfigParameter.ConfigParameterType.BOOLEAN,
+			new GlobalConfigParameter("false", GlobalConfigParameter.ConfigParameterType.BOOLEAN,
+					"ocsp_crl_embedded_responder")),
 	RestApiPort("rest_api_port", false, GlobalConfigParameter.ConfigParameterType.INT,
 			new GlobalConfigParameter("8088", GlobalConfigParameter.ConfigParameterType.INT, "rest_api_port")),
 	RestApiCredentials("rest_api_credentials", false, GlobalConfigParameter.ConfigParameterType.STRING,
 			new GlobalConfigParameter("", GlobalConfigParameter.ConfigParameterType.STRING, "rest_api_credentials")),
 	RestApiCredentialPassword("rest_api_credential_pass", false, GlobalConfigParameter.ConfigParameterType.STRING,
 			new GlobalConfigParameter("", GlobalConfigParameter.ConfigParameterType.STRING, "rest_api_credential_pass")),
+	/**
+	 * An optional parameter. The number of requests the REST server executes concurrently. Requests are only started
+	 * concurrently, if enough ports of the TLS Test Tool (see tls_test_tool_port_count) and CPU are available.
+	 */
+	RestApiWorkers("rest_api_workers", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("1", GlobalConfigParameter.ConfigParameterType.INT, "rest_api_workers")),
+	/**
+	 * An optional parameter. The number of requests which wait for their execution in the REST server. Further
+	 * requests are rejected.
+	 */
+	RestApiQueueSize("rest_api_queue_size", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("50", GlobalConfigParameter.ConfigParameterType.INT, "rest_api_queue_size")),
+	/**
+	 * An optional parameter. If set to true, the REST server handles each API request in a virtual thread, if the Java
+	 * runtime supports them (Java 21 or newer). Otherwise, the requests are handled by a pool of rest_api_http_threads
+	 * threads.
+	 */
+	RestApiVirtualThreads("rest_api_virtual_threads", false, GlobalConfigParameter.ConfigParameterType.BOOLEAN,
+			new GlobalConfigParameter("true", GlobalConfigParameter.ConfigParameterType.BOOLEAN,
+					"rest_api_virtual_threads")),
+	/**
+	 * An optional parameter. The maximum number of threads handling API requests of the REST server, if no virtual
+	 * threads are used. Long-polling status requests, status event streams and log streams occupy their thread for up
+	 * to the whole run. If all threads are occupied, further API requests wait until a thread is free. Thus, the
+	 * number has to exceed the number of clients following runs at the same time. Idle threads are stopped.
+	 */
+	RestApiHttpThreads("rest_api_http_threads", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("256", GlobalConfigParameter.ConfigParameterType.INT, "rest_api_http_threads")),
+	/**
+	 * An optional parameter. The maximum size in megabytes of a request to the REST server, including its uploaded
+	 * files. Larger requests are rejected.
+	 */
+	RestApiMaxRequestSize("rest_api_max_request_size", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("100", GlobalConfigParameter.ConfigParameterType.INT,
+					"rest_api_max_request_size")),
+	/**
+	 * An optional parameter. The maximum time in seconds to receive a request to the REST server, including its
+	 * uploaded files. The connection of a slower request is closed.
+	 */
+	RestApiRequestTimeout("rest_api_request_timeout", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("300", GlobalConfigParameter.ConfigParameterType.INT,
+					"rest_api_request_timeout")),
 	DutExecutableTimeout("dut_executable_timeout", false, GlobalConfigParameter.ConfigParameterType.INT,
 			new GlobalConfigParameter("5", GlobalConfigParameter.ConfigParameterType.INT, "dut_executable_timeout_milliseconds")),
 	/**
@@ -53,7 +160,8 @@ public enum GlobalConfigParameterNames {
 	 * Sometimes depending on the machine, These processes may take some time to start or may start immidiately. This option makes executors consistent.
 	 * 
 	 * <parameter id="process_start_waiting_time">
-			<!-- Waiting time in seconds to let the generic executors processes to start.
+			<!-- Maximum waiting time in seconds to let the generic executors processes to start.
+				The executors continue as soon as their process reports to be ready.
 				# optional
 				# default value: 3 -->
 			<int>3</int>
@@ -62,6 +170,21 @@ public enum GlobalConfigParameterNames {
 	ProcessStartWaitingTime("process_start_waiting_time", false, GlobalConfigParameter.ConfigParameterType.INT,
 			new GlobalConfigParameter("3", GlobalConfigParameter.ConfigParameterType.INT,
 					"process_start_waiting_time")),
+	/**
+	 * An optional parameter. The time in milliseconds the generic executors processes get to terminate gracefully
+	 * (SIGTERM) when they are stopped. Processes and their child processes which are still running afterwards are
+	 * killed (SIGKILL).
+	 */
+	ProcessTerminationTimeout("process_termination_timeout", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("5000", GlobalConfigParameter.ConfigParameterType.INT,
+					"process_termination_timeout")),
+	/**
+	 * An optional parameter. The number of test cases which are executed concurrently. The default value 1 executes
+	 * the test cases one after another. Higher values shall only be used if the DUT can handle several connections at
+	 * the same time.
+	 */
+	TestCaseParallelism("test_case_parallelism", false, GlobalConfigParameter.ConfigParameterType.INT,
+			new GlobalConfigParameter("1", GlobalConfigParameter.ConfigParameterType.INT, "test_case_parallelism")),
 	EXPERIMENTAL_DNSServerIP("experimental_dns_server_ip", false, GlobalConfigParameter.ConfigParameterType.STRING, new GlobalConfigParameter("127.0.0.1", GlobalConfigParameter.ConfigParameterType.STRING, "experimental_dns_container_ip")),
 	EXPERIMENTAL_DANETaSKHostIP("experimental_dane_task_host_ip", false, GlobalConfigParameter.ConfigParameterType.STRING, new GlobalConfigParameter("127.0.0.1", GlobalConfigParameter.ConfigParameterType.STRING, "experimental_dane_task_host_ip"));
 
@@ -1,5 +1,6 @@
 package com.achelos.task.xmlparser.datastructures.testcase;
 
+import java.io.Serializable;
 import java.util.List;
 
 import generated.jaxb.configuration.TestCase;
@@ -7,7 +8,10 @@ import generated.jaxb.configuration.TestCase;
 /**
  * Internal Data Structure containing information about a Test Case Specification.
  */
-public class TestCaseInfo {
+public class TestCaseInfo implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * The ID of the test case.
 	 */
@@ -1,11 +1,14 @@
 package com.achelos.task.xmlparser.datastructures.tlsspecification;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * Internal data structure representing information about the Minimal Key Length of an Algorithm in an Application Specification.
  */
-public class AlgorithmMinimumKeyLengths {
+public class AlgorithmMinimumKeyLengths implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The reference of this setting.
@@ -48,7 +51,9 @@ public class AlgorithmMinimumKeyLengths {
 	/**
 	 * Internal class representing a minimal key length value for an algorithm.
 	 */
-	public static class KeyLengthSpecifier {
+	public static class KeyLengthSpecifier implements Serializable {
+		private static final long serialVersionUID = 1L;
+
 		/**
 		 * The UseUntil value of this key length.
 		 */
@@ -5,6 +5,8 @@ package com.achelos.task.xmlparser.datastructures.tlsspecification;
  */
 public class CipherSuite extends SpecDetails {
 
+	private static final long serialVersionUID = 1L;
+
 	private final String type;
 
 	/**
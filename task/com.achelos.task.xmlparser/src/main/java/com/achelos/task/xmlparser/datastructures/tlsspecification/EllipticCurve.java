@@ -5,6 +5,8 @@ package com.achelos.task.xmlparser.datastructures.tlsspecification;
  */
 public class EllipticCurve extends SpecDetails {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Constructor setting all information regarding this Elliptic Curve.
 	 * @param restriction The RestrictionLevel of the instance.
@@ -4,6 +4,9 @@ package com.achelos.task.xmlparser.datastructures.tlsspecification;
  * Internal data structure representing a PSK Mode in an Application Specification.
  */
 public class PSKMode extends SpecDetails {
+
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Constructor setting all information regarding this PSK Mode.
 	 * @param restriction The RestrictionLevel of the instance.
@@ -5,6 +5,8 @@ package com.achelos.task.xmlparser.datastructures.tlsspecification;
  */
 public class SignatureAlgorithm extends SpecDetails {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Constructor setting all information regarding this SignatureAlgorithm.
 	 * @param restriction The RestrictionLevel of the instance.
@@ -1,5 +1,6 @@
 package com.achelos.task.xmlparser.datastructures.tlsspecification;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -16,7 +17,10 @@ import generated.jaxb.configuration.TLS13Parameter.SupportedGroups;
 /**
  * Internal data structure representing the specifications regarding TLSv1.3 in an Application Specification.
  */
-public class TLSv1_3Spec {
+public class TLSv1_3Spec implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	private String id;
 	private String title;
 	private String version;
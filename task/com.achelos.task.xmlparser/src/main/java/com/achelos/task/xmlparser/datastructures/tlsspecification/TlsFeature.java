@@ -1,9 +1,13 @@
 package com.achelos.task.xmlparser.datastructures.tlsspecification;
 
+import java.io.Serializable;
+
 /**
  * Internal data structure representing a TLS Feature in an Application Specification.
  */
-public class TlsFeature {
+public class TlsFeature implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The reference of this feature specification.
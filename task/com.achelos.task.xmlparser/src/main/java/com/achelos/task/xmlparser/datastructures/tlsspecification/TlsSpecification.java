@@ -1,5 +1,6 @@
 package com.achelos.task.xmlparser.datastructures.tlsspecification;
 
+import java.io.Serializable;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -19,7 +20,10 @@ import generated.jaxb.configuration.TLSSpecification;
 /**
  * Internal Data Structure containing Specification data for TLS.
  */
-public class TlsSpecification {
+public class TlsSpecification implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 	// Basic Data
 	private final String id;
 	private final String title;
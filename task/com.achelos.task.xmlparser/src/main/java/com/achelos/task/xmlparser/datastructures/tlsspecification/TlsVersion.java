@@ -1,9 +1,13 @@
 package com.achelos.task.xmlparser.datastructures.tlsspecification;
 
+import java.io.Serializable;
+
 /**
  * Internal Data Structure representing information on a TLS Version in an Application Specification.
  */
-public class TlsVersion {
+public class TlsVersion implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	// Attributes
 	private final RestrictionLevel restriction;
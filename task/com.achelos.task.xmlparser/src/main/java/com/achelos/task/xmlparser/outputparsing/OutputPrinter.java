@@ -2,6 +2,8 @@ package com.achelos.task.xmlparser.outputparsing;
 
 import java.io.File;
 
+import javax.xml.stream.XMLStreamWriter;
+
 import com.achelos.task.xmlparser.xmlparsing.XmlPrinting;
 
 import generated.jaxb.xmlreport.TaSKReport;
@@ -24,4 +26,31 @@ public class OutputPrinter {
 			throw new RuntimeException("XML report printing: Unable to print TaSK report XML.", e);
 		}
 	}
+
+	/**
+	 * Validate an XML report, which has been written by a stream writer, against the schema of the TaSKReport.
+	 *
+	 * @param xmlReportFile the XML report to validate.
+	 */
+	public static void validateXmlReport(final File xmlReportFile) {
+		try {
+			XmlPrinting.validateXmlReport(xmlReportFile);
+		} catch (Exception e) {
+			throw new RuntimeException("XML report validation: The TaSK report XML does not match the schema.", e);
+		}
+	}
+
+	/**
+	 * Print an element of a TaSKReport, e.g. an input parameter, into a report written by a stream writer.
+	 *
+	 * @param element element to print.
+	 * @param writer writer of the XML report.
+	 */
+	public static void printXmlReportFragment(final Object element, final XMLStreamWriter writer) {
+		try {
+			XmlPrinting.printXmlReportFragment(element, writer);
+		} catch (Exception e) {
+			throw new RuntimeException("XML report printing: Unable to print TaSK report XML element.", e);
+		}
+	}
 }
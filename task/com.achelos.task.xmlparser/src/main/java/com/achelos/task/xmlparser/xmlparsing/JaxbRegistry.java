@@ -0,0 +1,177 @@
+package com.achelos.task.xmlparser.xmlparsing;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.xml.sax.SAXException;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+
+/**
+ * Registry of the JAXB contexts and compiled schemas used for parsing and printing XML files. Each context and schema
+ * is created once and shared, as both are thread-safe. Unmarshallers and marshallers are not thread-safe, thus they
+ * are pooled and handed out to a single user at a time.
+ */
+final class JaxbRegistry {
+
+	private static final Map<String, Binding> BINDINGS = new HashMap<>();
+	private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+	/**
+	 * Hidden Constructor.
+	 */
+	private JaxbRegistry() {
+		// Empty.
+	}
+
+	/**
+	 * @param type the class bound by the context
+	 * @param pathToSchema the resource path of the schema to validate against
+	 * @return the binding for the given class and schema, created on first use.
+	 * @throws JAXBException if the context cannot be created
+	 * @throws SAXException if the schema cannot be compiled
+	 */
+	static Binding getBinding(final Class<?> type, final String pathToSchema) throws JAXBException, SAXException {
+		return getBinding(type.getName(), pathToSchema, type);
+	}
+
+	/**
+	 * @param contextPath the colon separated packages bound by the context
+	 * @param pathToSchema the resource path of the schema to validate against
+	 * @return the binding for the given packages and schema, created on first use.
+	 * @throws JAXBException if the context cannot be created
+	 * @throws SAXException if the schema cannot be compiled
+	 */
+	static Binding getBinding(final String contextPath, final String pathToSchema)
+			throws JAXBException, SAXException {
+		return getBinding(contextPath, pathToSchema, null);
+	}
+
+	private static synchronized Binding getBinding(final String contextName, final String pathToSchema,
+			final Class<?> type) throws JAXBException, SAXException {
+		final String key = contextName + "|" + pathToSchema;
+		var binding = BINDINGS.get(key);
+		if (binding == null) {
+			var context = type != null ? JAXBContext.newInstance(type) : JAXBContext.newInstance(contextName);
+			// SchemaFactory is not thread-safe, the compiled Schema is.
+			SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+			Schema schema = sf.newSchema(new StreamSource(Constants.getResourceAsStream(pathToSchema)));
+			binding = new Binding(context, schema);
+			BINDINGS.put(key, binding);
+		}
+		return binding;
+	}
+
+	/**
+	 * Create an XMLStreamReader for the file. The StreamSource keeps the locations reported in errors correct.
+	 *
+	 * @param xmlFile the file to read
+	 * @return the reader
+	 * @throws XMLStreamException if the reader cannot be created
+	 */
+	static XMLStreamReader createXmlStreamReader(final File xmlFile) throws XMLStreamException {
+		synchronized (INPUT_FACTORY) {
+			return INPUT_FACTORY.createXMLStreamReader(new StreamSource(xmlFile));
+		}
+	}
+
+	/**
+	 * A shared JAXB context and schema together with the pools of their unmarshallers and marshallers.
+	 */
+	static final class Binding {
+		private final JAXBContext context;
+		private final Schema schema;
+		private final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<>();
+		private final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<>();
+		private final Queue<Marshaller> fragmentMarshallers = new ConcurrentLinkedQueue<>();
+
+		private Binding(final JAXBContext context, final Schema schema) {
+			this.context = context;
+			this.schema = schema;
+		}
+
+		/**
+		 * @return an unmarshaller validating against the schema, to be returned by {@link #release(Unmarshaller)}.
+		 * @throws JAXBException if a new unmarshaller cannot be created
+		 */
+		Unmarshaller acquireUnmarshaller() throws JAXBException {
+			var unmarshaller = unmarshallers.poll();
+			if (unmarshaller == null) {
+				unmarshaller = context.createUnmarshaller();
+				unmarshaller.setSchema(schema);
+			}
+			return unmarshaller;
+		}
+
+		/**
+		 * @param unmarshaller the unmarshaller no longer used
+		 */
+		void release(final Unmarshaller unmarshaller) {
+			unmarshallers.offer(unmarshaller);
+		}
+
+		/**
+		 * @return a marshaller validating against the schema and printing formatted output, to be returned by
+		 * {@link #release(Marshaller)}.
+		 * @throws JAXBException if a new marshaller cannot be created
+		 */
+		Marshaller acquireMarshaller() throws JAXBException {
+			var marshaller = marshallers.poll();
+			if (marshaller == null) {
+				marshaller = context.createMarshaller();
+				marshaller.setSchema(schema);
+				marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+			}
+			return marshaller;
+		}
+
+		/**
+		 * @param marshaller the marshaller no longer used
+		 */
+		void release(final Marshaller marshaller) {
+			marshallers.offer(marshaller);
+		}
+
+		/**
+		 * @return a marshaller printing document fragments without validation, as the schema only declares the root
+		 * elements, to be returned by {@link #releaseFragmentMarshaller(Marshaller)}.
+		 * @throws JAXBException if a new marshaller cannot be created
+		 */
+		Marshaller acquireFragmentMarshaller() throws JAXBException {
+			var marshaller = fragmentMarshallers.poll();
+			if (marshaller == null) {
+				marshaller = context.createMarshaller();
+				marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+			}
+			return marshaller;
+		}
+
+		/**
+		 * @param marshaller the fragment marshaller no longer used
+		 */
+		void releaseFragmentMarshaller(final Marshaller marshaller) {
+			fragmentMarshallers.offer(marshaller);
+		}
+
+		/**
+		 * @return the compiled schema, e.g. for validating a document written without JAXB.
+		 */
+		Schema getSchema() {
+			return schema;
+		}
+	}
+}
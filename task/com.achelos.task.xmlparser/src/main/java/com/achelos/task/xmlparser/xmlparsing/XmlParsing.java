@@ -1,14 +1,8 @@
 package com.achelos.task.xmlparser.xmlparsing;
 
 import java.io.File;
-import java.io.InputStream;
 
-import javax.xml.XMLConstants;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 
 import org.xml.sax.SAXException;
 
@@ -22,7 +16,6 @@ import generated.jaxb.configuration.TestProfiles;
 import generated.jaxb.configuration.TlsConfigurationData;
 import generated.jaxb.input.ICS;
 import generated.jaxb.testrunplan.TestRunPlan;
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
 
@@ -120,28 +113,22 @@ public class XmlParsing {
 	}
 
 	private static <T> T unmarshallObject(final File xmlFile, final String pathToSchema, final Class<T> type) {
-		return unmarshallObject(xmlFile, Constants.getResourceAsStream(pathToSchema), type);
-	}
-
-	private static <T> T unmarshallObject(final File xmlFile, final InputStream schemaStream, final Class<T> type) {
 		var logger = LoggingConnector.getInstance();
 		try {
-			// Create Unmarshaller from Class type *.class.
-			JAXBContext jc = JAXBContext.newInstance(type);
-			Unmarshaller unmarshaller = jc.createUnmarshaller();
-
-			// Set Schema
-			SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-			Schema schema = sf.newSchema(new StreamSource(schemaStream));
-			unmarshaller.setSchema(schema);
-
-			// Create xmlStreamReader from StreamSource (important for keeping location of
-			// file correct)
-			var xmlStreamReader = XMLInputFactory.newInstance().createXMLStreamReader(new StreamSource(xmlFile));
-
-			// Parse the input into JAXB Classes and return TLS specification
-			var spec = unmarshaller.unmarshal(xmlStreamReader, type);
-			return spec.getValue();
+			// Shared context and compiled schema, pooled Unmarshaller.
+			var binding = JaxbRegistry.getBinding(type, pathToSchema);
+			Unmarshaller unmarshaller = binding.acquireUnmarshaller();
+			try {
+				// Create xmlStreamReader from StreamSource (important for keeping location of
+				// file correct)
+				var xmlStreamReader = JaxbRegistry.createXmlStreamReader(xmlFile);
+
+				// Parse the input into JAXB Classes and return TLS specification
+				var spec = unmarshaller.unmarshal(xmlStreamReader, type);
+				return spec.getValue();
+			} finally {
+				binding.release(unmarshaller);
+			}
 		} catch (JAXBException e) {
 			logger.error("An error occurred while unmarshalling the XML object: " + xmlFile.getAbsolutePath(), e);
 			return null;
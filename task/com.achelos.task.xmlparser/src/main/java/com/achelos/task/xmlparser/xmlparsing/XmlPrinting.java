@@ -1,18 +1,15 @@
 package com.achelos.task.xmlparser.xmlparsing;
 
 import java.io.File;
-import java.io.InputStream;
+import java.io.IOException;
 
-import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
 
 import org.xml.sax.SAXException;
 
 import generated.jaxb.testrunplan.TestRunPlan;
 import generated.jaxb.xmlreport.TaSKReport;
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 
@@ -21,6 +18,9 @@ import jakarta.xml.bind.Marshaller;
  */
 public class XmlPrinting {
 
+	private static final String REPORT_CONTEXT_PATH
+			= "generated.jaxb.xmlreport:generated.jaxb.input:generated.jaxb.testrunplan";
+
 	/**
 	 * Hidden Constructor.
 	 */
@@ -30,17 +30,7 @@ public class XmlPrinting {
 
 	public static void printXmlReport(final TaSKReport taskReport, final File fileToWrite)
 			throws JAXBException, SAXException {
-		var schemaStream = Constants.getResourceAsStream(Constants.RESOURCE_TASK_REPORT_XSD);
-
-		JAXBContext jc = JAXBContext
-				.newInstance("generated.jaxb.xmlreport:generated.jaxb.input:generated.jaxb.testrunplan");
-		var marshaller = jc.createMarshaller();
-
-		// Set Schema
-		SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-		Schema schema = sf.newSchema(new StreamSource(schemaStream));
-		marshaller.setSchema(schema);
-		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+		var binding = JaxbRegistry.getBinding(REPORT_CONTEXT_PATH, Constants.RESOURCE_TASK_REPORT_XSD);
 
 		// fileToWrite
 		// Try to make parents
@@ -51,30 +41,51 @@ public class XmlPrinting {
 			}
 		}
 
-		marshaller.marshal(taskReport, fileToWrite);
+		marshall(binding, taskReport, fileToWrite);
 	}
 
-	public static void printTestRunPlanXml(final TestRunPlan testRunPlan, final File fileToWrite)
+	/**
+	 * Print an element of the XML report, e.g. an input parameter, into a report written by a stream writer.
+	 *
+	 * @param element the element to print
+	 * @param writer the writer of the report
+	 * @throws JAXBException if the element cannot be printed
+	 * @throws SAXException if the schema of the report cannot be compiled
+	 */
+	public static void printXmlReportFragment(final Object element, final XMLStreamWriter writer)
 			throws JAXBException, SAXException {
-		marshallObject(testRunPlan, Constants.RESOURCE_TEST_RUN_PLAN_XSD, fileToWrite);
+		var binding = JaxbRegistry.getBinding(REPORT_CONTEXT_PATH, Constants.RESOURCE_TASK_REPORT_XSD);
+		Marshaller marshaller = binding.acquireFragmentMarshaller();
+		try {
+			marshaller.marshal(element, writer);
+		} finally {
+			binding.releaseFragmentMarshaller(marshaller);
+		}
 	}
 
-	private static <T> void marshallObject(final T object, final String pathToSchema, final File fileToWrite)
-			throws JAXBException, SAXException {
-		marshallObject(object, Constants.getResourceAsStream(pathToSchema), fileToWrite);
+	/**
+	 * Validate an XML report, which has been written by a stream writer, against the schema of the report. The report
+	 * is read as a stream, so that it is not kept in memory.
+	 *
+	 * @param xmlReportFile the XML report to validate
+	 * @throws JAXBException if the context of the report cannot be created
+	 * @throws SAXException if the report does not match the schema, or the schema cannot be compiled
+	 * @throws IOException if the report cannot be read
+	 */
+	public static void validateXmlReport(final File xmlReportFile) throws JAXBException, SAXException, IOException {
+		var binding = JaxbRegistry.getBinding(REPORT_CONTEXT_PATH, Constants.RESOURCE_TASK_REPORT_XSD);
+		binding.getSchema().newValidator().validate(new StreamSource(xmlReportFile));
 	}
 
-	private static <T> void marshallObject(final T object, final InputStream schemaStream, final File fileToWrite)
+	public static void printTestRunPlanXml(final TestRunPlan testRunPlan, final File fileToWrite)
 			throws JAXBException, SAXException {
-		// Create Marshaller from Class type *.class.
-		JAXBContext jc = JAXBContext.newInstance(object.getClass());
-		var marshaller = jc.createMarshaller();
+		marshallObject(testRunPlan, Constants.RESOURCE_TEST_RUN_PLAN_XSD, fileToWrite);
+	}
 
-		// Set Schema
-		SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-		Schema schema = sf.newSchema(new StreamSource(schemaStream));
-		marshaller.setSchema(schema);
-		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+	private static <T> void marshallObject(final T object, final String pathToSchema, final File fileToWrite)
+			throws JAXBException, SAXException {
+		// Shared context and compiled schema for class type *.class.
+		var binding = JaxbRegistry.getBinding(object.getClass(), pathToSchema);
 
 		// fileToWrite
 		// Try to make parents
@@ -85,6 +96,16 @@ public class XmlPrinting {
 			}
 		}
 
-		marshaller.marshal(object, fileToWrite);
+		marshall(binding, object, fileToWrite);
+	}
+
+	private static void marshall(final JaxbRegistry.Binding binding, final Object object, final File fileToWrite)
+			throws JAXBException {
+		Marshaller marshaller = binding.acquireMarshaller();
+		try {
+			marshaller.marshal(object, fileToWrite);
+		} finally {
+			binding.release(marshaller);
+		}
 	}
 }